@@ -0,0 +1,165 @@
+/*
+ * #%L
+ * Simmetrics Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.benchmarks;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Random;
+
+/**
+ * Realistic corpora of strings for benchmarks. Strings are generated from a
+ * fixed seed so every run and every fork compares the same inputs.
+ */
+public enum Corpus {
+
+	/**
+	 * Person names such as "Sam J Chapman".
+	 */
+	NAMES {
+		@Override
+		String record(Random random) {
+			return pick(random, FIRST_NAMES) + " "
+					+ (random.nextBoolean() ? pick(random, INITIALS) + " " : "")
+					+ pick(random, LAST_NAMES);
+		}
+	},
+
+	/**
+	 * Postal addresses such as "221B Baker Street, London NW1 6XE".
+	 */
+	ADDRESSES {
+		@Override
+		String record(Random random) {
+			return (1 + random.nextInt(400))
+					+ (random.nextInt(5) == 0 ? pick(random, INITIALS) : "")
+					+ " " + pick(random, STREETS) + " "
+					+ pick(random, STREET_TYPES) + ", "
+					+ pick(random, CITIES) + " " + postcode(random);
+		}
+	},
+
+	/**
+	 * Product titles such as
+	 * "Acme Stainless Steel Kettle 1.7L Black (2-Pack)".
+	 */
+	PRODUCT_TITLES {
+		@Override
+		String record(Random random) {
+			return pick(random, BRANDS) + " " + pick(random, ADJECTIVES) + " "
+					+ pick(random, PRODUCTS) + " " + (1 + random.nextInt(99))
+					+ pick(random, UNITS) + " " + pick(random, COLORS)
+					+ (random.nextInt(3) == 0 ? " (" + (2 + random.nextInt(5))
+							+ "-Pack)" : "");
+		}
+	};
+
+	private static final long SEED = 0x5EED;
+
+	private static final String[] FIRST_NAMES = { "Sam", "Samuel", "John",
+			"Mary", "Ana", "Jose", "Fatima", "Mohammed", "Wei", "Yuki",
+			"Olga", "Pieter", "Siobhan", "Ngozi", "Lars", "Francois", "Zoe",
+			"Raj", "Chloe", "Dmitri" };
+
+	private static final String[] INITIALS = { "A", "B", "C", "D", "E", "F",
+			"G", "H", "J", "K", "L", "M", "N", "P", "R", "S", "T", "W" };
+
+	private static final String[] LAST_NAMES = { "Chapman", "Smith",
+			"Johnson", "Garcia", "Muller", "Nguyen", "Kowalski", "O'Brien",
+			"van der Berg", "Okafor", "Tanaka", "Ivanov", "Rossi", "Dubois",
+			"Hernandez", "Larsen", "Patel", "Kim", "Silva", "MacDonald" };
+
+	private static final String[] STREETS = { "Baker", "High", "Church",
+			"Station", "Mill", "Victoria", "Queen", "Park", "Oak", "Elm",
+			"Main", "Maple", "Cedar", "Lake", "Hill", "Washington", "King",
+			"Kings", "Bridge", "Green" };
+
+	private static final String[] STREET_TYPES = { "Street", "St", "Road",
+			"Rd", "Avenue", "Ave", "Lane", "Ln", "Boulevard", "Blvd", "Way",
+			"Close", "Drive", "Dr" };
+
+	private static final String[] CITIES = { "London", "Manchester",
+			"Amsterdam", "Rotterdam", "New York", "Springfield", "Portland",
+			"Dublin", "Edinburgh", "Toronto", "Sydney", "Auckland",
+			"Cape Town", "Austin", "Chicago" };
+
+	private static final String[] BRANDS = { "Acme", "Globex", "Initech",
+			"Umbrella", "Stark", "Wayne", "Hooli", "Vandelay", "Soylent",
+			"Tyrell" };
+
+	private static final String[] ADJECTIVES = { "Stainless Steel",
+			"Wireless", "Portable", "Ergonomic", "Heavy Duty", "Organic",
+			"Non-Stick", "Rechargeable", "Waterproof", "Compact", "Premium",
+			"Adjustable" };
+
+	private static final String[] PRODUCTS = { "Kettle", "Headphones",
+			"Blender", "Office Chair", "Frying Pan", "LED Desk Lamp",
+			"Power Bank", "Backpack", "Coffee Grinder", "Yoga Mat",
+			"Water Bottle", "Bluetooth Speaker" };
+
+	private static final String[] UNITS = { "L", "ml", "W", "mAh", "cm",
+			"in", "oz", "kg" };
+
+	private static final String[] COLORS = { "Black", "White", "Silver",
+			"Red", "Navy Blue", "Matte Grey", "Rose Gold", "Forest Green" };
+
+	/**
+	 * Generates strings of exactly {@code length} characters. Records are
+	 * joined with a space until the length is reached.
+	 * 
+	 * @param length
+	 *            the length of each string
+	 * @param count
+	 *            the number of strings to generate
+	 * @return an array of generated strings
+	 */
+	public String[] generate(int length, int count) {
+		checkArgument(length >= 0);
+		checkArgument(count >= 0);
+
+		final Random random = new Random(SEED + ordinal());
+		final String[] strings = new String[count];
+		for (int i = 0; i < count; i++) {
+			final StringBuilder builder = new StringBuilder(length + 64);
+			while (builder.length() < length) {
+				if (builder.length() > 0) {
+					builder.append(' ');
+				}
+				builder.append(record(random));
+			}
+			builder.setLength(length);
+			strings[i] = builder.toString();
+		}
+		return strings;
+	}
+
+	abstract String record(Random random);
+
+	static String pick(Random random, String[] values) {
+		return values[random.nextInt(values.length)];
+	}
+
+	static String postcode(Random random) {
+		return "" + (char) ('A' + random.nextInt(26))
+				+ (char) ('A' + random.nextInt(26)) + (1 + random.nextInt(20))
+				+ " " + random.nextInt(10) + (char) ('A' + random.nextInt(26))
+				+ (char) ('A' + random.nextInt(26));
+	}
+}
@@ -0,0 +1,150 @@
+/*
+ * #%L
+ * Simmetrics Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.simmetrics.StringMetric;
+import org.simmetrics.metrics.DamerauLevenshtein;
+import org.simmetrics.metrics.Jaro;
+import org.simmetrics.metrics.Levenshtein;
+import org.simmetrics.metrics.NeedlemanWunch;
+import org.simmetrics.metrics.SmithWaterman;
+import org.simmetrics.metrics.SmithWatermanGotoh;
+
+/**
+ * Benchmarks the metrics that fill dynamic programming rows. Run with the GC
+ * profiler, e.g. through {@link Benchmarks}, to check that steady state
+ * comparisons report a {@code gc.alloc.rate.norm} of zero bytes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DynamicProgrammingBenchmark {
+
+	static final int INPUTS = 64;
+
+	/**
+	 * Metrics backed by dynamic programming.
+	 */
+	public enum Metric {
+		levenshtein {
+			@Override
+			StringMetric create() {
+				return new Levenshtein();
+			}
+		},
+		weightedLevenshtein {
+			@Override
+			StringMetric create() {
+				return new Levenshtein(1.0f, 2.0f);
+			}
+		},
+		damerauLevenshtein {
+			@Override
+			StringMetric create() {
+				return new DamerauLevenshtein();
+			}
+		},
+		needlemanWunch {
+			@Override
+			StringMetric create() {
+				return new NeedlemanWunch();
+			}
+		},
+		smithWaterman {
+			@Override
+			StringMetric create() {
+				return new SmithWaterman();
+			}
+		},
+		smithWatermanGotoh {
+			@Override
+			StringMetric create() {
+				return new SmithWatermanGotoh();
+			}
+		},
+		jaro {
+			@Override
+			StringMetric create() {
+				return new Jaro();
+			}
+		};
+
+		abstract StringMetric create();
+	}
+
+	@Param
+	Metric metric;
+
+	@Param({ "NAMES", "PRODUCT_TITLES" })
+	Corpus corpus;
+
+	@Param({ "8", "32", "128", "1024" })
+	int length;
+
+	private StringMetric stringMetric;
+
+	private String[] inputs;
+
+	private int index;
+
+	@Setup
+	public void setup() {
+		stringMetric = metric.create();
+		inputs = corpus.generate(length, INPUTS);
+		index = 0;
+	}
+
+	@Benchmark
+	public float compare() {
+		final int i = index;
+		index = (i + 1) % INPUTS;
+		return stringMetric.compare(inputs[i], inputs[(i + 1) % INPUTS]);
+	}
+
+	/**
+	 * Compares from several threads at once, all taking their rows from the
+	 * same pool of workspaces.
+	 * 
+	 * @return the similarity of two inputs
+	 */
+	@Benchmark
+	@Threads(4)
+	public float compareConcurrently() {
+		return compare();
+	}
+}
@@ -0,0 +1,144 @@
+/*
+ * #%L
+ * Simmetrics Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.simmetrics.benchmarks;
+
+import static org.simmetrics.StringMetricBuilder.with;
+import static org.simmetrics.tokenizers.Tokenizers.qGram;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.simmetrics.StringMetric;
+import org.simmetrics.StringMetricBuilder.BuildStep;
+import org.simmetrics.StringMetricBuilder.CollectionMetricTokenizerStep;
+import org.simmetrics.metrics.BlockDistance;
+import org.simmetrics.metrics.CosineSimilarity;
+import org.simmetrics.metrics.DiceSimilarity;
+import org.simmetrics.metrics.JaccardSimilarity;
+import org.simmetrics.metrics.SimonWhite;
+
+/**
+ * Benchmarks q-gram metrics that compare collections of q-grams against the
+ * same metrics comparing q-grams packed into longs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QGramMetricsBenchmark {
+
+	static final int INPUTS = 64;
+
+	/**
+	 * The q-gram metrics.
+	 */
+	public enum Metric {
+		blockDistance {
+			@Override
+			BuildStep create(int q, boolean packed) {
+				return build(with(new BlockDistance<String>()).tokenize(
+						qGram(q)), packed);
+			}
+		},
+		cosineSimilarity {
+			@Override
+			BuildStep create(int q, boolean packed) {
+				return build(with(new CosineSimilarity<String>()).tokenize(
+						qGram(q)), packed);
+			}
+		},
+		diceSimilarity {
+			@Override
+			BuildStep create(int q, boolean packed) {
+				return build(with(new DiceSimilarity<String>()).tokenize(
+						qGram(q)), packed);
+			}
+		},
+		jaccardSimilarity {
+			@Override
+			BuildStep create(int q, boolean packed) {
+				return build(with(new JaccardSimilarity<String>()).tokenize(
+						qGram(q)), packed);
+			}
+		},
+		simonWhite {
+			@Override
+			BuildStep create(int q, boolean packed) {
+				return build(with(new SimonWhite<String>()).tokenize(
+						qGram(q)), packed);
+			}
+		};
+
+		abstract BuildStep create(int q, boolean packed);
+
+		static BuildStep build(CollectionMetricTokenizerStep<?> step,
+				boolean packed) {
+			return packed ? step.packTokens() : step;
+		}
+	}
+
+	@Param
+	Metric metric;
+
+	@Param
+	Corpus corpus;
+
+	@Param({ "2", "3" })
+	int q;
+
+	@Param({ "false", "true" })
+	boolean packed;
+
+	@Param({ "32", "1024" })
+	int length;
+
+	private StringMetric stringMetric;
+
+	private String[] inputs;
+
+	private int index;
+
+	@Setup
+	public void setup() {
+		stringMetric = metric.create(q, packed).build();
+		inputs = corpus.generate(length, INPUTS);
+		index = 0;
+	}
+
+	@Benchmark
+	public float compare() {
+		final int i = index;
+		index = (i + 1) % INPUTS;
+		return stringMetric.compare(inputs[i], inputs[(i + 1) % INPUTS]);
+	}
+
+}
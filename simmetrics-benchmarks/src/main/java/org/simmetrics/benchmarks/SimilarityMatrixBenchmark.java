@@ -0,0 +1,92 @@
+/*
+ * #%L
+ * Simmetrics Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.benchmarks;
+
+import static java.util.Arrays.asList;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.simmetrics.SimilarityMatrix;
+import org.simmetrics.StringMetric;
+import org.simmetrics.benchmarks.StringMetricsBenchmark.Metric;
+
+/**
+ * Benchmarks computing an all-pairs {@link SimilarityMatrix}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimilarityMatrixBenchmark {
+
+	@Param({ "levenshtein", "jaroWinkler", "cosineSimilarity",
+			"qGramsDistance" })
+	Metric metric;
+
+	@Param
+	Corpus corpus;
+
+	@Param({ "1000" })
+	int size;
+
+	@Param({ "0.8" })
+	float threshold;
+
+	private StringMetric stringMetric;
+
+	private List<String> inputs;
+
+	private ForkJoinPool pool;
+
+	@Setup
+	public void setup() {
+		stringMetric = metric.create();
+		inputs = asList(corpus.generate(32, size));
+		pool = new ForkJoinPool();
+	}
+
+	@TearDown
+	public void tearDown() {
+		pool.shutdown();
+	}
+
+	@Benchmark
+	public SimilarityMatrix compute() {
+		return SimilarityMatrix.compute(stringMetric, inputs, threshold, pool);
+	}
+
+}
@@ -0,0 +1,184 @@
+/*
+ * #%L
+ * Simmetrics Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.simmetrics.simplifiers.Simplifiers;
+
+/**
+ * Benchmarks every simplifier in {@link Simplifiers}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimplifiersBenchmark {
+
+	static final int INPUTS = 64;
+
+	/**
+	 * The simplifiers created by {@link Simplifiers}.
+	 */
+	public enum Simplifier {
+		chain {
+			@Override
+			org.simmetrics.simplifiers.Simplifier create() {
+				return Simplifiers.chain(Simplifiers.removeDiacritics(),
+						Simplifiers.toLowerCase(),
+						Simplifiers.replaceNonWord());
+			}
+		},
+		removeAll {
+			@Override
+			org.simmetrics.simplifiers.Simplifier create() {
+				return Simplifiers.removeAll("[aeiou]");
+			}
+		},
+		removeDiacritics {
+			@Override
+			org.simmetrics.simplifiers.Simplifier create() {
+				return Simplifiers.removeDiacritics();
+			}
+		},
+		removeNonWord {
+			@Override
+			org.simmetrics.simplifiers.Simplifier create() {
+				return Simplifiers.removeNonWord();
+			}
+		},
+		replaceAll {
+			@Override
+			org.simmetrics.simplifiers.Simplifier create() {
+				return Simplifiers.replaceAll("\\s+", " ");
+			}
+		},
+		replaceNonWord {
+			@Override
+			org.simmetrics.simplifiers.Simplifier create() {
+				return Simplifiers.replaceNonWord();
+			}
+		},
+		toLowerCase {
+			@Override
+			org.simmetrics.simplifiers.Simplifier create() {
+				return Simplifiers.toLowerCase();
+			}
+		},
+		toUpperCase {
+			@Override
+			org.simmetrics.simplifiers.Simplifier create() {
+				return Simplifiers.toUpperCase();
+			}
+		};
+
+		abstract org.simmetrics.simplifiers.Simplifier create();
+	}
+
+	/**
+	 * The script of the input. Latin and CJK inputs are created by replacing
+	 * characters of the corpus.
+	 */
+	public enum Script {
+		ascii {
+			@Override
+			char replace(char c) {
+				return c;
+			}
+		},
+		latin {
+			@Override
+			char replace(char c) {
+				final int i = LATIN_ASCII.indexOf(c);
+				return i < 0 ? c : LATIN.charAt(i);
+			}
+		},
+		cjk {
+			@Override
+			char replace(char c) {
+				return 'a' <= c && c <= 'z' ? (char) ('\u4E00' + c) : c;
+			}
+		};
+
+		private static final String LATIN_ASCII = "aeiouncsLAEOZ";
+		private static final String LATIN = "\u00E1\u00E9\u00EE\u00F6\u016F\u00F1\u00E7\u0161\u0141\u00C5\u00C9\u00D8\u017D";
+
+		abstract char replace(char c);
+
+		String[] replace(String[] inputs) {
+			final String[] replaced = new String[inputs.length];
+			for (int i = 0; i < inputs.length; i++) {
+				final char[] chars = inputs[i].toCharArray();
+				for (int j = 0; j < chars.length; j++) {
+					chars[j] = replace(chars[j]);
+				}
+				replaced[i] = new String(chars);
+			}
+			return replaced;
+		}
+	}
+
+	@Param
+	Simplifier simplifier;
+
+	@Param
+	Corpus corpus;
+
+	@Param
+	Script script;
+
+	@Param({ "8", "32", "128", "1024" })
+	int length;
+
+	private org.simmetrics.simplifiers.Simplifier stringSimplifier;
+
+	private String[] inputs;
+
+	private int index;
+
+	@Setup
+	public void setup() {
+		stringSimplifier = simplifier.create();
+		inputs = script.replace(corpus.generate(length, INPUTS));
+		index = 0;
+	}
+
+	@Benchmark
+	public String simplify() {
+		final int i = index;
+		index = (i + 1) % INPUTS;
+		return stringSimplifier.simplify(inputs[i]);
+	}
+
+}
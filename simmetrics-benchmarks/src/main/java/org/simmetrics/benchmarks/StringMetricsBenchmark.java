@@ -0,0 +1,203 @@
+/*
+ * #%L
+ * Simmetrics Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.simmetrics.StringMetric;
+import org.simmetrics.StringMetrics;
+
+/**
+ * Benchmarks every string metric in {@link StringMetrics}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringMetricsBenchmark {
+
+	static final int INPUTS = 64;
+
+	/**
+	 * The string metrics created by {@link StringMetrics}.
+	 */
+	public enum Metric {
+		blockDistance {
+			@Override
+			StringMetric create() {
+				return StringMetrics.blockDistance();
+			}
+		},
+		cosineSimilarity {
+			@Override
+			StringMetric create() {
+				return StringMetrics.cosineSimilarity();
+			}
+		},
+		damerauLevenshtein {
+			@Override
+			StringMetric create() {
+				return StringMetrics.damerauLevenshtein();
+			}
+		},
+		diceSimilarity {
+			@Override
+			StringMetric create() {
+				return StringMetrics.diceSimilarity();
+			}
+		},
+		euclideanDistance {
+			@Override
+			StringMetric create() {
+				return StringMetrics.euclideanDistance();
+			}
+		},
+		identity {
+			@Override
+			StringMetric create() {
+				return StringMetrics.identity();
+			}
+		},
+		jaccardSimilarity {
+			@Override
+			StringMetric create() {
+				return StringMetrics.jaccardSimilarity();
+			}
+		},
+		jaro {
+			@Override
+			StringMetric create() {
+				return StringMetrics.jaro();
+			}
+		},
+		jaroWinkler {
+			@Override
+			StringMetric create() {
+				return StringMetrics.jaroWinkler();
+			}
+		},
+		levenshtein {
+			@Override
+			StringMetric create() {
+				return StringMetrics.levenshtein();
+			}
+		},
+		matchingCoefficient {
+			@Override
+			StringMetric create() {
+				return StringMetrics.matchingCoefficient();
+			}
+		},
+		mongeElkan {
+			@Override
+			StringMetric create() {
+				return StringMetrics.mongeElkan();
+			}
+		},
+		needlemanWunch {
+			@Override
+			StringMetric create() {
+				return StringMetrics.needlemanWunch();
+			}
+		},
+		overlapCoefficient {
+			@Override
+			StringMetric create() {
+				return StringMetrics.overlapCoefficient();
+			}
+		},
+		qGramsDistance {
+			@Override
+			StringMetric create() {
+				return StringMetrics.qGramsDistance();
+			}
+		},
+		simonWhite {
+			@Override
+			StringMetric create() {
+				return StringMetrics.simonWhite();
+			}
+		},
+		smithWaterman {
+			@Override
+			StringMetric create() {
+				return StringMetrics.smithWaterman();
+			}
+		},
+		smithWatermanGotoh {
+			@Override
+			StringMetric create() {
+				return StringMetrics.smithWatermanGotoh();
+			}
+		},
+		soundex {
+			@Override
+			StringMetric create() {
+				return StringMetrics.soundex();
+			}
+		};
+
+		abstract StringMetric create();
+	}
+
+	@Param
+	Metric metric;
+
+	@Param
+	Corpus corpus;
+
+	@Param({ "8", "32", "128", "1024" })
+	int length;
+
+	private StringMetric stringMetric;
+
+	private String[] inputs;
+
+	private int index;
+
+	@Setup
+	public void setup() {
+		stringMetric = metric.create();
+		inputs = corpus.generate(length, INPUTS);
+		index = 0;
+	}
+
+	@Benchmark
+	public float compare() {
+		final int i = index;
+		index = (i + 1) % INPUTS;
+		return stringMetric.compare(inputs[i], inputs[(i + 1) % INPUTS]);
+	}
+
+}
@@ -0,0 +1,163 @@
+/*
+ * #%L
+ * Simmetrics Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.benchmarks;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.simmetrics.tokenizers.Tokenizers;
+
+import com.google.common.base.Function;
+import com.google.common.base.Predicate;
+
+/**
+ * Benchmarks every tokenizer in {@link Tokenizers}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenizersBenchmark {
+
+	static final int INPUTS = 64;
+
+	/**
+	 * The tokenizers created by {@link Tokenizers}.
+	 */
+	public enum Tokenizer {
+		chain {
+			@Override
+			org.simmetrics.tokenizers.Tokenizer create() {
+				return Tokenizers.chain(Tokenizers.whitespace(),
+						Tokenizers.qGram(2));
+			}
+		},
+		filter {
+			@Override
+			org.simmetrics.tokenizers.Tokenizer create() {
+				return Tokenizers.filter(Tokenizers.whitespace(),
+						new Predicate<String>() {
+							@Override
+							public boolean apply(String input) {
+								return input.length() > 2;
+							}
+						});
+			}
+		},
+		pattern {
+			@Override
+			org.simmetrics.tokenizers.Tokenizer create() {
+				return Tokenizers.pattern("\\W+");
+			}
+		},
+		qGram {
+			@Override
+			org.simmetrics.tokenizers.Tokenizer create() {
+				return Tokenizers.qGram(2);
+			}
+		},
+		qGramWithFilter {
+			@Override
+			org.simmetrics.tokenizers.Tokenizer create() {
+				return Tokenizers.qGramWithFilter(2);
+			}
+		},
+		qGramWithPadding {
+			@Override
+			org.simmetrics.tokenizers.Tokenizer create() {
+				return Tokenizers.qGramWithPadding(3);
+			}
+		},
+		transform {
+			@Override
+			org.simmetrics.tokenizers.Tokenizer create() {
+				return Tokenizers.transform(Tokenizers.whitespace(),
+						new Function<String, String>() {
+							@Override
+							public String apply(String input) {
+								return input.toLowerCase();
+							}
+						});
+			}
+		},
+		whitespace {
+			@Override
+			org.simmetrics.tokenizers.Tokenizer create() {
+				return Tokenizers.whitespace();
+			}
+		};
+
+		abstract org.simmetrics.tokenizers.Tokenizer create();
+	}
+
+	@Param
+	Tokenizer tokenizer;
+
+	@Param
+	Corpus corpus;
+
+	@Param({ "8", "32", "128", "1024" })
+	int length;
+
+	private org.simmetrics.tokenizers.Tokenizer stringTokenizer;
+
+	private String[] inputs;
+
+	private int index;
+
+	@Setup
+	public void setup() {
+		stringTokenizer = tokenizer.create();
+		inputs = corpus.generate(length, INPUTS);
+		index = 0;
+	}
+
+	@Benchmark
+	public List<String> tokenizeToList() {
+		return stringTokenizer.tokenizeToList(next());
+	}
+
+	@Benchmark
+	public Set<String> tokenizeToSet() {
+		return stringTokenizer.tokenizeToSet(next());
+	}
+
+	private String next() {
+		final int i = index;
+		index = (i + 1) % INPUTS;
+		return inputs[i];
+	}
+
+}
@@ -0,0 +1,53 @@
+/*
+ * #%L
+ * Simmetrics Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.benchmarks;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+@SuppressWarnings("javadoc")
+public class CorpusTest {
+
+	@Test
+	public void shouldGenerateStringsOfLength() {
+		for (Corpus corpus : Corpus.values()) {
+			for (int length : new int[] { 0, 8, 32, 128, 1024 }) {
+				for (String s : corpus.generate(length, 10)) {
+					assertEquals(length, s.length());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void shouldBeRepeatable() {
+		for (Corpus corpus : Corpus.values()) {
+			assertArrayEquals(corpus.generate(32, 10), corpus.generate(32, 10));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldThrowForNegativeLength() {
+		Corpus.NAMES.generate(-1, 10);
+	}
+}
@@ -0,0 +1,47 @@
+/*
+ * #%L
+ * Simmetrics Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.simmetrics.benchmarks;
+
+import org.junit.Test;
+import org.simmetrics.benchmarks.QGramMetricsBenchmark.Metric;
+
+@SuppressWarnings("javadoc")
+public class QGramMetricsBenchmarkTest {
+
+	@Test
+	public void smokeTest() {
+		for (Metric metric : Metric.values()) {
+			for (Corpus corpus : Corpus.values()) {
+				for (boolean packed : new boolean[] { false, true }) {
+					for (int length : new int[] { 0, 1, 8, 128 }) {
+						QGramMetricsBenchmark test = new QGramMetricsBenchmark();
+						test.metric = metric;
+						test.corpus = corpus;
+						test.q = 3;
+						test.packed = packed;
+						test.length = length;
+						test.setup();
+						test.compare();
+					}
+				}
+			}
+		}
+	}
+}
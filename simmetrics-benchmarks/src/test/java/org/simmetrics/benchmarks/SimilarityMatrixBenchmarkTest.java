@@ -1,6 +1,6 @@
 /*
  * #%L
- * Simmetrics Core
+ * Simmetrics Benchmarks
  * %%
  * Copyright (C) 2014 - 2015 Simmetrics Authors
  * %%
@@ -17,27 +17,26 @@
  * limitations under the License.
  * #L%
  */
-package org.simmetrics.performance;
+
+package org.simmetrics.benchmarks;
 
 import org.junit.Test;
-import org.simmetrics.performance.JaroCaliper.Method;
-import org.simmetrics.performance.JaroCaliper.Value;
+import org.simmetrics.benchmarks.StringMetricsBenchmark.Metric;
 
 @SuppressWarnings("javadoc")
-public class JaroCaliperTest {
+public class SimilarityMatrixBenchmarkTest {
 
 	@Test
 	public void smokeTest() {
-		for (Value a : Value.values()) {
-			for (Value b : Value.values()) {
-				for (Method m : Method.values()) {
-					JaroCaliper test = new JaroCaliper();
-					test.a = a;
-					test.b = b;
-					test.method = m;
-					test.compare(1);
-				}
-			}
+		for (Corpus corpus : Corpus.values()) {
+			SimilarityMatrixBenchmark test = new SimilarityMatrixBenchmark();
+			test.metric = Metric.levenshtein;
+			test.corpus = corpus;
+			test.size = 100;
+			test.threshold = 0.5f;
+			test.setup();
+			test.compute();
+			test.tearDown();
 		}
 	}
 }
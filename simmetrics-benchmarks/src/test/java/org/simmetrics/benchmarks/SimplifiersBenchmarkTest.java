@@ -0,0 +1,48 @@
+/*
+ * #%L
+ * Simmetrics Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.benchmarks;
+
+import org.junit.Test;
+import org.simmetrics.benchmarks.SimplifiersBenchmark.Script;
+import org.simmetrics.benchmarks.SimplifiersBenchmark.Simplifier;
+
+@SuppressWarnings("javadoc")
+public class SimplifiersBenchmarkTest {
+
+	@Test
+	public void smokeTest() {
+		for (Simplifier simplifier : Simplifier.values()) {
+			for (Corpus corpus : Corpus.values()) {
+				for (Script script : Script.values()) {
+					for (int length : new int[] { 0, 8, 128 }) {
+						SimplifiersBenchmark test = new SimplifiersBenchmark();
+						test.simplifier = simplifier;
+						test.corpus = corpus;
+						test.script = script;
+						test.length = length;
+						test.setup();
+						test.simplify();
+					}
+				}
+			}
+		}
+	}
+}
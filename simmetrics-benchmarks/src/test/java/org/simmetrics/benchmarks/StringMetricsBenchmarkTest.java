@@ -1,6 +1,6 @@
 /*
  * #%L
- * Simmetrics Core
+ * Simmetrics Benchmarks
  * %%
  * Copyright (C) 2014 - 2015 Simmetrics Authors
  * %%
@@ -17,25 +17,26 @@
  * limitations under the License.
  * #L%
  */
-package org.simmetrics.performance;
+
+package org.simmetrics.benchmarks;
 
 import org.junit.Test;
-import org.simmetrics.performance.SimonWhiteCaliper.Method;
-import org.simmetrics.performance.SimonWhiteCaliper.Value;
+import org.simmetrics.benchmarks.StringMetricsBenchmark.Metric;
 
 @SuppressWarnings("javadoc")
-public class SimonWhiteCaliperTest {
+public class StringMetricsBenchmarkTest {
 
 	@Test
 	public void smokeTest() {
-		for (Value a : Value.values()) {
-			for (Value b : Value.values()) {
-				for (Method m : Method.values()) {
-					SimonWhiteCaliper test = new SimonWhiteCaliper();
-					test.a = a;
-					test.b = b;
-					test.method = m;
-					test.compare(1);
+		for (Metric metric : Metric.values()) {
+			for (Corpus corpus : Corpus.values()) {
+				for (int length : new int[] { 0, 8, 128 }) {
+					StringMetricsBenchmark test = new StringMetricsBenchmark();
+					test.metric = metric;
+					test.corpus = corpus;
+					test.length = length;
+					test.setup();
+					test.compare();
 				}
 			}
 		}
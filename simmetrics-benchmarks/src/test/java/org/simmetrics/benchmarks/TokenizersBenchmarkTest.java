@@ -0,0 +1,45 @@
+/*
+ * #%L
+ * Simmetrics Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.benchmarks;
+
+import org.junit.Test;
+import org.simmetrics.benchmarks.TokenizersBenchmark.Tokenizer;
+
+@SuppressWarnings("javadoc")
+public class TokenizersBenchmarkTest {
+
+	@Test
+	public void smokeTest() {
+		for (Tokenizer tokenizer : Tokenizer.values()) {
+			for (Corpus corpus : Corpus.values()) {
+				for (int length : new int[] { 0, 8, 128 }) {
+					TokenizersBenchmark test = new TokenizersBenchmark();
+					test.tokenizer = tokenizer;
+					test.corpus = corpus;
+					test.length = length;
+					test.setup();
+					test.tokenizeToList();
+					test.tokenizeToSet();
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,56 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics;
+
+/**
+ * A string distance that can stop measuring once the distance is known to
+ * exceed an upper bound. This allows indexes and filters to reject candidates
+ * without computing their exact distance.
+ * <p>
+ * For all strings and bounds
+ * {@code distance(a, b) <= maxDistance => distance(a, b, maxDistance) == distance(a, b)}
+ * and
+ * {@code distance(a, b) > maxDistance => distance(a, b, maxDistance) == Float.POSITIVE_INFINITY}
+ * .
+ */
+public interface BoundedStringDistance extends StringDistance {
+
+	/**
+	 * Measures the distance between string a and b when it is at most
+	 * {@code maxDistance}. When the distance exceeds {@code maxDistance}
+	 * {@link Float#POSITIVE_INFINITY} is returned instead.
+	 * 
+	 * @param a
+	 *            string a to compare
+	 * @param b
+	 *            string b to compare
+	 * @param maxDistance
+	 *            a non-negative upper bound on the distance
+	 * @return the distance between a and b or {@link Float#POSITIVE_INFINITY}
+	 *         when it exceeds {@code maxDistance}
+	 * @throws NullPointerException
+	 *             when either a or b is null
+	 * @throws IllegalArgumentException
+	 *             when maxDistance is negative
+	 */
+	float distance(String a, String b, float maxDistance);
+
+}
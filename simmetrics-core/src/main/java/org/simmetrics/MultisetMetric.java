@@ -0,0 +1,67 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.simmetrics;
+
+import com.google.common.collect.Multiset;
+import com.google.common.collect.Multisets;
+
+/**
+ * Measures the similarity between two multisets containing elements of the
+ * same type. The measurement results in a value between 0 and 1 inclusive. A
+ * value of zero indicates that the multisets are dissimilar, a value of 1
+ * indicates they are similar.
+ * <p>
+ * A {@link ListMetric} that only depends on the number of occurrences of each
+ * element may implement this interface. For multisets created from two lists
+ * the result must be equal to the result of comparing the lists. Comparing
+ * multisets does not depend on the order of the elements, so tokenized strings
+ * can be counted once and compared many times.
+ * <p>
+ * The elements in the multisets have to implement {@link Object#hashCode()}
+ * and {@link Object#equals(Object)}.
+ * <p>
+ * Implementations may not modify the contents of the multisets. Multisets
+ * should be treated as if wrapped by
+ * {@link Multisets#unmodifiableMultiset(Multiset)}.
+ * 
+ * @param <T>
+ *            the type of elements contained in the multisets
+ * 
+ * @see StringMetricBuilder
+ */
+public interface MultisetMetric<T> {
+
+	/**
+	 * Measures the similarity between multisets a and b. The measurement
+	 * results in a value between 0 and 1 inclusive. A value of zero indicates
+	 * that the multisets are dissimilar, a value of 1 indicates they are
+	 * similar.
+	 * 
+	 * @param a
+	 *            multiset a to compare
+	 * @param b
+	 *            multiset b to compare
+	 * @return a value between 0 and 1 inclusive indicating similarity
+	 * @throws NullPointerException
+	 *             when either a or b is null
+	 */
+	float compare(Multiset<T> a, Multiset<T> b);
+
+}
@@ -0,0 +1,45 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics;
+
+/**
+ * A string metric that can prepare a query for repeated comparison. Metrics
+ * implement this interface when part of the work done by
+ * {@link #compare(String, String)} depends on only one of the arguments and
+ * can be reused.
+ * 
+ * @see PreparedQuery
+ * @see StringMetrics#prepare(StringMetric, String)
+ */
+public interface PreparableStringMetric extends StringMetric {
+
+	/**
+	 * Prepares a query for repeated comparison.
+	 * 
+	 * @param query
+	 *            the query to prepare
+	 * @return a prepared query
+	 * @throws NullPointerException
+	 *             when the query is null
+	 */
+	public PreparedQuery prepare(String query);
+
+}
@@ -0,0 +1,92 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.List;
+
+/**
+ * A query string prepared for repeated comparison against many candidates.
+ * Work that depends only on the query, such as simplification, tokenization
+ * and metric specific state, is done once when the query is prepared.
+ * <p>
+ * A prepared query yields the same similarity as the metric it was prepared
+ * from such that {@code prepare(metric, a).compare(b) == metric.compare(a, b)}.
+ * 
+ * @see PreparableStringMetric
+ * @see StringMetrics#prepare(StringMetric, String)
+ */
+public abstract class PreparedQuery {
+
+	/**
+	 * Measures the similarity between the query and a candidate.
+	 * 
+	 * @param candidate
+	 *            the string to compare against the query
+	 * @return a value between 0 and 1 inclusive indicating similarity
+	 * @throws NullPointerException
+	 *             when candidate is null
+	 */
+	public abstract float compare(String candidate);
+
+	/**
+	 * Measures the similarity between the query and each candidate.
+	 * 
+	 * @param candidates
+	 *            the strings to compare against the query
+	 * @return an array with the similarity of the query and each candidate
+	 * @throws NullPointerException
+	 *             when candidates or any candidate is null
+	 */
+	public float[] compareAll(List<String> candidates) {
+		return compareAll(candidates, new float[candidates.size()]);
+	}
+
+	/**
+	 * Measures the similarity between the query and each candidate. The
+	 * similarity of the n-th candidate is written to {@code results[n]}.
+	 * 
+	 * @param candidates
+	 *            the strings to compare against the query
+	 * @param results
+	 *            an array at least as long as the list of candidates
+	 * @return the results array
+	 * @throws NullPointerException
+	 *             when candidates or any candidate is null
+	 * @throws IllegalArgumentException
+	 *             when the results array is shorter than the list of
+	 *             candidates
+	 */
+	public float[] compareAll(List<String> candidates, float[] results) {
+		checkArgument(results.length >= candidates.size(),
+				"results must be at least as long as candidates");
+
+		// Iterate because List.get() may not be efficient (e.g. LinkedList).
+		int i = 0;
+		for (String candidate : candidates) {
+			results[i++] = compare(candidate);
+		}
+
+		return results;
+	}
+
+}
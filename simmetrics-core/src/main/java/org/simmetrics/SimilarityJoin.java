@@ -0,0 +1,645 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.lang.Math.ceil;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.sqrt;
+import static java.util.Arrays.copyOf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.simmetrics.metrics.CosineSimilarity;
+import org.simmetrics.metrics.DiceSimilarity;
+import org.simmetrics.metrics.JaccardSimilarity;
+import org.simmetrics.metrics.OverlapCoefficient;
+import org.simmetrics.tokenizers.Tokenizer;
+
+/**
+ * Finds all pairs of strings in a list whose token sets have a similarity of
+ * at least a threshold. Supports {@link JaccardSimilarity},
+ * {@link DiceSimilarity}, {@link CosineSimilarity} and
+ * {@link OverlapCoefficient}.
+ * <p>
+ * Tokens are ordered by their frequency, rarest first, and replaced by int
+ * ids. Two sets that reach the threshold must share a minimum number of
+ * tokens. As a result they must share a token in a short prefix of their
+ * ordered tokens. Only pairs that share a prefix token are considered. Pairs
+ * are further pruned by the difference in size and by the position of the
+ * shared tokens. The remaining candidates are verified using the metric so
+ * that the reported similarities are identical to
+ * {@link SetMetric#compare(Set, Set)}.
+ * <p>
+ * Pairs are passed to a {@link Handler} as they are found rather than
+ * collected. The strings are partitioned and joined in parallel on a
+ * {@link ForkJoinPool}.
+ * 
+ * @see <a href="http://dx.doi.org/10.1145/1367497.1367516">Xiao, C., Wang,
+ *      W., Lin, X., Yu, J. X. Efficient similarity joins for near duplicate
+ *      detection</a>
+ */
+public final class SimilarityJoin {
+
+	/**
+	 * Receives the pairs found by a similarity join. A handler may be called
+	 * concurrently from multiple threads. Pairs are passed in no particular
+	 * order.
+	 */
+	public interface Handler {
+		/**
+		 * Handles a pair of strings with a similarity of at least the
+		 * threshold.
+		 * 
+		 * @param first
+		 *            index of the first string of the pair
+		 * @param second
+		 *            index of the second string of the pair, greater than
+		 *            first
+		 * @param similarity
+		 *            the similarity of the pair
+		 */
+		void pair(int first, int second, float similarity);
+	}
+
+	private static final int PARTITION_SIZE = 256;
+
+	// Allows for rounding in the metric when deriving bounds
+	private static final double EPSILON = 1e-5;
+
+	private SimilarityJoin() {
+		// Utility class
+	}
+
+	/**
+	 * Joins a list of strings with itself using a new fork join pool with a
+	 * parallelism equal to the number of available processors.
+	 * 
+	 * @param metric
+	 *            the metric to compare token sets with
+	 * @param tokenizer
+	 *            the tokenizer to create token sets with
+	 * @param strings
+	 *            the strings to join
+	 * @param threshold
+	 *            the minimum similarity of a pair, greater than 0
+	 * @param handler
+	 *            receives the pairs with a similarity of at least threshold
+	 * @throws NullPointerException
+	 *             when any argument or string is null
+	 * @throws IllegalArgumentException
+	 *             when the metric is not supported or the threshold is not in
+	 *             {@code (0, 1]}
+	 */
+	public static void selfJoin(SetMetric<String> metric,
+			Tokenizer tokenizer, List<String> strings, float threshold,
+			Handler handler) {
+		final ForkJoinPool pool = new ForkJoinPool();
+		try {
+			selfJoin(metric, tokenizer, strings, threshold, handler, pool);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Joins a list of strings with itself.
+	 * 
+	 * @param metric
+	 *            the metric to compare token sets with
+	 * @param tokenizer
+	 *            the tokenizer to create token sets with
+	 * @param strings
+	 *            the strings to join
+	 * @param threshold
+	 *            the minimum similarity of a pair, greater than 0
+	 * @param handler
+	 *            receives the pairs with a similarity of at least threshold
+	 * @param pool
+	 *            the pool to join the strings in
+	 * @throws NullPointerException
+	 *             when any argument or string is null
+	 * @throws IllegalArgumentException
+	 *             when the metric is not supported or the threshold is not in
+	 *             {@code (0, 1]}
+	 */
+	public static void selfJoin(SetMetric<String> metric,
+			Tokenizer tokenizer, List<String> strings, float threshold,
+			Handler handler, ForkJoinPool pool) {
+		selfJoin(metric, tokenizer, strings, threshold, handler, pool,
+				PARTITION_SIZE);
+	}
+
+	static void selfJoin(SetMetric<String> metric, Tokenizer tokenizer,
+			List<String> strings, float threshold, Handler handler,
+			ForkJoinPool pool, int partitionSize) {
+		checkArgument(0 < threshold && threshold <= 1,
+				"threshold must be in (0, 1]");
+		checkArgument(partitionSize > 0);
+		checkNotNull(handler);
+		checkNotNull(pool);
+
+		final Join join = new Join(metric, filter(metric, threshold),
+				tokenizer, strings, threshold, handler);
+		pool.invoke(new Probe(join, 0, join.size(), partitionSize));
+	}
+
+	private static Filter filter(SetMetric<String> metric, float threshold) {
+		final Class<?> type = checkNotNull(metric).getClass();
+		final double t = threshold * (1 - EPSILON);
+		if (type == JaccardSimilarity.class) {
+			return new JaccardFilter(t);
+		} else if (type == DiceSimilarity.class) {
+			return new DiceFilter(t);
+		} else if (type == CosineSimilarity.class) {
+			return new CosineFilter(t);
+		} else if (type == OverlapCoefficient.class) {
+			return new OverlapFilter(t);
+		}
+		throw new IllegalArgumentException("unsupported metric: " + metric);
+	}
+
+	/*
+	 * Bounds on the size and overlap of two sets that reach the threshold.
+	 * Strings are probed in order of increasing size so the probing set is
+	 * never smaller than the indexed set.
+	 */
+	private static abstract class Filter {
+
+		final double t;
+
+		Filter(double t) {
+			this.t = t;
+		}
+
+		/*
+		 * Smallest size of an indexed set that may reach the threshold.
+		 */
+		abstract int minSize(int size);
+
+		/*
+		 * Smallest overlap of two sets that reach the threshold.
+		 */
+		abstract int minOverlap(int size, int indexedSize);
+
+		/*
+		 * Prefix probed for a set of size. The set must share a token in its
+		 * prefix with any smaller set that reaches the threshold.
+		 */
+		int probePrefix(int size) {
+			return size - minOverlap(size, minSize(size)) + 1;
+		}
+
+		/*
+		 * Prefix indexed for a set of size. The set must share a token in its
+		 * prefix with any larger set that reaches the threshold.
+		 */
+		int indexPrefix(int size) {
+			return size - minOverlap(size, size) + 1;
+		}
+
+		static int ceilToInt(double value) {
+			return (int) ceil(value);
+		}
+	}
+
+	/*
+	 * |a & b| / |a or b| >= t
+	 */
+	private static final class JaccardFilter extends Filter {
+
+		JaccardFilter(double t) {
+			super(t);
+		}
+
+		@Override
+		int minSize(int size) {
+			return ceilToInt(t * size);
+		}
+
+		@Override
+		int minOverlap(int size, int indexedSize) {
+			return ceilToInt(t / (1 + t) * (size + indexedSize));
+		}
+	}
+
+	/*
+	 * 2 * |a & b| / (|a| + |b|) >= t
+	 */
+	private static final class DiceFilter extends Filter {
+
+		DiceFilter(double t) {
+			super(t);
+		}
+
+		@Override
+		int minSize(int size) {
+			return ceilToInt(t / (2 - t) * size);
+		}
+
+		@Override
+		int minOverlap(int size, int indexedSize) {
+			return ceilToInt(t * (size + indexedSize) / 2);
+		}
+	}
+
+	/*
+	 * |a & b| / sqrt(|a| * |b|) >= t
+	 */
+	private static final class CosineFilter extends Filter {
+
+		CosineFilter(double t) {
+			super(t);
+		}
+
+		@Override
+		int minSize(int size) {
+			return ceilToInt(t * t * size);
+		}
+
+		@Override
+		int minOverlap(int size, int indexedSize) {
+			return ceilToInt(t * sqrt((double) size * indexedSize));
+		}
+	}
+
+	/*
+	 * |a & b| / min(|a|, |b|) >= t
+	 */
+	private static final class OverlapFilter extends Filter {
+
+		OverlapFilter(double t) {
+			super(t);
+		}
+
+		@Override
+		int minSize(int size) {
+			return 1;
+		}
+
+		@Override
+		int minOverlap(int size, int indexedSize) {
+			return ceilToInt(t * min(size, indexedSize));
+		}
+	}
+
+	/*
+	 * Overlap per candidate of a probe. Open addressing hash table from
+	 * position to overlap that remembers the slots used so it can be cleared
+	 * in time proportional to the number of candidates.
+	 */
+	private static final class Overlaps {
+		private int[] keys = new int[64];
+		int[] values = new int[64];
+		int[] slots = new int[32];
+		int size;
+
+		Overlaps() {
+			// avoid synthetics
+		}
+
+		/*
+		 * Slot of a position, inserted with an overlap of 0 when absent.
+		 */
+		int slot(int position) {
+			if (2 * size >= keys.length) {
+				grow();
+			}
+			final int key = position + 1;
+			final int mask = keys.length - 1;
+			int slot = (key * 0x9E3779B9) >>> 1 & mask;
+			while (keys[slot] != 0) {
+				if (keys[slot] == key) {
+					return slot;
+				}
+				slot = slot + 1 & mask;
+			}
+			keys[slot] = key;
+			values[slot] = 0;
+			slots[size++] = slot;
+			return slot;
+		}
+
+		int position(int slot) {
+			return keys[slot] - 1;
+		}
+
+		void clear() {
+			for (int i = 0; i < size; i++) {
+				keys[slots[i]] = 0;
+			}
+			size = 0;
+		}
+
+		private void grow() {
+			final int[] oldKeys = keys;
+			final int[] oldValues = values;
+			final int[] oldSlots = slots;
+			final int oldSize = size;
+
+			keys = new int[oldKeys.length * 2];
+			values = new int[oldKeys.length * 2];
+			slots = new int[oldKeys.length];
+			size = 0;
+			for (int i = 0; i < oldSize; i++) {
+				final int slot = slot(oldKeys[oldSlots[i]] - 1);
+				values[slot] = oldValues[oldSlots[i]];
+			}
+		}
+	}
+
+	/*
+	 * Token sets ordered by size with an inverted index of their prefixes.
+	 */
+	private static final class Join {
+
+		private static final int PRUNED = Integer.MIN_VALUE / 2;
+
+		private final SetMetric<String> metric;
+		private final Filter filter;
+		private final float threshold;
+		private final Handler handler;
+
+		// Indexed by position in size order
+		private final int[] ids;
+		private final int[][] tokens;
+		private final List<Set<String>> sets;
+
+		// Positions and token offsets of prefixes containing a token
+		private final int[][] postings;
+		private final int[][] offsets;
+
+		Join(SetMetric<String> metric, Filter filter, Tokenizer tokenizer,
+				List<String> strings, float threshold, Handler handler) {
+			this.metric = metric;
+			this.filter = filter;
+			this.threshold = threshold;
+			this.handler = handler;
+
+			final int n = strings.size();
+			final List<Set<String>> unordered = new ArrayList<>(n);
+			final Map<String, int[]> frequencies = new HashMap<>();
+			for (String string : strings) {
+				final Set<String> set = tokenizer.tokenizeToSet(checkNotNull(string));
+				unordered.add(set);
+				for (String token : set) {
+					int[] frequency = frequencies.get(token);
+					if (frequency == null) {
+						frequency = new int[1];
+						frequencies.put(token, frequency);
+					}
+					frequency[0]++;
+				}
+			}
+
+			// Rarest tokens first, ties by natural order
+			final List<Map.Entry<String, int[]>> byFrequency = new ArrayList<>(
+					frequencies.entrySet());
+			Collections.sort(byFrequency,
+					new Comparator<Map.Entry<String, int[]>>() {
+						@Override
+						public int compare(Map.Entry<String, int[]> a,
+								Map.Entry<String, int[]> b) {
+							final int c = Integer.compare(a.getValue()[0],
+									b.getValue()[0]);
+							return c != 0 ? c : a.getKey().compareTo(
+									b.getKey());
+						}
+					});
+			final Map<String, Integer> tokenIds = new HashMap<>(
+					byFrequency.size() * 2);
+			for (Map.Entry<String, int[]> entry : byFrequency) {
+				tokenIds.put(entry.getKey(), tokenIds.size());
+			}
+
+			// Order sets by size, ties by index
+			final long[] order = new long[n];
+			for (int i = 0; i < n; i++) {
+				order[i] = (long) unordered.get(i).size() << 32 | i;
+			}
+			Arrays.sort(order);
+
+			this.ids = new int[n];
+			this.tokens = new int[n][];
+			this.sets = new ArrayList<>(n);
+			final int[] postingSizes = new int[tokenIds.size()];
+			for (int position = 0; position < n; position++) {
+				final int id = (int) order[position];
+				final Set<String> set = unordered.get(id);
+				final int[] t = new int[set.size()];
+				int k = 0;
+				for (String token : set) {
+					t[k++] = tokenIds.get(token);
+				}
+				Arrays.sort(t);
+
+				ids[position] = id;
+				tokens[position] = t;
+				sets.add(set);
+
+				for (int j = 0, prefix = indexPrefix(t.length); j < prefix; j++) {
+					postingSizes[t[j]]++;
+				}
+			}
+
+			this.postings = new int[postingSizes.length][];
+			this.offsets = new int[postingSizes.length][];
+			for (int token = 0; token < postingSizes.length; token++) {
+				postings[token] = new int[postingSizes[token]];
+				offsets[token] = new int[postingSizes[token]];
+				postingSizes[token] = 0;
+			}
+			for (int position = 0; position < n; position++) {
+				final int[] t = tokens[position];
+				for (int j = 0, prefix = indexPrefix(t.length); j < prefix; j++) {
+					final int token = t[j];
+					postings[token][postingSizes[token]] = position;
+					offsets[token][postingSizes[token]] = j;
+					postingSizes[token]++;
+				}
+			}
+		}
+
+		int size() {
+			return ids.length;
+		}
+
+		private int indexPrefix(int size) {
+			return size == 0 ? 0 : filter.indexPrefix(size);
+		}
+
+		/*
+		 * Joins the set at position with all sets at smaller positions.
+		 */
+		void probe(int position, Overlaps overlaps) {
+			final int[] x = tokens[position];
+			if (x.length == 0) {
+				// Empty sets share no tokens but are similar to each other
+				for (int y = 0; y < position; y++) {
+					verify(position, y);
+				}
+				return;
+			}
+
+			final int from = firstWithSize(filter.minSize(x.length), position);
+
+			for (int i = 0, prefix = filter.probePrefix(x.length); i < prefix; i++) {
+				final int[] posting = postings[x[i]];
+				final int[] offset = offsets[x[i]];
+				for (int k = lowerBound(posting, from); k < posting.length
+						&& posting[k] < position; k++) {
+					final int y = posting[k];
+					final int ySize = tokens[y].length;
+					final int slot = overlaps.slot(y);
+					final int overlap = overlaps.values[slot];
+					if (overlap < 0) {
+						continue;
+					}
+
+					// Positional filter
+					final int bound = overlap + 1
+							+ min(x.length - i - 1, ySize - offset[k] - 1);
+					if (bound >= filter.minOverlap(x.length, ySize)) {
+						overlaps.values[slot] = overlap + 1;
+					} else {
+						overlaps.values[slot] = PRUNED;
+					}
+				}
+			}
+
+			for (int k = 0; k < overlaps.size; k++) {
+				final int slot = overlaps.slots[k];
+				final int y = overlaps.position(slot);
+				if (overlaps.values[slot] > 0
+						&& intersection(x, tokens[y]) >= filter.minOverlap(
+								x.length, tokens[y].length)) {
+					verify(position, y);
+				}
+			}
+			overlaps.clear();
+		}
+
+		private void verify(int position, int y) {
+			final float similarity = metric.compare(sets.get(position),
+					sets.get(y));
+			if (similarity >= threshold) {
+				final int a = ids[position];
+				final int b = ids[y];
+				handler.pair(min(a, b), max(a, b), similarity);
+			}
+		}
+
+		/*
+		 * First position before end with a set of at least size.
+		 */
+		private int firstWithSize(int size, int end) {
+			int lo = 0;
+			int hi = end;
+			while (lo < hi) {
+				final int mid = (lo + hi) >>> 1;
+				if (tokens[mid].length < size) {
+					lo = mid + 1;
+				} else {
+					hi = mid;
+				}
+			}
+			return lo;
+		}
+
+		private static int lowerBound(int[] values, int key) {
+			int lo = 0;
+			int hi = values.length;
+			while (lo < hi) {
+				final int mid = (lo + hi) >>> 1;
+				if (values[mid] < key) {
+					lo = mid + 1;
+				} else {
+					hi = mid;
+				}
+			}
+			return lo;
+		}
+
+		private static int intersection(int[] a, int[] b) {
+			int count = 0;
+			int i = 0;
+			int j = 0;
+			while (i < a.length && j < b.length) {
+				if (a[i] < b[j]) {
+					i++;
+				} else if (a[i] > b[j]) {
+					j++;
+				} else {
+					count++;
+					i++;
+					j++;
+				}
+			}
+			return count;
+		}
+	}
+
+	/*
+	 * Probes a range of positions.
+	 */
+	private static final class Probe extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Join join;
+		private final int from;
+		private final int to;
+		private final int partitionSize;
+
+		Probe(Join join, int from, int to, int partitionSize) {
+			this.join = join;
+			this.from = from;
+			this.to = to;
+			this.partitionSize = partitionSize;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > partitionSize) {
+				final int middle = (from + to) >>> 1;
+				invokeAll(new Probe(join, from, middle, partitionSize),
+						new Probe(join, middle, to, partitionSize));
+				return;
+			}
+
+			final Overlaps overlaps = new Overlaps();
+			for (int position = from; position < to; position++) {
+				join.probe(position, overlaps);
+			}
+		}
+	}
+}
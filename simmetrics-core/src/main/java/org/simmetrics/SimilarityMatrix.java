@@ -0,0 +1,328 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.Arrays.copyOf;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.simmetrics.StringMetrics.PreparedStrings;
+
+/**
+ * Sparse matrix of similarities between all pairs of strings in a list.
+ * Contains an entry {@code (row, column, similarity)} for each pair
+ * {@code row < column} with a similarity of at least a threshold. Because
+ * metrics are reflexive and symmetric the diagonal and lower triangle are
+ * omitted.
+ * <p>
+ * The matrix is computed in parallel. The upper triangle is split into square
+ * tiles which are compared on a {@link ForkJoinPool}. Each string is
+ * simplified, tokenized or prepared exactly once. Entries are ordered by tile
+ * and then by row and column within a tile.
+ * <p>
+ * This class is immutable and thread-safe.
+ * 
+ * @see PreparedQuery
+ */
+public final class SimilarityMatrix {
+
+	private static final int TILE_SIZE = 128;
+
+	private final int dimension;
+	private final int[] rows;
+	private final int[] columns;
+	private final float[] similarities;
+	private final int entryCount;
+
+	private SimilarityMatrix(int dimension, Entries entries) {
+		this.dimension = dimension;
+		this.rows = entries.rows;
+		this.columns = entries.columns;
+		this.similarities = entries.similarities;
+		this.entryCount = entries.size;
+	}
+
+	/**
+	 * Computes the similarity matrix of a list of strings using a new fork
+	 * join pool with a parallelism equal to the number of available
+	 * processors.
+	 * 
+	 * @param metric
+	 *            the metric to compare strings with
+	 * @param strings
+	 *            the strings to compare
+	 * @param threshold
+	 *            the minimum similarity of an entry
+	 * @return a sparse similarity matrix
+	 * @throws NullPointerException
+	 *             when either metric, strings or any string is null
+	 */
+	public static SimilarityMatrix compute(StringMetric metric,
+			List<String> strings, float threshold) {
+		final ForkJoinPool pool = new ForkJoinPool();
+		try {
+			return compute(metric, strings, threshold, pool);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Computes the similarity matrix of a list of strings.
+	 * 
+	 * @param metric
+	 *            the metric to compare strings with
+	 * @param strings
+	 *            the strings to compare
+	 * @param threshold
+	 *            the minimum similarity of an entry
+	 * @param pool
+	 *            the pool to compute the matrix in
+	 * @return a sparse similarity matrix
+	 * @throws NullPointerException
+	 *             when either metric, strings, any string or pool is null
+	 */
+	public static SimilarityMatrix compute(StringMetric metric,
+			List<String> strings, float threshold, ForkJoinPool pool) {
+		return compute(metric, strings, threshold, pool, TILE_SIZE);
+	}
+
+	static SimilarityMatrix compute(StringMetric metric, List<String> strings,
+			float threshold, ForkJoinPool pool, int tileSize) {
+		checkNotNull(metric);
+		checkNotNull(pool);
+		checkArgument(tileSize > 0);
+
+		final int dimension = strings.size();
+		final PreparedStrings prepared = StringMetrics.prepareAll(metric,
+				strings);
+
+		final int tilesPerSide = (dimension + tileSize - 1) / tileSize;
+		final int tileCount = tilesPerSide * (tilesPerSide + 1) / 2;
+		final Entries[] entries = new Entries[tileCount];
+
+		pool.invoke(new CompareTiles(prepared, dimension, threshold,
+				tileSize, tilesPerSide, entries, 0, tileCount));
+
+		return new SimilarityMatrix(dimension, Entries.concat(entries));
+	}
+
+	/**
+	 * Returns the number of strings compared.
+	 * 
+	 * @return the number of strings compared
+	 */
+	public int getDimension() {
+		return dimension;
+	}
+
+	/**
+	 * Returns the number of entries in the matrix.
+	 * 
+	 * @return the number of entries
+	 */
+	public int getEntryCount() {
+		return entryCount;
+	}
+
+	/**
+	 * Returns the row of an entry. This is the index of the first string of a
+	 * pair.
+	 * 
+	 * @param entry
+	 *            index of the entry
+	 * @return the row of the entry
+	 * @throws IndexOutOfBoundsException
+	 *             when the entry does not exist
+	 */
+	public int getRow(int entry) {
+		checkElementIndex(entry, entryCount);
+		return rows[entry];
+	}
+
+	/**
+	 * Returns the column of an entry. This is the index of the second string
+	 * of a pair.
+	 * 
+	 * @param entry
+	 *            index of the entry
+	 * @return the column of the entry
+	 * @throws IndexOutOfBoundsException
+	 *             when the entry does not exist
+	 */
+	public int getColumn(int entry) {
+		checkElementIndex(entry, entryCount);
+		return columns[entry];
+	}
+
+	/**
+	 * Returns the similarity of an entry.
+	 * 
+	 * @param entry
+	 *            index of the entry
+	 * @return the similarity of the entry
+	 * @throws IndexOutOfBoundsException
+	 *             when the entry does not exist
+	 */
+	public float getSimilarity(int entry) {
+		checkElementIndex(entry, entryCount);
+		return similarities[entry];
+	}
+
+	@Override
+	public String toString() {
+		return "SimilarityMatrix [dimension=" + dimension + ", entryCount="
+				+ entryCount + "]";
+	}
+
+	/*
+	 * Growable primitive buffer of entries.
+	 */
+	private static final class Entries {
+		private int[] rows;
+		private int[] columns;
+		private float[] similarities;
+		private int size;
+
+		Entries(int capacity) {
+			rows = new int[capacity];
+			columns = new int[capacity];
+			similarities = new float[capacity];
+		}
+
+		void add(int row, int column, float similarity) {
+			if (size == rows.length) {
+				final int capacity = max(16, size * 2);
+				rows = copyOf(rows, capacity);
+				columns = copyOf(columns, capacity);
+				similarities = copyOf(similarities, capacity);
+			}
+			rows[size] = row;
+			columns[size] = column;
+			similarities[size] = similarity;
+			size++;
+		}
+
+		static Entries concat(Entries[] parts) {
+			long total = 0;
+			for (Entries part : parts) {
+				total += part.size;
+			}
+			checkArgument(total <= Integer.MAX_VALUE - 8,
+					"too many entries: %s", total);
+
+			final Entries all = new Entries((int) total);
+			for (Entries part : parts) {
+				System.arraycopy(part.rows, 0, all.rows, all.size, part.size);
+				System.arraycopy(part.columns, 0, all.columns, all.size,
+						part.size);
+				System.arraycopy(part.similarities, 0, all.similarities,
+						all.size, part.size);
+				all.size += part.size;
+			}
+			return all;
+		}
+	}
+
+	/*
+	 * Compares a range of tiles. Tiles are numbered row by row along the
+	 * upper triangle of the tile grid.
+	 */
+	private static final class CompareTiles extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final PreparedStrings prepared;
+		private final int dimension;
+		private final float threshold;
+		private final int tileSize;
+		private final int tilesPerSide;
+		private final Entries[] entries;
+		private final int from;
+		private final int to;
+
+		CompareTiles(PreparedStrings prepared, int dimension, float threshold,
+				int tileSize, int tilesPerSide, Entries[] entries, int from,
+				int to) {
+			this.prepared = prepared;
+			this.dimension = dimension;
+			this.threshold = threshold;
+			this.tileSize = tileSize;
+			this.tilesPerSide = tilesPerSide;
+			this.entries = entries;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > 1) {
+				final int middle = (from + to) >>> 1;
+				invokeAll(new CompareTiles(prepared, dimension, threshold,
+						tileSize, tilesPerSide, entries, from, middle),
+						new CompareTiles(prepared, dimension, threshold,
+								tileSize, tilesPerSide, entries, middle, to));
+				return;
+			}
+
+			if (to == from) {
+				return;
+			}
+
+			// Find the tile row and column of tile number from
+			int tileRow = 0;
+			int tile = from;
+			while (tile >= tilesPerSide - tileRow) {
+				tile -= tilesPerSide - tileRow;
+				tileRow++;
+			}
+			final int tileColumn = tileRow + tile;
+
+			entries[from] = compareTile(tileRow * tileSize, tileColumn
+					* tileSize);
+		}
+
+		private Entries compareTile(int rowStart, int columnStart) {
+			final int rowEnd = min(rowStart + tileSize, dimension);
+			final int columnEnd = min(columnStart + tileSize, dimension);
+			final Entries tile = new Entries(0);
+
+			for (int i = rowStart; i < rowEnd; i++) {
+				// Only the upper triangle of tiles on the diagonal
+				for (int j = max(i + 1, columnStart); j < columnEnd; j++) {
+					final float similarity = prepared.compare(i, j);
+					if (similarity >= threshold) {
+						tile.add(i, j, similarity);
+					}
+				}
+			}
+
+			return tile;
+		}
+	}
+}
@@ -21,9 +21,14 @@
 package org.simmetrics;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.Multisets.unmodifiableMultiset;
 import static org.simmetrics.StringMetrics.create;
 import static org.simmetrics.StringMetrics.createForListMetric;
+import static org.simmetrics.StringMetrics.createForMultisetMetric;
+import static org.simmetrics.StringMetrics.createForPackedTokens;
 import static org.simmetrics.StringMetrics.createForSetMetric;
+import static org.simmetrics.StringMetrics.createForTokenIds;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -34,6 +39,9 @@ import java.util.concurrent.ExecutionException;
 
 import org.simmetrics.simplifiers.Simplifier;
 import org.simmetrics.simplifiers.Simplifiers;
+import org.simmetrics.tokenizers.MultisetTokenizer;
+import org.simmetrics.tokenizers.PackedTokenizer;
+import org.simmetrics.tokenizers.TokenDictionary;
 import org.simmetrics.tokenizers.Tokenizer;
 import org.simmetrics.tokenizers.Tokenizers;
 import org.simmetrics.utils.SimplifyingSimplifier;
@@ -43,6 +51,7 @@ import com.google.common.base.Function;
 import com.google.common.base.Predicate;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Multiset;
 
 /**
  * Convenience tool to build string metrics. Any class implementing
@@ -385,6 +394,72 @@ public class StringMetricBuilder {
 		 */
 		BuildStep cacheTokens(Cache<String, T> cache);
 
+		/**
+		 * Encodes the tokens as ids from a dictionary. The metric compares
+		 * sorted arrays of ids rather than collections of strings. Requires a
+		 * metric that implements {@link TokenIdMetric}.
+		 * <p>
+		 * Strings prepared once, such as the query of a {@link PreparedQuery}
+		 * or the strings of a {@link SimilarityMatrix}, are encoded once.
+		 * <p>
+		 * The dictionary is meant for a fixed corpus and should be filled
+		 * before the metric is used, for example with
+		 * {@link TokenDictionary#bag(java.util.Collection)}. The metric only
+		 * looks tokens up and never adds them, so comparing strings does not
+		 * grow the dictionary. Tokens outside the dictionary are still
+		 * compared correctly, but with ids local to a single comparison,
+		 * query or {@link SimilarityMatrix}.
+		 * 
+		 * @param dictionary
+		 *            a dictionary to encode tokens with
+		 * @return this for fluent chaining
+		 * @throws IllegalArgumentException
+		 *             when the metric does not implement {@link TokenIdMetric}
+		 */
+		BuildStep internTokens(TokenDictionary dictionary);
+
+		/**
+		 * Packs the tokens into longs. The metric compares sorted arrays of
+		 * packed tokens rather than collections of strings. Requires a metric
+		 * that implements {@link PackedTokenMetric} and a single tokenizer
+		 * that implements {@link PackedTokenizer} such as
+		 * {@link Tokenizers#qGram(int)} with q up to 4. Strings whose tokens
+		 * can not be packed are compared as collections of strings.
+		 * 
+		 * @return this for fluent chaining
+		 * @throws IllegalArgumentException
+		 *             when the metric does not implement
+		 *             {@link PackedTokenMetric} or the tokenizer does not
+		 *             implement {@link PackedTokenizer}
+		 */
+		BuildStep packTokens();
+
+		/**
+		 * Counts the tokens. The metric compares multisets of tokens rather
+		 * than collections of tokens. Requires a metric that implements
+		 * {@link MultisetMetric}.
+		 * 
+		 * @return this for fluent chaining
+		 * @throws IllegalArgumentException
+		 *             when the metric does not implement
+		 *             {@link MultisetMetric}
+		 */
+		BuildStep countTokens();
+
+		/**
+		 * Counts the tokens and caches the counted tokens. The metric compares
+		 * multisets of tokens rather than collections of tokens. Requires a
+		 * metric that implements {@link MultisetMetric}.
+		 * 
+		 * @param cache
+		 *            a cache to add
+		 * @return this for fluent chaining
+		 * @throws IllegalArgumentException
+		 *             when the metric does not implement
+		 *             {@link MultisetMetric}
+		 */
+		BuildStep countTokens(Cache<String, Multiset<String>> cache);
+
 		/**
 		 * Sets a cache for simplification chain. The cache will store the
 		 * result of all previous simplification steps.
@@ -517,6 +592,11 @@ public class StringMetricBuilder {
 
 		private SimplifyingSimplifier stringSimplifingSimplifier;
 		private TokenizingTokenizer tokenizingTokenizer;
+		private TokenDictionary dictionary;
+
+		private boolean packTokens;
+
+		private boolean countTokens;
 
 		CompositeCollectionMetricBuilder(Metric<T> metric) {
 			checkNotNull(metric);
@@ -533,6 +613,30 @@ public class StringMetricBuilder {
 				tokenizer = tokenizingTokenizer;
 			}
 
+			if (dictionary != null) {
+				return createForTokenIds((TokenIdMetric) metric,
+						simplifiers.isEmpty() ? null : chainAllSimplifiers(),
+						tokenizer, dictionary, encodesBags());
+			}
+
+			if (countTokens) {
+				@SuppressWarnings("unchecked")
+				final MultisetMetric<String> multisetMetric =
+						(MultisetMetric<String>) metric;
+				if (simplifiers.isEmpty()) {
+					return createForMultisetMetric(multisetMetric, tokenizer);
+				}
+				return createForMultisetMetric(multisetMetric,
+						chainAllSimplifiers(), tokenizer);
+			}
+
+			if (packTokens) {
+				return createForPackedTokens((PackedTokenMetric) metric,
+						build(metric, tokenizer),
+						simplifiers.isEmpty() ? null : chainAllSimplifiers(),
+						(PackedTokenizer) tokenizer, encodesBags());
+			}
+
 			if (simplifiers.isEmpty()) {
 				return build(metric, tokenizer);
 			}
@@ -550,6 +654,16 @@ public class StringMetricBuilder {
 
 		abstract StringMetric build(Metric<T> metric, Tokenizer tokenizer);
 
+		abstract boolean encodesBags();
+
+		private Simplifier chainAllSimplifiers() {
+			if (stringSimplifingSimplifier != null) {
+				stringSimplifingSimplifier.setSimplifier(chainSimplifiers());
+				return stringSimplifingSimplifier;
+			}
+			return chainSimplifiers();
+		}
+
 		@Deprecated
 		@Override
 		public final BuildStep tokenizerCache(TokenizingTokenizer cache) {
@@ -568,6 +682,44 @@ public class StringMetricBuilder {
 		protected abstract Tokenizer createCachingTokenizer(
 				Cache<String, T> cache, Tokenizer tokenizer);
 
+		@Override
+		public final BuildStep internTokens(TokenDictionary dictionary) {
+			checkNotNull(dictionary);
+			checkArgument(metric instanceof TokenIdMetric,
+					"metric must implement TokenIdMetric: %s", metric);
+			this.dictionary = dictionary;
+			return this;
+		}
+
+		@Override
+		public final BuildStep countTokens() {
+			checkArgument(metric instanceof MultisetMetric,
+					"metric must implement MultisetMetric: %s", metric);
+			this.countTokens = true;
+			return this;
+		}
+
+		@Override
+		public final BuildStep countTokens(
+				Cache<String, Multiset<String>> cache) {
+			checkNotNull(cache);
+			countTokens();
+			tokenizers.add(new CachingMultisetTokenizer(cache,
+					chainTokenizers()));
+			return this;
+		}
+
+		@Override
+		public final BuildStep packTokens() {
+			checkArgument(metric instanceof PackedTokenMetric,
+					"metric must implement PackedTokenMetric: %s", metric);
+			final Tokenizer tokenizer = Tokenizers.chain(tokenizers);
+			checkArgument(tokenizer instanceof PackedTokenizer,
+					"tokenizer must implement PackedTokenizer: %s", tokenizer);
+			this.packTokens = true;
+			return this;
+		}
+
 		@Deprecated
 		@Override
 		public final BuildStep tokenizerCache(int initialCapacity,
@@ -694,6 +846,11 @@ public class StringMetricBuilder {
 			return createForListMetric(metric, tokenizer);
 		}
 
+		@Override
+		boolean encodesBags() {
+			return true;
+		}
+
 		@Override
 		protected Tokenizer createCachingTokenizer(
 				Cache<String, List<String>> cache, Tokenizer tokenizer) {
@@ -720,6 +877,11 @@ public class StringMetricBuilder {
 			return createForSetMetric(metric, tokenizer);
 		}
 
+		@Override
+		boolean encodesBags() {
+			return false;
+		}
+
 		@Override
 		protected Tokenizer createCachingTokenizer(
 				Cache<String, Set<String>> cache, Tokenizer tokenizer) {
@@ -838,4 +1000,50 @@ public class StringMetricBuilder {
 		}
 	}
 
+	static final class CachingMultisetTokenizer implements
+			MultisetTokenizer {
+
+		private final Cache<String, Multiset<String>> cache;
+		final Tokenizer tokenizer;
+
+		CachingMultisetTokenizer(Cache<String, Multiset<String>> cache,
+				Tokenizer tokenizer) {
+			this.cache = cache;
+			this.tokenizer = tokenizer;
+		}
+
+		@Override
+		public List<String> tokenizeToList(final String input) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Multiset<String> tokenizeToMultiset(final String input) {
+			try {
+				return cache.get(input, new Callable<Multiset<String>>() {
+
+					@Override
+					public Multiset<String> call() {
+						return unmodifiableMultiset(Tokenizers
+								.tokenizeToMultiset(tokenizer, input));
+					}
+				});
+			} catch (ExecutionException e) {
+				// Can't happen. Tokenizer may not throw checked exceptions
+				throw new IllegalStateException(e);
+			}
+		}
+
+		@Override
+		public Set<String> tokenizeToSet(final String input) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public String toString() {
+			return "CachingMultisetTokenizer [" + cache + ", " + tokenizer
+					+ "]";
+		}
+	}
+
 }
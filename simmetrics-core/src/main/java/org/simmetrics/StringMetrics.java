@@ -22,11 +22,13 @@ package org.simmetrics;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.Arrays.asList;
 import static org.simmetrics.simplifiers.Simplifiers.chain;
 import static org.simmetrics.tokenizers.Tokenizers.chain;
 import static org.simmetrics.tokenizers.Tokenizers.qGram;
 import static org.simmetrics.tokenizers.Tokenizers.whitespace;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
@@ -44,19 +46,25 @@ import org.simmetrics.metrics.MatchingCoefficient;
 import org.simmetrics.metrics.MongeElkan;
 import org.simmetrics.metrics.NeedlemanWunch;
 import org.simmetrics.metrics.OverlapCoefficient;
+import org.simmetrics.metrics.SimHash;
 import org.simmetrics.metrics.SimonWhite;
 import org.simmetrics.metrics.SmithWaterman;
 import org.simmetrics.metrics.SmithWatermanGotoh;
 import org.simmetrics.simplifiers.Simplifier;
 import org.simmetrics.simplifiers.Soundex;
+import org.simmetrics.tokenizers.PackedTokenizer;
+import org.simmetrics.tokenizers.TokenDictionary;
+import org.simmetrics.tokenizers.TokenDictionary.Lookup;
 import org.simmetrics.tokenizers.Tokenizer;
 import org.simmetrics.tokenizers.Tokenizers;
 
+import com.google.common.collect.Multiset;
+
 /**
  * Utility class for StringMetrics.
  * <p>
  * Consists of well known metrics and methods to create string metrics from
- * list- or set metrics. All metrics are setup with sensible defaults, to
+ * list-, set- or multiset metrics. All metrics are setup with sensible defaults, to
  * customize metrics use {@link StringMetricBuilder}.
  * <p>
  * The available metrics are:
@@ -88,7 +96,7 @@ import org.simmetrics.tokenizers.Tokenizers;
  */
 public final class StringMetrics {
 
-	private static final class ForList implements StringMetric {
+	private static final class ForList implements PreparableStringMetric {
 		private final Metric<List<String>> metric;
 		private final Tokenizer tokenizer;
 
@@ -107,6 +115,18 @@ public final class StringMetrics {
 					tokenizer.tokenizeToList(b));
 		}
 
+		@Override
+		public PreparedQuery prepare(String query) {
+			final List<String> tokens = tokenizer.tokenizeToList(query);
+			return new PreparedQuery() {
+				@Override
+				public float compare(String candidate) {
+					return metric.compare(tokens,
+							tokenizer.tokenizeToList(candidate));
+				}
+			};
+		}
+
 		Metric<List<String>> getMetric() {
 			return metric;
 		}
@@ -121,7 +141,8 @@ public final class StringMetrics {
 		}
 	}
 
-	private static final class ForListWithSimplifier implements StringMetric {
+	private static final class ForListWithSimplifier implements
+			PreparableStringMetric {
 		private final Metric<List<String>> metric;
 		private final Simplifier simplifier;
 		private final Tokenizer tokenizer;
@@ -145,6 +166,19 @@ public final class StringMetrics {
 					tokenizer.tokenizeToList(simplifier.simplify(b)));
 		}
 
+		@Override
+		public PreparedQuery prepare(String query) {
+			final List<String> tokens = tokenizer.tokenizeToList(simplifier
+					.simplify(query));
+			return new PreparedQuery() {
+				@Override
+				public float compare(String candidate) {
+					return metric.compare(tokens, tokenizer
+							.tokenizeToList(simplifier.simplify(candidate)));
+				}
+			};
+		}
+
 		Metric<List<String>> getMetric() {
 			return metric;
 		}
@@ -163,7 +197,7 @@ public final class StringMetrics {
 		}
 	}
 
-	private static final class ForSet implements StringMetric {
+	private static final class ForSet implements PreparableStringMetric {
 
 		private final Metric<Set<String>> metric;
 		private final Tokenizer tokenizer;
@@ -182,6 +216,18 @@ public final class StringMetrics {
 					tokenizer.tokenizeToSet(b));
 		}
 
+		@Override
+		public PreparedQuery prepare(String query) {
+			final Set<String> tokens = tokenizer.tokenizeToSet(query);
+			return new PreparedQuery() {
+				@Override
+				public float compare(String candidate) {
+					return metric.compare(tokens,
+							tokenizer.tokenizeToSet(candidate));
+				}
+			};
+		}
+
 		Metric<Set<String>> getMetric() {
 			return metric;
 		}
@@ -197,7 +243,8 @@ public final class StringMetrics {
 
 	}
 
-	private static final class ForSetWithSimplifier implements StringMetric {
+	private static final class ForSetWithSimplifier implements
+			PreparableStringMetric {
 
 		private final Metric<Set<String>> metric;
 		private final Simplifier simplifier;
@@ -221,6 +268,19 @@ public final class StringMetrics {
 					tokenizer.tokenizeToSet(simplifier.simplify(b)));
 		}
 
+		@Override
+		public PreparedQuery prepare(String query) {
+			final Set<String> tokens = tokenizer.tokenizeToSet(simplifier
+					.simplify(query));
+			return new PreparedQuery() {
+				@Override
+				public float compare(String candidate) {
+					return metric.compare(tokens, tokenizer
+							.tokenizeToSet(simplifier.simplify(candidate)));
+				}
+			};
+		}
+
 		Metric<Set<String>> getMetric() {
 			return metric;
 		}
@@ -240,7 +300,220 @@ public final class StringMetrics {
 
 	}
 
-	private static final class ForString implements StringMetric {
+	private static final class ForMultiset implements PreparableStringMetric {
+
+		private final MultisetMetric<String> metric;
+		private final Simplifier simplifier;
+		private final Tokenizer tokenizer;
+
+		ForMultiset(MultisetMetric<String> metric, Simplifier simplifier,
+				Tokenizer tokenizer) {
+			checkNotNull(metric);
+			checkNotNull(tokenizer);
+
+			this.metric = metric;
+			this.simplifier = simplifier;
+			this.tokenizer = tokenizer;
+		}
+
+		Multiset<String> tokenize(String string) {
+			return Tokenizers.tokenizeToMultiset(tokenizer,
+					simplifier == null ? string : simplifier.simplify(string));
+		}
+
+		@Override
+		public float compare(String a, String b) {
+			return metric.compare(tokenize(a), tokenize(b));
+		}
+
+		@Override
+		public PreparedQuery prepare(String query) {
+			final Multiset<String> tokens = tokenize(query);
+			return new PreparedQuery() {
+				@Override
+				public float compare(String candidate) {
+					return metric.compare(tokens, tokenize(candidate));
+				}
+			};
+		}
+
+		MultisetMetric<String> getMetric() {
+			return metric;
+		}
+
+		@Override
+		public String toString() {
+			return metric + " ["
+					+ (simplifier == null ? "" : simplifier + " -> ")
+					+ tokenizer + "]";
+		}
+
+	}
+
+	private static final class ForTokenIds implements PreparableStringMetric {
+
+		private final TokenIdMetric metric;
+		private final Simplifier simplifier;
+		private final Tokenizer tokenizer;
+		private final TokenDictionary dictionary;
+		private final boolean bags;
+
+		ForTokenIds(TokenIdMetric metric, Simplifier simplifier,
+				Tokenizer tokenizer, TokenDictionary dictionary, boolean bags) {
+			checkNotNull(metric);
+			checkNotNull(tokenizer);
+			checkNotNull(dictionary);
+
+			this.metric = metric;
+			this.simplifier = simplifier;
+			this.tokenizer = tokenizer;
+			this.dictionary = dictionary;
+			this.bags = bags;
+		}
+
+		// Strings are encoded with a lookup so the dictionary never grows
+		Lookup lookup() {
+			return dictionary.lookup();
+		}
+
+		int[] encode(String string, Lookup lookup) {
+			final String simplified = simplifier == null ? string : simplifier
+					.simplify(string);
+			if (bags) {
+				return lookup.bag(tokenizer.tokenizeToList(simplified));
+			}
+			return lookup.set(tokenizer.tokenizeToSet(simplified));
+		}
+
+		@Override
+		public float compare(String a, String b) {
+			final Lookup lookup = lookup();
+			return metric.compare(encode(a, lookup), encode(b, lookup));
+		}
+
+		@Override
+		public PreparedQuery prepare(String query) {
+			final Lookup lookup = lookup();
+			final int[] ids = encode(query, lookup);
+			return new PreparedQuery() {
+				@Override
+				public float compare(String candidate) {
+					return metric.compare(ids,
+							encode(candidate, lookup.extend()));
+				}
+			};
+		}
+
+		TokenIdMetric getMetric() {
+			return metric;
+		}
+
+		@Override
+		public String toString() {
+			return metric + " ["
+					+ (simplifier == null ? "" : simplifier + " -> ")
+					+ tokenizer + " -> " + dictionary + "]";
+		}
+
+	}
+
+	private static final class ForPackedTokens implements
+			PreparableStringMetric {
+
+		private final PackedTokenMetric metric;
+		private final StringMetric fallback;
+		private final Simplifier simplifier;
+		private final PackedTokenizer tokenizer;
+		private final boolean bags;
+
+		ForPackedTokens(PackedTokenMetric metric, StringMetric fallback,
+				Simplifier simplifier, PackedTokenizer tokenizer, boolean bags) {
+			checkNotNull(metric);
+			checkNotNull(fallback);
+			checkNotNull(tokenizer);
+
+			this.metric = metric;
+			this.fallback = fallback;
+			this.simplifier = simplifier;
+			this.tokenizer = tokenizer;
+			this.bags = bags;
+		}
+
+		String simplify(String string) {
+			return simplifier == null ? string : simplifier.simplify(string);
+		}
+
+		long[] pack(String simplified) {
+			if (bags) {
+				return tokenizer.tokenizeToPackedBag(simplified);
+			}
+			return tokenizer.tokenizeToPackedSet(simplified);
+		}
+
+		float compare(String a, long[] packedA, String b, long[] packedB) {
+			if (packedA == null || packedB == null) {
+				return fallback.compare(a, b);
+			}
+			return metric.compare(packedA, packedB);
+		}
+
+		@Override
+		public float compare(String a, String b) {
+			final String simplifiedA = simplify(a);
+			final String simplifiedB = simplify(b);
+			return compare(simplifiedA, pack(simplifiedA), simplifiedB,
+					pack(simplifiedB));
+		}
+
+		@Override
+		public PreparedQuery prepare(String query) {
+			final String simplified = simplify(query);
+			final long[] packed = pack(simplified);
+			return new PreparedQuery() {
+				@Override
+				public float compare(String candidate) {
+					final String simplifiedCandidate = simplify(candidate);
+					return ForPackedTokens.this.compare(simplified, packed,
+							simplifiedCandidate, pack(simplifiedCandidate));
+				}
+			};
+		}
+
+		@Override
+		public String toString() {
+			return metric + " ["
+					+ (simplifier == null ? "" : simplifier + " -> ")
+					+ tokenizer + "]";
+		}
+
+	}
+
+	/**
+	 * A list of strings prepared for pairwise comparison. Each string is
+	 * simplified, tokenized or prepared once.
+	 */
+	interface PreparedStrings {
+		float compare(int i, int j);
+	}
+
+	private static final class ForQuery extends PreparedQuery {
+		private final Metric<String> metric;
+		private final String query;
+
+		ForQuery(Metric<String> metric, String query) {
+			checkNotNull(query);
+
+			this.metric = metric;
+			this.query = query;
+		}
+
+		@Override
+		public float compare(String candidate) {
+			return metric.compare(query, candidate);
+		}
+	}
+
+	private static final class ForString implements PreparableStringMetric {
 		private final Metric<String> metric;
 
 		ForString(Metric<String> metric) {
@@ -251,6 +524,15 @@ public final class StringMetrics {
 		public float compare(String a, String b) {
 			return metric.compare(a, b);
 		}
+
+		Metric<String> getMetric() {
+			return metric;
+		}
+
+		@Override
+		public PreparedQuery prepare(String query) {
+			return StringMetrics.prepare(metric, query);
+		}
 		
 		@Override
 		public String toString() {
@@ -259,7 +541,8 @@ public final class StringMetrics {
 
 	}
 
-	private static final class ForStringWithSimplifier implements StringMetric {
+	private static final class ForStringWithSimplifier implements
+			PreparableStringMetric {
 
 		private final Metric<String> metric;
 
@@ -279,6 +562,18 @@ public final class StringMetrics {
 					simplifier.simplify(b));
 		}
 
+		@Override
+		public PreparedQuery prepare(String query) {
+			final PreparedQuery prepared = StringMetrics.prepare(metric,
+					simplifier.simplify(query));
+			return new PreparedQuery() {
+				@Override
+				public float compare(String candidate) {
+					return prepared.compare(simplifier.simplify(candidate));
+				}
+			};
+		}
+
 		Metric<String> getMetric() {
 			return metric;
 		}
@@ -307,22 +602,14 @@ public final class StringMetrics {
 	 * @return an array with the similarity value for c and each string in the
 	 *         list
 	 * 
-	 * @deprecated trivial with no clear use case
+	 * @deprecated use {@link #prepare(StringMetric, String)} and
+	 *             {@link PreparedQuery#compareAll(List)}
 	 */
 	@Deprecated
 	public static float[] compare(StringMetric metric, final String c,
 			final List<String> strings) {
 
-		final float[] results = new float[strings.size()];
-
-		// Iterate because List.get() may not be efficient (e.g. LinkedList).
-		int i = 0;
-		for (String s : strings) {
-			results[i++] = metric.compare(c, s);
-		}
-
-		return results;
-
+		return prepare(metric, c).compareAll(strings);
 	}
 
 	/**
@@ -338,19 +625,14 @@ public final class StringMetrics {
 	 * @return an array with the similarity value for c and each string in the
 	 *         list
 	 * 
-	 * @deprecated trivial with no clear use case
+	 * @deprecated use {@link #prepare(StringMetric, String)} and
+	 *             {@link PreparedQuery#compareAll(List)}
 	 */
 	@Deprecated
 	public static float[] compare(StringMetric metric, final String c,
 			final String... strings) {
 
-		final float[] results = new float[strings.length];
-		for (int i = 0; i < strings.length; i++) {
-			// perform similarity test
-			results[i] = metric.compare(c, strings[i]);
-		}
-
-		return results;
+		return prepare(metric, c).compareAll(asList(strings));
 	}
 
 	/**
@@ -381,6 +663,168 @@ public final class StringMetrics {
 		return results;
 	}
 
+	/**
+	 * Prepares a query for repeated comparison with a metric. When the metric
+	 * is a {@link PreparableStringMetric} the query is prepared by the metric.
+	 * Otherwise the prepared query delegates to
+	 * {@link StringMetric#compare(String, String)}.
+	 * 
+	 * @param metric
+	 *            the metric to compare the query with
+	 * @param query
+	 *            the query to prepare
+	 * @return a prepared query
+	 * @throws NullPointerException
+	 *             when either metric or query is null
+	 */
+	public static PreparedQuery prepare(StringMetric metric, String query) {
+		checkNotNull(metric);
+		return prepare((Metric<String>) metric, query);
+	}
+
+	static PreparedQuery prepare(Metric<String> metric, String query) {
+		if (metric instanceof PreparableStringMetric) {
+			return ((PreparableStringMetric) metric).prepare(query);
+		}
+
+		return new ForQuery(metric, query);
+	}
+
+	static PreparedStrings prepareAll(Metric<String> metric,
+			List<String> strings) {
+		final String[] array = strings.toArray(new String[strings.size()]);
+		for (String string : array) {
+			checkNotNull(string);
+		}
+		return prepareAll(metric, array);
+	}
+
+	private static PreparedStrings prepareAll(final Metric<String> metric,
+			final String[] strings) {
+		if (metric instanceof ForList) {
+			final ForList fl = (ForList) metric;
+			return prepareAllLists(fl.getMetric(), fl.getTokenizer(), strings);
+		} else if (metric instanceof ForListWithSimplifier) {
+			final ForListWithSimplifier fl = (ForListWithSimplifier) metric;
+			return prepareAllLists(fl.getMetric(), fl.getTokenizer(),
+					simplifyAll(fl.getSimplifier(), strings));
+		} else if (metric instanceof ForSet) {
+			final ForSet fs = (ForSet) metric;
+			return prepareAllSets(fs.getMetric(), fs.getTokenizer(), strings);
+		} else if (metric instanceof ForSetWithSimplifier) {
+			final ForSetWithSimplifier fs = (ForSetWithSimplifier) metric;
+			return prepareAllSets(fs.getMetric(), fs.getTokenizer(),
+					simplifyAll(fs.getSimplifier(), strings));
+		} else if (metric instanceof ForMultiset) {
+			final ForMultiset fm = (ForMultiset) metric;
+			final List<Multiset<String>> tokens = new ArrayList<>(
+					strings.length);
+			for (String string : strings) {
+				tokens.add(fm.tokenize(string));
+			}
+			final MultisetMetric<String> multisetMetric = fm.getMetric();
+			return new PreparedStrings() {
+				@Override
+				public float compare(int i, int j) {
+					return multisetMetric.compare(tokens.get(i), tokens.get(j));
+				}
+			};
+		} else if (metric instanceof ForTokenIds) {
+			final ForTokenIds ft = (ForTokenIds) metric;
+			final Lookup lookup = ft.lookup();
+			final int[][] ids = new int[strings.length][];
+			for (int i = 0; i < strings.length; i++) {
+				ids[i] = ft.encode(strings[i], lookup);
+			}
+			final TokenIdMetric tokenIdMetric = ft.getMetric();
+			return new PreparedStrings() {
+				@Override
+				public float compare(int i, int j) {
+					return tokenIdMetric.compare(ids[i], ids[j]);
+				}
+			};
+		} else if (metric instanceof ForPackedTokens) {
+			final ForPackedTokens fp = (ForPackedTokens) metric;
+			final String[] simplified = new String[strings.length];
+			final long[][] packed = new long[strings.length][];
+			for (int i = 0; i < strings.length; i++) {
+				simplified[i] = fp.simplify(strings[i]);
+				packed[i] = fp.pack(simplified[i]);
+			}
+			return new PreparedStrings() {
+				@Override
+				public float compare(int i, int j) {
+					return fp.compare(simplified[i], packed[i], simplified[j],
+							packed[j]);
+				}
+			};
+		} else if (metric instanceof ForStringWithSimplifier) {
+			final ForStringWithSimplifier fs = (ForStringWithSimplifier) metric;
+			return prepareAll(fs.getMetric(),
+					simplifyAll(fs.getSimplifier(), strings));
+		} else if (metric instanceof ForString) {
+			return prepareAll(((ForString) metric).getMetric(), strings);
+		} else if (metric instanceof PreparableStringMetric) {
+			final PreparableStringMetric pm = (PreparableStringMetric) metric;
+			final PreparedQuery[] queries = new PreparedQuery[strings.length];
+			for (int i = 0; i < strings.length; i++) {
+				queries[i] = pm.prepare(strings[i]);
+			}
+			return new PreparedStrings() {
+				@Override
+				public float compare(int i, int j) {
+					return queries[i].compare(strings[j]);
+				}
+			};
+		}
+
+		return new PreparedStrings() {
+			@Override
+			public float compare(int i, int j) {
+				return metric.compare(strings[i], strings[j]);
+			}
+		};
+	}
+
+	private static PreparedStrings prepareAllLists(
+			final Metric<List<String>> metric, Tokenizer tokenizer,
+			String[] strings) {
+		final List<List<String>> tokens = new ArrayList<>(strings.length);
+		for (String string : strings) {
+			tokens.add(tokenizer.tokenizeToList(string));
+		}
+		return new PreparedStrings() {
+			@Override
+			public float compare(int i, int j) {
+				return metric.compare(tokens.get(i), tokens.get(j));
+			}
+		};
+	}
+
+	private static PreparedStrings prepareAllSets(
+			final Metric<Set<String>> metric, Tokenizer tokenizer,
+			String[] strings) {
+		final List<Set<String>> tokens = new ArrayList<>(strings.length);
+		for (String string : strings) {
+			tokens.add(tokenizer.tokenizeToSet(string));
+		}
+		return new PreparedStrings() {
+			@Override
+			public float compare(int i, int j) {
+				return metric.compare(tokens.get(i), tokens.get(j));
+			}
+		};
+	}
+
+	private static String[] simplifyAll(Simplifier simplifier,
+			String[] strings) {
+		final String[] simplified = new String[strings.length];
+		for (int i = 0; i < strings.length; i++) {
+			simplified[i] = simplifier.simplify(strings[i]);
+		}
+		return simplified;
+	}
+
 	/**
 	 * Returns a string metric that uses a {@link Tokenizers#whitespace()} and
 	 * the {@link CosineSimilarity} metric.
@@ -534,6 +978,74 @@ public final class StringMetrics {
 		return new ForSet(metric, tokenizer);
 	}
 
+	/**
+	 * Creates a new composite string metric. The tokenizer is used to tokenize
+	 * the simplified strings. The multiset metric compares the the tokens.
+	 * 
+	 * @param metric
+	 *            a multiset metric
+	 * @param simplifier
+	 *            a simplifier
+	 * @param tokenizer
+	 *            a tokenizer
+	 * @return a new composite string metric
+	 * 
+	 * @throws NullPointerException
+	 *             when either metric, simplifier or tokenizer are null
+	 * 
+	 * @see StringMetricBuilder
+	 */
+	public static StringMetric createForMultisetMetric(
+			MultisetMetric<String> metric, Simplifier simplifier,
+			Tokenizer tokenizer) {
+		checkNotNull(simplifier);
+		return new ForMultiset(metric, simplifier, tokenizer);
+	}
+
+	/**
+	 * Creates a new composite string metric. The tokenizer is used to tokenize
+	 * the strings. The multiset metric compares the the tokens.
+	 * 
+	 * @param metric
+	 *            a multiset metric
+	 * @param tokenizer
+	 *            a tokenizer
+	 * @return a new composite string metric
+	 * 
+	 * @throws NullPointerException
+	 *             when either metric or tokenizer are null
+	 * 
+	 * @see StringMetricBuilder
+	 */
+	public static StringMetric createForMultisetMetric(
+			MultisetMetric<String> metric, Tokenizer tokenizer) {
+		return new ForMultiset(metric, null, tokenizer);
+	}
+
+	/*
+	 * Creates a composite string metric that encodes the tokens of the
+	 * simplified strings with a dictionary. List metrics compare bags of ids,
+	 * set metrics compare sets of ids. The simplifier may be null.
+	 */
+	static StringMetric createForTokenIds(TokenIdMetric metric,
+			Simplifier simplifier, Tokenizer tokenizer,
+			TokenDictionary dictionary, boolean bags) {
+		return new ForTokenIds(metric, simplifier, tokenizer, dictionary, bags);
+	}
+
+	/*
+	 * Creates a composite string metric that packs the tokens of the
+	 * simplified strings into longs. Strings that can not be packed are
+	 * compared by the fallback metric after simplification. The simplifier may
+	 * be null.
+	 */
+	static StringMetric createForPackedTokens(PackedTokenMetric metric,
+			StringMetric fallback, Simplifier simplifier,
+			PackedTokenizer tokenizer, boolean bags) {
+		return new ForPackedTokens(metric, fallback, simplifier, tokenizer,
+				bags);
+	}
+
 	/**
 	 * Returns a string metric that uses a {@link Tokenizers#whitespace()} and
 	 * the {@link BlockDistance} metric.
@@ -675,6 +1187,16 @@ public final class StringMetrics {
 				Tokenizers.qGramWithPadding(3));
 	}
 
+	/**
+	 * Returns a string metric that uses a {@link Tokenizers#whitespace()} and
+	 * the {@link SimHash} metric with 64 bit fingerprints.
+	 * 
+	 * @return a SimHash metric
+	 */
+	public static StringMetric simHash() {
+		return createForSetMetric(new SimHash<String>(), whitespace());
+	}
+
 	/**
 	 * Returns a string metric that uses a {@link Tokenizers#whitespace()}
 	 * followed by a {@link Tokenizers#qGramWithPadding(int)} for {@code q=2}
@@ -0,0 +1,59 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics;
+
+import org.simmetrics.tokenizers.TokenDictionary;
+
+/**
+ * Measures the similarity between two collections of tokens encoded as sorted
+ * arrays of token ids. The measurement results in a value between 0 and 1
+ * inclusive. A value of zero indicates that the collections are dissimilar, a
+ * value of 1 indicates they are similar.
+ * <p>
+ * Tokens are encoded by a {@link TokenDictionary}. A {@link SetMetric} that
+ * implements this interface compares arrays without duplicate ids as created
+ * by {@link TokenDictionary#set(java.util.Collection)}. A {@link ListMetric}
+ * compares arrays that may repeat ids as created by
+ * {@link TokenDictionary#bag(java.util.Collection)}.
+ * <p>
+ * For tokens encoded by the same dictionary the result must be equal to the
+ * result of comparing the collections of tokens.
+ * <p>
+ * Implementations may not modify the contents of the arrays.
+ * 
+ * @see StringMetricBuilder
+ */
+public interface TokenIdMetric {
+
+	/**
+	 * Measures the similarity between the encoded tokens of a and b.
+	 * 
+	 * @param a
+	 *            sorted token ids of a
+	 * @param b
+	 *            sorted token ids of b
+	 * @return a value between 0 and 1 inclusive indicating similarity
+	 * @throws NullPointerException
+	 *             when either a or b is null
+	 */
+	float compare(int[] a, int[] b);
+
+}
@@ -0,0 +1,278 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.index;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.lang.Math.abs;
+import static java.lang.Math.max;
+import static java.util.Arrays.copyOf;
+import static java.util.Collections.reverseOrder;
+import static java.util.Collections.sort;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.simmetrics.BoundedStringDistance;
+import org.simmetrics.Distance;
+
+/**
+ * Index for finding strings within a distance of a query. Strings are stored
+ * in a Burkhard-Keller tree. Each child of a node is stored at its distance
+ * from the node. The triangle inequality is used to skip subtrees that can
+ * not contain strings within the search radius.
+ * <p>
+ * Any distance that satisfies the triangle inequality can be used, e.g.
+ * {@link org.simmetrics.metrics.Levenshtein Levenshtein} or
+ * {@link org.simmetrics.metrics.HammingDistance#forString() HammingDistance}.
+ * The restricted edit distance computed by
+ * {@link org.simmetrics.metrics.DamerauLevenshtein DamerauLevenshtein} may
+ * violate the triangle inequality for strings with overlapping
+ * transpositions; such strings may be missed. When the distance is a
+ * {@link BoundedStringDistance} the distance to a node is only computed as far
+ * as needed to decide whether the node or its children can match.
+ * <p>
+ * This class is immutable and thread-safe provided the distance is
+ * thread-safe.
+ * 
+ * @see <a href="http://dx.doi.org/10.1145/362003.362025">Burkhard, W. A.,
+ *      Keller, R. M. Some approaches to best-match file searching</a>
+ */
+public final class BKTreeIndex {
+
+	private static final class Node {
+		final String string;
+
+		// Distances to the children in insertion order
+		float[] distances = new float[0];
+		Node[] children = new Node[0];
+		int size;
+
+		float maxDistance;
+
+		Node(String string) {
+			this.string = string;
+		}
+
+		Node child(float distance) {
+			for (int i = 0; i < size; i++) {
+				if (distances[i] == distance) {
+					return children[i];
+				}
+			}
+			return null;
+		}
+
+		void add(float distance, Node child) {
+			if (size == children.length) {
+				final int capacity = max(2, size * 2);
+				distances = copyOf(distances, capacity);
+				children = copyOf(children, capacity);
+			}
+			distances[size] = distance;
+			children[size] = child;
+			size++;
+			maxDistance = max(maxDistance, distance);
+		}
+	}
+
+	private final Distance<String> distance;
+
+	private final Node root;
+
+	private final int size;
+
+	/**
+	 * Constructs a new index of strings.
+	 * 
+	 * @param distance
+	 *            the distance between strings
+	 * @param strings
+	 *            the strings to index
+	 * @throws NullPointerException
+	 *             when either distance, strings or any string is null
+	 */
+	public BKTreeIndex(Distance<String> distance, Iterable<String> strings) {
+		this.distance = checkNotNull(distance);
+
+		Node root = null;
+		int size = 0;
+		for (String string : strings) {
+			checkNotNull(string);
+			if (root == null) {
+				root = new Node(string);
+				size++;
+			} else if (insert(root, string)) {
+				size++;
+			}
+		}
+		this.root = root;
+		this.size = size;
+	}
+
+	private boolean insert(Node root, String string) {
+		Node node = root;
+		while (true) {
+			if (node.string.equals(string)) {
+				return false;
+			}
+
+			final float d = distance.distance(node.string, string);
+			final Node child = node.child(d);
+			if (child == null) {
+				node.add(d, new Node(string));
+				return true;
+			}
+			node = child;
+		}
+	}
+
+	/**
+	 * Returns the number of distinct strings in the index.
+	 * 
+	 * @return the number of strings in the index
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Finds all strings within {@code maxDistance} of the query. Matches are
+	 * ordered by distance and then by string.
+	 * 
+	 * @param query
+	 *            the string to search for
+	 * @param maxDistance
+	 *            the non-negative search radius
+	 * @return the strings within the search radius
+	 * @throws NullPointerException
+	 *             when the query is null
+	 * @throws IllegalArgumentException
+	 *             when maxDistance is negative
+	 */
+	public List<Match> search(String query, float maxDistance) {
+		checkNotNull(query);
+		checkArgument(maxDistance >= 0);
+
+		final List<Match> matches = new ArrayList<>();
+		if (root == null) {
+			return matches;
+		}
+
+		final Deque<Node> stack = new ArrayDeque<>();
+		stack.push(root);
+		while (!stack.isEmpty()) {
+			final Node node = stack.pop();
+
+			// Children are at most node.maxDistance from the node. If the
+			// query is further than maxDistance from all of them, none of
+			// them can match.
+			final float d = distance(query, node, maxDistance);
+			if (d <= maxDistance) {
+				matches.add(new Match(node.string, d));
+			}
+
+			for (int i = 0; i < node.size; i++) {
+				if (abs(node.distances[i] - d) <= maxDistance) {
+					stack.push(node.children[i]);
+				}
+			}
+		}
+
+		sort(matches, Match.BY_DISTANCE);
+		return matches;
+	}
+
+	/**
+	 * Finds the {@code k} strings nearest to the query. Matches are ordered by
+	 * distance and then by string. When multiple strings are equally far from
+	 * the query as the k-th nearest string, an arbitrary subset of them is
+	 * included.
+	 * 
+	 * @param query
+	 *            the string to search for
+	 * @param k
+	 *            the number of strings to find
+	 * @return the k nearest strings, or all strings when the index contains
+	 *         fewer than k strings
+	 * @throws NullPointerException
+	 *             when the query is null
+	 * @throws IllegalArgumentException
+	 *             when k is not positive
+	 */
+	public List<Match> nearest(String query, int k) {
+		checkNotNull(query);
+		checkArgument(k > 0);
+
+		final PriorityQueue<Match> nearest = new PriorityQueue<>(k,
+				reverseOrder(Match.BY_DISTANCE));
+		if (root != null) {
+			float radius = Float.POSITIVE_INFINITY;
+			final Deque<Node> stack = new ArrayDeque<>();
+			stack.push(root);
+			while (!stack.isEmpty()) {
+				final Node node = stack.pop();
+
+				final float d = distance(query, node, radius);
+				if (d <= radius) {
+					nearest.add(new Match(node.string, d));
+					if (nearest.size() > k) {
+						nearest.poll();
+					}
+					if (nearest.size() == k) {
+						radius = nearest.peek().getDistance();
+					}
+				}
+
+				for (int i = 0; i < node.size; i++) {
+					if (abs(node.distances[i] - d) <= radius) {
+						stack.push(node.children[i]);
+					}
+				}
+			}
+		}
+
+		final List<Match> matches = new ArrayList<>(nearest);
+		sort(matches, Match.BY_DISTANCE);
+		return matches;
+	}
+
+	/*
+	 * Returns the distance between the query and the node or infinity when
+	 * neither the node nor any of its children can be within the radius.
+	 */
+	private float distance(String query, Node node, float radius) {
+		if (distance instanceof BoundedStringDistance
+				&& radius != Float.POSITIVE_INFINITY) {
+			return ((BoundedStringDistance) distance).distance(query,
+					node.string, radius + node.maxDistance);
+		}
+		return distance.distance(query, node.string);
+	}
+
+	@Override
+	public String toString() {
+		return "BKTreeIndex [distance=" + distance + ", size=" + size + "]";
+	}
+}
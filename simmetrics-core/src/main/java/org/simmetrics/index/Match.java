@@ -0,0 +1,92 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.index;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Comparator;
+
+import com.google.common.base.Objects;
+
+/**
+ * A string found by an index together with its distance to the query.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class Match {
+
+	static final Comparator<Match> BY_DISTANCE = new Comparator<Match>() {
+		@Override
+		public int compare(Match a, Match b) {
+			final int c = Float.compare(a.distance, b.distance);
+			return c != 0 ? c : a.string.compareTo(b.string);
+		}
+	};
+
+	private final String string;
+	private final float distance;
+
+	Match(String string, float distance) {
+		this.string = checkNotNull(string);
+		this.distance = distance;
+	}
+
+	/**
+	 * Returns the string that matched.
+	 * 
+	 * @return the string that matched
+	 */
+	public String getString() {
+		return string;
+	}
+
+	/**
+	 * Returns the distance between the query and the string that matched.
+	 * 
+	 * @return the distance to the query
+	 */
+	public float getDistance() {
+		return distance;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof Match)) {
+			return false;
+		}
+		final Match other = (Match) obj;
+		return string.equals(other.string)
+				&& Float.compare(distance, other.distance) == 0;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hashCode(string, distance);
+	}
+
+	@Override
+	public String toString() {
+		return "Match [string=" + string + ", distance=" + distance + "]";
+	}
+}
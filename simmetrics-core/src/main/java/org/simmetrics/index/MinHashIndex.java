@@ -0,0 +1,304 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.index;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.lang.Math.pow;
+import static java.util.Arrays.copyOf;
+import static java.util.Collections.sort;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.simmetrics.metrics.MinHash;
+import org.simmetrics.simplifiers.Simplifier;
+import org.simmetrics.tokenizers.Tokenizer;
+
+/**
+ * Locality sensitive hashing index over MinHash signatures. Finds strings
+ * with an estimated Jaccard similarity of at least a threshold to a query
+ * without comparing the query to every string.
+ * <p>
+ * Signatures are divided into bands of rows. Strings whose signatures are
+ * equal in at least one band become candidates. Two strings with a Jaccard
+ * similarity of {@code s} become candidates with a probability of
+ * {@code 1 - (1 - s^rows)^bands}. See {@link #getProbability(float)}.
+ * Candidates are then compared using their signatures.
+ * <p>
+ * Strings are simplified and tokenized into sets before their signature is
+ * computed. To compare the results with an exact metric use the same
+ * simplifier and tokenizer to build it. E.g.
+ * 
+ * <pre>
+ * <code>
+ * StringMetricBuilder.with(new JaccardSimilarity&lt;String&gt;())
+ * 	.simplify(simplifier)
+ * 	.tokenize(tokenizer)
+ * 	.build();
+ * </code>
+ * </pre>
+ * <p>
+ * This class is immutable and thread-safe.
+ * 
+ * @see <a href="http://infolab.stanford.edu/~ullman/mmds/ch3.pdf">Mining of
+ *      Massive Datasets - Finding Similar Items</a>
+ */
+public final class MinHashIndex {
+
+	private static final class Bucket {
+		int[] ids = new int[1];
+		int size;
+
+		Bucket() {
+			// avoid synthetics
+		}
+
+		void add(int id) {
+			if (size == ids.length) {
+				ids = copyOf(ids, size * 2);
+			}
+			ids[size++] = id;
+		}
+	}
+
+	private final MinHash<String> minHash;
+	private final Simplifier simplifier;
+	private final Tokenizer tokenizer;
+	private final int bands;
+	private final int rows;
+
+	private final String[] strings;
+
+	// Signatures of all strings, hashes consecutive ints per string
+	private final int[] signatures;
+
+	private final Map<Long, Bucket> buckets;
+
+	/**
+	 * Constructs a new index. The number of hashes of the MinHash metric must
+	 * be divisible by the number of bands.
+	 * 
+	 * @param minHash
+	 *            the metric to compute signatures with
+	 * @param bands
+	 *            the number of bands
+	 * @param tokenizer
+	 *            the tokenizer to create sets with
+	 * @param strings
+	 *            the strings to index
+	 * @throws NullPointerException
+	 *             when any argument or string is null
+	 * @throws IllegalArgumentException
+	 *             when bands does not divide the number of hashes or when the
+	 *             signatures of all strings do not fit in a single array
+	 */
+	public MinHashIndex(MinHash<String> minHash, int bands,
+			Tokenizer tokenizer, List<String> strings) {
+		this(minHash, bands, null, tokenizer, strings);
+	}
+
+	/**
+	 * Constructs a new index. The number of hashes of the MinHash metric must
+	 * be divisible by the number of bands.
+	 * 
+	 * @param minHash
+	 *            the metric to compute signatures with
+	 * @param bands
+	 *            the number of bands
+	 * @param simplifier
+	 *            the simplifier to apply before tokenization, may be null
+	 * @param tokenizer
+	 *            the tokenizer to create sets with
+	 * @param strings
+	 *            the strings to index
+	 * @throws NullPointerException
+	 *             when minHash, tokenizer, strings or any string is null
+	 * @throws IllegalArgumentException
+	 *             when bands does not divide the number of hashes or when the
+	 *             signatures of all strings do not fit in a single array
+	 */
+	public MinHashIndex(MinHash<String> minHash, int bands,
+			Simplifier simplifier, Tokenizer tokenizer, List<String> strings) {
+		checkNotNull(minHash);
+		checkArgument(bands > 0, "bands must be positive");
+		checkArgument(minHash.getHashes() % bands == 0,
+				"bands must divide hashes %s", minHash.getHashes());
+
+		this.minHash = minHash;
+		this.simplifier = simplifier;
+		this.tokenizer = checkNotNull(tokenizer);
+		this.bands = bands;
+		this.rows = minHash.getHashes() / bands;
+
+		final int n = strings.size();
+		final int hashes = minHash.getHashes();
+		final long length = (long) n * hashes;
+		checkArgument(length <= Integer.MAX_VALUE,
+				"signatures of %s strings with %s hashes do not fit an array",
+				n, hashes);
+		this.strings = strings.toArray(new String[n]);
+		this.signatures = new int[(int) length];
+		this.buckets = new HashMap<>();
+
+		for (int id = 0; id < n; id++) {
+			final int[] signature = signature(checkNotNull(this.strings[id]));
+			System.arraycopy(signature, 0, signatures, id * hashes, hashes);
+
+			for (int band = 0; band < bands; band++) {
+				final Long key = key(signature, band);
+				Bucket bucket = buckets.get(key);
+				if (bucket == null) {
+					bucket = new Bucket();
+					buckets.put(key, bucket);
+				}
+				bucket.add(id);
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of bands.
+	 * 
+	 * @return the number of bands
+	 */
+	public int getBands() {
+		return bands;
+	}
+
+	/**
+	 * Returns the number of rows per band.
+	 * 
+	 * @return the number of rows per band
+	 */
+	public int getRows() {
+		return rows;
+	}
+
+	/**
+	 * Returns the number of strings in the index.
+	 * 
+	 * @return the number of strings in the index
+	 */
+	public int size() {
+		return strings.length;
+	}
+
+	/**
+	 * Returns the probability that a string with the given Jaccard similarity
+	 * to a query becomes a candidate.
+	 * 
+	 * @param similarity
+	 *            the Jaccard similarity
+	 * @return the probability of becoming a candidate
+	 */
+	public float getProbability(float similarity) {
+		checkArgument(0 <= similarity && similarity <= 1,
+				"similarity must be in [0, 1]");
+		return (float) (1 - pow(1 - pow(similarity, rows), bands));
+	}
+
+	/**
+	 * Finds strings with an estimated Jaccard similarity of at least
+	 * {@code minSimilarity} to the query. Strings that do not share a band
+	 * with the query are not found. Matches are ordered by descending
+	 * estimated similarity and then by position in the indexed list.
+	 * 
+	 * @param query
+	 *            the string to search for
+	 * @param minSimilarity
+	 *            the minimum estimated similarity
+	 * @return the candidates with an estimated similarity of at least
+	 *         {@code minSimilarity}
+	 * @throws NullPointerException
+	 *             when the query is null
+	 */
+	public List<SimilarityMatch> search(String query, float minSimilarity) {
+		final int[] signature = signature(checkNotNull(query));
+
+		int[] candidates = new int[16];
+		int size = 0;
+		for (int band = 0; band < bands; band++) {
+			final Bucket bucket = buckets.get(key(signature, band));
+			if (bucket == null) {
+				continue;
+			}
+			if (size + bucket.size > candidates.length) {
+				candidates = copyOf(candidates, Integer.highestOneBit(size
+						+ bucket.size) << 1);
+			}
+			System.arraycopy(bucket.ids, 0, candidates, size, bucket.size);
+			size += bucket.size;
+		}
+		Arrays.sort(candidates, 0, size);
+
+		final List<SimilarityMatch> matches = new ArrayList<>();
+		final int hashes = signature.length;
+		for (int i = 0; i < size; i++) {
+			final int id = candidates[i];
+			if (i > 0 && candidates[i - 1] == id) {
+				continue;
+			}
+
+			int equal = 0;
+			for (int j = 0, offset = id * hashes; j < hashes; j++) {
+				if (signature[j] == signatures[offset + j]) {
+					equal++;
+				}
+			}
+			final float similarity = equal / (float) hashes;
+			if (similarity >= minSimilarity) {
+				matches.add(new SimilarityMatch(id, strings[id], similarity));
+			}
+		}
+
+		sort(matches, SimilarityMatch.BY_SIMILARITY);
+		return matches;
+	}
+
+	private int[] signature(String string) {
+		final String simplified = simplifier == null ? string : simplifier
+				.simplify(string);
+		return minHash.signature(tokenizer.tokenizeToSet(simplified));
+	}
+
+	/*
+	 * Hashes the rows of a band. Keys of different bands collide only by
+	 * chance, such collisions produce extra candidates.
+	 */
+	private Long key(int[] signature, int band) {
+		long h = band;
+		for (int i = band * rows, end = i + rows; i < end; i++) {
+			h = 31 * h + signature[i];
+			h ^= h >>> 29;
+		}
+		return h * 0x9E3779B97F4A7C15L;
+	}
+
+	@Override
+	public String toString() {
+		return "MinHashIndex [minHash=" + minHash + ", bands=" + bands
+				+ ", rows=" + rows + ", size=" + strings.length + "]";
+	}
+}
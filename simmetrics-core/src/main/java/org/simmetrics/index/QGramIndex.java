@@ -0,0 +1,558 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.index;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.lang.Math.ceil;
+import static java.lang.Math.floor;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.Arrays.copyOf;
+import static java.util.Collections.sort;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.simmetrics.PreparedQuery;
+import org.simmetrics.StringMetrics;
+import org.simmetrics.metrics.BlockDistance;
+import org.simmetrics.metrics.Levenshtein;
+import org.simmetrics.tokenizers.Tokenizer;
+
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Multiset;
+
+/**
+ * Inverted index from q-grams to the strings that contain them. Finds all
+ * strings with a similarity of at least a threshold to a query without
+ * comparing the query to every string.
+ * <p>
+ * Candidates are generated in two steps. First strings whose length can not
+ * reach the threshold are excluded. Then the number of q-grams each remaining
+ * string shares with the query is counted. Strings that share too few q-grams
+ * to reach the threshold are excluded. The remaining candidates are verified
+ * with the metric.
+ * <p>
+ * This class is immutable and thread-safe.
+ * 
+ * @see <a href="http://dx.doi.org/10.1016/0304-3975(92)90143-4">Ukkonen, E.
+ *      Approximate string-matching with q-grams and maximal matches</a>
+ */
+public final class QGramIndex {
+
+	// Allows for rounding when deriving bounds from a similarity
+	private static final double EPSILON = 1e-4;
+
+	/*
+	 * Derives the length and count filters from a minimum similarity.
+	 */
+	private static abstract class Filter {
+
+		Filter() {
+			// avoid synthetics
+		}
+
+		/*
+		 * The attribute strings are ordered and filtered by.
+		 */
+		abstract int size(int length, int tokens);
+
+		abstract int minSize(int querySize, float threshold);
+
+		abstract int maxSize(int querySize, float threshold);
+
+		abstract double minCommon(int queryLength, int queryTokens,
+				int length, int tokens, float threshold);
+
+		/*
+		 * True when a string of at most maxSize may reach the threshold
+		 * without sharing any q-grams with the query.
+		 */
+		abstract boolean mayMatchWithoutCommon(int queryLength,
+				int queryTokens, int maxSize, float threshold);
+
+		/*
+		 * Prepares the query for verification, reusing its tokens.
+		 */
+		abstract PreparedQuery prepare(String query, List<String> queryTokens);
+	}
+
+	/*
+	 * Block distance over bags of tokens is equivalent to a Dice
+	 * coefficient. similarity = 2 * common / (a + b).
+	 */
+	private static final class BlockDistanceFilter extends Filter {
+
+		private final Tokenizer tokenizer;
+
+		private final BlockDistance<String> metric = new BlockDistance<>();
+
+		BlockDistanceFilter(Tokenizer tokenizer) {
+			this.tokenizer = tokenizer;
+		}
+
+		@Override
+		int size(int length, int tokens) {
+			return tokens;
+		}
+
+		@Override
+		int minSize(int querySize, float threshold) {
+			if (threshold <= 0) {
+				return 0;
+			}
+			return (int) max(0, ceil(threshold * querySize / (2 - threshold)
+					- EPSILON));
+		}
+
+		@Override
+		int maxSize(int querySize, float threshold) {
+			if (threshold <= 0) {
+				return Integer.MAX_VALUE;
+			}
+			return (int) min(Integer.MAX_VALUE, floor((2 - threshold)
+					* querySize / threshold + EPSILON));
+		}
+
+		@Override
+		double minCommon(int queryLength, int queryTokens, int length,
+				int tokens, float threshold) {
+			final int total = queryTokens + tokens;
+			return threshold * total / 2.0 - EPSILON * (total + 1);
+		}
+
+		@Override
+		boolean mayMatchWithoutCommon(int queryLength, int queryTokens,
+				int maxSize, float threshold) {
+			return threshold <= 0 || queryTokens == 0;
+		}
+
+		@Override
+		PreparedQuery prepare(String query, final List<String> queryTokens) {
+			return new PreparedQuery() {
+				@Override
+				public float compare(String candidate) {
+					return metric.compare(queryTokens,
+							tokenizer.tokenizeToList(candidate));
+				}
+			};
+		}
+
+		@Override
+		public String toString() {
+			return "BlockDistanceFilter";
+		}
+	}
+
+	/*
+	 * Strings within edit distance k share at least max(|Q(a)|, |Q(b)|) - k *
+	 * q q-grams. Unit cost similarity = 1 - k / max(|a|, |b|).
+	 */
+	private static final class LevenshteinFilter extends Filter {
+
+		private final int q;
+
+		private final Levenshtein metric = new Levenshtein();
+
+		LevenshteinFilter(int q) {
+			this.q = q;
+		}
+
+		private static double maxEdits(double length, float threshold) {
+			return floor((1 - threshold) * length + EPSILON);
+		}
+
+		@Override
+		int size(int length, int tokens) {
+			return length;
+		}
+
+		@Override
+		int minSize(int querySize, float threshold) {
+			return (int) max(0, querySize - maxEdits(querySize, threshold));
+		}
+
+		@Override
+		int maxSize(int querySize, float threshold) {
+			if (threshold <= 0) {
+				return Integer.MAX_VALUE;
+			}
+			return (int) min(Integer.MAX_VALUE, floor((querySize + EPSILON)
+					/ threshold));
+		}
+
+		@Override
+		double minCommon(int queryLength, int queryTokens, int length,
+				int tokens, float threshold) {
+			return max(queryTokens, tokens)
+					- maxEdits(max(queryLength, length), threshold) * q;
+		}
+
+		@Override
+		boolean mayMatchWithoutCommon(int queryLength, int queryTokens,
+				int maxSize, float threshold) {
+			return queryTokens - maxEdits(max(queryLength, maxSize), threshold)
+					* q <= 0;
+		}
+
+		@Override
+		PreparedQuery prepare(String query, List<String> queryTokens) {
+			return StringMetrics.prepare(metric, query);
+		}
+
+		@Override
+		public String toString() {
+			return "LevenshteinFilter [q=" + q + "]";
+		}
+	}
+
+	private static final class Postings {
+		int[] ids = new int[2];
+		int[] counts = new int[2];
+		int size;
+
+		Postings() {
+			// avoid synthetics
+		}
+
+		void add(int id, int count) {
+			if (size == ids.length) {
+				ids = copyOf(ids, size * 2);
+				counts = copyOf(counts, size * 2);
+			}
+			ids[size] = id;
+			counts[size] = count;
+			size++;
+		}
+	}
+
+	/*
+	 * Number of q-grams each candidate shares with the query. Only candidates
+	 * that share a q-gram are stored, so counting takes time and space in the
+	 * number of postings visited rather than in the size of the index.
+	 */
+	private static final class Counts {
+		// Open addressing, a slot holds id + 1 or 0 when empty
+		private int[] slots = new int[32];
+		private int[] values = new int[32];
+
+		// Candidates in the order they were first counted
+		int[] ids = new int[16];
+		int size;
+
+		Counts() {
+			// avoid synthetics
+		}
+
+		void add(int id, int count) {
+			final int slot = find(slots, id);
+			if (slots[slot] != 0) {
+				values[slot] += count;
+				return;
+			}
+
+			slots[slot] = id + 1;
+			values[slot] = count;
+			if (size == ids.length) {
+				ids = copyOf(ids, size * 2);
+			}
+			ids[size++] = id;
+			if (2 * size > slots.length) {
+				rehash();
+			}
+		}
+
+		int get(int id) {
+			final int slot = find(slots, id);
+			return slots[slot] == 0 ? 0 : values[slot];
+		}
+
+		private void rehash() {
+			final int[] oldSlots = slots;
+			final int[] oldValues = values;
+			slots = new int[oldSlots.length * 2];
+			values = new int[oldSlots.length * 2];
+			for (int i = 0; i < oldSlots.length; i++) {
+				if (oldSlots[i] != 0) {
+					final int slot = find(slots, oldSlots[i] - 1);
+					slots[slot] = oldSlots[i];
+					values[slot] = oldValues[i];
+				}
+			}
+		}
+
+		/*
+		 * The slot holding id or the empty slot where it belongs.
+		 */
+		private static int find(int[] slots, int id) {
+			final int mask = slots.length - 1;
+			final int h = id * 0x9E3779B9;
+			int slot = (h ^ (h >>> 16)) & mask;
+			while (slots[slot] != 0 && slots[slot] != id + 1) {
+				slot = (slot + 1) & mask;
+			}
+			return slot;
+		}
+	}
+
+	private final Tokenizer tokenizer;
+	private final Filter filter;
+
+	// Strings ordered by size, then by position in the indexed list
+	private final String[] strings;
+	private final int[] ids;
+	private final int[] sizes;
+	private final int[] lengths;
+	private final int[] tokenCounts;
+
+	private final Map<String, Postings> postings;
+
+	private QGramIndex(Tokenizer tokenizer, Filter filter, List<String> strings) {
+		this.tokenizer = checkNotNull(tokenizer);
+		this.filter = filter;
+
+		final int n = strings.size();
+		final List<List<String>> tokens = new ArrayList<>(n);
+		final long[] order = new long[n];
+		int i = 0;
+		for (String string : strings) {
+			final List<String> t = tokenizer.tokenizeToList(checkNotNull(string));
+			tokens.add(t);
+			order[i] = (long) filter.size(string.length(), t.size()) << 32 | i;
+			i++;
+		}
+		Arrays.sort(order);
+
+		this.strings = new String[n];
+		this.ids = new int[n];
+		this.sizes = new int[n];
+		this.lengths = new int[n];
+		this.tokenCounts = new int[n];
+		this.postings = new HashMap<>();
+
+		for (int id = 0; id < n; id++) {
+			final int position = (int) order[id];
+			final String string = strings.get(position);
+			final List<String> t = tokens.get(position);
+
+			this.strings[id] = string;
+			this.ids[id] = position;
+			this.sizes[id] = (int) (order[id] >>> 32);
+			this.lengths[id] = string.length();
+			this.tokenCounts[id] = t.size();
+
+			for (Multiset.Entry<String> entry : HashMultiset.create(t)
+					.entrySet()) {
+				Postings p = postings.get(entry.getElement());
+				if (p == null) {
+					p = new Postings();
+					postings.put(entry.getElement(), p);
+				}
+				p.add(id, entry.getCount());
+			}
+		}
+	}
+
+	/**
+	 * Creates an index for the block distance over the tokens of a tokenizer,
+	 * e.g. {@link StringMetrics#qGramsDistance()} with
+	 * {@link org.simmetrics.tokenizers.Tokenizers#qGramWithPadding(int)
+	 * qGramWithPadding(3)}.
+	 * 
+	 * @param tokenizer
+	 *            the tokenizer to create q-grams with
+	 * @param strings
+	 *            the strings to index
+	 * @return a new index
+	 * @throws NullPointerException
+	 *             when either tokenizer, strings or any string is null
+	 */
+	public static QGramIndex forBlockDistance(Tokenizer tokenizer,
+			List<String> strings) {
+		return new QGramIndex(tokenizer, new BlockDistanceFilter(tokenizer),
+				strings);
+	}
+
+	/**
+	 * Creates an index for the unit cost {@link Levenshtein} similarity. The
+	 * tokenizer must be created by one of the {@code qGram} methods in
+	 * {@link org.simmetrics.tokenizers.Tokenizers Tokenizers}.
+	 * 
+	 * @param tokenizer
+	 *            the q-gram tokenizer
+	 * @param strings
+	 *            the strings to index
+	 * @return a new index
+	 * @throws NullPointerException
+	 *             when either tokenizer, strings or any string is null
+	 * @throws IllegalArgumentException
+	 *             when the tokenizer is not a q-gram tokenizer
+	 */
+	@SuppressWarnings("deprecation")
+	public static QGramIndex forLevenshtein(Tokenizer tokenizer,
+			List<String> strings) {
+		final int q;
+		// Fully qualified so the deprecated classes are not imported
+		if (tokenizer instanceof org.simmetrics.tokenizers.QGram) {
+			q = ((org.simmetrics.tokenizers.QGram) tokenizer).getQ();
+		} else if (tokenizer instanceof org.simmetrics.tokenizers.QGramExtended) {
+			q = ((org.simmetrics.tokenizers.QGramExtended) tokenizer).getQ();
+		} else {
+			checkNotNull(tokenizer);
+			throw new IllegalArgumentException(
+					"tokenizer must be a q-gram tokenizer: " + tokenizer);
+		}
+
+		return new QGramIndex(tokenizer, new LevenshteinFilter(q), strings);
+	}
+
+	/**
+	 * Returns the number of strings in the index.
+	 * 
+	 * @return the number of strings in the index
+	 */
+	public int size() {
+		return strings.length;
+	}
+
+	/**
+	 * Finds all strings with a similarity of at least {@code minSimilarity}
+	 * to the query. Matches are ordered by descending similarity and then by
+	 * position in the indexed list.
+	 * 
+	 * @param query
+	 *            the string to search for
+	 * @param minSimilarity
+	 *            the minimum similarity
+	 * @return the strings with a similarity of at least
+	 *         {@code minSimilarity}
+	 * @throws NullPointerException
+	 *             when the query is null
+	 */
+	public List<SimilarityMatch> search(String query, float minSimilarity) {
+		final List<String> queryTokens = tokenizer.tokenizeToList(checkNotNull(query));
+		final int queryLength = query.length();
+		final int queryTokenCount = queryTokens.size();
+		final int querySize = filter.size(queryLength, queryTokenCount);
+
+		final List<SimilarityMatch> matches = new ArrayList<>();
+
+		// Length filter
+		final int from = lowerBound(sizes, 0, sizes.length,
+				filter.minSize(querySize, minSimilarity));
+		final int to = upperBound(sizes, from, sizes.length,
+				filter.maxSize(querySize, minSimilarity));
+		if (from >= to) {
+			return matches;
+		}
+
+		// Count the q-grams shared with candidates in the length range
+		final Counts counts = new Counts();
+		for (Multiset.Entry<String> entry : HashMultiset.create(queryTokens)
+				.entrySet()) {
+			final Postings p = postings.get(entry.getElement());
+			if (p == null) {
+				continue;
+			}
+			for (int k = lowerBound(p.ids, 0, p.size, from); k < p.size
+					&& p.ids[k] < to; k++) {
+				counts.add(p.ids[k], min(entry.getCount(), p.counts[k]));
+			}
+		}
+
+		final PreparedQuery prepared = filter.prepare(query, queryTokens);
+
+		if (filter.mayMatchWithoutCommon(queryLength, queryTokenCount,
+				sizes[to - 1], minSimilarity)) {
+			for (int id = from; id < to; id++) {
+				verify(prepared, queryLength, queryTokenCount, id,
+						counts.get(id), minSimilarity, matches);
+			}
+		} else {
+			for (int i = 0; i < counts.size; i++) {
+				final int id = counts.ids[i];
+				verify(prepared, queryLength, queryTokenCount, id,
+						counts.get(id), minSimilarity, matches);
+			}
+		}
+
+		sort(matches, SimilarityMatch.BY_SIMILARITY);
+		return matches;
+	}
+
+	private void verify(PreparedQuery prepared, int queryLength,
+			int queryTokenCount, int id, int common, float minSimilarity,
+			List<SimilarityMatch> matches) {
+		// Count filter
+		if (common < filter.minCommon(queryLength, queryTokenCount,
+				lengths[id], tokenCounts[id], minSimilarity)) {
+			return;
+		}
+
+		final float similarity = prepared.compare(strings[id]);
+		if (similarity >= minSimilarity) {
+			matches.add(new SimilarityMatch(ids[id], strings[id], similarity));
+		}
+	}
+
+	/*
+	 * Index of the first value in [from, to) that is at least key.
+	 */
+	private static int lowerBound(int[] values, int from, int to, int key) {
+		int lo = from;
+		int hi = to;
+		while (lo < hi) {
+			final int mid = (lo + hi) >>> 1;
+			if (values[mid] < key) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	/*
+	 * Index of the first value in [from, to) that is greater than key.
+	 */
+	private static int upperBound(int[] values, int from, int to, int key) {
+		int lo = from;
+		int hi = to;
+		while (lo < hi) {
+			final int mid = (lo + hi) >>> 1;
+			if (values[mid] <= key) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	@Override
+	public String toString() {
+		return "QGramIndex [tokenizer=" + tokenizer + ", filter=" + filter
+				+ ", size=" + strings.length + "]";
+	}
+}
@@ -0,0 +1,388 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.index;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.Collections.sort;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.simmetrics.metrics.SimHash;
+import org.simmetrics.simplifiers.Simplifier;
+import org.simmetrics.tokenizers.Tokenizer;
+
+/**
+ * Index of SimHash fingerprints. Finds all strings whose fingerprint is within
+ * a Hamming distance of the fingerprint of a query. Both 64 and 128 bit
+ * fingerprints are supported.
+ * <p>
+ * The index uses the permuted tables of Manku et al. Fingerprints are divided
+ * into {@code maxDistance + t} blocks. Two fingerprints within
+ * {@code maxDistance} bits of each other are equal in at least {@code t}
+ * blocks. For each combination of {@code t} blocks a table of fingerprints
+ * sorted by those blocks is kept. A search looks up the range of fingerprints
+ * equal to the query in the blocks of each table and computes the Hamming
+ * distance to each.
+ * <p>
+ * A larger {@code t} makes the keys longer and the ranges shorter, but needs
+ * more tables. The index chooses the smallest {@code t} whose keys have about
+ * as many bits as needed to tell the strings apart, using at most
+ * {@value #MAX_TABLES} tables of one long per string each. When
+ * {@code maxDistance} is large compared to the number of bits in a
+ * fingerprint the keys remain short and a search compares the query to a large
+ * part of the index. When even {@code t = 1} needs more tables, such as for
+ * 128 bit fingerprints and a {@code maxDistance} of 64 or more, the index keeps
+ * a single table and a search compares the query to every string.
+ * <p>
+ * Strings are simplified and tokenized into sets before their fingerprint is
+ * computed. To compare the results with an exact metric use the same
+ * simplifier and tokenizer to build it.
+ * <p>
+ * This class is immutable and thread-safe.
+ * 
+ * @see <a href="http://dx.doi.org/10.1145/1242572.1242592">Manku, G. S.,
+ *      Jain, A., Das Sarma, A. Detecting near-duplicates for web crawling</a>
+ */
+public final class SimHashIndex {
+
+	static final int MAX_TABLES = 64;
+
+	private final SimHash<String> simHash;
+	private final Simplifier simplifier;
+	private final Tokenizer tokenizer;
+	private final int maxDistance;
+	private final int words;
+
+	private final String[] strings;
+
+	// The fingerprint of string id is at [id * words, (id + 1) * words)
+	private final long[] fingerprints;
+
+	// Block b covers bits [offsets[b], offsets[b + 1])
+	private final int[] offsets;
+
+	// Per table the blocks of its key in ascending order
+	private final int[][] keyBlocks;
+
+	// Per table the key in the upper and the id in the lower 32 bits
+	private final long[][] tables;
+
+	/**
+	 * Constructs a new index.
+	 * 
+	 * @param simHash
+	 *            the metric to compute fingerprints with
+	 * @param maxDistance
+	 *            the largest Hamming distance that can be searched for
+	 * @param tokenizer
+	 *            the tokenizer to create sets with
+	 * @param strings
+	 *            the strings to index
+	 * @throws NullPointerException
+	 *             when any argument or string is null
+	 * @throws IllegalArgumentException
+	 *             when maxDistance is not in {@code [0, simHash.getBits())}
+	 */
+	public SimHashIndex(SimHash<String> simHash, int maxDistance,
+			Tokenizer tokenizer, List<String> strings) {
+		this(simHash, maxDistance, null, tokenizer, strings);
+	}
+
+	/**
+	 * Constructs a new index.
+	 * 
+	 * @param simHash
+	 *            the metric to compute fingerprints with
+	 * @param maxDistance
+	 *            the largest Hamming distance that can be searched for
+	 * @param simplifier
+	 *            the simplifier to apply before tokenization, may be null
+	 * @param tokenizer
+	 *            the tokenizer to create sets with
+	 * @param strings
+	 *            the strings to index
+	 * @throws NullPointerException
+	 *             when simHash, tokenizer, strings or any string is null
+	 * @throws IllegalArgumentException
+	 *             when maxDistance is not in {@code [0, simHash.getBits())}
+	 */
+	public SimHashIndex(SimHash<String> simHash, int maxDistance,
+			Simplifier simplifier, Tokenizer tokenizer, List<String> strings) {
+		final int bits = simHash.getBits();
+		checkArgument(0 <= maxDistance && maxDistance < bits,
+				"maxDistance must be in [0, %s]", bits - 1);
+
+		this.simHash = simHash;
+		this.simplifier = simplifier;
+		this.tokenizer = checkNotNull(tokenizer);
+		this.maxDistance = maxDistance;
+		this.words = bits / 64;
+
+		final int n = strings.size();
+		this.strings = strings.toArray(new String[n]);
+		this.fingerprints = new long[n * words];
+		for (int id = 0; id < n; id++) {
+			System.arraycopy(fingerprint(checkNotNull(this.strings[id])), 0,
+					fingerprints, id * words, words);
+		}
+
+		final int t = keyBlocks(bits, maxDistance, n);
+		final int blocks = maxDistance + t;
+		this.offsets = new int[blocks + 1];
+		for (int b = 0; b <= blocks; b++) {
+			offsets[b] = b * bits / blocks;
+		}
+
+		this.keyBlocks = combinations(blocks, t);
+		this.tables = new long[keyBlocks.length][];
+		for (int k = 0; k < keyBlocks.length; k++) {
+			final long[] table = new long[n];
+			for (int id = 0; id < n; id++) {
+				table[id] = key(fingerprints, id * words, keyBlocks[k]) << 32
+						| id;
+			}
+			Arrays.sort(table);
+			tables[k] = table;
+		}
+	}
+
+	/*
+	 * Chooses the number of blocks in each key. Keys should have about as many
+	 * bits as needed to number the strings, but no more than a 32 bit key can
+	 * hold. Blocks may be at most 64 bits wide. Returns 0 when even the
+	 * smallest t needs more than MAX_TABLES tables.
+	 */
+	private static int keyBlocks(int bits, int maxDistance, int n) {
+		final int keyBits = min(32,
+				max(1, 32 - Integer.numberOfLeadingZeros(n)));
+
+		int t = max(1, (bits + 63) / 64 - maxDistance);
+		if (binomial(maxDistance + t, t) > MAX_TABLES) {
+			// A single table with an empty key holds every string
+			return 0;
+		}
+		while (maxDistance + t < bits
+				&& t * (bits / (maxDistance + t)) < keyBits
+				&& binomial(maxDistance + t + 1, t + 1) <= MAX_TABLES) {
+			t++;
+		}
+		return t;
+	}
+
+	private static long binomial(int n, int k) {
+		long c = 1;
+		for (int i = 0; i < k && c <= MAX_TABLES; i++) {
+			c = c * (n - i) / (i + 1);
+		}
+		return c;
+	}
+
+	/*
+	 * All combinations of t out of n blocks in lexicographic order.
+	 */
+	private static int[][] combinations(int n, int t) {
+		final List<int[]> combinations = new ArrayList<>();
+		final int[] combination = new int[t];
+		for (int i = 0; i < t; i++) {
+			combination[i] = i;
+		}
+		while (true) {
+			combinations.add(combination.clone());
+			int i = t - 1;
+			while (i >= 0 && combination[i] == n - t + i) {
+				i--;
+			}
+			if (i < 0) {
+				return combinations.toArray(new int[combinations.size()][]);
+			}
+			combination[i]++;
+			for (int j = i + 1; j < t; j++) {
+				combination[j] = combination[j - 1] + 1;
+			}
+		}
+	}
+
+	/**
+	 * Returns the largest Hamming distance that can be searched for.
+	 * 
+	 * @return the largest Hamming distance that can be searched for
+	 */
+	public int getMaxDistance() {
+		return maxDistance;
+	}
+
+	/**
+	 * Returns the number of strings in the index.
+	 * 
+	 * @return the number of strings in the index
+	 */
+	public int size() {
+		return strings.length;
+	}
+
+	int getBlocks() {
+		return offsets.length - 1;
+	}
+
+	int getTables() {
+		return tables.length;
+	}
+
+	/**
+	 * Finds all strings whose fingerprint is within {@link #getMaxDistance()}
+	 * bits of the fingerprint of the query. Matches are ordered by descending
+	 * estimated similarity and then by position in the indexed list.
+	 * 
+	 * @param query
+	 *            the string to search for
+	 * @return the strings whose fingerprint is within
+	 *         {@code getMaxDistance()} bits
+	 * @throws NullPointerException
+	 *             when the query is null
+	 */
+	public List<SimilarityMatch> search(String query) {
+		return search(query, maxDistance);
+	}
+
+	/**
+	 * Finds all strings whose fingerprint is within {@code distance} bits of
+	 * the fingerprint of the query. Matches are ordered by descending
+	 * estimated similarity and then by position in the indexed list.
+	 * 
+	 * @param query
+	 *            the string to search for
+	 * @param distance
+	 *            the maximum Hamming distance, at most
+	 *            {@link #getMaxDistance()}
+	 * @return the strings whose fingerprint is within {@code distance} bits
+	 * @throws NullPointerException
+	 *             when the query is null
+	 * @throws IllegalArgumentException
+	 *             when distance is not in {@code [0, getMaxDistance()]}
+	 */
+	public List<SimilarityMatch> search(String query, int distance) {
+		checkArgument(0 <= distance && distance <= maxDistance,
+				"distance must be in [0, %s]", maxDistance);
+		final long[] fingerprint = fingerprint(checkNotNull(query));
+
+		final List<SimilarityMatch> matches = new ArrayList<>();
+		for (int k = 0; k < tables.length; k++) {
+			final long[] table = tables[k];
+			final long key = key(fingerprint, 0, keyBlocks[k]);
+			for (int i = lowerBound(table, key << 32); i < table.length
+					&& table[i] >>> 32 == key; i++) {
+				final int id = (int) table[i];
+				final int d = distance(fingerprint, id);
+				if (d <= distance && isFirstTable(fingerprint, id, k)) {
+					matches.add(new SimilarityMatch(id, strings[id], simHash
+							.similarity(d)));
+				}
+			}
+		}
+
+		sort(matches, SimilarityMatch.BY_SIMILARITY);
+		return matches;
+	}
+
+	/*
+	 * Matches are reported only for the first table whose blocks are all equal
+	 * to avoid duplicates. Tables are in lexicographic order of their blocks
+	 * so this is the table of the first t equal blocks.
+	 */
+	private boolean isFirstTable(long[] fingerprint, int id, int k) {
+		final int[] blocks = keyBlocks[k];
+		int b = 0;
+		for (int i = 0; i < blocks.length; i++, b++) {
+			while (block(fingerprint, 0, b) != block(fingerprints, id * words,
+					b)) {
+				b++;
+			}
+			if (b != blocks[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int distance(long[] fingerprint, int id) {
+		int d = 0;
+		for (int w = 0; w < words; w++) {
+			d += Long.bitCount(fingerprint[w] ^ fingerprints[id * words + w]);
+		}
+		return d;
+	}
+
+	/*
+	 * Hashes the key blocks to 32 bits. Equal blocks make equal keys, unequal
+	 * blocks that collide are removed by the distance check.
+	 */
+	private long key(long[] values, int offset, int[] blocks) {
+		long hash = 0;
+		for (int b : blocks) {
+			hash = (hash + block(values, offset, b)) * 0x9E3779B97F4A7C15L;
+		}
+		return hash >>> 32;
+	}
+
+	private long block(long[] values, int offset, int b) {
+		final int from = offsets[b];
+		final int width = offsets[b + 1] - from;
+		final int word = offset + (from >>> 6);
+		final int shift = from & 63;
+
+		long block = values[word] >>> shift;
+		if (shift + width > 64) {
+			block |= values[word + 1] << 64 - shift;
+		}
+		return width == 64 ? block : block & (1L << width) - 1;
+	}
+
+	private long[] fingerprint(String string) {
+		final String simplified = simplifier == null ? string : simplifier
+				.simplify(string);
+		return simHash.fingerprint(tokenizer.tokenizeToSet(simplified));
+	}
+
+	private static int lowerBound(long[] values, long key) {
+		int lo = 0;
+		int hi = values.length;
+		while (lo < hi) {
+			final int mid = (lo + hi) >>> 1;
+			if (values[mid] < key) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	@Override
+	public String toString() {
+		return "SimHashIndex [simHash=" + simHash + ", maxDistance="
+				+ maxDistance + ", size=" + strings.length + "]";
+	}
+}
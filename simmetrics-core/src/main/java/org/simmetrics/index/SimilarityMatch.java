@@ -0,0 +1,105 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.index;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Comparator;
+
+import com.google.common.base.Objects;
+
+/**
+ * A string found by an index together with its position in the indexed list
+ * and its similarity to the query.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class SimilarityMatch {
+
+	static final Comparator<SimilarityMatch> BY_SIMILARITY = new Comparator<SimilarityMatch>() {
+		@Override
+		public int compare(SimilarityMatch a, SimilarityMatch b) {
+			final int c = Float.compare(b.similarity, a.similarity);
+			return c != 0 ? c : Integer.compare(a.id, b.id);
+		}
+	};
+
+	private final int id;
+	private final String string;
+	private final float similarity;
+
+	SimilarityMatch(int id, String string, float similarity) {
+		this.id = id;
+		this.string = checkNotNull(string);
+		this.similarity = similarity;
+	}
+
+	/**
+	 * Returns the position of the string in the indexed list.
+	 * 
+	 * @return the position of the string in the indexed list
+	 */
+	public int getId() {
+		return id;
+	}
+
+	/**
+	 * Returns the string that matched.
+	 * 
+	 * @return the string that matched
+	 */
+	public String getString() {
+		return string;
+	}
+
+	/**
+	 * Returns the similarity between the query and the string that matched.
+	 * 
+	 * @return the similarity to the query
+	 */
+	public float getSimilarity() {
+		return similarity;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof SimilarityMatch)) {
+			return false;
+		}
+		final SimilarityMatch other = (SimilarityMatch) obj;
+		return id == other.id && string.equals(other.string)
+				&& Float.compare(similarity, other.similarity) == 0;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hashCode(id, string, similarity);
+	}
+
+	@Override
+	public String toString() {
+		return "SimilarityMatch [id=" + id + ", string=" + string
+				+ ", similarity=" + similarity + "]";
+	}
+}
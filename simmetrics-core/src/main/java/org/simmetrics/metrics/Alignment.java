@@ -0,0 +1,177 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.metrics;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableList;
+
+import java.util.List;
+
+/**
+ * An alignment of two strings. Consists of a sequence of operations that
+ * transform a region of the first string into a region of the second string.
+ * For a global alignment the regions cover both strings entirely.
+ * <p>
+ * This class is immutable and thread-safe.
+ * 
+ * @see NeedlemanWunch#align(String, String)
+ * @see SmithWatermanGotoh#align(String, String)
+ */
+public final class Alignment {
+
+	/**
+	 * An operation in an alignment.
+	 */
+	public enum Operation {
+		/**
+		 * A character of a aligned to an equal character of b.
+		 */
+		MATCH,
+		/**
+		 * A character of a aligned to a different character of b.
+		 */
+		SUBSTITUTE,
+		/**
+		 * A character of a aligned to a gap.
+		 */
+		DELETE,
+		/**
+		 * A character of b aligned to a gap.
+		 */
+		INSERT
+	}
+
+	/**
+	 * The character used to represent a gap in an aligned string.
+	 */
+	public static final char GAP = '-';
+
+	private final String a;
+	private final String b;
+	private final int startA;
+	private final int endA;
+	private final int startB;
+	private final int endB;
+	private final Operation[] operations;
+	private final float score;
+
+	Alignment(String a, String b, int startA, int endA, int startB, int endB,
+			Operation[] operations, float score) {
+		this.a = a;
+		this.b = b;
+		this.startA = startA;
+		this.endA = endA;
+		this.startB = startB;
+		this.endB = endB;
+		this.operations = operations;
+		this.score = score;
+	}
+
+	/**
+	 * Returns the score of the alignment. This is the sum of the substitution
+	 * values and gap values of its operations.
+	 * 
+	 * @return the score of the alignment
+	 */
+	public float getScore() {
+		return score;
+	}
+
+	/**
+	 * Returns the index in a of the first aligned character.
+	 * 
+	 * @return the index of the first aligned character in a
+	 */
+	public int getStartA() {
+		return startA;
+	}
+
+	/**
+	 * Returns the index in a after the last aligned character.
+	 * 
+	 * @return the index after the last aligned character in a
+	 */
+	public int getEndA() {
+		return endA;
+	}
+
+	/**
+	 * Returns the index in b of the first aligned character.
+	 * 
+	 * @return the index of the first aligned character in b
+	 */
+	public int getStartB() {
+		return startB;
+	}
+
+	/**
+	 * Returns the index in b after the last aligned character.
+	 * 
+	 * @return the index after the last aligned character in b
+	 */
+	public int getEndB() {
+		return endB;
+	}
+
+	/**
+	 * Returns the operations of the alignment in order.
+	 * 
+	 * @return an unmodifiable list of operations
+	 */
+	public List<Operation> getOperations() {
+		return unmodifiableList(asList(operations));
+	}
+
+	/**
+	 * Returns the aligned region of a with a {@link #GAP} for each insertion.
+	 * 
+	 * @return the aligned region of a
+	 */
+	public String getAlignedA() {
+		final StringBuilder aligned = new StringBuilder(operations.length);
+		int i = startA;
+		for (Operation operation : operations) {
+			aligned.append(operation == Operation.INSERT ? GAP : a.charAt(i++));
+		}
+		return aligned.toString();
+	}
+
+	/**
+	 * Returns the aligned region of b with a {@link #GAP} for each deletion.
+	 * 
+	 * @return the aligned region of b
+	 */
+	public String getAlignedB() {
+		final StringBuilder aligned = new StringBuilder(operations.length);
+		int j = startB;
+		for (Operation operation : operations) {
+			aligned.append(operation == Operation.DELETE ? GAP : b.charAt(j++));
+		}
+		return aligned.toString();
+	}
+
+	@Override
+	public String toString() {
+		return "Alignment [a=" + getAlignedA() + ", b=" + getAlignedB()
+				+ ", score=" + score + "]";
+	}
+
+}
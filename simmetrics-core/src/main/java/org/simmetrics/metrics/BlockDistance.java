@@ -19,16 +19,18 @@
  */
 package org.simmetrics.metrics;
 
-import static java.util.Collections.frequency;
+import static org.simmetrics.metrics.MultisetCounts.intersection;
+import static org.simmetrics.metrics.SortedIds.intersection;
 
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 import org.simmetrics.ListDistance;
 import org.simmetrics.ListMetric;
+import org.simmetrics.MultisetMetric;
+import org.simmetrics.PackedTokenMetric;
+import org.simmetrics.TokenIdMetric;
 
-import static java.lang.Math.abs;
+import com.google.common.collect.Multiset;
 
 /**
  * Block distance algorithm whereby vector space block distance between tokens
@@ -42,7 +44,8 @@ import static java.lang.Math.abs;
  * @param <T>
  *            type of token
  */
-public class BlockDistance<T> implements ListMetric<T>, ListDistance<T> {
+public class BlockDistance<T> implements ListMetric<T>, ListDistance<T>,
+		MultisetMetric<T>, TokenIdMetric, PackedTokenMetric {
 
 	@Override
 	public float compare(List<T> a, List<T> b) {
@@ -60,18 +63,37 @@ public class BlockDistance<T> implements ListMetric<T>, ListDistance<T> {
 
 	@Override
 	public float distance(final List<T> a, final List<T> b) {
-		final Set<T> all = new HashSet<>(a.size() + b.size());
-		all.addAll(a);
-		all.addAll(b);
+		return new TokenCounts(a, b).sumOfAbsolutes();
+	}
+
+	@Override
+	public float compare(Multiset<T> a, Multiset<T> b) {
+		return similarity(a.size(), b.size(), intersection(a, b));
+	}
 
-		int totalDistance = 0;
-		for (T token : all) {
-			int frequencyInA = frequency(a, token);
-			int frequencyInB = frequency(b, token);
+	@Override
+	public float compare(int[] a, int[] b) {
+		return similarity(a.length, b.length, intersection(a, b));
+	}
 
-			totalDistance += abs(frequencyInA - frequencyInB);
+	@Override
+	public float compare(long[] a, long[] b) {
+		return similarity(a.length, b.length, intersection(a, b));
+	}
+
+	private static float similarity(int sizeA, int sizeB, int intersection) {
+
+		if (sizeA == 0 && sizeB == 0) {
+			return 1.0f;
 		}
-		return totalDistance;
+
+		if (sizeA == 0 || sizeB == 0) {
+			return 0.0f;
+		}
+
+		// Tokens not in the intersection differ by one occurrence each
+		final float distance = sizeA + sizeB - 2 * intersection;
+		return 1.0f - distance / (sizeA + sizeB);
 	}
 
 	@Override
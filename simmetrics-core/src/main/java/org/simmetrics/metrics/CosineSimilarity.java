@@ -23,9 +23,12 @@ package org.simmetrics.metrics;
 import java.util.HashSet;
 import java.util.Set;
 
+import org.simmetrics.PackedTokenMetric;
 import org.simmetrics.SetMetric;
+import org.simmetrics.TokenIdMetric;
 
 import static java.lang.Math.sqrt;
+import static org.simmetrics.metrics.SortedIds.intersection;
 
 /**
  * Cosine Similarity algorithm providing a similarity measure between two set
@@ -39,7 +42,8 @@ import static java.lang.Math.sqrt;
  * @param <T>
  *            type of the token
  */
-public class CosineSimilarity<T> implements SetMetric<T> {
+public class CosineSimilarity<T> implements SetMetric<T>,
+		TokenIdMetric, PackedTokenMetric {
 
 	@Override
 	public float compare(Set<T> a, Set<T> b) {
@@ -65,6 +69,30 @@ public class CosineSimilarity<T> implements SetMetric<T> {
 		return (float) (intersection / (sqrt(a.size()) * sqrt(b.size())));
 	}
 
+	@Override
+	public float compare(int[] a, int[] b) {
+		return similarity(a.length, b.length, intersection(a, b));
+	}
+
+	@Override
+	public float compare(long[] a, long[] b) {
+		return similarity(a.length, b.length, intersection(a, b));
+	}
+
+	private static float similarity(int sizeA, int sizeB, int intersection) {
+
+		if (sizeA == 0 && sizeB == 0) {
+			return 1.0f;
+		}
+
+		if (sizeA == 0 || sizeB == 0) {
+			return 0.0f;
+		}
+
+
+		return (float) (intersection / (sqrt(sizeA) * sqrt(sizeB)));
+	}
+
 	@Override
 	public String toString() {
 		return "CosineSimilarity";
@@ -22,10 +22,14 @@ package org.simmetrics.metrics;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.lang.Math.max;
+import static org.simmetrics.metrics.IntegralCosts.INFINITY;
+import static org.simmetrics.metrics.IntegralCosts.isExact;
+import static org.simmetrics.metrics.IntegralCosts.isIntegral;
+import static org.simmetrics.metrics.IntegralCosts.toFloat;
 import static org.simmetrics.metrics.Math.max;
 import static org.simmetrics.metrics.Math.min;
 
-import org.simmetrics.StringDistance;
+import org.simmetrics.BoundedStringDistance;
 import org.simmetrics.StringMetric;
 
 /**
@@ -36,6 +40,9 @@ import org.simmetrics.StringMetric;
  * cost for substitution and/or transposition are zero Damerau-Levenshtein does
  * not satisfy the coincidence property.
  * <p>
+ * When all costs are integers the matrix is computed with ints rather than
+ * floats.
+ * <p>
  * This class is immutable and thread-safe.
  * 
  * @see <a
@@ -44,12 +51,14 @@ import org.simmetrics.StringMetric;
  * @see Levenshtein
  * 
  */
-public class DamerauLevenshtein implements StringMetric, StringDistance {
+public class DamerauLevenshtein implements StringMetric,
+		BoundedStringDistance {
 
 	private final float maxCost;
 	private final float insertDelete;
 	private final float substitute;
 	private final float transpose;
+	private final boolean integral;
 
 	/**
 	 * Constructs a new Damerau-Levenshtein metric.
@@ -80,6 +89,8 @@ public class DamerauLevenshtein implements StringMetric, StringDistance {
 		this.insertDelete = insertDelete;
 		this.substitute = substitute;
 		this.transpose = transpose;
+		this.integral = isIntegral(insertDelete) && isIntegral(substitute)
+				&& isIntegral(transpose);
 	}
 
 	@Override
@@ -101,18 +112,32 @@ public class DamerauLevenshtein implements StringMetric, StringDistance {
 		if (s.equals(t))
 			return 0;
 
+		final MetricWorkspace workspace = MetricWorkspace.acquire();
+		try {
+			return distance(s, t, workspace);
+		} finally {
+			workspace.release();
+		}
+	}
+
+	private float distance(final String s, final String t,
+			final MetricWorkspace workspace) {
 		final int tLength = t.length();
 		final int sLength = s.length();
 
+		if (integral && isExact(maxCost, sLength, tLength)) {
+			return integralDistance(s, t, workspace);
+		}
+
 		float[] swap;
-		float[] v0 = new float[tLength + 1];
-		float[] v1 = new float[tLength + 1];
-		float[] v2 = new float[tLength + 1];
+		float[] v0 = workspace.floats(0, tLength + 1);
+		float[] v1 = workspace.floats(1, tLength + 1);
+		float[] v2 = workspace.floats(2, tLength + 1);
 
 		// initialize v1 (the previous row of distances)
 		// this row is A[0][i]: edit distance for an empty s
 		// the distance is just the number of characters to delete from t
-		for (int i = 0; i < v1.length; i++) {
+		for (int i = 0; i <= tLength; i++) {
 			v1[i] = i * insertDelete;
 		}
 
@@ -146,6 +171,269 @@ public class DamerauLevenshtein implements StringMetric, StringDistance {
 		return v1[tLength];
 	}
 
+	/*
+	 * As distance(s, t) with int rows. Costs must be integral.
+	 */
+	private int integralDistance(final String s, final String t,
+			final MetricWorkspace workspace) {
+		final int tLength = t.length();
+		final int sLength = s.length();
+		final int insertDelete = (int) this.insertDelete;
+		final int substitute = (int) this.substitute;
+		final int transpose = (int) this.transpose;
+
+		int[] swap;
+		int[] v0 = workspace.ints(0, tLength + 1);
+		int[] v1 = workspace.ints(1, tLength + 1);
+		int[] v2 = workspace.ints(2, tLength + 1);
+
+		for (int i = 0; i <= tLength; i++) {
+			v1[i] = i * insertDelete;
+		}
+
+		for (int i = 0; i < sLength; i++) {
+			v2[0] = (i + 1) * insertDelete;
+
+			for (int j = 0; j < tLength; j++) {
+				if (j > 0 && i > 0 && s.charAt(i - 1) == t.charAt(j)
+						&& s.charAt(i) == t.charAt(j - 1)) {
+					v2[j + 1] = min(v2[j] + insertDelete, v1[j + 1]
+							+ insertDelete, v1[j]
+							+ (s.charAt(i) == t.charAt(j) ? 0 : substitute),
+							v0[j - 1] + transpose);
+				} else {
+					v2[j + 1] = min(v2[j] + insertDelete, v1[j + 1]
+							+ insertDelete, v1[j]
+							+ (s.charAt(i) == t.charAt(j) ? 0 : substitute));
+				}
+			}
+
+			swap = v0;
+			v0 = v1;
+			v1 = v2;
+			v2 = swap;
+		}
+
+		return v1[tLength];
+	}
+
+	/**
+	 * Returns true when the similarity of {@code a} and {@code b} is at least
+	 * {@code minSimilarity}. This is equivalent to
+	 * {@code compare(a, b) >= minSimilarity} but computes only as much of the
+	 * distance as needed to decide the outcome.
+	 * 
+	 * @param a
+	 *            string a to compare
+	 * @param b
+	 *            string b to compare
+	 * @param minSimilarity
+	 *            minimum similarity, at most 1
+	 * @return true when the similarity is at least {@code minSimilarity}
+	 * 
+	 * @see #distance(String, String, float)
+	 */
+	public boolean compareAtLeast(final String a, final String b,
+			final float minSimilarity) {
+		checkArgument(minSimilarity <= 1.0f);
+
+		if (a.isEmpty() && b.isEmpty()) {
+			return true;
+		}
+
+		final float normalizer = maxCost * max(a.length(), b.length());
+		final float maxDistance = (1.0f - minSimilarity) * normalizer;
+		// Allow for rounding, the outcome is decided by the exact formula
+		final float distance = distance(a, b, maxDistance * 1.0001f
+				+ Float.MIN_NORMAL);
+
+		return distance != Float.POSITIVE_INFINITY
+				&& 1.0f - (distance / normalizer) >= minSimilarity;
+	}
+
+	/**
+	 * Measures the distance between strings {@code s} and {@code t} when it is
+	 * at most {@code maxDistance}. When the distance exceeds
+	 * {@code maxDistance} {@link Float#POSITIVE_INFINITY} is returned instead.
+	 * <p>
+	 * Only cells of the dynamic programming matrix within a diagonal band of
+	 * width {@code 2k + 1} are computed, where {@code k} is the number of
+	 * insert/delete operations affordable within {@code maxDistance}. The
+	 * computation stops as soon as every cell in a row exceeds the bound.
+	 * 
+	 * @see <a href="http://dx.doi.org/10.1016/S0019-9958(85)80046-2">Ukkonen,
+	 *      E. Algorithms for approximate string matching</a>
+	 */
+	@Override
+	public float distance(final String s, final String t,
+			final float maxDistance) {
+		checkArgument(maxDistance >= 0);
+
+		if (s.isEmpty())
+			return bounded(t.length() * insertDelete, maxDistance);
+		if (t.isEmpty())
+			return bounded(s.length() * insertDelete, maxDistance);
+
+		final int sLength = s.length();
+		final int tLength = t.length();
+
+		// Number of insert/delete operations within bound, plus one to allow
+		// for rounding
+		final int k = (int) java.lang.Math.min(maxDistance / insertDelete + 1,
+				max(sLength, tLength));
+
+		if (java.lang.Math.abs(sLength - tLength) > k)
+			return Float.POSITIVE_INFINITY;
+		if (s.equals(t))
+			return 0;
+
+		final MetricWorkspace workspace = MetricWorkspace.acquire();
+		try {
+			return distance(s, t, maxDistance, k, workspace);
+		} finally {
+			workspace.release();
+		}
+	}
+
+	private float distance(final String s, final String t,
+			final float maxDistance, final int k,
+			final MetricWorkspace workspace) {
+		final int sLength = s.length();
+		final int tLength = t.length();
+
+		if (integral && isExact(maxCost, sLength, tLength)) {
+			return integralDistance(s, t, maxDistance, k, workspace);
+		}
+
+		float[] swap;
+		float[] v0 = workspace.floats(0, tLength + 1);
+		float[] v1 = workspace.floats(1, tLength + 1);
+		float[] v2 = workspace.floats(2, tLength + 1);
+
+		// Cells outside the band are never read before being set to
+		// infinity, except the one just right of the band in each row
+		for (int j = 0; j <= java.lang.Math.min(k, tLength); j++) {
+			v1[j] = j * insertDelete;
+		}
+		if (k < tLength) {
+			v1[k + 1] = Float.POSITIVE_INFINITY;
+		}
+
+		float previousRowMin = 0.0f;
+		for (int i = 0; i < sLength; i++) {
+			final int lo = max(1, i + 1 - k);
+			final int hi = java.lang.Math.min(tLength, i + 1 + k);
+
+			v2[lo - 1] = lo == 1 && i + 1 <= k ? (i + 1) * insertDelete
+					: Float.POSITIVE_INFINITY;
+			float rowMin = v2[lo - 1];
+
+			for (int j = lo - 1; j < hi; j++) {
+				if (j > 0 && i > 0 && s.charAt(i - 1) == t.charAt(j)
+						&& s.charAt(i) == t.charAt(j - 1)) {
+					v2[j + 1] = min(v2[j] + insertDelete, v1[j + 1]
+							+ insertDelete, v1[j]
+							+ (s.charAt(i) == t.charAt(j) ? 0.0f : substitute),
+							v0[j - 1] + transpose);
+				} else {
+					v2[j + 1] = min(v2[j] + insertDelete, v1[j + 1]
+							+ insertDelete, v1[j]
+							+ (s.charAt(i) == t.charAt(j) ? 0.0f : substitute));
+				}
+				rowMin = java.lang.Math.min(rowMin, v2[j + 1]);
+			}
+
+			if (hi < tLength) {
+				v2[hi + 1] = Float.POSITIVE_INFINITY;
+			}
+
+			// Costs are non-negative and a transposition skips at most one
+			// row, no cell below can be smaller than both rows
+			if (rowMin > maxDistance && previousRowMin > maxDistance) {
+				return Float.POSITIVE_INFINITY;
+			}
+			previousRowMin = rowMin;
+
+			swap = v0;
+			v0 = v1;
+			v1 = v2;
+			v2 = swap;
+		}
+
+		return bounded(v1[tLength], maxDistance);
+	}
+
+	/*
+	 * As distance(s, t, maxDistance) with int rows. Costs must be integral.
+	 */
+	private float integralDistance(final String s, final String t,
+			final float maxDistance, final int k,
+			final MetricWorkspace workspace) {
+		final int sLength = s.length();
+		final int tLength = t.length();
+		final int insertDelete = (int) this.insertDelete;
+		final int substitute = (int) this.substitute;
+		final int transpose = (int) this.transpose;
+
+		int[] swap;
+		int[] v0 = workspace.ints(0, tLength + 1);
+		int[] v1 = workspace.ints(1, tLength + 1);
+		int[] v2 = workspace.ints(2, tLength + 1);
+
+		for (int j = 0; j <= java.lang.Math.min(k, tLength); j++) {
+			v1[j] = j * insertDelete;
+		}
+		if (k < tLength) {
+			v1[k + 1] = INFINITY;
+		}
+
+		float previousRowMin = 0.0f;
+		for (int i = 0; i < sLength; i++) {
+			final int lo = max(1, i + 1 - k);
+			final int hi = java.lang.Math.min(tLength, i + 1 + k);
+
+			v2[lo - 1] = lo == 1 && i + 1 <= k ? (i + 1) * insertDelete
+					: INFINITY;
+			int rowMin = v2[lo - 1];
+
+			for (int j = lo - 1; j < hi; j++) {
+				if (j > 0 && i > 0 && s.charAt(i - 1) == t.charAt(j)
+						&& s.charAt(i) == t.charAt(j - 1)) {
+					v2[j + 1] = min(v2[j] + insertDelete, v1[j + 1]
+							+ insertDelete, v1[j]
+							+ (s.charAt(i) == t.charAt(j) ? 0 : substitute),
+							v0[j - 1] + transpose);
+				} else {
+					v2[j + 1] = min(v2[j] + insertDelete, v1[j + 1]
+							+ insertDelete, v1[j]
+							+ (s.charAt(i) == t.charAt(j) ? 0 : substitute));
+				}
+				rowMin = java.lang.Math.min(rowMin, v2[j + 1]);
+			}
+
+			if (hi < tLength) {
+				v2[hi + 1] = INFINITY;
+			}
+
+			final float floatRowMin = toFloat(rowMin);
+			if (floatRowMin > maxDistance && previousRowMin > maxDistance) {
+				return Float.POSITIVE_INFINITY;
+			}
+			previousRowMin = floatRowMin;
+
+			swap = v0;
+			v0 = v1;
+			v1 = v2;
+			v2 = swap;
+		}
+
+		return bounded(toFloat(v1[tLength]), maxDistance);
+	}
+
+	private static float bounded(float distance, float maxDistance) {
+		return distance <= maxDistance ? distance : Float.POSITIVE_INFINITY;
+	}
+
 	@Override
 	public String toString() {
 		return "DamerauLevenshtein [insertDelete=" + insertDelete
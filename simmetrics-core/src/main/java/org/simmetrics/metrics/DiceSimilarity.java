@@ -20,10 +20,14 @@
 
 package org.simmetrics.metrics;
 
+import static org.simmetrics.metrics.SortedIds.intersection;
+
 import java.util.HashSet;
 import java.util.Set;
 
+import org.simmetrics.PackedTokenMetric;
 import org.simmetrics.SetMetric;
+import org.simmetrics.TokenIdMetric;
 
 /**
  * Dice similarity algorithm providing a similarity measure between two sets
@@ -44,7 +48,8 @@ import org.simmetrics.SetMetric;
  * @param <T>
  *            type of the token
  */
-public class DiceSimilarity<T> implements SetMetric<T> {
+public class DiceSimilarity<T> implements SetMetric<T>,
+		TokenIdMetric, PackedTokenMetric {
 
 	@Override
 	public float compare(Set<T> a, Set<T> b) {
@@ -68,6 +73,31 @@ public class DiceSimilarity<T> implements SetMetric<T> {
 		return (2.0f * intersection) / total;
 	}
 
+	@Override
+	public float compare(int[] a, int[] b) {
+		return similarity(a.length, b.length, intersection(a, b));
+	}
+
+	@Override
+	public float compare(long[] a, long[] b) {
+		return similarity(a.length, b.length, intersection(a, b));
+	}
+
+	private static float similarity(int sizeA, int sizeB, int intersection) {
+
+		if (sizeA == 0 && sizeB == 0) {
+			return 1.0f;
+		}
+
+		if (sizeA == 0 || sizeB == 0) {
+			return 0.0f;
+		}
+
+		final int total = sizeA + sizeB;
+
+		return (2.0f * intersection) / total;
+	}
+
 	@Override
 	public String toString() {
 		return "DiceSimilarity";
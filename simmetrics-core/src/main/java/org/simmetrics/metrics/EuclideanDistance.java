@@ -20,16 +20,19 @@
 
 package org.simmetrics.metrics;
 
-import static java.util.Collections.frequency;
-
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 import org.simmetrics.ListDistance;
 import org.simmetrics.ListMetric;
+import org.simmetrics.MultisetMetric;
+import org.simmetrics.PackedTokenMetric;
+import org.simmetrics.TokenIdMetric;
+
+import com.google.common.collect.Multiset;
 
 import static java.lang.Math.sqrt;
+import static org.simmetrics.metrics.MultisetCounts.sumOfSquares;
+import static org.simmetrics.metrics.SortedIds.sumOfSquares;
 
 /**
  * Euclidean Distance algorithm providing a similarity measure between two lists
@@ -41,7 +44,8 @@ import static java.lang.Math.sqrt;
  *            type of the token
  * 
  */
-public class EuclideanDistance<T> implements ListMetric<T>, ListDistance<T> {
+public class EuclideanDistance<T> implements ListMetric<T>, ListDistance<T>,
+		MultisetMetric<T>, TokenIdMetric, PackedTokenMetric {
 
 	@Override
 	public float compare(List<T> a, List<T> b) {
@@ -56,19 +60,34 @@ public class EuclideanDistance<T> implements ListMetric<T>, ListDistance<T> {
 
 	@Override
 	public float distance(final List<T> a, final List<T> b) {
-		final Set<T> all = new HashSet<>(a.size() + b.size());
-		all.addAll(a);
-		all.addAll(b);
+		final float distance = new TokenCounts(a, b).sumOfSquares();
+		return (float) sqrt(distance);
+	}
 
-		float distance = 0.0f;
-		for (final T token : all) {
-			int frequencyInA = frequency(a, token);
-			int frequencyInB = frequency(b, token);
+	@Override
+	public float compare(Multiset<T> a, Multiset<T> b) {
+		return similarity(a.size(), b.size(), sumOfSquares(a, b));
+	}
 
-			distance += ((frequencyInA - frequencyInB) * (frequencyInA - frequencyInB));
+	@Override
+	public float compare(int[] a, int[] b) {
+		return similarity(a.length, b.length, sumOfSquares(a, b));
+	}
+
+	@Override
+	public float compare(long[] a, long[] b) {
+		return similarity(a.length, b.length, sumOfSquares(a, b));
+	}
+
+	private static float similarity(int sizeA, int sizeB, long sumOfSquares) {
+
+		if (sizeA == 0 && sizeB == 0) {
+			return 1.0f;
 		}
 
-		return (float) sqrt(distance);
+		float maxDistance = (float) sqrt((sizeA * sizeA) + (sizeB * sizeB));
+		final float distance = sumOfSquares;
+		return (maxDistance - (float) sqrt(distance)) / maxDistance;
 	}
 
 	@Override
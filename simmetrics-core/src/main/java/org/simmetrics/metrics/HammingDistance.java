@@ -26,9 +26,9 @@ import static com.google.common.base.Preconditions.checkArgument;
 import java.util.Iterator;
 import java.util.List;
 
+import org.simmetrics.BoundedStringDistance;
 import org.simmetrics.Distance;
 import org.simmetrics.ListDistance;
-import org.simmetrics.StringDistance;
 
 import com.google.common.base.Objects;
 
@@ -113,7 +113,8 @@ public final class HammingDistance {
 	 * This class is immutable and thread-safe.
 	 * 
 	 */
-	private static final class HammingStringDistance implements StringDistance {
+	private static final class HammingStringDistance implements
+			BoundedStringDistance {
 
 		HammingStringDistance() {
 			// avoid synthetics
@@ -151,7 +152,29 @@ public final class HammingDistance {
 			}
 			return distance;
 		}
-		
+
+		/**
+		 * Measures the distance between strings {@code a} and {@code b} of
+		 * equal length when it is at most {@code maxDistance}. Stops counting
+		 * as soon as the bound is exceeded.
+		 * 
+		 * @throws IllegalArgumentException
+		 *             when a and b differ in length or maxDistance is negative
+		 */
+		@Override
+		public float distance(String a, String b, float maxDistance) {
+			checkArgument(a.length() == b.length());
+			checkArgument(maxDistance >= 0);
+
+			int distance = 0;
+			for (int i = 0, length = a.length(); i < length; i++) {
+				if (a.charAt(i) != b.charAt(i) && ++distance > maxDistance) {
+					return Float.POSITIVE_INFINITY;
+				}
+			}
+			return distance;
+		}
+
 		@Override
 		public String toString() {
 			return "HammingStringDistance";
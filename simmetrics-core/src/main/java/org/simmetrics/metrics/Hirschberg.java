@@ -0,0 +1,350 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.metrics;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.Arrays.fill;
+
+import org.simmetrics.metrics.Alignment.Operation;
+import org.simmetrics.metrics.functions.Substitution;
+
+/**
+ * Computes alignments with a linear gap in linear space using Hirschberg's
+ * divide and conquer algorithm. The longer string is divided so that memory
+ * is proportional to the shorter string.
+ * 
+ * @see <a href="http://dx.doi.org/10.1145/360825.360861">Hirschberg, D. S. A
+ *      linear space algorithm for computing maximal common subsequences</a>
+ */
+final class Hirschberg {
+
+	private final String a;
+	private final String b;
+	private final Substitution substitution;
+	private final float gapValue;
+
+	// Rows are the longer string, a when not transposed
+	private final boolean transposed;
+
+	private final float[] forward;
+	private final float[] forwardPrevious;
+	private final float[] backward;
+	private final float[] backwardPrevious;
+
+	private Operation[] operations;
+	private int size;
+
+	private Hirschberg(String a, String b, Substitution substitution,
+			float gapValue) {
+		this.a = a;
+		this.b = b;
+		this.substitution = substitution;
+		this.gapValue = gapValue;
+		this.transposed = a.length() < b.length();
+
+		final int columns = min(a.length(), b.length()) + 1;
+		this.forward = new float[columns];
+		this.forwardPrevious = new float[columns];
+		this.backward = new float[columns];
+		this.backwardPrevious = new float[columns];
+	}
+
+	/**
+	 * Computes an optimal global alignment of a and b.
+	 */
+	static Alignment global(String a, String b, Substitution substitution,
+			float gapValue) {
+		return new Hirschberg(a, b, substitution, gapValue).global(0,
+				a.length(), 0, b.length());
+	}
+
+	/**
+	 * Computes an optimal local alignment of a and b. Cells of the alignment
+	 * matrix are at least 0 such that an alignment may start and end
+	 * anywhere.
+	 */
+	static Alignment local(String a, String b, Substitution substitution,
+			float gapValue) {
+		return new Hirschberg(a, b, substitution, gapValue).local();
+	}
+
+	private int rows() {
+		return transposed ? b.length() : a.length();
+	}
+
+	private int columns() {
+		return transposed ? a.length() : b.length();
+	}
+
+	private float score(int row, int column) {
+		return transposed ? substitution.compare(a, column, b, row)
+				: substitution.compare(a, row, b, column);
+	}
+
+	private boolean equal(int row, int column) {
+		return transposed ? a.charAt(column) == b.charAt(row) : a
+				.charAt(row) == b.charAt(column);
+	}
+
+	private Alignment global(int startA, int endA, int startB, int endB) {
+		operations = new Operation[(endA - startA) + (endB - startB)];
+		size = 0;
+		if (transposed) {
+			align(startB, endB, startA, endA);
+		} else {
+			align(startA, endA, startB, endB);
+		}
+
+		final Operation[] trimmed = new Operation[size];
+		float score = 0;
+		int row = transposed ? startB : startA;
+		int column = transposed ? startA : startB;
+		for (int k = 0; k < size; k++) {
+			Operation operation = operations[k];
+			switch (operation) {
+			case MATCH:
+			case SUBSTITUTE:
+				score += score(row++, column++);
+				break;
+			case DELETE:
+				score += gapValue;
+				row++;
+				break;
+			default:
+				score += gapValue;
+				column++;
+				break;
+			}
+			// Operations are relative to rows and columns
+			if (transposed && operation == Operation.DELETE) {
+				operation = Operation.INSERT;
+			} else if (transposed && operation == Operation.INSERT) {
+				operation = Operation.DELETE;
+			}
+			trimmed[k] = operation;
+		}
+		return new Alignment(a, b, startA, endA, startB, endB, trimmed, score);
+	}
+
+	private Alignment local() {
+		final int n = rows();
+		final int m = columns();
+
+		// Find the end of the best local alignment
+		float best = 0;
+		int endRow = 0;
+		int endColumn = 0;
+		float[] previous = forwardPrevious;
+		float[] current = forward;
+		fill(previous, 0, m + 1, 0);
+		for (int i = 1; i <= n; i++) {
+			current[0] = 0;
+			for (int j = 1; j <= m; j++) {
+				final float value = max(0, max(
+						previous[j - 1] + score(i - 1, j - 1),
+						max(previous[j], current[j - 1]) + gapValue));
+				current[j] = value;
+				if (value > best) {
+					best = value;
+					endRow = i;
+					endColumn = j;
+				}
+			}
+			final float[] swap = previous;
+			previous = current;
+			current = swap;
+		}
+
+		if (best == 0) {
+			return new Alignment(a, b, 0, 0, 0, 0, new Operation[0], 0);
+		}
+
+		// Find the start by aligning backwards from the end
+		float bestStart = Float.NEGATIVE_INFINITY;
+		int startRow = endRow;
+		int startColumn = endColumn;
+		previous = backwardPrevious;
+		current = backward;
+		for (int j = 0; j <= endColumn; j++) {
+			previous[j] = j * gapValue;
+		}
+		for (int i = 1; i <= endRow; i++) {
+			current[0] = i * gapValue;
+			for (int j = 1; j <= endColumn; j++) {
+				final float value = max(previous[j - 1]
+						+ score(endRow - i, endColumn - j), max(
+						previous[j], current[j - 1])
+						+ gapValue);
+				current[j] = value;
+				if (value > bestStart) {
+					bestStart = value;
+					startRow = endRow - i;
+					startColumn = endColumn - j;
+				}
+			}
+			final float[] swap = previous;
+			previous = current;
+			current = swap;
+		}
+
+		if (transposed) {
+			return global(startColumn, endColumn, startRow, endRow);
+		}
+		return global(startRow, endRow, startColumn, endColumn);
+	}
+
+	/*
+	 * Aligns rows [rowStart, rowEnd) with columns [columnStart, columnEnd).
+	 */
+	private void align(int rowStart, int rowEnd, int columnStart,
+			int columnEnd) {
+		final int rows = rowEnd - rowStart;
+		final int columns = columnEnd - columnStart;
+
+		if (rows == 0) {
+			for (int j = 0; j < columns; j++) {
+				operations[size++] = Operation.INSERT;
+			}
+			return;
+		}
+		if (columns == 0) {
+			for (int i = 0; i < rows; i++) {
+				operations[size++] = Operation.DELETE;
+			}
+			return;
+		}
+		if (rows == 1) {
+			alignRow(rowStart, columnStart, columnEnd);
+			return;
+		}
+
+		final int rowMiddle = (rowStart + rowEnd) >>> 1;
+		final float[] prefix = prefixScores(rowStart, rowMiddle, columnStart,
+				columnEnd);
+		final float[] suffix = suffixScores(rowMiddle, rowEnd, columnStart,
+				columnEnd);
+
+		int split = 0;
+		float best = Float.NEGATIVE_INFINITY;
+		for (int k = 0; k <= columns; k++) {
+			final float value = prefix[k] + suffix[k];
+			if (value > best) {
+				best = value;
+				split = k;
+			}
+		}
+
+		align(rowStart, rowMiddle, columnStart, columnStart + split);
+		align(rowMiddle, rowEnd, columnStart + split, columnEnd);
+	}
+
+	/*
+	 * Aligns a single row with columns [columnStart, columnEnd). Either the
+	 * row is aligned to its best column or to a gap.
+	 */
+	private void alignRow(int row, int columnStart, int columnEnd) {
+		final int columns = columnEnd - columnStart;
+
+		int bestColumn = -1;
+		float best = (columns + 1) * gapValue;
+		for (int j = columnStart; j < columnEnd; j++) {
+			final float value = score(row, j) + (columns - 1) * gapValue;
+			if (value > best) {
+				best = value;
+				bestColumn = j;
+			}
+		}
+
+		if (bestColumn < 0) {
+			operations[size++] = Operation.DELETE;
+			for (int j = columnStart; j < columnEnd; j++) {
+				operations[size++] = Operation.INSERT;
+			}
+			return;
+		}
+
+		for (int j = columnStart; j < bestColumn; j++) {
+			operations[size++] = Operation.INSERT;
+		}
+		operations[size++] = equal(row, bestColumn) ? Operation.MATCH
+				: Operation.SUBSTITUTE;
+		for (int j = bestColumn + 1; j < columnEnd; j++) {
+			operations[size++] = Operation.INSERT;
+		}
+	}
+
+	/*
+	 * Scores of aligning rows [rowStart, rowEnd) with columns [columnStart,
+	 * columnStart + k) for each k.
+	 */
+	private float[] prefixScores(int rowStart, int rowEnd, int columnStart,
+			int columnEnd) {
+		final int columns = columnEnd - columnStart;
+		float[] previous = forwardPrevious;
+		float[] current = forward;
+
+		for (int j = 0; j <= columns; j++) {
+			previous[j] = j * gapValue;
+		}
+		for (int i = rowStart; i < rowEnd; i++) {
+			current[0] = previous[0] + gapValue;
+			for (int j = 1; j <= columns; j++) {
+				current[j] = max(previous[j - 1]
+						+ score(i, columnStart + j - 1), max(
+						previous[j], current[j - 1])
+						+ gapValue);
+			}
+			final float[] swap = previous;
+			previous = current;
+			current = swap;
+		}
+		return previous;
+	}
+
+	/*
+	 * Scores of aligning rows [rowStart, rowEnd) with columns [columnStart +
+	 * k, columnEnd) for each k.
+	 */
+	private float[] suffixScores(int rowStart, int rowEnd, int columnStart,
+			int columnEnd) {
+		final int columns = columnEnd - columnStart;
+		float[] previous = backwardPrevious;
+		float[] current = backward;
+
+		for (int k = columns; k >= 0; k--) {
+			previous[k] = (columns - k) * gapValue;
+		}
+		for (int i = rowEnd - 1; i >= rowStart; i--) {
+			current[columns] = previous[columns] + gapValue;
+			for (int k = columns - 1; k >= 0; k--) {
+				current[k] = max(previous[k + 1]
+						+ score(i, columnStart + k), max(
+						previous[k], current[k + 1])
+						+ gapValue);
+			}
+			final float[] swap = previous;
+			previous = current;
+			current = swap;
+		}
+		return previous;
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.metrics;
+
+/**
+ * Support for computing dynamic programming matrices in {@code int} rather
+ * than {@code float} when all costs are integers.
+ * <p>
+ * A float represents every integer up to 2<sup>24</sup> exactly. So long as
+ * no cell of the matrix can exceed that magnitude, sums and minima of integral
+ * float costs are exact and an int matrix yields bit for bit the same
+ * distances.
+ */
+final class IntegralCosts {
+
+	/**
+	 * Stands in for {@link Float#POSITIVE_INFINITY}. Adding costs to it does
+	 * not overflow.
+	 */
+	static final int INFINITY = 1 << 30;
+
+	private static final int EXACT = 1 << 24;
+
+	private IntegralCosts() {
+		// Utility class
+	}
+
+	/**
+	 * Returns true when the cost is an integer that a float represents
+	 * exactly.
+	 * 
+	 * @param cost
+	 *            the cost
+	 * @return true when the cost is integral
+	 */
+	static boolean isIntegral(float cost) {
+		return cost == java.lang.Math.rint(cost)
+				&& java.lang.Math.abs(cost) < EXACT;
+	}
+
+	/**
+	 * Returns true when no cell of a matrix for strings of the given lengths
+	 * can exceed the integers a float represents exactly.
+	 * 
+	 * @param maxCost
+	 *            the largest absolute cost of a single step
+	 * @param sLength
+	 *            the length of s
+	 * @param tLength
+	 *            the length of t
+	 * @return true when an int matrix yields the same result
+	 */
+	static boolean isExact(float maxCost, int sLength, int tLength) {
+		return (sLength + tLength + 1.0) * maxCost < EXACT;
+	}
+
+	/**
+	 * Converts a cell of an int matrix to the value of the float matrix.
+	 * 
+	 * @param value
+	 *            the value of the cell
+	 * @return the value as a float
+	 */
+	static float toFloat(int value) {
+		return value >= INFINITY ? Float.POSITIVE_INFINITY : value;
+	}
+
+}
@@ -20,10 +20,14 @@
 
 package org.simmetrics.metrics;
 
+import static org.simmetrics.metrics.SortedIds.intersection;
+
 import java.util.HashSet;
 import java.util.Set;
 
+import org.simmetrics.PackedTokenMetric;
 import org.simmetrics.SetMetric;
+import org.simmetrics.TokenIdMetric;
 
 /**
  * Jaccard similarity algorithm providing a similarity measure between two sets
@@ -45,7 +49,8 @@ import org.simmetrics.SetMetric;
  *            type of the token
  * 
  */
-public final class JaccardSimilarity<T> implements SetMetric<T> {
+public final class JaccardSimilarity<T> implements SetMetric<T>,
+		TokenIdMetric, PackedTokenMetric {
 
 	@Override
 	public float compare(Set<T> a, Set<T> b) {
@@ -69,6 +74,32 @@ public final class JaccardSimilarity<T> implements SetMetric<T> {
 		return intersection / (float) union.size();
 	}
 
+	@Override
+	public float compare(int[] a, int[] b) {
+		return similarity(a.length, b.length, intersection(a, b));
+	}
+
+	@Override
+	public float compare(long[] a, long[] b) {
+		return similarity(a.length, b.length, intersection(a, b));
+	}
+
+	private static float similarity(int sizeA, int sizeB, int intersection) {
+
+		if (sizeA == 0 && sizeB == 0) {
+			return 1.0f;
+		}
+
+		if (sizeA == 0 || sizeB == 0) {
+			return 0.0f;
+		}
+
+		final int union = sizeA + sizeB - intersection;
+
+		//  ( |a & b| ) / ( | a or b | )
+		return intersection / (float) union;
+	}
+
 	@Override
 	public String toString() {
 		return "JaccardSimilarity";
@@ -23,7 +23,8 @@ package org.simmetrics.metrics;
 import static java.lang.Math.max;
 import static java.lang.Math.min;
 
-import org.simmetrics.StringMetric;
+import org.simmetrics.PreparableStringMetric;
+import org.simmetrics.PreparedQuery;
 
 /**
  * Jaro algorithm providing a similarity measure between two strings.
@@ -39,8 +40,14 @@ import org.simmetrics.StringMetric;
  *
  *
  */
-public class Jaro implements StringMetric {
-	
+public class Jaro implements PreparableStringMetric {
+
+	/*
+	 * Strings up to this length are matched with bit masks rather than
+	 * arrays.
+	 */
+	private static final int MAX_MASK_LENGTH = 64;
+
 	@Override
 	public float compare(final String a, final String b) {
 
@@ -52,13 +59,150 @@ public class Jaro implements StringMetric {
 			return 0.0f;
 		}
 
+		if (a.length() <= MAX_MASK_LENGTH && b.length() <= MAX_MASK_LENGTH) {
+			return compareShort(a, b);
+		}
+
+		return compareUnmasked(a, b);
+	}
+
+	/**
+	 * Prepares a query for repeated comparison. For queries of up to 64
+	 * characters the occurrence masks of the query are computed once.
+	 */
+	@Override
+	public PreparedQuery prepare(final String query) {
+		final PatternMasks masksQuery = query.length() <= MAX_MASK_LENGTH ? new PatternMasks(
+				query) : null;
+		return new PreparedQuery() {
+			@Override
+			public float compare(String candidate) {
+				if (query.isEmpty() || candidate.isEmpty()) {
+					return Jaro.this.compare(query, candidate);
+				}
+				if (masksQuery != null
+						&& candidate.length() <= MAX_MASK_LENGTH) {
+					// Jaro is symmetric, so the candidate can be matched
+					// against the masks of the query.
+					return compareShort(candidate, query, masksQuery);
+				}
+				return compareUnmasked(query, candidate);
+			}
+		};
+	}
+
+	/*
+	 * Matches a and b of at most 64 characters each. The matched positions
+	 * are tracked in a bit mask per string so no arrays are allocated.
+	 * 
+	 * A single greedy pass over a yields the same matching as the two passes
+	 * used for longer strings. The characters of b that are matched by a, in
+	 * the order they appear in b, are exactly the common characters of b.
+	 */
+	private static float compareShort(final String a, final String b) {
+		final int lengthA = a.length();
+		final int lengthB = b.length();
+		// Intentional integer division to round down.
+		final int separation = max(0, max(lengthA, lengthB) / 2 - 1);
+
+		long matchedA = 0;
+		long matchedB = 0;
+		for (int i = 0; i < lengthA; i++) {
+			final char character = a.charAt(i);
+			for (int j = max(0, i - separation), to = min(i + separation + 1,
+					lengthB); j < to; j++) {
+				if ((matchedB & (1L << j)) == 0 && b.charAt(j) == character) {
+					matchedA |= 1L << i;
+					matchedB |= 1L << j;
+					break;
+				}
+			}
+		}
+
+		return score(a, b, matchedA, matchedB);
+	}
+
+	/*
+	 * As compareShort(a, b) but finds the first unmatched occurrence in the
+	 * window with the occurrence masks of b.
+	 */
+	private static float compareShort(final String a, final String b,
+			final PatternMasks masksB) {
+		final int lengthA = a.length();
+		final int lengthB = b.length();
 		// Intentional integer division to round down.
-		final int halfLength = max(0, max(a.length(), b.length()) / 2 - 1);
+		final int separation = max(0, max(lengthA, lengthB) / 2 - 1);
 
-		final char[] charsA = a.toCharArray();
-		final char[] charsB = b.toCharArray();
-		final int[] commonA = getCommonCharacters(charsA, charsB, halfLength);
-		final int[] commonB = getCommonCharacters(charsB, charsA, halfLength);
+		long matchedA = 0;
+		long matchedB = 0;
+		for (int i = 0; i < lengthA; i++) {
+			final int from = max(0, i - separation);
+			final int to = min(i + separation + 1, lengthB);
+			if (from >= to) {
+				break;
+			}
+			final long window = (-1L >>> (Long.SIZE - to)) & (-1L << from);
+			final long candidates = masksB.get(a.charAt(i)) & ~matchedB
+					& window;
+			if (candidates != 0) {
+				matchedA |= 1L << i;
+				matchedB |= Long.lowestOneBit(candidates);
+			}
+		}
+
+		return score(a, b, matchedA, matchedB);
+	}
+
+	/*
+	 * Counts transpositions by walking the matched positions of a and b in
+	 * order. Both masks have the same number of bits set.
+	 */
+	private static float score(final String a, final String b, long matchedA,
+			long matchedB) {
+		final int commonCharacters = Long.bitCount(matchedA);
+		if (commonCharacters == 0) {
+			return 0.0f;
+		}
+
+		float transpositions = 0;
+		while (matchedA != 0) {
+			if (a.charAt(Long.numberOfTrailingZeros(matchedA)) != b.charAt(Long
+					.numberOfTrailingZeros(matchedB))) {
+				transpositions++;
+			}
+			matchedA &= matchedA - 1;
+			matchedB &= matchedB - 1;
+		}
+
+		float aCommonRatio = commonCharacters / (float) a.length();
+		float bCommonRatio = commonCharacters / (float) b.length();
+		float transpositionRatio = (commonCharacters - transpositions / 2.0f)
+				/ commonCharacters;
+
+		return (aCommonRatio + bCommonRatio + transpositionRatio) / 3.0f;
+	}
+
+	static float compareUnmasked(final String a, final String b) {
+		final MetricWorkspace workspace = MetricWorkspace.acquire();
+		try {
+			return compareUnmasked(a, b, workspace);
+		} finally {
+			workspace.release();
+		}
+	}
+
+	private static float compareUnmasked(final String a, final String b,
+			final MetricWorkspace workspace) {
+		final int lengthA = a.length();
+		final int lengthB = b.length();
+		// Intentional integer division to round down.
+		final int halfLength = max(0, max(lengthA, lengthB) / 2 - 1);
+
+		final int commonLength = min(lengthA, lengthB);
+		final int[] commonA = getCommonCharacters(a, b, halfLength,
+				workspace.ints(0, commonLength), workspace.booleans(lengthB));
+		final int[] commonB = getCommonCharacters(b, a, halfLength,
+				workspace.ints(1, commonLength), workspace.booleans(lengthA));
 
 		// commonA and commonB will always contain the same multi-set of
 		// characters. Because getCommonCharacters has been optimized, commonA
@@ -66,7 +210,7 @@ public class Jaro implements StringMetric {
 		// and use commonCharacters to determine the length of the multi-set.
 		float transpositions = 0;
 		int commonCharacters = 0;
-		for (int length = commonA.length; commonCharacters < length
+		for (; commonCharacters < commonLength
 				&& commonA[commonCharacters] > -1; commonCharacters++) {
 			if (commonA[commonCharacters] != commonB[commonCharacters]) {
 				transpositions++;
@@ -77,8 +221,8 @@ public class Jaro implements StringMetric {
 			return 0.0f;
 		}
 
-		float aCommonRatio = commonCharacters / (float) a.length();
-		float bCommonRatio = commonCharacters / (float) b.length();
+		float aCommonRatio = commonCharacters / (float) lengthA;
+		float bCommonRatio = commonCharacters / (float) lengthB;
 		float transpositionRatio = (commonCharacters - transpositions / 2.0f)
 				/ commonCharacters;
 
@@ -86,22 +230,21 @@ public class Jaro implements StringMetric {
 	}
 
 	/*
-	 * Returns an array of characters from a within b. A character in b is
+	 * Writes the characters from a within b to common. A character in b is
 	 * counted as common when it is within separation distance from the position
-	 * in a.
+	 * in a. Matched marks the characters of b that have been used.
 	 */
-	private static int[] getCommonCharacters(final char[] charsA,
-			final char[] charsB, final int separation) {
-		final int[] common = new int[min(charsA.length, charsB.length)];
-		final boolean[] matched = new boolean[charsB.length];
+	private static int[] getCommonCharacters(final String a, final String b,
+			final int separation, final int[] common, final boolean[] matched) {
+		final int commonLength = min(a.length(), b.length());
 
 		// Iterate of string a and find all characters that occur in b within
 		// the separation distance. Mark any matches found to avoid
 		// duplicate matchings.
 		int commonIndex = 0;
-		for (int i = 0, length = charsA.length; i < length; i++) {
-			final char character = charsA[i];
-			final int index = indexOf(character, charsB, i - separation, i
+		for (int i = 0, length = a.length(); i < length; i++) {
+			final char character = a.charAt(i);
+			final int index = indexOf(character, b, i - separation, i
 					+ separation + 1, matched);
 			if (index > -1) {
 				common[commonIndex++] = character;
@@ -109,7 +252,7 @@ public class Jaro implements StringMetric {
 			}
 		}
 
-		if (commonIndex < common.length) {
+		if (commonIndex < commonLength) {
 			common[commonIndex] = -1;
 		}
 
@@ -123,13 +266,13 @@ public class Jaro implements StringMetric {
 	 * 
 	 * Returns -1 when not found.
 	 */
-	private static int indexOf(char character, char[] buffer, int fromIndex,
+	private static int indexOf(char character, String buffer, int fromIndex,
 			int toIndex, boolean[] matched) {
 
 		// compare char with range of characters to either side
-		for (int j = max(0, fromIndex), length = min(toIndex, buffer.length); j < length; j++) {
+		for (int j = max(0, fromIndex), length = min(toIndex, buffer.length()); j < length; j++) {
 			// check if found
-			if (buffer[j] == character && !matched[j]) {
+			if (buffer.charAt(j) == character && !matched[j]) {
 				return j;
 			}
 		}
@@ -21,10 +21,10 @@
 package org.simmetrics.metrics;
 
 import static com.google.common.base.Preconditions.checkArgument;
-import static com.google.common.base.Strings.commonPrefix;
 import static java.lang.Math.min;
 
-import org.simmetrics.StringMetric;
+import org.simmetrics.PreparableStringMetric;
+import org.simmetrics.PreparedQuery;
 
 /**
  * Jaro-Winkler algorithm providing a similarity measure between two strings.
@@ -42,7 +42,7 @@ import org.simmetrics.StringMetric;
  * 
  * 
  */
-public class JaroWinkler implements StringMetric {
+public class JaroWinkler implements PreparableStringMetric {
 
 	private final Jaro jaro = new Jaro();
 
@@ -98,17 +98,59 @@ public class JaroWinkler implements StringMetric {
 
 	@Override
 	public float compare(final String a, final String b) {
-		final float jaroScore = jaro.compare(a, b);
+		return boost(jaro.compare(a, b), a, b);
+	}
 
+	/**
+	 * Prepares a query for repeated comparison. The query is prepared for the
+	 * underlying Jaro metric once.
+	 */
+	@Override
+	public PreparedQuery prepare(final String query) {
+		final PreparedQuery jaroQuery = jaro.prepare(query);
+		return new PreparedQuery() {
+			@Override
+			public float compare(String candidate) {
+				return boost(jaroQuery.compare(candidate), query, candidate);
+			}
+		};
+	}
+
+	private float boost(float jaroScore, String a, String b) {
 		if (jaroScore < boostThreshold) {
 			return jaroScore;
 		}
 
-		int prefixLength = min(commonPrefix(a, b).length(), maxPrefixLength);
+		int prefixLength = min(commonPrefixLength(a, b, maxPrefixLength),
+				maxPrefixLength);
 
 		return jaroScore + (prefixLength * prefixScale * (1.0f - jaroScore));
 	}
 
+	/*
+	 * Length of the common prefix of a and b, counting at most one character
+	 * past the limit. Like Strings.commonPrefix a surrogate pair is not split
+	 * but no string is created.
+	 */
+	private static int commonPrefixLength(String a, String b, int limit) {
+		final int maxLength = min(min(a.length(), b.length()), limit + 1);
+		int length = 0;
+		while (length < maxLength && a.charAt(length) == b.charAt(length)) {
+			length++;
+		}
+		if (validSurrogatePairAt(a, length - 1)
+				|| validSurrogatePairAt(b, length - 1)) {
+			length--;
+		}
+		return length;
+	}
+
+	private static boolean validSurrogatePairAt(String string, int index) {
+		return index >= 0 && index <= string.length() - 2
+				&& Character.isHighSurrogate(string.charAt(index))
+				&& Character.isLowSurrogate(string.charAt(index + 1));
+	}
+
 	@Override
 	public String toString() {
 		return "JaroWinkler [boostThreshold=" + boostThreshold
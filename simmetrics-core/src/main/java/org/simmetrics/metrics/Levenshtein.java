@@ -22,10 +22,15 @@ package org.simmetrics.metrics;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.lang.Math.max;
+import static org.simmetrics.metrics.IntegralCosts.INFINITY;
+import static org.simmetrics.metrics.IntegralCosts.isExact;
+import static org.simmetrics.metrics.IntegralCosts.isIntegral;
+import static org.simmetrics.metrics.IntegralCosts.toFloat;
 import static org.simmetrics.metrics.Math.min;
 
-import org.simmetrics.StringDistance;
-import org.simmetrics.StringMetric;
+import org.simmetrics.BoundedStringDistance;
+import org.simmetrics.PreparableStringMetric;
+import org.simmetrics.PreparedQuery;
 
 /**
  * Levenshtein algorithm providing a similarity measure between two strings.
@@ -33,6 +38,11 @@ import org.simmetrics.StringMetric;
  * Insert/delete and substitute operations can be weighted. When the cost for
  * substitution is zero Levenshtein does not satisfy the coincidence property.
  * <p>
+ * When all operations have unit cost the distance is computed with the bit
+ * parallel algorithm of Myers as described by Hyyro. This processes up to 64
+ * cells of the dynamic programming matrix at once. When all costs are
+ * integers the matrix is computed with ints rather than floats.
+ * <p>
  * This class is immutable and thread-safe.
  * 
  * @see <a href=" http://en.wikipedia.org/wiki/Levenshtein_distance">Wikipedia -
@@ -40,11 +50,13 @@ import org.simmetrics.StringMetric;
  * @see DamerauLevenshtein
  * 
  */
-public class Levenshtein implements StringMetric, StringDistance {
+public class Levenshtein implements PreparableStringMetric,
+		BoundedStringDistance {
 
 	private final float maxCost;
 	private final float insertDelete;
 	private final float substitute;
+	private final boolean integral;
 
 	/**
 	 * Constructs a new weighted Levenshtein metric. When the cost for
@@ -62,6 +74,7 @@ public class Levenshtein implements StringMetric, StringDistance {
 		this.maxCost = max(insertDelete, substitute);
 		this.insertDelete = insertDelete;
 		this.substitute = substitute;
+		this.integral = isIntegral(insertDelete) && isIntegral(substitute);
 	}
 
 	/**
@@ -80,6 +93,36 @@ public class Levenshtein implements StringMetric, StringDistance {
 		return 1.0f - (distance(a, b) / (maxCost * max(a.length(), b.length())));
 	}
 
+	/**
+	 * Prepares a query for repeated comparison. When all operations have unit
+	 * cost the bit masks of the query are computed once.
+	 */
+	@Override
+	public PreparedQuery prepare(final String query) {
+		if (insertDelete != 1.0f || substitute != 1.0f || query.isEmpty()) {
+			return new PreparedQuery() {
+				@Override
+				public float compare(String candidate) {
+					return Levenshtein.this.compare(query, candidate);
+				}
+			};
+		}
+
+		final PatternMasks masks = new PatternMasks(query);
+		return new PreparedQuery() {
+			@Override
+			public float compare(String candidate) {
+				if (candidate.isEmpty()) {
+					return Levenshtein.this.compare(query, candidate);
+				}
+
+				final float distance = bitParallelDistance(masks, candidate);
+				return 1.0f - (distance / (maxCost * max(query.length(),
+						candidate.length())));
+			}
+		};
+	}
+
 	@Override
 	public float distance(final String s, final String t) {
 
@@ -90,17 +133,39 @@ public class Levenshtein implements StringMetric, StringDistance {
 		if (s.equals(t))
 			return 0;
 
+		final MetricWorkspace workspace = MetricWorkspace.acquire();
+		try {
+			return distance(s, t, workspace);
+		} finally {
+			workspace.release();
+		}
+	}
+
+	private float distance(final String s, final String t,
+			final MetricWorkspace workspace) {
+		if (insertDelete == 1.0f && substitute == 1.0f) {
+			// Use the shorter string as pattern to minimize the number of words
+			if (s.length() <= t.length()) {
+				return bitParallelDistance(workspace.masks(s), t, workspace);
+			}
+			return bitParallelDistance(workspace.masks(t), s, workspace);
+		}
+
 		final int tLength = t.length();
 		final int sLength = s.length();
 
+		if (integral && isExact(maxCost, sLength, tLength)) {
+			return integralDistance(s, t, workspace);
+		}
+
 		float[] swap;
-		float[] v0 = new float[tLength + 1];
-		float[] v1 = new float[tLength + 1];
+		float[] v0 = workspace.floats(0, tLength + 1);
+		float[] v1 = workspace.floats(1, tLength + 1);
 
 		// initialize v0 (the previous row of distances)
 		// this row is A[0][i]: edit distance for an empty s
 		// the distance is just the number of characters to delete from t
-		for (int i = 0; i < v0.length; i++) {
+		for (int i = 0; i <= tLength; i++) {
 			v0[i] = i * insertDelete;
 		}
 
@@ -127,6 +192,350 @@ public class Levenshtein implements StringMetric, StringDistance {
 		return v0[tLength];
 	}
 
+	/*
+	 * As distance(s, t) with int rows. Costs must be integral.
+	 */
+	private int integralDistance(final String s, final String t,
+			final MetricWorkspace workspace) {
+		final int tLength = t.length();
+		final int sLength = s.length();
+		final int insertDelete = (int) this.insertDelete;
+		final int substitute = (int) this.substitute;
+
+		int[] swap;
+		int[] v0 = workspace.ints(0, tLength + 1);
+		int[] v1 = workspace.ints(1, tLength + 1);
+
+		for (int i = 0; i <= tLength; i++) {
+			v0[i] = i * insertDelete;
+		}
+
+		for (int i = 0; i < sLength; i++) {
+			v1[0] = (i + 1) * insertDelete;
+
+			for (int j = 0; j < tLength; j++) {
+				v1[j + 1] = min(v1[j] + insertDelete,
+						v0[j + 1] + insertDelete,
+						v0[j] + (s.charAt(i) == t.charAt(j) ? 0 : substitute));
+			}
+
+			swap = v0;
+			v0 = v1;
+			v1 = swap;
+		}
+
+		return v0[tLength];
+	}
+
+	/**
+	 * Returns true when the similarity of {@code a} and {@code b} is at least
+	 * {@code minSimilarity}. This is equivalent to
+	 * {@code compare(a, b) >= minSimilarity} but computes only as much of the
+	 * distance as needed to decide the outcome.
+	 * 
+	 * @param a
+	 *            string a to compare
+	 * @param b
+	 *            string b to compare
+	 * @param minSimilarity
+	 *            minimum similarity, at most 1
+	 * @return true when the similarity is at least {@code minSimilarity}
+	 * 
+	 * @see #distance(String, String, float)
+	 */
+	public boolean compareAtLeast(final String a, final String b,
+			final float minSimilarity) {
+		checkArgument(minSimilarity <= 1.0f);
+
+		if (a.isEmpty() && b.isEmpty()) {
+			return true;
+		}
+
+		final float normalizer = maxCost * max(a.length(), b.length());
+		final float maxDistance = (1.0f - minSimilarity) * normalizer;
+		// Allow for rounding, the outcome is decided by the exact formula
+		final float distance = distance(a, b, maxDistance * 1.0001f
+				+ Float.MIN_NORMAL);
+
+		return distance != Float.POSITIVE_INFINITY
+				&& 1.0f - (distance / normalizer) >= minSimilarity;
+	}
+
+	/**
+	 * Measures the distance between strings {@code s} and {@code t} when it is
+	 * at most {@code maxDistance}. When the distance exceeds
+	 * {@code maxDistance} {@link Float#POSITIVE_INFINITY} is returned instead.
+	 * <p>
+	 * Only cells of the dynamic programming matrix within a diagonal band of
+	 * width {@code 2k + 1} are computed, where {@code k} is the number of
+	 * insert/delete operations affordable within {@code maxDistance}. The
+	 * computation stops as soon as every cell in a row exceeds the bound.
+	 * 
+	 * @see <a href="http://dx.doi.org/10.1016/S0019-9958(85)80046-2">Ukkonen,
+	 *      E. Algorithms for approximate string matching</a>
+	 */
+	@Override
+	public float distance(final String s, final String t,
+			final float maxDistance) {
+		checkArgument(maxDistance >= 0);
+
+		if (s.isEmpty())
+			return bounded(t.length(), maxDistance);
+		if (t.isEmpty())
+			return bounded(s.length(), maxDistance);
+
+		final int sLength = s.length();
+		final int tLength = t.length();
+
+		// Number of insert/delete operations within bound, plus one to allow
+		// for rounding
+		final int k = (int) java.lang.Math.min(maxDistance / insertDelete + 1,
+				max(sLength, tLength));
+
+		if (java.lang.Math.abs(sLength - tLength) > k)
+			return Float.POSITIVE_INFINITY;
+		if (s.equals(t))
+			return 0;
+
+		final MetricWorkspace workspace = MetricWorkspace.acquire();
+		try {
+			return distance(s, t, maxDistance, k, workspace);
+		} finally {
+			workspace.release();
+		}
+	}
+
+	private float distance(final String s, final String t,
+			final float maxDistance, final int k,
+			final MetricWorkspace workspace) {
+		final int sLength = s.length();
+		final int tLength = t.length();
+
+		if (insertDelete == 1.0f && substitute == 1.0f
+				&& java.lang.Math.min(sLength, tLength) <= 64) {
+			final int distance = sLength <= tLength ? bitParallelDistance(
+					workspace.masks(s), t, workspace) : bitParallelDistance(
+					workspace.masks(t), s, workspace);
+			return bounded(distance, maxDistance);
+		}
+
+		if (integral && isExact(maxCost, sLength, tLength)) {
+			return integralDistance(s, t, maxDistance, k, workspace);
+		}
+
+		float[] swap;
+		float[] v0 = workspace.floats(0, tLength + 1);
+		float[] v1 = workspace.floats(1, tLength + 1);
+
+		// Cells outside the band are never read before being set to
+		// infinity, except the one just right of the band in each row
+		for (int j = 0; j <= java.lang.Math.min(k, tLength); j++) {
+			v0[j] = j * insertDelete;
+		}
+		if (k < tLength) {
+			v0[k + 1] = Float.POSITIVE_INFINITY;
+		}
+
+		for (int i = 0; i < sLength; i++) {
+			final int lo = max(1, i + 1 - k);
+			final int hi = java.lang.Math.min(tLength, i + 1 + k);
+
+			v1[lo - 1] = lo == 1 && i + 1 <= k ? (i + 1) * insertDelete
+					: Float.POSITIVE_INFINITY;
+			float rowMin = v1[lo - 1];
+
+			for (int j = lo - 1; j < hi; j++) {
+				v1[j + 1] = min(v1[j] + insertDelete,
+						v0[j + 1] + insertDelete,
+						v0[j]
+								+ (s.charAt(i) == t.charAt(j) ? 0.0f
+										: substitute));
+				rowMin = java.lang.Math.min(rowMin, v1[j + 1]);
+			}
+
+			if (hi < tLength) {
+				v1[hi + 1] = Float.POSITIVE_INFINITY;
+			}
+
+			// Costs are non-negative, no cell below can be smaller
+			if (rowMin > maxDistance) {
+				return Float.POSITIVE_INFINITY;
+			}
+
+			swap = v0;
+			v0 = v1;
+			v1 = swap;
+		}
+
+		return bounded(v0[tLength], maxDistance);
+	}
+
+	/*
+	 * As distance(s, t, maxDistance) with int rows. Costs must be integral.
+	 */
+	private float integralDistance(final String s, final String t,
+			final float maxDistance, final int k,
+			final MetricWorkspace workspace) {
+		final int sLength = s.length();
+		final int tLength = t.length();
+		final int insertDelete = (int) this.insertDelete;
+		final int substitute = (int) this.substitute;
+
+		int[] swap;
+		int[] v0 = workspace.ints(0, tLength + 1);
+		int[] v1 = workspace.ints(1, tLength + 1);
+
+		for (int j = 0; j <= java.lang.Math.min(k, tLength); j++) {
+			v0[j] = j * insertDelete;
+		}
+		if (k < tLength) {
+			v0[k + 1] = INFINITY;
+		}
+
+		for (int i = 0; i < sLength; i++) {
+			final int lo = max(1, i + 1 - k);
+			final int hi = java.lang.Math.min(tLength, i + 1 + k);
+
+			v1[lo - 1] = lo == 1 && i + 1 <= k ? (i + 1) * insertDelete
+					: INFINITY;
+			int rowMin = v1[lo - 1];
+
+			for (int j = lo - 1; j < hi; j++) {
+				v1[j + 1] = min(v1[j] + insertDelete,
+						v0[j + 1] + insertDelete,
+						v0[j] + (s.charAt(i) == t.charAt(j) ? 0 : substitute));
+				rowMin = java.lang.Math.min(rowMin, v1[j + 1]);
+			}
+
+			if (hi < tLength) {
+				v1[hi + 1] = INFINITY;
+			}
+
+			if (toFloat(rowMin) > maxDistance) {
+				return Float.POSITIVE_INFINITY;
+			}
+
+			swap = v0;
+			v0 = v1;
+			v1 = swap;
+		}
+
+		return bounded(toFloat(v0[tLength]), maxDistance);
+	}
+
+	private static float bounded(float distance, float maxDistance) {
+		return distance <= maxDistance ? distance : Float.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * Computes the unit cost edit distance between a pattern and a text.
+	 * 
+	 * @see <a href="http://dx.doi.org/10.1145/316542.316550">Myers, G. A fast
+	 *      bit-vector algorithm for approximate string matching based on
+	 *      dynamic programming</a>
+	 * @see <a href="http://dx.doi.org/10.1007/3-540-48194-X_21">Hyyro, H. A
+	 *      bit-vector algorithm for computing Levenshtein and Damerau edit
+	 *      distances</a>
+	 */
+	static int bitParallelDistance(PatternMasks pattern, String text) {
+		if (pattern.words() == 1) {
+			return singleWordDistance(pattern, text);
+		}
+		final MetricWorkspace workspace = MetricWorkspace.acquire();
+		try {
+			return multiWordDistance(pattern, text, workspace);
+		} finally {
+			workspace.release();
+		}
+	}
+
+	private static int bitParallelDistance(PatternMasks pattern, String text,
+			MetricWorkspace workspace) {
+		if (pattern.words() == 1) {
+			return singleWordDistance(pattern, text);
+		}
+		return multiWordDistance(pattern, text, workspace);
+	}
+
+	private static int singleWordDistance(PatternMasks pattern, String text) {
+		final long last = 1L << (pattern.length() - 1);
+
+		int score = pattern.length();
+		long vp = ~0L;
+		long vn = 0L;
+
+		for (int i = 0; i < text.length(); i++) {
+			final long eq = pattern.get(text.charAt(i));
+			final long d0 = (((eq & vp) + vp) ^ vp) | eq | vn;
+			long hp = vn | ~(d0 | vp);
+			long hn = d0 & vp;
+
+			if ((hp & last) != 0) {
+				score++;
+			} else if ((hn & last) != 0) {
+				score--;
+			}
+
+			hp = (hp << 1) | 1L;
+			hn = hn << 1;
+
+			vp = hn | ~(d0 | hp);
+			vn = hp & d0;
+		}
+
+		return score;
+	}
+
+	private static int multiWordDistance(PatternMasks pattern, String text,
+			MetricWorkspace workspace) {
+		final int words = pattern.words();
+		final long last = 1L << ((pattern.length() - 1) & 63);
+
+		int score = pattern.length();
+		final long[] vp = workspace.longs(0, words);
+		final long[] vn = workspace.longs(1, words);
+		for (int w = 0; w < words; w++) {
+			vp[w] = ~0L;
+			vn[w] = 0L;
+		}
+
+		for (int i = 0; i < text.length(); i++) {
+			final char c = text.charAt(i);
+
+			// Horizontal deltas carried from the previous word, the first
+			// row of the matrix always increases by one
+			long hpCarry = 1L;
+			long hnCarry = 0L;
+
+			for (int w = 0; w < words; w++) {
+				final long x = pattern.get(c, w) | hnCarry;
+				final long d0 = (((x & vp[w]) + vp[w]) ^ vp[w]) | x | vn[w];
+				long hp = vn[w] | ~(d0 | vp[w]);
+				long hn = d0 & vp[w];
+
+				final long hpCarryIn = hpCarry;
+				final long hnCarryIn = hnCarry;
+				if (w < words - 1) {
+					hpCarry = hp >>> 63;
+					hnCarry = hn >>> 63;
+				} else {
+					hpCarry = (hp & last) != 0 ? 1L : 0L;
+					hnCarry = (hn & last) != 0 ? 1L : 0L;
+				}
+
+				hp = (hp << 1) | hpCarryIn;
+				hn = (hn << 1) | hnCarryIn;
+
+				vp[w] = hn | ~(d0 | hp);
+				vn[w] = hp & d0;
+			}
+
+			score += (int) (hpCarry - hnCarry);
+		}
+
+		return score;
+	}
+
 	@Override
 	public String toString() {
 		return "Levenshtein [insertDelete=" + insertDelete + ", substitute="
@@ -20,11 +20,15 @@
 
 package org.simmetrics.metrics;
 
-import static com.google.common.collect.HashMultiset.create;
+import static org.simmetrics.metrics.MultisetCounts.intersection;
+import static org.simmetrics.metrics.SortedIds.intersection;
 
 import java.util.List;
 
 import org.simmetrics.ListMetric;
+import org.simmetrics.MultisetMetric;
+import org.simmetrics.PackedTokenMetric;
+import org.simmetrics.TokenIdMetric;
 
 import com.google.common.collect.Multiset;
 
@@ -66,33 +70,49 @@ import com.google.common.collect.Multiset;
  *            type of the token
  * 
  */
-public class MatchingCoefficient<T> implements ListMetric<T> {
+public class MatchingCoefficient<T> implements ListMetric<T>,
+		MultisetMetric<T>, TokenIdMetric, PackedTokenMetric {
 	@Override
 	public float compare(List<T> a, List<T> b) {
+		// Count elements in the list intersection.
+		// Elements are counted only once in both lists.
+		// E.g. the intersection of [ab,ab,ab] and [ab,ab,ac,ad] is [ab,ab].
+		// Note: this is not the same as b.retainAll(a).size()
+		//
+		// Tokens not in the intersection differ by one occurrence each
+		final long difference = new TokenCounts(a, b).sumOfAbsolutes();
+		return similarity(a.size(), b.size(),
+				(int) ((a.size() + b.size() - difference) / 2));
+	}
+
+	@Override
+	public float compare(Multiset<T> a, Multiset<T> b) {
+		return similarity(a.size(), b.size(), intersection(a, b));
+	}
+
+	@Override
+	public float compare(int[] a, int[] b) {
+		return similarity(a.length, b.length, intersection(a, b));
+	}
+
+	@Override
+	public float compare(long[] a, long[] b) {
+		return similarity(a.length, b.length, intersection(a, b));
+	}
+
+	private static float similarity(int sizeA, int sizeB, int intersection) {
 
-		if (a.isEmpty() && b.isEmpty()) {
+		if (sizeA == 0 && sizeB == 0) {
 			return 1.0f;
 		}
 
-		if (a.isEmpty() || b.isEmpty()) {
+		if (sizeA == 0 || sizeB == 0) {
 			return 0.0f;
 		}
 
-		// Count elements in the list intersection.
-		// Elements are counted only once in both lists.
-		// E.g. the intersection of [ab,ab,ab] and [ab,ab,ac,ad] is [ab,ab].
-		// Note: this is not the same as b.retainAll(a).size()
-		int intersection = 0;
-		// Copy for destructive list difference
-		Multiset<T> bCopy = create(b);
-		for (T token : a) {
-			if (bCopy.remove(token)) {
-				intersection++;
-			}
-		}
 		// Implementation note: The size of the union of two sets is equal to
 		// the size of both lists minus the duplicate elements.
-		return intersection / (float) (a.size() + b.size() - intersection);
+		return intersection / (float) (sizeA + sizeB - intersection);
 	}
 
 	@Override
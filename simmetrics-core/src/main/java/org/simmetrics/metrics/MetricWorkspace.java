@@ -0,0 +1,227 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.metrics;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Scratch buffers for the dynamic programming metrics. A comparison acquires
+ * a workspace, takes the rows it needs and releases the workspace when done.
+ * Once the buffers have grown to fit the strings being compared, steady state
+ * comparisons do not allocate.
+ * <p>
+ * Released workspaces are kept in a small fixed size pool rather than in a
+ * {@code ThreadLocal}. The memory held is bounded by the size of the pool and
+ * not by the number of threads, which may be large when many short lived or
+ * virtual threads compare strings. A thread that finds no free workspace
+ * creates a new one; a workspace that finds no free slot is dropped.
+ * <p>
+ * Buffers longer than {@value #MAX_RETAINED_LENGTH} elements and the masks of
+ * longer patterns are handed out but not retained. Comparing strings that long
+ * takes much more time than allocating the buffers.
+ * <p>
+ * A workspace is confined to the thread that acquired it until it is
+ * released. It must not be used after it has been released.
+ */
+final class MetricWorkspace {
+
+	static final int MAX_RETAINED_LENGTH = 1 << 12;
+
+	private static final int FLOAT_ROWS = 3;
+	private static final int INT_ROWS = 3;
+	private static final int LONG_ROWS = 2;
+
+	// Number of slots visited when acquiring or releasing a workspace
+	private static final int PROBES = 4;
+
+	private static final AtomicReferenceArray<MetricWorkspace> pool = new AtomicReferenceArray<>(
+			poolSize(Runtime.getRuntime().availableProcessors()));
+
+	private final float[][] floats = new float[FLOAT_ROWS][];
+	private final int[][] ints = new int[INT_ROWS][];
+	private final long[][] longs = new long[LONG_ROWS][];
+	private boolean[] booleans;
+	private PatternMasks masks;
+
+	MetricWorkspace() {
+		// package private
+	}
+
+	/**
+	 * Takes a workspace from the pool or creates a new one when none is free.
+	 * 
+	 * @return a workspace confined to the current thread
+	 */
+	static MetricWorkspace acquire() {
+		final int mask = pool.length() - 1;
+		final int start = probe();
+		for (int i = 0; i < PROBES; i++) {
+			final int slot = (start + i) & mask;
+			final MetricWorkspace workspace = pool.get(slot);
+			if (workspace != null && pool.compareAndSet(slot, workspace, null)) {
+				return workspace;
+			}
+		}
+		return new MetricWorkspace();
+	}
+
+	/**
+	 * Returns this workspace to the pool.
+	 */
+	void release() {
+		final int mask = pool.length() - 1;
+		final int start = probe();
+		for (int i = 0; i < PROBES; i++) {
+			final int slot = (start + i) & mask;
+			if (pool.get(slot) == null && pool.compareAndSet(slot, null, this)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Returns a float row of at least the given length. The contents of the
+	 * row are undefined.
+	 * 
+	 * @param index
+	 *            the index of the row, less than 3
+	 * @param length
+	 *            the minimum length of the row
+	 * @return a float row
+	 */
+	float[] floats(int index, int length) {
+		float[] row = floats[index];
+		if (row == null || row.length < length) {
+			row = new float[grow(row == null ? 0 : row.length, length)];
+			if (length <= MAX_RETAINED_LENGTH) {
+				floats[index] = row;
+			}
+		}
+		return row;
+	}
+
+	/**
+	 * Returns an int row of at least the given length. The contents of the
+	 * row are undefined.
+	 * 
+	 * @param index
+	 *            the index of the row, less than 3
+	 * @param length
+	 *            the minimum length of the row
+	 * @return an int row
+	 */
+	int[] ints(int index, int length) {
+		int[] row = ints[index];
+		if (row == null || row.length < length) {
+			row = new int[grow(row == null ? 0 : row.length, length)];
+			if (length <= MAX_RETAINED_LENGTH) {
+				ints[index] = row;
+			}
+		}
+		return row;
+	}
+
+	/**
+	 * Returns a long row of at least the given length. The contents of the
+	 * row are undefined.
+	 * 
+	 * @param index
+	 *            the index of the row, less than 2
+	 * @param length
+	 *            the minimum length of the row
+	 * @return a long row
+	 */
+	long[] longs(int index, int length) {
+		long[] row = longs[index];
+		if (row == null || row.length < length) {
+			row = new long[grow(row == null ? 0 : row.length, length)];
+			if (length <= MAX_RETAINED_LENGTH) {
+				longs[index] = row;
+			}
+		}
+		return row;
+	}
+
+	/**
+	 * Returns a boolean row of at least the given length. The first
+	 * {@code length} elements are false.
+	 * 
+	 * @param length
+	 *            the minimum length of the row
+	 * @return a boolean row
+	 */
+	boolean[] booleans(int length) {
+		boolean[] row = booleans;
+		if (row == null || row.length < length) {
+			row = new boolean[grow(row == null ? 0 : row.length, length)];
+			if (length <= MAX_RETAINED_LENGTH) {
+				booleans = row;
+			}
+			return row;
+		}
+		Arrays.fill(row, 0, length, false);
+		return row;
+	}
+
+	/**
+	 * Returns the occurrence masks of a pattern. The masks are valid until
+	 * this method is called again.
+	 * 
+	 * @param pattern
+	 *            the pattern
+	 * @return the masks of the pattern
+	 */
+	PatternMasks masks(String pattern) {
+		if (pattern.length() > MAX_RETAINED_LENGTH) {
+			return new PatternMasks(pattern);
+		}
+		if (masks == null) {
+			masks = new PatternMasks(pattern);
+		} else {
+			masks.reset(pattern);
+		}
+		return masks;
+	}
+
+	private static int grow(int current, int length) {
+		return max(length, min(current * 2, MAX_RETAINED_LENGTH));
+	}
+
+	private static int probe() {
+		final long id = Thread.currentThread().getId();
+		final int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	/*
+	 * A power of two of at least twice the number of processors so threads
+	 * running at the same time rarely compete for a slot.
+	 */
+	static int poolSize(int processors) {
+		final int size = max(processors, 2) * 2;
+		return min(Integer.highestOneBit(size - 1) << 1, 1024);
+	}
+
+}
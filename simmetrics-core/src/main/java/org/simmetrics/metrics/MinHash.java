@@ -0,0 +1,223 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.metrics;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.lang.Math.log;
+import static java.lang.Math.sqrt;
+import static java.util.Arrays.fill;
+
+import java.util.Random;
+import java.util.Set;
+
+import org.simmetrics.SetMetric;
+
+/**
+ * Estimates the {@link JaccardSimilarity} between two sets using MinHash
+ * signatures.
+ * <p>
+ * Each element is hashed by a number of independent hash functions. The
+ * signature of a set holds the minimum hash value of its elements for each
+ * function. The probability that the minima of two sets are equal is equal to
+ * their Jaccard similarity. The fraction of equal positions in two signatures
+ * is an unbiased estimate of the Jaccard similarity.
+ * <p>
+ * The estimate is within {@link #getError(float)} of the Jaccard similarity
+ * with the given confidence. Signatures can be computed once using
+ * {@link #signature(Set)} and compared using {@link #compare(int[], int[])}.
+ * <p>
+ * Elements are hashed by their {@link Object#hashCode()}. Metrics with the
+ * same number of hash functions and seed produce identical signatures.
+ * <p>
+ * This class is immutable and thread-safe.
+ * 
+ * @see <a href="http://en.wikipedia.org/wiki/MinHash">Wikipedia - MinHash</a>
+ * @see JaccardSimilarity
+ * 
+ * @param <T>
+ *            type of the token
+ */
+public final class MinHash<T> implements SetMetric<T> {
+
+	private static final long DEFAULT_SEED = 0x5DEECE66DL;
+
+	private final long[] multipliers;
+	private final long[] increments;
+	private final long seed;
+
+	/**
+	 * Constructs a new MinHash metric with the given number of hash functions.
+	 * 
+	 * @param hashes
+	 *            the number of hash functions, must be positive
+	 */
+	public MinHash(int hashes) {
+		this(hashes, DEFAULT_SEED);
+	}
+
+	/**
+	 * Constructs a new MinHash metric with the given number of hash functions
+	 * and seed.
+	 * 
+	 * @param hashes
+	 *            the number of hash functions, must be positive
+	 * @param seed
+	 *            the seed used to generate the hash functions
+	 */
+	public MinHash(int hashes, long seed) {
+		checkArgument(hashes > 0, "hashes must be positive");
+		this.seed = seed;
+		this.multipliers = new long[hashes];
+		this.increments = new long[hashes];
+
+		final Random random = new Random(seed);
+		for (int i = 0; i < hashes; i++) {
+			// Odd multipliers for multiply-shift hashing
+			multipliers[i] = random.nextLong() | 1L;
+			increments[i] = random.nextLong();
+		}
+	}
+
+	/**
+	 * Returns the number of hash functions. This is the length of a
+	 * signature.
+	 * 
+	 * @return the number of hash functions
+	 */
+	public int getHashes() {
+		return multipliers.length;
+	}
+
+	/**
+	 * Returns the seed used to generate the hash functions.
+	 * 
+	 * @return the seed
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Returns the maximum difference between the estimated and actual Jaccard
+	 * similarity that holds with the given confidence. Derived from
+	 * Hoeffding's inequality, {@code P(|estimate - jaccard| >= error) <= 2 *
+	 * exp(-2 * hashes * error^2)}.
+	 * 
+	 * @param confidence
+	 *            the probability that the error bound holds, between 0
+	 *            inclusive and 1 exclusive
+	 * @return the maximum difference with the given confidence
+	 */
+	public float getError(float confidence) {
+		checkArgument(0 <= confidence && confidence < 1,
+				"confidence must be in [0, 1)");
+		return (float) sqrt(log(2 / (1.0 - confidence))
+				/ (2.0 * multipliers.length));
+	}
+
+	/**
+	 * Computes the MinHash signature of a set. The signature of an empty set
+	 * consists of {@link Integer#MAX_VALUE}.
+	 * 
+	 * @param set
+	 *            the set to compute the signature for
+	 * @return the signature
+	 * @throws NullPointerException
+	 *             when the set is null
+	 */
+	public int[] signature(Set<T> set) {
+		final int hashes = multipliers.length;
+		final int[] signature = new int[hashes];
+		fill(signature, Integer.MAX_VALUE);
+
+		for (T element : set) {
+			final long x = mix(element.hashCode());
+			for (int i = 0; i < hashes; i++) {
+				final int h = (int) ((multipliers[i] * x + increments[i]) >>> 33);
+				if (h < signature[i]) {
+					signature[i] = h;
+				}
+			}
+		}
+		return signature;
+	}
+
+	/**
+	 * Estimates the Jaccard similarity of two sets from their signatures.
+	 * 
+	 * @param a
+	 *            signature a to compare
+	 * @param b
+	 *            signature b to compare
+	 * @return the fraction of equal positions in the signatures
+	 * @throws NullPointerException
+	 *             when either a or b is null
+	 * @throws IllegalArgumentException
+	 *             when either signature was not created by this metric
+	 */
+	public float compare(int[] a, int[] b) {
+		final int hashes = multipliers.length;
+		checkArgument(a.length == hashes && b.length == hashes,
+				"signatures must have length %s", hashes);
+
+		int equal = 0;
+		for (int i = 0; i < hashes; i++) {
+			if (a[i] == b[i]) {
+				equal++;
+			}
+		}
+		return equal / (float) hashes;
+	}
+
+	@Override
+	public float compare(Set<T> a, Set<T> b) {
+
+		if (a.isEmpty() && b.isEmpty()) {
+			return 1.0f;
+		}
+
+		if (a.isEmpty() || b.isEmpty()) {
+			return 0.0f;
+		}
+
+		return compare(signature(a), signature(b));
+	}
+
+	/*
+	 * Spreads the bits of a hash code over a long. Finalizer of MurmurHash3.
+	 */
+	private static long mix(int hashCode) {
+		long x = hashCode;
+		x ^= x >>> 33;
+		x *= 0xff51afd7ed558ccdL;
+		x ^= x >>> 33;
+		x *= 0xc4ceb9fe1a85ec53L;
+		x ^= x >>> 33;
+		return x;
+	}
+
+	@Override
+	public String toString() {
+		return "MinHash [hashes=" + multipliers.length + ", seed=" + seed
+				+ "]";
+	}
+
+}
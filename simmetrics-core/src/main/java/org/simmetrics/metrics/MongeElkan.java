@@ -24,7 +24,10 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static java.lang.Math.max;
 import static java.lang.Math.sqrt;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.simmetrics.StringMetric;
 import org.simmetrics.ListMetric;
@@ -42,6 +45,10 @@ import org.simmetrics.ListMetric;
  * <code>normalized_similarity(a,b) = sqrt(similarity(a,b) * similarity(b,a))</code>
  * </p>
  * <p>
+ * Both similarities are derived from a single comparison of each pair of
+ * distinct tokens. This relies on the metric being symmetric. Once the best
+ * match of both tokens in a pair is known to be 1.0 the pair is not compared.
+ * <p>
  * This class is immutable and thread-safe.
  * 
  */
@@ -72,22 +79,56 @@ public class MongeElkan implements ListMetric<String> {
 			return 0.0f;
 		}
 
+		final List<String> distinctA = new ArrayList<>(a.size());
+		final List<String> distinctB = new ArrayList<>(b.size());
+		final int[] indexesA = indexes(a, distinctA);
+		final int[] indexesB = indexes(b, distinctB);
+
+		// The best match of each distinct token of a in b and vice versa
+		final float[] maxA = new float[distinctA.size()];
+		final float[] maxB = new float[distinctB.size()];
+
+		for (int i = 0; i < maxA.length; i++) {
+			final String s = distinctA.get(i);
+			for (int j = 0; j < maxB.length; j++) {
+				// A score can not improve on a best match of 1.0
+				if (maxA[i] < 1.0f || maxB[j] < 1.0f) {
+					final float score = metric.compare(s, distinctB.get(j));
+					maxA[i] = max(maxA[i], score);
+					maxB[j] = max(maxB[j], score);
+				}
+			}
+		}
+
 		// calculates normalized_similarity(a,b)
-		return (float) sqrt(similarity(a, b) * similarity(b, a));
+		return (float) sqrt(similarity(maxA, indexesA)
+				* similarity(maxB, indexesB));
 	}
 
-	private float similarity(List<String> a, List<String> b) {
-		// calculates average( for s in a | max( for q in b | metric(s,q))		
-		float sum = 0.0f;
-
-		for (String s : a) {
-			float max = 0.0f;
-			for (String q : b) {
-				max = max(max, metric.compare(s, q));
+	private static int[] indexes(List<String> tokens, List<String> distinct) {
+		final Map<String, Integer> indexOf = new HashMap<>(tokens.size() * 2);
+		final int[] indexes = new int[tokens.size()];
+		for (int i = 0; i < indexes.length; i++) {
+			final String token = tokens.get(i);
+			Integer index = indexOf.get(token);
+			if (index == null) {
+				index = distinct.size();
+				indexOf.put(token, index);
+				distinct.add(token);
 			}
-			sum += max;
+			indexes[i] = index;
+		}
+		return indexes;
+	}
+
+	private static float similarity(float[] max, int[] indexes) {
+		// calculates average( for s in a | max( for q in b | metric(s,q))
+		// in the order of the tokens in a
+		float sum = 0.0f;
+		for (int index : indexes) {
+			sum += max[index];
 		}
-		return sum / a.size();
+		return sum / indexes.length;
 	}
 
 	@Override
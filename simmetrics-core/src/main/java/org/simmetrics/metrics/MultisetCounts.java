@@ -0,0 +1,84 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.simmetrics.metrics;
+
+import com.google.common.collect.Multiset;
+
+/**
+ * Compares the number of occurrences of the elements of two multisets without
+ * modifying either.
+ */
+final class MultisetCounts {
+
+	private MultisetCounts() {
+		// Utility class
+	}
+
+	/**
+	 * Returns the size of the intersection of a and b. An element is counted
+	 * as often as it occurs in the multiset where it occurs least.
+	 * 
+	 * @param a
+	 *            a multiset
+	 * @param b
+	 *            a multiset
+	 * @return the size of the intersection
+	 */
+	static int intersection(Multiset<?> a, Multiset<?> b) {
+		// Look up the distinct elements of the smaller multiset in the larger
+		if (a.elementSet().size() > b.elementSet().size()) {
+			return intersection(b, a);
+		}
+
+		int intersection = 0;
+		for (Multiset.Entry<?> entry : a.entrySet()) {
+			intersection += java.lang.Math.min(entry.getCount(),
+					b.count(entry.getElement()));
+		}
+		return intersection;
+	}
+
+	/**
+	 * Returns the sum of the squared differences between the number of
+	 * occurrences of each element in a and b.
+	 * 
+	 * @param a
+	 *            a multiset
+	 * @param b
+	 *            a multiset
+	 * @return the sum of the squared differences
+	 */
+	static long sumOfSquares(Multiset<?> a, Multiset<?> b) {
+		long sum = 0;
+		for (Multiset.Entry<?> entry : a.entrySet()) {
+			final long difference = entry.getCount()
+					- b.count(entry.getElement());
+			sum += difference * difference;
+		}
+		for (Multiset.Entry<?> entry : b.entrySet()) {
+			if (!a.contains(entry.getElement())) {
+				final long count = entry.getCount();
+				sum += count * count;
+			}
+		}
+		return sum;
+	}
+
+}
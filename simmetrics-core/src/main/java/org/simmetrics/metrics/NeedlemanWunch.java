@@ -22,8 +22,11 @@ package org.simmetrics.metrics;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static java.lang.Math.abs;
 import static java.lang.Math.max;
 import static java.lang.Math.min;
+import static org.simmetrics.metrics.IntegralCosts.isExact;
+import static org.simmetrics.metrics.Math.max;
 import static org.simmetrics.metrics.Math.min;
 
 import java.util.Objects;
@@ -36,7 +39,9 @@ import org.simmetrics.metrics.functions.Substitution;
  * Needleman-Wunsch algorithm providing a similarity measure between two
  * strings.
  * <p>
- * Implementation uses linear space.
+ * Implementation uses linear space. When the gap value and the values of a
+ * {@link MatchMismatch} substitution are integers the matrix is computed with
+ * ints rather than floats.
  * <p>
  * This class is immutable and thread-safe if its substitution function is.
  * 
@@ -55,6 +60,9 @@ public class NeedlemanWunch implements StringMetric {
 
 	private final float gapValue;
 
+	// Largest absolute step when the matrix can be computed with ints
+	private final float integralMaxCost;
+
 	/**
 	 * Constructs a new Needleman-Wunch metric. Uses an gap of <code>-2.0</code>
 	 * a <code>-1.0</code> substitution penalty for mismatches, <code>0</code>
@@ -78,6 +86,20 @@ public class NeedlemanWunch implements StringMetric {
 		checkNotNull(substitution);
 		this.gapValue = gapValue;
 		this.substitution = substitution;
+		this.integralMaxCost = isIntegral(gapValue, substitution) ? max(
+				-gapValue, abs(substitution.max()), abs(substitution.min())) + 1
+				: Float.NaN;
+	}
+
+	/*
+	 * The substitution is exactly a MatchMismatch, not a subclass that might
+	 * override compare, and all values are integers.
+	 */
+	private static boolean isIntegral(float gapValue, Substitution substitution) {
+		return substitution.getClass() == MatchMismatch.class
+				&& IntegralCosts.isIntegral(gapValue)
+				&& IntegralCosts.isIntegral(substitution.max())
+				&& IntegralCosts.isIntegral(substitution.min());
 	}
 
 	@Override
@@ -96,6 +118,27 @@ public class NeedlemanWunch implements StringMetric {
 
 	}
 
+	/**
+	 * Computes an optimal global alignment of a and b. The score of the
+	 * alignment is the sum of the substitution values of aligned characters
+	 * and the gap value of each character aligned to a gap.
+	 * <p>
+	 * Uses Hirschberg's algorithm. Memory is linear in the length of the
+	 * shorter string.
+	 * 
+	 * @param a
+	 *            string a to align
+	 * @param b
+	 *            string b to align
+	 * @return an optimal global alignment of a and b
+	 * @throws NullPointerException
+	 *             when either a or b is null
+	 */
+	public Alignment align(String a, String b) {
+		return Hirschberg.global(checkNotNull(a), checkNotNull(b),
+				substitution, gapValue);
+	}
+
 	private float needlemanWunch(final String s, final String t) {
 
 		if (Objects.equals(s, t)) {
@@ -109,27 +152,77 @@ public class NeedlemanWunch implements StringMetric {
 			return -gapValue * s.length();
 		}
 
-		final float[] v0 = new float[t.length() + 1];
-		final float[] v1 = new float[t.length() + 1];
+		final MetricWorkspace workspace = MetricWorkspace.acquire();
+		try {
+			return needlemanWunch(s, t, workspace);
+		} finally {
+			workspace.release();
+		}
+	}
 
-		for (int j = 0; j < v0.length; j++) {
+	private float needlemanWunch(final String s, final String t,
+			final MetricWorkspace workspace) {
+		// NaN when not integral
+		if (isExact(integralMaxCost, s.length(), t.length())) {
+			return integralNeedlemanWunch(s, t, workspace);
+		}
+
+		final int columns = t.length() + 1;
+		float[] v0 = workspace.floats(0, columns);
+		float[] v1 = workspace.floats(1, columns);
+
+		for (int j = 0; j < columns; j++) {
 			v0[j] = j;
 		}
 
 		for (int i = 1; i < s.length() + 1; i++) {
 			v1[0] = i;
 
-			for (int j = 1; j < v0.length; j++) {
+			for (int j = 1; j < columns; j++) {
 				v1[j] = min(v0[j] - gapValue, v1[j - 1] - gapValue, v0[j - 1]
 						- substitution.compare(s, i - 1, t, j - 1));
 			}
 
-			for (int j = 0; j < v0.length; j++) {
-				v0[j] = v1[j];
+			final float[] swap = v0;
+			v0 = v1;
+			v1 = swap;
+		}
+
+		return v0[columns - 1];
+	}
+
+	/*
+	 * As needlemanWunch(s, t) with int rows. Compares characters directly.
+	 */
+	private int integralNeedlemanWunch(final String s, final String t,
+			final MetricWorkspace workspace) {
+		final int columns = t.length() + 1;
+		final int gapValue = (int) this.gapValue;
+		final int matchValue = (int) substitution.max();
+		final int mismatchValue = (int) substitution.min();
+
+		int[] v0 = workspace.ints(0, columns);
+		int[] v1 = workspace.ints(1, columns);
+
+		for (int j = 0; j < columns; j++) {
+			v0[j] = j;
+		}
+
+		for (int i = 1; i < s.length() + 1; i++) {
+			v1[0] = i;
+
+			final char c = s.charAt(i - 1);
+			for (int j = 1; j < columns; j++) {
+				v1[j] = min(v0[j] - gapValue, v1[j - 1] - gapValue, v0[j - 1]
+						- (c == t.charAt(j - 1) ? matchValue : mismatchValue));
 			}
+
+			final int[] swap = v0;
+			v0 = v1;
+			v1 = swap;
 		}
 
-		return v1[v1.length - 1];
+		return v0[columns - 1];
 	}
 
 	@Override
@@ -21,11 +21,14 @@
 package org.simmetrics.metrics;
 
 import static java.lang.Math.min;
+import static org.simmetrics.metrics.SortedIds.intersection;
 
 import java.util.HashSet;
 import java.util.Set;
 
+import org.simmetrics.PackedTokenMetric;
 import org.simmetrics.SetMetric;
+import org.simmetrics.TokenIdMetric;
 
 /**
  * Overlap Coefficient algorithm providing a similarity measure between two sets
@@ -45,7 +48,8 @@ import org.simmetrics.SetMetric;
  * @see <a href="http://en.wikipedia.org/wiki/Overlap_coefficient">Wikipedia -
  *      Overlap Coefficient</a>
  */
-public final class OverlapCoefficient<T> implements SetMetric<T> {
+public final class OverlapCoefficient<T> implements SetMetric<T>,
+		TokenIdMetric, PackedTokenMetric {
 
 	@Override
 	public float compare(Set<T> a, Set<T> b) {
@@ -68,6 +72,30 @@ public final class OverlapCoefficient<T> implements SetMetric<T> {
 		return intersection / (float) min(a.size(), b.size());
 	}
 
+	@Override
+	public float compare(int[] a, int[] b) {
+		return similarity(a.length, b.length, intersection(a, b));
+	}
+
+	@Override
+	public float compare(long[] a, long[] b) {
+		return similarity(a.length, b.length, intersection(a, b));
+	}
+
+	private static float similarity(int sizeA, int sizeB, int intersection) {
+
+		if (sizeA == 0 && sizeB == 0) {
+			return 1.0f;
+		}
+
+		if (sizeA == 0 || sizeB == 0) {
+			return 0.0f;
+		}
+
+		// (|q & r|) / min{|q|, |r|}
+		return intersection / (float) min(sizeA, sizeB);
+	}
+
 	@Override
 	public String toString() {
 		return "OverlapCoefficient";
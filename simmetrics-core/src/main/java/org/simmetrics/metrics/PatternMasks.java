@@ -0,0 +1,154 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.metrics;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import java.util.Arrays;
+
+/**
+ * Occurrence masks for the characters of a pattern. Bit {@code i % 64} of word
+ * {@code i / 64} in the mask of a character is set when that character occurs
+ * at position {@code i} in the pattern.
+ * <p>
+ * Each 64 character block of the pattern has its own small open addressing
+ * table keyed by character. This keeps the size of the masks linear in the
+ * length of the pattern. Characters that do not occur in a block have an empty
+ * mask.
+ * <p>
+ * Masks can be reset to those of another pattern so a {@link MetricWorkspace}
+ * can reuse the tables. Masks shared between threads must not be reset.
+ */
+final class PatternMasks {
+
+	private int length;
+	private int words;
+	private int capacity;
+
+	// Character + 1, so zero marks an empty slot
+	private int[] keys;
+	private long[] masks;
+
+	PatternMasks(String pattern) {
+		reset(pattern);
+	}
+
+	/**
+	 * Replaces the masks with those of another pattern. The tables are reused
+	 * when they are large enough.
+	 * 
+	 * @param pattern
+	 *            the new pattern
+	 */
+	void reset(String pattern) {
+		this.length = pattern.length();
+		this.words = (length + 63) >>> 6;
+
+		// At least twice the number of characters in a block
+		final int blockLength = max(min(length, 64), 1);
+		this.capacity = Integer.highestOneBit(blockLength * 2 - 1) << 1;
+
+		final int size = capacity * words;
+		if (keys == null || keys.length < size) {
+			this.keys = new int[size];
+			this.masks = new long[size];
+		} else {
+			Arrays.fill(keys, 0, size, 0);
+			Arrays.fill(masks, 0, size, 0L);
+		}
+
+		for (int i = 0; i < length; i++) {
+			masks[slot(pattern.charAt(i), i >>> 6)] |= 1L << i;
+		}
+	}
+
+	/**
+	 * Returns the length of the pattern.
+	 * 
+	 * @return the length of the pattern
+	 */
+	int length() {
+		return length;
+	}
+
+	/**
+	 * Returns the number of 64 bit words needed to hold a mask.
+	 * 
+	 * @return the number of words in a mask
+	 */
+	int words() {
+		return words;
+	}
+
+	/**
+	 * Returns the first word of the mask of a character.
+	 * 
+	 * @param c
+	 *            the character to look up
+	 * @return the first word of the mask
+	 */
+	long get(char c) {
+		return get(c, 0);
+	}
+
+	/**
+	 * Returns a word of the mask of a character.
+	 * 
+	 * @param c
+	 *            the character to look up
+	 * @param word
+	 *            the index of the word
+	 * @return a word of the mask
+	 */
+	long get(char c, int word) {
+		final int key = c + 1;
+		final int base = word * capacity;
+		final int slotMask = capacity - 1;
+		for (int slot = hash(c) & slotMask;; slot = (slot + 1) & slotMask) {
+			final int k = keys[base + slot];
+			if (k == key) {
+				return masks[base + slot];
+			}
+			if (k == 0) {
+				return 0L;
+			}
+		}
+	}
+
+	private int slot(char c, int word) {
+		final int key = c + 1;
+		final int base = word * capacity;
+		final int slotMask = capacity - 1;
+		int slot = hash(c) & slotMask;
+		while (keys[base + slot] != 0 && keys[base + slot] != key) {
+			slot = (slot + 1) & slotMask;
+		}
+		keys[base + slot] = key;
+		return base + slot;
+	}
+
+	private static int hash(char c) {
+		final int h = c * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+}
@@ -0,0 +1,215 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.metrics;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.lang.Math.PI;
+import static java.lang.Math.cos;
+
+import java.util.Set;
+
+import org.simmetrics.SetMetric;
+
+/**
+ * Estimates the {@link CosineSimilarity} between two sets using SimHash
+ * fingerprints.
+ * <p>
+ * Each bit of a fingerprint corresponds to a random hyperplane. Each element
+ * of a set is hashed and votes for or against each bit. A bit is set when
+ * the majority of elements voted for it. The probability that a bit differs
+ * between two fingerprints is {@code angle / pi} where {@code angle} is the
+ * angle between the sets as binary vectors. The similarity is estimated as
+ * {@code cos(pi * hamming distance / bits)}.
+ * <p>
+ * Fingerprints can be computed once using {@link #fingerprint(Set)} and
+ * compared using {@link #compare(long[], long[])}. Comparing two 64 bit
+ * fingerprints takes a single {@link Long#bitCount(long)}.
+ * <p>
+ * Elements are hashed by their {@link Object#hashCode()}.
+ * <p>
+ * This class is immutable and thread-safe.
+ * 
+ * @see <a href="http://dx.doi.org/10.1145/509907.509965">Charikar, M. S.
+ *      Similarity estimation techniques from rounding algorithms</a>
+ * @see CosineSimilarity
+ * 
+ * @param <T>
+ *            type of the token
+ */
+public final class SimHash<T> implements SetMetric<T> {
+
+	private static final long[] SALTS = { 0x9E3779B97F4A7C15L,
+			0xC2B2AE3D27D4EB4FL };
+
+	private final int words;
+
+	/**
+	 * Constructs a new SimHash metric with 64 bit fingerprints.
+	 */
+	public SimHash() {
+		this(64);
+	}
+
+	/**
+	 * Constructs a new SimHash metric with fingerprints of the given number
+	 * of bits.
+	 * 
+	 * @param bits
+	 *            the number of bits, either 64 or 128
+	 */
+	public SimHash(int bits) {
+		checkArgument(bits == 64 || bits == 128, "bits must be 64 or 128");
+		this.words = bits / 64;
+	}
+
+	/**
+	 * Returns the number of bits in a fingerprint.
+	 * 
+	 * @return the number of bits in a fingerprint
+	 */
+	public int getBits() {
+		return words * 64;
+	}
+
+	/**
+	 * Computes the fingerprint of a set. The fingerprint of an empty set
+	 * consists of zeros.
+	 * 
+	 * @param set
+	 *            the set to compute the fingerprint for
+	 * @return a fingerprint of {@code getBits() / 64} longs
+	 * @throws NullPointerException
+	 *             when the set is null
+	 */
+	public long[] fingerprint(Set<T> set) {
+		final int[] votes = new int[words * 64];
+		for (T element : set) {
+			final int hashCode = element.hashCode();
+			for (int w = 0; w < words; w++) {
+				final long h = mix(hashCode * SALTS[0] + SALTS[w]);
+				for (int i = 0, bit = w * 64; i < 64; i++, bit++) {
+					votes[bit] += (int) (h >>> i & 1L) * 2 - 1;
+				}
+			}
+		}
+
+		final long[] fingerprint = new long[words];
+		for (int w = 0; w < words; w++) {
+			long f = 0;
+			for (int i = 0, bit = w * 64; i < 64; i++, bit++) {
+				if (votes[bit] > 0) {
+					f |= 1L << i;
+				}
+			}
+			fingerprint[w] = f;
+		}
+		return fingerprint;
+	}
+
+	/**
+	 * Returns the Hamming distance between two fingerprints.
+	 * 
+	 * @param a
+	 *            fingerprint a
+	 * @param b
+	 *            fingerprint b
+	 * @return the number of bits that differ
+	 * @throws NullPointerException
+	 *             when either a or b is null
+	 * @throws IllegalArgumentException
+	 *             when either fingerprint was not created by this metric
+	 */
+	public int distance(long[] a, long[] b) {
+		checkArgument(a.length == words && b.length == words,
+				"fingerprints must have length %s", words);
+
+		int distance = 0;
+		for (int w = 0; w < words; w++) {
+			distance += Long.bitCount(a[w] ^ b[w]);
+		}
+		return distance;
+	}
+
+	/**
+	 * Estimates the cosine similarity of two sets from their fingerprints.
+	 * 
+	 * @param a
+	 *            fingerprint a to compare
+	 * @param b
+	 *            fingerprint b to compare
+	 * @return the estimated cosine similarity
+	 * @throws NullPointerException
+	 *             when either a or b is null
+	 * @throws IllegalArgumentException
+	 *             when either fingerprint was not created by this metric
+	 */
+	public float compare(long[] a, long[] b) {
+		return similarity(distance(a, b));
+	}
+
+	/**
+	 * Converts the Hamming distance between two fingerprints into an
+	 * estimated cosine similarity.
+	 * 
+	 * @param distance
+	 *            the Hamming distance between two fingerprints
+	 * @return the estimated cosine similarity
+	 */
+	public float similarity(int distance) {
+		checkArgument(0 <= distance && distance <= words * 64,
+				"distance must be in [0, %s]", words * 64);
+		// Sets do not have negative components, the angle is at most pi / 2
+		return (float) java.lang.Math.max(0.0,
+				cos(PI * distance / (words * 64)));
+	}
+
+	@Override
+	public float compare(Set<T> a, Set<T> b) {
+
+		if (a.isEmpty() && b.isEmpty()) {
+			return 1.0f;
+		}
+
+		if (a.isEmpty() || b.isEmpty()) {
+			return 0.0f;
+		}
+
+		return compare(fingerprint(a), fingerprint(b));
+	}
+
+	/*
+	 * Finalizer of MurmurHash3.
+	 */
+	private static long mix(long x) {
+		x ^= x >>> 33;
+		x *= 0xff51afd7ed558ccdL;
+		x ^= x >>> 33;
+		x *= 0xc4ceb9fe1a85ec53L;
+		x ^= x >>> 33;
+		return x;
+	}
+
+	@Override
+	public String toString() {
+		return "SimHash [bits=" + getBits() + "]";
+	}
+
+}
@@ -20,11 +20,16 @@
 
 package org.simmetrics.metrics;
 
+import static org.simmetrics.metrics.MultisetCounts.intersection;
+import static org.simmetrics.metrics.SortedIds.intersection;
+
 import java.util.List;
 
 import org.simmetrics.ListMetric;
+import org.simmetrics.MultisetMetric;
+import org.simmetrics.PackedTokenMetric;
+import org.simmetrics.TokenIdMetric;
 
-import com.google.common.collect.HashMultiset;
 import com.google.common.collect.Multiset;
 
 /**
@@ -61,35 +66,48 @@ import com.google.common.collect.Multiset;
  *            type of the token
  * 
  */
-public class SimonWhite<T> implements ListMetric<T> {
+public class SimonWhite<T> implements ListMetric<T>, MultisetMetric<T>,
+		TokenIdMetric, PackedTokenMetric {
 
 	@Override
 	public float compare(List<T> a, List<T> b) {
-
-		if (a.isEmpty() && b.isEmpty()) {
-			return 1.0f;
-		}
-
-		if (a.isEmpty() || b.isEmpty()) {
-			return 0.0f;
-		}
-
-		// Copy for destructive list difference
-		Multiset<T> bCopy = HashMultiset.create(b);
-		
 		// Count elements in the list intersection.
 		// Elements are counted only once in both lists.
 		// E.g. the intersection of [ab,ab,ab] and [ab,ab,ac,ad] is [ab,ab].
 		// Note: this is not the same as b.retainAll(a).size()
-		int intersection = 0;
-		for (T token : a) {
-			if (bCopy.remove(token)) {
-				intersection++;
-			}
+		//
+		// Tokens not in the intersection differ by one occurrence each
+		final long difference = new TokenCounts(a, b).sumOfAbsolutes();
+		return similarity(a.size(), b.size(),
+				(int) ((a.size() + b.size() - difference) / 2));
+	}
+
+	@Override
+	public float compare(Multiset<T> a, Multiset<T> b) {
+		return similarity(a.size(), b.size(), intersection(a, b));
+	}
+
+	@Override
+	public float compare(int[] a, int[] b) {
+		return similarity(a.length, b.length, intersection(a, b));
+	}
+
+	@Override
+	public float compare(long[] a, long[] b) {
+		return similarity(a.length, b.length, intersection(a, b));
+	}
+
+	private static float similarity(int sizeA, int sizeB, int intersection) {
+
+		if (sizeA == 0 && sizeB == 0) {
+			return 1.0f;
 		}
 
-		return 2.0f * intersection / (a.size() + b.size());
+		if (sizeA == 0 || sizeB == 0) {
+			return 0.0f;
+		}
 
+		return 2.0f * intersection / (sizeA + sizeB);
 	}
 
 	@Override
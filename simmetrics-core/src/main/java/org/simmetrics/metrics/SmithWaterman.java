@@ -29,7 +29,9 @@ import static org.simmetrics.metrics.Math.max;
 
 import org.simmetrics.StringMetric;
 import org.simmetrics.metrics.functions.AffineGap;
+import org.simmetrics.metrics.functions.ConstantGap;
 import org.simmetrics.metrics.functions.Gap;
+import org.simmetrics.metrics.functions.LinearGap;
 import org.simmetrics.metrics.functions.MatchMismatch;
 import org.simmetrics.metrics.functions.Substitution;
 
@@ -40,6 +42,11 @@ import org.simmetrics.metrics.functions.Substitution;
  * Implementation uses the implementation as described by Smith and Waterman. This implementation
  * uses quadratic space and cubic time.
  * <p>
+ * When the gap function is an {@link AffineGap}, {@link LinearGap} or
+ * {@link ConstantGap} and the window covers both strings the same
+ * similarity is computed using Gotoh's recurrence in linear space and
+ * quadratic time.
+ * <p>
  * This class is immutable and thread-safe if its substitution and gap functions
  * are.
  * 
@@ -55,6 +62,11 @@ public class SmithWaterman implements StringMetric {
 	private final Substitution substitution;
 	private final int windowSize;
 
+	// Gap of length k costs gapOpen + (k - 1) * gapExtend, if affine
+	private final boolean affineGap;
+	private final float gapOpen;
+	private final float gapExtend;
+
 	/**
 	 * Constructs a new Smith Waterman metric. Uses an affine gap of
 	 * <code>-5.0 - gapLength</code> a <code>-3.0</code> substitution penalty
@@ -83,6 +95,11 @@ public class SmithWaterman implements StringMetric {
 		this.gap = gap;
 		this.substitution = substitution;
 		this.windowSize = windowSize;
+
+		this.affineGap = gap instanceof AffineGap || gap instanceof LinearGap
+				|| gap instanceof ConstantGap;
+		this.gapOpen = affineGap ? gap.value(0, 1) : 0;
+		this.gapExtend = affineGap ? gap.value(0, 2) - gapOpen : 0;
 	}
 
 	@Override
@@ -96,10 +113,76 @@ public class SmithWaterman implements StringMetric {
 		}
 		float maxDistance = min(a.length(), b.length())
 				* max(substitution.max(), gap.min());
+		if (affineGap && windowSize >= max(a.length(), b.length())) {
+			final MetricWorkspace workspace = MetricWorkspace.acquire();
+			try {
+				return smithWatermanGotoh(a, b, workspace) / maxDistance;
+			} finally {
+				workspace.release();
+			}
+		}
 		return smithWaterman(a, b) / maxDistance;
 
 	}
 
+	/*
+	 * Computes the same matrix as smithWaterman but keeps the best vertical
+	 * and horizontal gap ending in each cell rather than searching all
+	 * earlier rows and columns. Like smithWaterman gaps do not start in the
+	 * first row or column. Only the previous row is kept.
+	 */
+	private float smithWatermanGotoh(String a, String b,
+			MetricWorkspace workspace) {
+		final int n = a.length();
+		final int m = b.length();
+
+		// Row i - 1 while row i is computed from left to right
+		final float[] d = workspace.floats(0, m);
+		// Best vertical gap ending in row i
+		final float[] e = workspace.floats(1, m);
+
+		// First row
+		float max = 0;
+		float f = Float.NEGATIVE_INFINITY;
+		for (int j = 0; j < m; j++) {
+			if (j >= 2) {
+				f = max(d[j - 1] + gapOpen, f + gapExtend);
+			}
+			d[j] = max(0, f, substitution.compare(a, 0, b, j));
+			e[j] = Float.NEGATIVE_INFINITY;
+			max = max(max, d[j]);
+		}
+
+		for (int i = 1; i < n; i++) {
+			// First column
+			if (i >= 2) {
+				e[0] = max(d[0] + gapOpen, e[0] + gapExtend);
+			}
+			float diagonal = d[0];
+			d[0] = max(0, e[0], substitution.compare(a, i, b, 0));
+			max = max(max, d[0]);
+
+			f = Float.NEGATIVE_INFINITY;
+			for (int j = 1; j < m; j++) {
+				if (i >= 2) {
+					e[j] = max(d[j] + gapOpen, e[j] + gapExtend);
+				}
+				if (j >= 2) {
+					f = max(d[j - 1] + gapOpen, f + gapExtend);
+				}
+
+				final float above = d[j];
+				d[j] = max(0, e[j], f,
+						diagonal + substitution.compare(a, i, b, j));
+				diagonal = above;
+
+				max = max(max, d[j]);
+			}
+		}
+
+		return max;
+	}
+
 	private float smithWaterman(String a, String b) {
 		final int n = a.length();
 		final int m = b.length();
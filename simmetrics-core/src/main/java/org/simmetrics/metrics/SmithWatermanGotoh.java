@@ -21,7 +21,12 @@
 
 package org.simmetrics.metrics;
 
-import org.simmetrics.StringMetric;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.simmetrics.PreparableStringMetric;
+import org.simmetrics.PreparedQuery;
 import org.simmetrics.metrics.functions.MatchMismatch;
 import org.simmetrics.metrics.functions.Substitution;
 
@@ -36,8 +41,13 @@ import static org.simmetrics.metrics.Math.max;
  * <p>
  * Implementation uses optimizations described in Osamu Gotoh (1982).
  * "An improved algorithm for matching biological sequences". Journal of
- * molecular biology 162: 705". This implementation uses constant space and
+ * molecular biology 162: 705". This implementation uses linear space and
  * quadratic time.
+ * <p>
+ * When the substitution function is a {@link MatchMismatch} the scores of a
+ * row are computed by comparing characters directly. A prepared query
+ * precomputes the scores of each character against the query, unless the
+ * query is long and has many distinct characters.
  * 
  * <p>
  * This class is immutable and thread-safe if its substitution functions are.
@@ -49,11 +59,14 @@ import static org.simmetrics.metrics.Math.max;
  *      - Smith-Waterman algorithm</a>
  *
  */
-public class SmithWatermanGotoh implements StringMetric {
+public class SmithWatermanGotoh implements PreparableStringMetric {
 
 	private static final Substitution MATCH_1_MISMATCH_MINUS_2 = new MatchMismatch(
 			1.0f, -2.0f);
 
+	// Largest number of scores kept by the profile of a prepared query
+	private static final int MAX_PROFILE_SIZE = 1 << 14;
+
 	private final float gapValue;
 
 	private Substitution substitution;
@@ -93,41 +106,191 @@ public class SmithWatermanGotoh implements StringMetric {
 			return 0.0f;
 		}
 
-		float maxDistance = min(a.length(), b.length())
+		final MetricWorkspace workspace = MetricWorkspace.acquire();
+		try {
+			return smithWatermanGotoh(a, b, null, workspace)
+					/ maxDistance(a, b);
+		} finally {
+			workspace.release();
+		}
+	}
+
+	/**
+	 * Computes an optimal local alignment of a and b. The score of the
+	 * alignment is the sum of the substitution values of aligned characters
+	 * and the gap value of each character aligned to a gap. When no
+	 * alignment has a positive score the alignment is empty.
+	 * <p>
+	 * Uses Hirschberg's algorithm. Memory is linear in the length of the
+	 * shorter string.
+	 * 
+	 * @param a
+	 *            string a to align
+	 * @param b
+	 *            string b to align
+	 * @return an optimal local alignment of a and b
+	 * @throws NullPointerException
+	 *             when either a or b is null
+	 */
+	public Alignment align(String a, String b) {
+		return Hirschberg.local(checkNotNull(a), checkNotNull(b),
+				substitution, gapValue);
+	}
+
+	@Override
+	public PreparedQuery prepare(final String query) {
+		// Each distinct character of the query takes a row of scores
+		if (!isMatchMismatch() || query.isEmpty()
+				|| (long) distinct(query) * query.length() > MAX_PROFILE_SIZE) {
+			return new PreparedQuery() {
+				@Override
+				public float compare(String candidate) {
+					return SmithWatermanGotoh.this.compare(query, candidate);
+				}
+			};
+		}
+
+		// Match mismatch is symmetric so the query can take the columns
+		final Profile profile = new Profile(query, substitution.max(),
+				substitution.min());
+		return new PreparedQuery() {
+			@Override
+			public float compare(String candidate) {
+				if (candidate.isEmpty()) {
+					return 0.0f;
+				}
+				final MetricWorkspace workspace = MetricWorkspace.acquire();
+				try {
+					return smithWatermanGotoh(candidate, query, profile,
+							workspace) / maxDistance(query, candidate);
+				} finally {
+					workspace.release();
+				}
+			}
+		};
+	}
+
+	private static int distinct(String s) {
+		final char[] chars = s.toCharArray();
+		Arrays.sort(chars);
+		int distinct = 1;
+		for (int i = 1; i < chars.length; i++) {
+			if (chars[i] != chars[i - 1]) {
+				distinct++;
+			}
+		}
+		return distinct;
+	}
+
+	/*
+	 * The substitution is exactly a MatchMismatch, not a subclass that might
+	 * override compare.
+	 */
+	private boolean isMatchMismatch() {
+		return substitution.getClass() == MatchMismatch.class;
+	}
+
+	private float maxDistance(String a, String b) {
+		return min(a.length(), b.length())
 				* max(substitution.max(), gapValue);
-		return smithWatermanGotoh(a, b) / maxDistance;
 	}
 
-	private float smithWatermanGotoh(final String s, final String t) {
-		
-		float[] v0 = new float[t.length()];
-		float[] v1 = new float[t.length()];
+	/*
+	 * Match mismatch scores of each character against a query. Rows for
+	 * characters that do not occur in the query are all mismatches.
+	 */
+	private static final class Profile {
+		private final float[][] ascii = new float[128][];
+		private final Map<Character, float[]> other = new HashMap<>();
+		private final float[] mismatches;
+
+		Profile(String query, float matchValue, float mismatchValue) {
+			final int m = query.length();
+			mismatches = new float[m];
+			Arrays.fill(mismatches, mismatchValue);
 
-		float max = v0[0] = max(0, gapValue, substitution.compare(s, 0, t, 0));
+			for (int j = 0; j < m; j++) {
+				final char c = query.charAt(j);
+				float[] row = c < 128 ? ascii[c] : other.get(c);
+				if (row == null) {
+					row = mismatches.clone();
+					if (c < 128) {
+						ascii[c] = row;
+					} else {
+						other.put(c, row);
+					}
+				}
+				row[j] = matchValue;
+			}
+		}
 
-		for (int j = 1; j < v0.length; j++) {
-			v0[j] = max(0, v0[j - 1] + gapValue,
-					substitution.compare(s, 0, t, j));
+		float[] row(char c) {
+			final float[] row = c < 128 ? ascii[c] : other.get(c);
+			return row == null ? mismatches : row;
+		}
+	}
+
+	/*
+	 * Substitution scores of row i of the matrix against all columns. Taken
+	 * from the profile when there is one, otherwise written to scores.
+	 */
+	private float[] row(String s, int i, String t, Profile profile,
+			float[] scores) {
+		if (profile != null) {
+			return profile.row(s.charAt(i));
+		}
+
+		final int m = t.length();
+		if (isMatchMismatch()) {
+			final char c = s.charAt(i);
+			final float matchValue = substitution.max();
+			final float mismatchValue = substitution.min();
+			for (int j = 0; j < m; j++) {
+				scores[j] = c == t.charAt(j) ? matchValue : mismatchValue;
+			}
+		} else {
+			for (int j = 0; j < m; j++) {
+				scores[j] = substitution.compare(s, i, t, j);
+			}
+		}
+		return scores;
+	}
+
+	private float smithWatermanGotoh(final String s, final String t,
+			final Profile profile, final MetricWorkspace workspace) {
+		final int n = s.length();
+		final int m = t.length();
+
+		float[] v0 = workspace.floats(0, m);
+		float[] v1 = workspace.floats(1, m);
+		final float[] scores = profile == null ? workspace.floats(2, m) : null;
+
+		float[] row = row(s, 0, t, profile, scores);
+		float max = v0[0] = max(0, gapValue, row[0]);
+
+		for (int j = 1; j < m; j++) {
+			v0[j] = max(0, v0[j - 1] + gapValue, row[j]);
 
 			max = max(max, v0[j]);
 		}
 
 		// Find max
-		for (int i = 1; i < s.length(); i++) {
-			v1[0] = max(0, v0[0] + gapValue, substitution.compare(s, i, t, 0));
+		for (int i = 1; i < n; i++) {
+			row = row(s, i, t, profile, scores);
+			v1[0] = max(0, v0[0] + gapValue, row[0]);
 
 			max = max(max, v1[0]);
 
-			for (int j = 1; j < v0.length; j++) {
+			for (int j = 1; j < m; j++) {
 				v1[j] = max(0, v0[j] + gapValue, v1[j - 1] + gapValue,
-						v0[j - 1] + substitution.compare(s, i, t, j));
+						v0[j - 1] + row[j]);
 
 				max = max(max, v1[j]);
 			}
 
-			for (int j = 0; j < v0.length; j++) {
-				v0[j] = v1[j];
-			}
+			final float[] swap = v0;
+			v0 = v1;
+			v1 = swap;
 		}
 
 		return max;
@@ -0,0 +1,159 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.metrics;
+
+/**
+ * Merges sorted arrays of token ids or packed tokens. Works for arrays of
+ * distinct ids (sets) as well as for arrays with repeated ids (bags).
+ */
+final class SortedIds {
+
+	private SortedIds() {
+		// Utility class
+	}
+
+	/**
+	 * Returns the size of the intersection of a and b. An id repeated in both
+	 * arrays is counted as often as it occurs in the array where it occurs
+	 * least.
+	 * 
+	 * @param a
+	 *            sorted ids
+	 * @param b
+	 *            sorted ids
+	 * @return the size of the intersection
+	 */
+	static int intersection(int[] a, int[] b) {
+		int intersection = 0;
+		int i = 0;
+		int j = 0;
+		while (i < a.length && j < b.length) {
+			if (a[i] < b[j]) {
+				i++;
+			} else if (a[i] > b[j]) {
+				j++;
+			} else {
+				intersection++;
+				i++;
+				j++;
+			}
+		}
+		return intersection;
+	}
+
+	/**
+	 * Returns the sum of the squared differences between the number of
+	 * occurrences of each id in a and b.
+	 * 
+	 * @param a
+	 *            sorted ids
+	 * @param b
+	 *            sorted ids
+	 * @return the sum of the squared differences
+	 */
+	static long sumOfSquares(int[] a, int[] b) {
+		long sum = 0;
+		int i = 0;
+		int j = 0;
+		while (i < a.length || j < b.length) {
+			final int id;
+			if (j == b.length || (i < a.length && a[i] < b[j])) {
+				id = a[i];
+			} else {
+				id = b[j];
+			}
+
+			int difference = 0;
+			for (; i < a.length && a[i] == id; i++) {
+				difference++;
+			}
+			for (; j < b.length && b[j] == id; j++) {
+				difference--;
+			}
+			sum += (long) difference * difference;
+		}
+		return sum;
+	}
+
+	/**
+	 * Returns the size of the intersection of a and b. A token repeated in
+	 * both arrays is counted as often as it occurs in the array where it occurs
+	 * least.
+	 * 
+	 * @param a
+	 *            sorted packed tokens
+	 * @param b
+	 *            sorted packed tokens
+	 * @return the size of the intersection
+	 */
+	static int intersection(long[] a, long[] b) {
+		int intersection = 0;
+		int i = 0;
+		int j = 0;
+		while (i < a.length && j < b.length) {
+			if (a[i] < b[j]) {
+				i++;
+			} else if (a[i] > b[j]) {
+				j++;
+			} else {
+				intersection++;
+				i++;
+				j++;
+			}
+		}
+		return intersection;
+	}
+
+	/**
+	 * Returns the sum of the squared differences between the number of
+	 * occurrences of each token in a and b.
+	 * 
+	 * @param a
+	 *            sorted packed tokens
+	 * @param b
+	 *            sorted packed tokens
+	 * @return the sum of the squared differences
+	 */
+	static long sumOfSquares(long[] a, long[] b) {
+		long sum = 0;
+		int i = 0;
+		int j = 0;
+		while (i < a.length || j < b.length) {
+			final long id;
+			if (j == b.length || (i < a.length && a[i] < b[j])) {
+				id = a[i];
+			} else {
+				id = b[j];
+			}
+
+			int difference = 0;
+			for (; i < a.length && a[i] == id; i++) {
+				difference++;
+			}
+			for (; j < b.length && b[j] == id; j++) {
+				difference--;
+			}
+			sum += (long) difference * difference;
+		}
+		return sum;
+	}
+
+}
@@ -0,0 +1,104 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.metrics;
+
+import java.util.List;
+
+/**
+ * Difference between the number of occurrences of each token in two lists.
+ * Tokens are counted in a single pass over both lists in an open addressing
+ * table sized up front, so counting takes time linear in the number of
+ * tokens.
+ */
+final class TokenCounts {
+
+	// Stands in for null tokens, null marks an empty slot
+	private static final Object NULL = new Object();
+
+	private final Object[] keys;
+	private final int[] counts;
+	private final int mask;
+
+	/**
+	 * Counts the tokens of a positively and the tokens of b negatively.
+	 * 
+	 * @param a
+	 *            list a
+	 * @param b
+	 *            list b
+	 */
+	TokenCounts(List<?> a, List<?> b) {
+		// At least twice the number of distinct tokens
+		final int capacity = Integer.highestOneBit(
+				java.lang.Math.max(a.size() + b.size(), 1) * 2 - 1) << 1;
+		this.keys = new Object[capacity];
+		this.counts = new int[capacity];
+		this.mask = capacity - 1;
+
+		for (Object token : a) {
+			counts[slot(token)]++;
+		}
+		for (Object token : b) {
+			counts[slot(token)]--;
+		}
+	}
+
+	/**
+	 * Returns the sum of the absolute differences in occurrences.
+	 * 
+	 * @return the sum of the absolute differences
+	 */
+	long sumOfAbsolutes() {
+		long sum = 0;
+		for (int count : counts) {
+			sum += java.lang.Math.abs(count);
+		}
+		return sum;
+	}
+
+	/**
+	 * Returns the sum of the squared differences in occurrences.
+	 * 
+	 * @return the sum of the squared differences
+	 */
+	long sumOfSquares() {
+		long sum = 0;
+		for (int count : counts) {
+			sum += (long) count * count;
+		}
+		return sum;
+	}
+
+	private int slot(Object token) {
+		final Object key = token == null ? NULL : token;
+		final int h = key.hashCode() * 0x9E3779B9;
+		int slot = (h ^ (h >>> 16)) & mask;
+		for (Object k = keys[slot]; k != null; k = keys[slot]) {
+			if (k.equals(key)) {
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = key;
+		return slot;
+	}
+
+}
@@ -0,0 +1,143 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.simplifiers;
+
+import java.text.Normalizer;
+import java.util.regex.Pattern;
+
+/**
+ * Removes diacritics. Characters in the Latin, Greek and Cyrillic blocks are
+ * simplified with a table rather than by normalization. CJK unified ideographs
+ * have no decomposition and are never simplified.
+ * <p>
+ * This class is thread-safe and immutable.
+ */
+final class Diacritics {
+
+	private static final Pattern DIACRITICS_AND_FRIENDS = Pattern
+			.compile("[\\p{InCombiningDiacriticalMarks}\\p{IsLm}\\p{IsSk}]+");
+
+	/**
+	 * Each character with its diacritics removed. Null when the simplified
+	 * character contains combining marks. These could be reordered by the
+	 * canonical decomposition of the whole string.
+	 */
+	private static final String[] SIMPLIFIED = new String[0x500];
+
+	/**
+	 * Each character that is simplified to a single character. Zero when
+	 * simplified to anything else.
+	 */
+	private static final char[] SIMPLIFIED_CHAR = new char[SIMPLIFIED.length];
+
+	static {
+		for (char c = 0; c < SIMPLIFIED.length; c++) {
+			final String simplified = normalizeAndRemove(String.valueOf(c));
+			if (!containsMarks(simplified)) {
+				SIMPLIFIED[c] = simplified;
+			}
+			if (simplified.length() == 1) {
+				SIMPLIFIED_CHAR[c] = simplified.charAt(0);
+			}
+		}
+	}
+
+	private static boolean containsMarks(String s) {
+		for (int i = 0; i < s.length(); i++) {
+			switch (Character.getType(s.charAt(i))) {
+			case Character.NON_SPACING_MARK:
+			case Character.ENCLOSING_MARK:
+			case Character.COMBINING_SPACING_MARK:
+				return true;
+			default:
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Transforms the input to canonical decomposition and removes the
+	 * characters matching
+	 * <code>[\p{InCombiningDiacriticalMarks}\p{IsLm}\p{IsSk}]+</code>.
+	 * 
+	 * @param input
+	 *            the string to simplify
+	 * @return the input in canonical decomposition without diacritics
+	 */
+	static String normalizeAndRemove(String input) {
+		return DIACRITICS_AND_FRIENDS.matcher(
+				Normalizer.normalize(input, Normalizer.Form.NFD))
+				.replaceAll("");
+	}
+
+	/**
+	 * Returns true if the character is not changed by removing diacritics
+	 * regardless of the characters around it.
+	 * 
+	 * @param c
+	 *            the character
+	 * @return true if the character is not changed
+	 */
+	static boolean isUnchanged(char c) {
+		if (c < SIMPLIFIED.length) {
+			return SIMPLIFIED_CHAR[c] == c && SIMPLIFIED[c] != null;
+		}
+		return isCjkUnifiedIdeograph(c);
+	}
+
+	private static boolean isCjkUnifiedIdeograph(char c) {
+		return '\u4E00' <= c && c <= '\u9FFF';
+	}
+
+	/**
+	 * Returns the single character the character is simplified to, or zero
+	 * when it is simplified to anything else.
+	 * 
+	 * @param c
+	 *            the character
+	 * @return the simplified character or zero
+	 */
+	static char simplifiedChar(char c) {
+		if (c < SIMPLIFIED.length) {
+			return SIMPLIFIED[c] == null ? 0 : SIMPLIFIED_CHAR[c];
+		}
+		return isCjkUnifiedIdeograph(c) ? c : 0;
+	}
+
+	/**
+	 * Returns the character with its diacritics removed, or null when the
+	 * result depends on the characters around it.
+	 * 
+	 * @param c
+	 *            the character
+	 * @return the character without diacritics or null
+	 */
+	static String simplified(char c) {
+		if (c < SIMPLIFIED.length) {
+			return SIMPLIFIED[c];
+		}
+		return isCjkUnifiedIdeograph(c) ? String.valueOf(c) : null;
+	}
+
+	private Diacritics() {
+		// Utility class
+	}
+}
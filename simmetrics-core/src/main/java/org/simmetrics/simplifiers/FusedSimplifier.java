@@ -0,0 +1,435 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.simplifiers;
+
+import static com.google.common.base.Joiner.on;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Applies a chain of built-in simplifiers without creating intermediate
+ * strings. Each step simplifies the characters of the previous step into a
+ * pooled buffer that is reused by later simplifications. Only the final string
+ * is created.
+ * <p>
+ * Steps process characters one at a time and can not handle every input
+ * exactly. When a step encounters a character it can not handle the simplifiers
+ * are applied in order instead.
+ * <p>
+ * This class is thread-safe and immutable.
+ */
+final class FusedSimplifier implements Simplifier {
+
+	/**
+	 * Buffers longer than this are not retained after use.
+	 */
+	static final int MAX_RETAINED_LENGTH = 1 << 12;
+
+	// Number of slots visited when acquiring or releasing buffers
+	private static final int PROBES = 4;
+
+	/**
+	 * Pairs of buffers that are not in use. Steps read from one and append to
+	 * the other. As with the workspaces of the edit distance metrics the pairs
+	 * are kept in a small fixed size pool rather than in a
+	 * {@code ThreadLocal}, so the memory held does not grow with the number of
+	 * short lived or virtual threads that simplify strings.
+	 */
+	private static final AtomicReferenceArray<Buffer[]> pool = new AtomicReferenceArray<>(
+			poolSize(Runtime.getRuntime().availableProcessors()));
+
+	/**
+	 * A built-in simplifier that processes one character at a time.
+	 */
+	abstract static class Step {
+
+		/**
+		 * Simplifies the first {@code length} characters of the input and
+		 * appends the result to the output.
+		 * 
+		 * @param input
+		 *            the characters to simplify
+		 * @param length
+		 *            the number of characters to simplify
+		 * @param output
+		 *            the buffer to append to
+		 * @return false if this step can not simplify the input
+		 */
+		abstract boolean apply(char[] input, int length, Buffer output);
+
+		/**
+		 * Returns true if this step never changes the character.
+		 * 
+		 * @param c
+		 *            the character
+		 * @return true if the character is not changed
+		 */
+		abstract boolean isUnchanged(char c);
+
+	}
+
+	private static final class LowerCase extends Step {
+
+		LowerCase() {
+		}
+
+		@Override
+		boolean apply(char[] input, int length, Buffer output) {
+			for (int i = 0; i < length; i++) {
+				final char c = input[i];
+				if (c < 0x80) {
+					output.append('A' <= c && c <= 'Z' ? (char) (c + 32) : c);
+				} else if (c == '\u03A3' || c == '\u0130'
+						|| Character.isSurrogate(c)) {
+					// Lower case final sigma depends on its context, dotted
+					// capital I lowers to two characters
+					return false;
+				} else {
+					output.append(Character.toLowerCase(c));
+				}
+			}
+			return true;
+		}
+
+		@Override
+		boolean isUnchanged(char c) {
+			return c < 0x80 && !('A' <= c && c <= 'Z');
+		}
+
+	}
+
+	private static final class UpperCase extends Step {
+
+		UpperCase() {
+		}
+
+		@Override
+		boolean apply(char[] input, int length, Buffer output) {
+			for (int i = 0; i < length; i++) {
+				final char c = input[i];
+				if (c < 0x80) {
+					output.append('a' <= c && c <= 'z' ? (char) (c - 32) : c);
+				} else if (c == '\u00DF') {
+					// Sharp s uppers to two characters
+					output.append('S');
+					output.append('S');
+				} else if (c < 0x100) {
+					output.append(Character.toUpperCase(c));
+				} else {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		boolean isUnchanged(char c) {
+			return c < 0x80 && !('a' <= c && c <= 'z');
+		}
+
+	}
+
+	private static final class RemoveDiacritics extends Step {
+
+		RemoveDiacritics() {
+		}
+
+		@Override
+		boolean apply(char[] input, int length, Buffer output) {
+			for (int i = 0; i < length; i++) {
+				final char c = input[i];
+				final char simplifiedChar = Diacritics.simplifiedChar(c);
+				if (simplifiedChar != 0) {
+					output.append(simplifiedChar);
+					continue;
+				}
+				final String simplified = Diacritics.simplified(c);
+				if (simplified == null) {
+					return false;
+				}
+				output.append(simplified);
+			}
+			return true;
+		}
+
+		@Override
+		boolean isUnchanged(char c) {
+			return Diacritics.isUnchanged(c);
+		}
+
+	}
+
+	private static final class ReplaceNonWord extends Step {
+
+		private final String replacement;
+
+		private final boolean consecutive;
+
+		ReplaceNonWord(String replacement, boolean consecutive) {
+			this.replacement = replacement;
+			this.consecutive = consecutive;
+		}
+
+		@Override
+		boolean apply(char[] input, int length, Buffer output) {
+			boolean nonWord = false;
+			for (int i = 0; i < length; i++) {
+				final char c = input[i];
+				if (isUnchanged(c)) {
+					output.append(c);
+					nonWord = false;
+				} else if (Character.isSurrogate(c)) {
+					// Regular expressions match code points rather than
+					// characters
+					return false;
+				} else if (!consecutive || !nonWord) {
+					output.append(replacement);
+					nonWord = true;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		boolean isUnchanged(char c) {
+			return 'a' <= c && c <= 'z' || 'A' <= c && c <= 'Z' || '0' <= c
+					&& c <= '9' || c == '_';
+		}
+
+	}
+
+	/**
+	 * A growable array of characters.
+	 */
+	static final class Buffer {
+
+		private static final int INITIAL_LENGTH = 64;
+
+		char[] chars = new char[INITIAL_LENGTH];
+
+		int length;
+
+		Buffer() {
+		}
+
+		void append(char c) {
+			if (length == chars.length) {
+				chars = Arrays.copyOf(chars, 2 * length);
+			}
+			chars[length++] = c;
+		}
+
+		void append(String s) {
+			final int sLength = s.length();
+			if (length + sLength > chars.length) {
+				chars = Arrays.copyOf(chars,
+						Math.max(2 * chars.length, length + sLength));
+			}
+			s.getChars(0, sLength, chars, length);
+			length += sLength;
+		}
+
+		void release() {
+			length = 0;
+			if (chars.length > MAX_RETAINED_LENGTH) {
+				chars = new char[INITIAL_LENGTH];
+			}
+		}
+	}
+
+	static Step toLowerCase(Locale locale) {
+		return isLocaleSensitive(locale) ? null : new LowerCase();
+	}
+
+	static Step toUpperCase(Locale locale) {
+		return isLocaleSensitive(locale) ? null : new UpperCase();
+	}
+
+	private static boolean isLocaleSensitive(Locale locale) {
+		final String language = locale.getLanguage();
+		return language.equals("tr") || language.equals("az")
+				|| language.equals("lt");
+	}
+
+	static Step removeDiacritics() {
+		return new RemoveDiacritics();
+	}
+
+	static Step replaceAll(String regex, int flags, String replacement) {
+		if (flags != 0 || replacement.indexOf('$') >= 0
+				|| replacement.indexOf('\\') >= 0
+				|| containsSurrogates(replacement)) {
+			return null;
+		}
+
+		if (regex.equals("\\W")) {
+			return new ReplaceNonWord(replacement, false);
+		}
+		if (regex.equals("\\W+")) {
+			return new ReplaceNonWord(replacement, true);
+		}
+		return null;
+	}
+
+	private static boolean containsSurrogates(String s) {
+		for (int i = 0; i < s.length(); i++) {
+			if (Character.isSurrogate(s.charAt(i))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private final List<Simplifier> simplifiers;
+
+	private final Step[] steps;
+
+	FusedSimplifier(List<Simplifier> simplifiers, List<Step> steps) {
+		checkArgument(simplifiers.size() == steps.size());
+		this.simplifiers = new ArrayList<>(simplifiers);
+		this.steps = steps.toArray(new Step[steps.size()]);
+	}
+
+	@Override
+	public String simplify(String input) {
+		checkNotNull(input);
+
+		final Buffer[] buffers = acquire();
+		Buffer in = buffers[0];
+		Buffer out = buffers[1];
+
+		try {
+			in.length = 0;
+			in.append(input);
+			for (Step step : steps) {
+				out.length = 0;
+				if (!step.apply(in.chars, in.length, out)) {
+					return simplifyEach(input);
+				}
+				final Buffer simplified = out;
+				out = in;
+				in = simplified;
+			}
+
+			return new String(in.chars, 0, in.length);
+		} finally {
+			release(buffers);
+		}
+	}
+
+	/**
+	 * Simplifies the input with a single step.
+	 * 
+	 * @param step
+	 *            the step to apply
+	 * @param input
+	 *            the string to simplify
+	 * @return the simplified input or null if the step can not simplify the
+	 *         input
+	 */
+	static String simplify(Step step, String input) {
+		// Most input is not changed at all
+		int i = 0;
+		while (i < input.length() && step.isUnchanged(input.charAt(i))) {
+			i++;
+		}
+		if (i == input.length()) {
+			return input;
+		}
+
+		final Buffer[] buffers = acquire();
+		final Buffer in = buffers[0];
+		final Buffer out = buffers[1];
+
+		try {
+			in.length = 0;
+			in.append(input);
+			out.length = 0;
+			if (!step.apply(in.chars, in.length, out)) {
+				return null;
+			}
+			return new String(out.chars, 0, out.length);
+		} finally {
+			release(buffers);
+		}
+	}
+
+	private static Buffer[] acquire() {
+		final int mask = pool.length() - 1;
+		final int start = probe();
+		for (int i = 0; i < PROBES; i++) {
+			final int slot = (start + i) & mask;
+			final Buffer[] buffers = pool.get(slot);
+			if (buffers != null && pool.compareAndSet(slot, buffers, null)) {
+				return buffers;
+			}
+		}
+		return new Buffer[] { new Buffer(), new Buffer() };
+	}
+
+	private static void release(Buffer[] buffers) {
+		buffers[0].release();
+		buffers[1].release();
+
+		final int mask = pool.length() - 1;
+		final int start = probe();
+		for (int i = 0; i < PROBES; i++) {
+			final int slot = (start + i) & mask;
+			if (pool.get(slot) == null && pool.compareAndSet(slot, null, buffers)) {
+				return;
+			}
+		}
+	}
+
+	private static int probe() {
+		final long id = Thread.currentThread().getId();
+		final int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	/*
+	 * A power of two of at least twice the number of processors so threads
+	 * running at the same time rarely compete for a slot.
+	 */
+	private static int poolSize(int processors) {
+		final int size = Math.max(processors, 2) * 2;
+		return Math.min(Integer.highestOneBit(size - 1) << 1, 1024);
+	}
+
+	private String simplifyEach(String input) {
+		for (Simplifier s : simplifiers) {
+			input = s.simplify(input);
+		}
+		return input;
+	}
+
+	@Override
+	public String toString() {
+		return on(" -> ").join(simplifiers);
+	}
+
+}
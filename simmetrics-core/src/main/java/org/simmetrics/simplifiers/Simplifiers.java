@@ -25,7 +25,6 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.collect.Lists.asList;
 
-import java.text.Normalizer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
@@ -33,11 +32,15 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.simmetrics.StringMetricBuilder;
+import org.simmetrics.simplifiers.FusedSimplifier.Step;
 
 /**
  * Utilities for simplifiers. Construct simple simplifiers or chain multiple
  * simplifiers into a single simplifier.
  * <p>
+ * Consecutive simplifiers created by this class are applied in a single pass
+ * when chained. Other simplifiers in the chain are applied as usual.
+ * <p>
  * All methods return immutable objects provided the arguments
  * are also immutable.
  */
@@ -47,9 +50,12 @@ public final class Simplifiers {
 
 		private final List<Simplifier> simplifiers;
 
+		private final List<Simplifier> fused;
+
 		ChainSimplifier(List<Simplifier> simplifiers) {
 			checkArgument(!simplifiers.contains(null));
 			this.simplifiers = new ArrayList<>(simplifiers);
+			this.fused = fuse(simplifiers);
 		}
 
 		List<Simplifier> getSimplifiers() {
@@ -59,7 +65,7 @@ public final class Simplifiers {
 		@Override
 		public String simplify(String input) {
 			checkNotNull(input);
-			for (Simplifier s : simplifiers) {
+			for (Simplifier s : fused) {
 				input = s.simplify(input);
 			}
 
@@ -80,8 +86,7 @@ public final class Simplifiers {
 	 */
 	private static final class RemoveDiacritics implements Simplifier {
 
-		private static final Pattern DIACRITICS_AND_FRIENDS = Pattern
-				.compile("[\\p{InCombiningDiacriticalMarks}\\p{IsLm}\\p{IsSk}]+");
+		private final Step step = FusedSimplifier.removeDiacritics();
 
 		RemoveDiacritics() {
 		}
@@ -102,9 +107,11 @@ public final class Simplifiers {
 		 */
 		@Override
 		public String simplify(String input) {
-			return DIACRITICS_AND_FRIENDS.matcher(
-					Normalizer.normalize(input, Normalizer.Form.NFD))
-					.replaceAll("");
+			final String simplified = FusedSimplifier.simplify(step, input);
+			if (simplified != null) {
+				return simplified;
+			}
+			return Diacritics.normalizeAndRemove(input);
 		}
 
 		@Override
@@ -112,6 +119,10 @@ public final class Simplifiers {
 			return "RemoveDiacritics";
 		}
 
+		Step toStep() {
+			return step;
+		}
+
 	}
 
 	private static final class ReplaceAll implements Simplifier {
@@ -119,15 +130,25 @@ public final class Simplifiers {
 
 		private final String repplacement;
 
+		private final Step step;
+
 		public ReplaceAll(Pattern pattern, String replacement) {
 			checkNotNull(replacement);
 			checkNotNull(pattern);
 			this.pattern = pattern;
 			this.repplacement = replacement;
+			this.step = FusedSimplifier.replaceAll(pattern.pattern(),
+					pattern.flags(), replacement);
 		}
 
 		@Override
 		public String simplify(String input) {
+			if (step != null) {
+				final String simplified = FusedSimplifier.simplify(step, input);
+				if (simplified != null) {
+					return simplified;
+				}
+			}
 			return pattern.matcher(input).replaceAll(repplacement);
 		}
 
@@ -135,6 +156,10 @@ public final class Simplifiers {
 		public String toString() {
 			return "Replace [" + pattern + " -> '" + repplacement + "' ]";
 		}
+
+		Step toStep() {
+			return step;
+		}
 	}
 
 	private static final class ToLowerCase implements Simplifier {
@@ -154,6 +179,10 @@ public final class Simplifiers {
 		public String toString() {
 			return "ToLowerCase [locale=" + locale + "]";
 		}
+
+		Step toStep() {
+			return FusedSimplifier.toLowerCase(locale);
+		}
 	}
 
 	private static final class ToUpperCase implements Simplifier {
@@ -173,6 +202,10 @@ public final class Simplifiers {
 		public String toString() {
 			return "ToUpperCase [locale=" + locale + "]";
 		}
+
+		Step toStep() {
+			return FusedSimplifier.toUpperCase(locale);
+		}
 	}
 
 	/**
@@ -212,6 +245,58 @@ public final class Simplifiers {
 		return chain(asList(simplifier, simplifiers));
 	}
 
+	/**
+	 * Replaces runs of built-in simplifiers with a fused simplifier. Other
+	 * simplifiers are kept as is.
+	 */
+	private static List<Simplifier> fuse(List<Simplifier> simplifiers) {
+		final List<Simplifier> fused = new ArrayList<>(simplifiers.size());
+		final List<Simplifier> run = new ArrayList<>();
+		final List<Step> steps = new ArrayList<>();
+
+		for (Simplifier s : simplifiers) {
+			final Step step = toStep(s);
+			if (step != null) {
+				run.add(s);
+				steps.add(step);
+				continue;
+			}
+
+			addRun(fused, run, steps);
+			fused.add(s);
+		}
+		addRun(fused, run, steps);
+
+		return fused;
+	}
+
+	private static void addRun(List<Simplifier> fused, List<Simplifier> run,
+			List<Step> steps) {
+		if (run.size() == 1) {
+			fused.addAll(run);
+		} else if (run.size() > 1) {
+			fused.add(new FusedSimplifier(run, steps));
+		}
+		run.clear();
+		steps.clear();
+	}
+
+	private static Step toStep(Simplifier s) {
+		if (s instanceof RemoveDiacritics) {
+			return ((RemoveDiacritics) s).toStep();
+		}
+		if (s instanceof ReplaceAll) {
+			return ((ReplaceAll) s).toStep();
+		}
+		if (s instanceof ToLowerCase) {
+			return ((ToLowerCase) s).toStep();
+		}
+		if (s instanceof ToUpperCase) {
+			return ((ToUpperCase) s).toStep();
+		}
+		return null;
+	}
+
 	private static List<Simplifier> flatten(List<Simplifier> simplifiers) {
 		final List<Simplifier> flattend = new ArrayList<>(simplifiers.size());
 
@@ -23,21 +23,44 @@ package org.simmetrics.tokenizers;
 import java.util.HashSet;
 import java.util.Set;
 
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Multiset;
+
 /**
  * Convenience tokenizer. Provides default implementation to tokenize to set and
  * multi set.
  *
  */
-public abstract class AbstractTokenizer implements Tokenizer {
+public abstract class AbstractTokenizer implements MultisetTokenizer {
 
 	@Override
 	public Set<String> tokenizeToSet(final String input) {
 		return new HashSet<>(tokenizeToList(input));
 	}
 
-//	@Override
-//	public Multiset<String> tokenizeToMultiset(final String input) {
-//		return HashMultiset.create(tokenizeToList(input));
-//	}
+	@Override
+	public Multiset<String> tokenizeToMultiset(final String input) {
+		return HashMultiset.create(tokenizeToList(input));
+	}
+
+	/**
+	 * Passes the tokens of {@code input.substring(start, end)} to the
+	 * consumer in order. Tokenizers in this package override this to pass
+	 * ranges of the input without collecting them first.
+	 * 
+	 * @param input
+	 *            the string that contains the input
+	 * @param start
+	 *            the start of the input, inclusive
+	 * @param end
+	 *            the end of the input, exclusive
+	 * @param consumer
+	 *            the consumer of the tokens
+	 */
+	void tokenize(String input, int start, int end, TokenConsumer consumer) {
+		for (String token : tokenizeToList(input.substring(start, end))) {
+			consumer.accept(token, 0, token.length());
+		}
+	}
 
 }
@@ -0,0 +1,418 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.tokenizers;
+
+import java.util.regex.Pattern;
+
+/**
+ * Splits strings around a pattern that matches a single character from a
+ * character class, or a run of them when followed by {@code +}. Splits
+ * exactly as the pattern would but without regular expressions.
+ * <p>
+ * Only simple patterns without flags are supported. The class may contain
+ * printable ASCII characters, ranges thereof, escaped punctuation and the
+ * predefined classes {@code \s \S \d \D \w \W}. Such a class either matches
+ * every non-ASCII character or none.
+ * <p>
+ * This class is thread-safe and immutable.
+ */
+final class CharClassSplitter {
+
+	private static final String META_CHARACTERS = ".$|()[]{}^?*+\\";
+
+	private static final String CLASS_META_CHARACTERS = "\\[]&-^";
+
+	private static final String NON_ASCII_SAMPLES = "\u0085\u00A0\u00E9\u0660\u2003\u4E2D";
+
+	private static final class Parser {
+
+		private final String regex;
+
+		private int index;
+
+		Parser(String regex) {
+			this.regex = regex;
+		}
+
+		/**
+		 * Parses the character class.
+		 * 
+		 * @return true if the class matches all non-ASCII characters, false
+		 *         if it matches none or null if the class is not supported
+		 */
+		Boolean parse() {
+			if (regex.isEmpty()) {
+				return null;
+			}
+
+			final char c = regex.charAt(index);
+			if (c == '[') {
+				return characterClass();
+			}
+			if (c == '\\') {
+				return escape();
+			}
+			if (isLiteral(c, META_CHARACTERS)) {
+				index++;
+				return false;
+			}
+			return null;
+		}
+
+		boolean consecutive() {
+			if (index < regex.length() && regex.charAt(index) == '+') {
+				index++;
+				return true;
+			}
+			return false;
+		}
+
+		boolean atEnd() {
+			return index == regex.length();
+		}
+
+		private Boolean characterClass() {
+			index++;
+			final boolean negated = peek('^');
+			if (negated) {
+				index++;
+			}
+
+			boolean matchesNonAscii = false;
+			boolean empty = true;
+			while (index < regex.length() && !peek(']')) {
+				final Boolean item = classItem();
+				if (item == null) {
+					return null;
+				}
+				matchesNonAscii |= item;
+				empty = false;
+			}
+
+			if (empty || !peek(']')) {
+				return null;
+			}
+			index++;
+
+			return matchesNonAscii ^ negated;
+		}
+
+		private Boolean classItem() {
+			final char c = regex.charAt(index);
+			if (c == '\\') {
+				final Boolean escaped = escape();
+				return escaped == null || peek('-') ? null : escaped;
+			}
+
+			if (!isLiteral(c, CLASS_META_CHARACTERS)) {
+				return null;
+			}
+			index++;
+
+			if (peek('-')) {
+				index++;
+				if (index == regex.length()) {
+					return null;
+				}
+				final char to = regex.charAt(index);
+				if (!isLiteral(to, CLASS_META_CHARACTERS) || to < c) {
+					return null;
+				}
+				index++;
+			}
+			return false;
+		}
+
+		private Boolean escape() {
+			index++;
+			if (index == regex.length()) {
+				return null;
+			}
+
+			final char c = regex.charAt(index++);
+			switch (c) {
+			case 's':
+			case 'd':
+			case 'w':
+				return false;
+			case 'S':
+			case 'D':
+			case 'W':
+				return true;
+			default:
+				// Escaped punctuation is literal, other escapes are not
+				// supported
+				return isPrintableAscii(c) && !Character.isLetterOrDigit(c) ? false
+						: null;
+			}
+		}
+
+		private boolean peek(char c) {
+			return index < regex.length() && regex.charAt(index) == c;
+		}
+
+	}
+
+	private static boolean isLiteral(char c, String metaCharacters) {
+		return isPrintableAscii(c) && metaCharacters.indexOf(c) < 0;
+	}
+
+	private static boolean isPrintableAscii(char c) {
+		return ' ' <= c && c <= '~';
+	}
+
+	/**
+	 * Creates a splitter for the pattern.
+	 * 
+	 * @param pattern
+	 *            the pattern to split around
+	 * @return a splitter or null if the pattern is not supported
+	 */
+	static CharClassSplitter compile(Pattern pattern) {
+		if (pattern.flags() != 0) {
+			return null;
+		}
+
+		final Parser parser = new Parser(pattern.pattern());
+		final Boolean matchesNonAscii = parser.parse();
+		if (matchesNonAscii == null) {
+			return null;
+		}
+		final boolean consecutive = parser.consecutive();
+		if (!parser.atEnd()) {
+			return null;
+		}
+
+		final boolean[] matchesAscii = new boolean[0x80];
+		for (char c = 0; c < matchesAscii.length; c++) {
+			matchesAscii[c] = pattern.matcher(String.valueOf(c)).matches();
+		}
+		for (char c : NON_ASCII_SAMPLES.toCharArray()) {
+			if (pattern.matcher(String.valueOf(c)).matches() != matchesNonAscii) {
+				return null;
+			}
+		}
+
+		return new CharClassSplitter(matchesAscii, matchesNonAscii,
+				consecutive);
+	}
+
+	private final boolean[] matchesAscii;
+
+	private final boolean matchesNonAscii;
+
+	private final boolean consecutive;
+
+	private CharClassSplitter(boolean[] matchesAscii, boolean matchesNonAscii,
+			boolean consecutive) {
+		this.matchesAscii = matchesAscii;
+		this.matchesNonAscii = matchesNonAscii;
+		this.consecutive = consecutive;
+	}
+
+	private boolean matches(char c) {
+		return c < 0x80 ? matchesAscii[c] : matchesNonAscii;
+	}
+
+	/**
+	 * Splits the input as if by {@code pattern.split(input, -1)}.
+	 * 
+	 * @param input
+	 *            the string to split
+	 * @return the tokens or null when the input contains surrogates that
+	 *         the pattern would match as a single code point
+	 */
+	String[] split(String input) {
+		final int length = input.length();
+
+		int count = 1;
+		boolean previous = false;
+		for (int i = 0; i < length; i++) {
+			final char c = input.charAt(i);
+			final boolean match = matches(c);
+			if (match && matchesNonAscii && Character.isSurrogate(c)) {
+				return null;
+			}
+			if (match && !(consecutive && previous)) {
+				count++;
+			}
+			previous = match;
+		}
+
+		if (count == 1) {
+			return new String[] { input };
+		}
+
+		final String[] tokens = new String[count];
+		int token = 0;
+		int start = 0;
+		for (int i = 0; i < length; i++) {
+			if (!matches(input.charAt(i))) {
+				continue;
+			}
+
+			tokens[token++] = input.substring(start, i);
+			if (consecutive) {
+				while (i + 1 < length && matches(input.charAt(i + 1))) {
+					i++;
+				}
+			}
+			start = i + 1;
+		}
+		tokens[token] = input.substring(start);
+
+		return tokens;
+	}
+
+	/**
+	 * Splits {@code input.substring(start, end)} as if by
+	 * {@link #split(String)} and passes the tokens to the consumer.
+	 * 
+	 * @param input
+	 *            the string that contains the range to split
+	 * @param start
+	 *            the start of the range, inclusive
+	 * @param end
+	 *            the end of the range, exclusive
+	 * @param consumer
+	 *            the consumer of the tokens
+	 * @return false without passing any tokens when the range contains
+	 *         surrogates that the pattern would match as a single code point
+	 */
+	boolean split(String input, int start, int end, TokenConsumer consumer) {
+		if (matchesSurrogate(input, start, end)) {
+			return false;
+		}
+
+		int from = start;
+		for (int i = start; i < end; i++) {
+			if (!matches(input.charAt(i))) {
+				continue;
+			}
+
+			consumer.accept(input, from, i);
+			if (consecutive) {
+				while (i + 1 < end && matches(input.charAt(i + 1))) {
+					i++;
+				}
+			}
+			from = i + 1;
+		}
+		consumer.accept(input, from, end);
+
+		return true;
+	}
+
+	/**
+	 * Splits the input into the non-empty tokens between matches.
+	 * 
+	 * @param input
+	 *            the string to split
+	 * @return the non-empty tokens or null when the input contains
+	 *         surrogates that the pattern would match as a single code point
+	 */
+	String[] splitNonEmpty(String input) {
+		final int length = input.length();
+
+		int count = 0;
+		boolean previous = true;
+		for (int i = 0; i < length; i++) {
+			final char c = input.charAt(i);
+			final boolean match = matches(c);
+			if (match && matchesNonAscii && Character.isSurrogate(c)) {
+				return null;
+			}
+			if (!match && previous) {
+				count++;
+			}
+			previous = match;
+		}
+
+		final String[] tokens = new String[count];
+		int token = 0;
+		int start = -1;
+		for (int i = 0; i < length; i++) {
+			final boolean match = matches(input.charAt(i));
+			if (!match && start < 0) {
+				start = i;
+			} else if (match && start >= 0) {
+				tokens[token++] = input.substring(start, i);
+				start = -1;
+			}
+		}
+		if (start >= 0) {
+			tokens[token] = input.substring(start);
+		}
+
+		return tokens;
+	}
+
+	/**
+	 * Splits {@code input.substring(start, end)} as if by
+	 * {@link #splitNonEmpty(String)} and passes the tokens to the consumer.
+	 * 
+	 * @param input
+	 *            the string that contains the range to split
+	 * @param start
+	 *            the start of the range, inclusive
+	 * @param end
+	 *            the end of the range, exclusive
+	 * @param consumer
+	 *            the consumer of the tokens
+	 * @return false without passing any tokens when the range contains
+	 *         surrogates that the pattern would match as a single code point
+	 */
+	boolean splitNonEmpty(String input, int start, int end,
+			TokenConsumer consumer) {
+		if (matchesSurrogate(input, start, end)) {
+			return false;
+		}
+
+		int from = -1;
+		for (int i = start; i < end; i++) {
+			final boolean match = matches(input.charAt(i));
+			if (!match && from < 0) {
+				from = i;
+			} else if (match && from >= 0) {
+				consumer.accept(input, from, i);
+				from = -1;
+			}
+		}
+		if (from >= 0) {
+			consumer.accept(input, from, end);
+		}
+
+		return true;
+	}
+
+	private boolean matchesSurrogate(String input, int start, int end) {
+		if (!matchesNonAscii) {
+			return false;
+		}
+		for (int i = start; i < end; i++) {
+			if (Character.isSurrogate(input.charAt(i))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
@@ -0,0 +1,45 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.tokenizers;
+
+import com.google.common.collect.Multiset;
+
+/**
+ * A tokenizer that can divide an input string into a multiset of tokens
+ * without collecting them into a list first.
+ * <p>
+ * Multiset tokenization is opt-in so existing tokenizers keep compiling and
+ * linking. For any other tokenizer
+ * {@link Tokenizers#tokenizeToMultiset(Tokenizer, String)} counts the tokens of
+ * {@link Tokenizer#tokenizeToList(String)}.
+ */
+public interface MultisetTokenizer extends Tokenizer {
+
+	/**
+	 * Return tokenized version of a string as a multiset of tokens.
+	 *
+	 * @param input
+	 *            input string to tokenize
+	 * @return tokenized version of a string as a multiset
+	 */
+	public Multiset<String> tokenizeToMultiset(String input);
+
+}
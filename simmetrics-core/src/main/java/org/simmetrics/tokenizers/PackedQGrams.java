@@ -0,0 +1,106 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.simmetrics.tokenizers;
+
+import java.util.Arrays;
+
+/**
+ * Packs q-grams into longs. Each char takes 16 bits so a q-gram of up to
+ * {@value #MAX_Q} chars fits in a long without loss. The chars of a q-gram are
+ * shifted in one at a time, no substrings are created.
+ */
+final class PackedQGrams {
+
+	static final int MAX_Q = Long.SIZE / Character.SIZE;
+
+	private PackedQGrams() {
+		// Utility class
+	}
+
+	/**
+	 * Returns the sorted packed q-grams of {@code start + input + end}.
+	 * 
+	 * @param start
+	 *            the start padding
+	 * @param input
+	 *            the input
+	 * @param end
+	 *            the end padding
+	 * @param q
+	 *            the length of the q-grams, at most {@value #MAX_Q}
+	 * @return the sorted packed q-grams, empty when the padded input is
+	 *         shorter then q
+	 */
+	static long[] bag(String start, String input, String end, int q) {
+		final int length = start.length() + input.length() + end.length();
+		if (length < q) {
+			return new long[0];
+		}
+
+		final long[] bag = new long[length - q + 1];
+		final long mask = q == MAX_Q ? -1L : (1L << (Character.SIZE * q)) - 1;
+
+		long gram = 0;
+		int n = 0;
+		for (int i = 0; i < length; i++) {
+			gram = ((gram << Character.SIZE) | charAt(start, input, end, i))
+					& mask;
+			if (i >= q - 1) {
+				bag[n++] = gram;
+			}
+		}
+
+		Arrays.sort(bag);
+		return bag;
+	}
+
+	private static char charAt(String start, String input, String end, int i) {
+		if (i < start.length()) {
+			return start.charAt(i);
+		}
+		i -= start.length();
+		if (i < input.length()) {
+			return input.charAt(i);
+		}
+		return end.charAt(i - input.length());
+	}
+
+	/**
+	 * Removes repeated values from a sorted array.
+	 * 
+	 * @param bag
+	 *            a sorted array, may be modified
+	 * @return a sorted array of distinct values
+	 */
+	static long[] set(long[] bag) {
+		if (bag.length == 0) {
+			return bag;
+		}
+
+		int size = 1;
+		for (int i = 1; i < bag.length; i++) {
+			if (bag[i] != bag[size - 1]) {
+				bag[size++] = bag[i];
+			}
+		}
+		return size == bag.length ? bag : Arrays.copyOf(bag, size);
+	}
+
+}
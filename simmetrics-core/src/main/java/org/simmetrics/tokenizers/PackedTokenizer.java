@@ -0,0 +1,58 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.simmetrics.tokenizers;
+
+import org.simmetrics.PackedTokenMetric;
+
+/**
+ * A tokenizer that can pack its tokens into longs without creating a string
+ * for each token. Packing is lossless: two tokens are equal if and only if
+ * their packed values are equal. Packed tokens are returned as sorted arrays
+ * so a {@link PackedTokenMetric} can compare them by merging.
+ * <p>
+ * Not every input can be packed. When the tokens of an input can not be
+ * packed, the methods return {@code null} and the input should be tokenized
+ * to strings instead.
+ */
+public interface PackedTokenizer extends Tokenizer {
+
+	/**
+	 * Returns the packed tokens of a string as a sorted array. Tokens that
+	 * occur more than once are repeated. Suitable for list metrics.
+	 * 
+	 * @param input
+	 *            input string to tokenize
+	 * @return a sorted array of packed tokens or {@code null} when the tokens
+	 *         of the input can not be packed
+	 */
+	long[] tokenizeToPackedBag(String input);
+
+	/**
+	 * Returns the distinct packed tokens of a string as a sorted array.
+	 * Suitable for set metrics.
+	 * 
+	 * @param input
+	 *            input string to tokenize
+	 * @return a sorted array of distinct packed tokens or {@code null} when
+	 *         the tokens of the input can not be packed
+	 */
+	long[] tokenizeToPackedSet(String input);
+
+}
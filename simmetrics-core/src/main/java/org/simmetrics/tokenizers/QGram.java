@@ -31,12 +31,15 @@ import java.util.List;
  * Basic Q-Gram tokenizer for a variable q. Returns a list with the original
  * input for tokens shorter then q.
  * <p>
+ * For q up to 4 the q-grams can be packed into longs. Inputs shorter then q
+ * can not be packed unless they are filtered.
+ * <p>
  * This class is immutable and thread-safe.
  *
  * @deprecated Use {@link Tokenizers#qGram(int)} instead
  */
 @Deprecated
-public class QGram extends AbstractTokenizer {
+public class QGram extends AbstractTokenizer implements PackedTokenizer {
 
 	private final int q;
 	private final boolean filter;
@@ -86,6 +89,41 @@ public class QGram extends AbstractTokenizer {
 		return ret;
 	}
 
+	@Override
+	void tokenize(String input, int start, int end, TokenConsumer consumer) {
+		if (start == end) {
+			return;
+		}
+
+		if (!filter && end - start <= q) {
+			consumer.accept(input, start, end);
+			return;
+		}
+
+		for (int i = start; i < end - q + 1; i++) {
+			consumer.accept(input, i, i + q);
+		}
+	}
+
+	@Override
+	public long[] tokenizeToPackedBag(String input) {
+		if (q > PackedQGrams.MAX_Q) {
+			return null;
+		}
+
+		if (!filter && !input.isEmpty() && input.length() < q) {
+			return null;
+		}
+
+		return PackedQGrams.bag("", input, "", q);
+	}
+
+	@Override
+	public long[] tokenizeToPackedSet(String input) {
+		final long[] bag = tokenizeToPackedBag(input);
+		return bag == null ? null : PackedQGrams.set(bag);
+	}
+
 	@Override
 	public String toString() {
 		return "QGramTokenizer [q=" + q + "]";
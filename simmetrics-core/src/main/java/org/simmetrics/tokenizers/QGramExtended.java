@@ -30,12 +30,15 @@ import java.util.List;
  * Basic Q-Gram tokenizer for a variable Q.The Q-Gram is extended beyond the
  * length of the string with padding.
  * <p>
+ * For q up to 4 the q-grams can be packed into longs.
+ * <p>
  * This class is immutable and thread-safe.
  * 
  * @deprecated Use {@link Tokenizers#qGramWithPadding(int, String)}
  */
 @Deprecated
-public class QGramExtended extends AbstractTokenizer {
+public class QGramExtended extends AbstractTokenizer implements
+		PackedTokenizer {
 
 	private final static String DEFAULT_START_PADDING = "#";
 	private final static String DEFAULT_END_PADDING = "#";
@@ -83,6 +86,15 @@ public class QGramExtended extends AbstractTokenizer {
 		return startPadding;
 	}
 
+	/**
+	 * Returns the q of this tokenizer.
+	 * 
+	 * @return the q of this tokenizer
+	 */
+	public int getQ() {
+		return tokenizer.getQ();
+	}
+
 	/**
 	 * Returns the end padding.
 	 * 
@@ -101,6 +113,37 @@ public class QGramExtended extends AbstractTokenizer {
 		return tokenizer.tokenizeToList(startPadding + input + endPadding);
 	}
 
+	@Override
+	void tokenize(String input, int start, int end, TokenConsumer consumer) {
+		if (start == end) {
+			return;
+		}
+
+		final String padded = startPadding + input.substring(start, end)
+				+ endPadding;
+		tokenizer.tokenize(padded, 0, padded.length(), consumer);
+	}
+
+	@Override
+	public long[] tokenizeToPackedBag(String input) {
+		if (tokenizer.getQ() > PackedQGrams.MAX_Q) {
+			return null;
+		}
+
+		if (input.isEmpty()) {
+			return new long[0];
+		}
+
+		return PackedQGrams.bag(startPadding, input, endPadding,
+				tokenizer.getQ());
+	}
+
+	@Override
+	public long[] tokenizeToPackedSet(String input) {
+		final long[] bag = tokenizeToPackedBag(input);
+		return bag == null ? null : PackedQGrams.set(bag);
+	}
+
 	@Override
 	public String toString() {
 		return "QGramExtendedTokenizer [startPadding=" + startPadding
@@ -0,0 +1,42 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.tokenizers;
+
+/**
+ * Receives tokens as ranges of a string. Lets tokenizers in a chain pass each
+ * token to the next without collecting them into intermediate lists or
+ * copying intermediate tokens into strings of their own.
+ */
+interface TokenConsumer {
+
+	/**
+	 * Accepts the token {@code input.substring(start, end)}.
+	 * 
+	 * @param input
+	 *            the string that contains the token
+	 * @param start
+	 *            the start of the token, inclusive
+	 * @param end
+	 *            the end of the token, exclusive
+	 */
+	void accept(String input, int start, int end);
+
+}
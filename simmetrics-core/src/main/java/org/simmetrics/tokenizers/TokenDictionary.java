@@ -0,0 +1,268 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.tokenizers;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.simmetrics.TokenIdMetric;
+
+/**
+ * Interns tokens as dense ids. The first distinct token is assigned id 0, the
+ * next id 1 and so on. Collections of tokens are encoded as sorted arrays of
+ * ids so a {@link TokenIdMetric} can compare them by merging rather than by
+ * hashing strings.
+ * <p>
+ * Ids are only meaningful within the dictionary that assigned them. Encoded
+ * tokens from different dictionaries may not be compared.
+ * <p>
+ * A dictionary is meant for a fixed corpus. Tokens are added by
+ * {@link #id(String)}, {@link #bag(Collection)} and {@link #set(Collection)}
+ * and are never removed. To encode strings outside the corpus without growing
+ * the dictionary use a {@link #lookup()}.
+ * <p>
+ * This class is thread-safe. Looking up a known token does not lock.
+ */
+public final class TokenDictionary {
+
+	private final ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<>();
+
+	/**
+	 * Encodes tokens without adding them to the dictionary. Known tokens are
+	 * encoded with their id from the dictionary. Unknown tokens are assigned
+	 * negative ids that are only meaningful within this lookup and the
+	 * lookups extending it. Tokens encoded with the same lookup, or with a
+	 * lookup and its extensions, may be compared.
+	 * <p>
+	 * This class is not thread-safe. A lookup that is no longer used to
+	 * encode tokens may be extended concurrently.
+	 */
+	public static final class Lookup {
+
+		private final TokenDictionary dictionary;
+		private final Lookup parent;
+		private final int offset;
+
+		private Map<String, Integer> unknown;
+
+		Lookup(TokenDictionary dictionary, Lookup parent) {
+			this.dictionary = dictionary;
+			this.parent = parent;
+			this.offset = parent == null ? 0 : parent.offset
+					+ parent.unknownSize();
+		}
+
+		private int unknownSize() {
+			return unknown == null ? 0 : unknown.size();
+		}
+
+		/**
+		 * Returns a new lookup that encodes the unknown tokens of this lookup
+		 * with the same ids. Unknown tokens added to the new lookup are not
+		 * added to this lookup.
+		 * 
+		 * @return a new lookup extending this lookup
+		 */
+		public Lookup extend() {
+			return new Lookup(dictionary, this);
+		}
+
+		/**
+		 * Returns the id of a token. The id is negative when the token is not
+		 * in the dictionary.
+		 * 
+		 * @param token
+		 *            the token to look up
+		 * @return the id of the token
+		 * @throws NullPointerException
+		 *             when the token is null
+		 */
+		public int id(String token) {
+			final Integer id = dictionary.ids.get(checkNotNull(token));
+			if (id != null) {
+				return id;
+			}
+			for (Lookup l = parent; l != null; l = l.parent) {
+				final Integer local = l.unknown == null ? null : l.unknown
+						.get(token);
+				if (local != null) {
+					return local;
+				}
+			}
+
+			if (unknown == null) {
+				unknown = new HashMap<>();
+			}
+			Integer local = unknown.get(token);
+			if (local == null) {
+				local = -(offset + unknown.size() + 1);
+				unknown.put(token, local);
+			}
+			return local;
+		}
+
+		/**
+		 * Encodes tokens as a sorted array of ids. Tokens that occur more than
+		 * once have their id repeated. Suitable for list metrics.
+		 * 
+		 * @param tokens
+		 *            the tokens to encode
+		 * @return a sorted array of ids
+		 * @throws NullPointerException
+		 *             when tokens is or contains null
+		 */
+		public int[] bag(Collection<String> tokens) {
+			final int[] bag = new int[tokens.size()];
+			int i = 0;
+			for (String token : tokens) {
+				bag[i++] = id(token);
+			}
+			Arrays.sort(bag);
+			return bag;
+		}
+
+		/**
+		 * Encodes tokens as a sorted array of distinct ids. Suitable for set
+		 * metrics.
+		 * 
+		 * @param tokens
+		 *            the tokens to encode
+		 * @return a sorted array of distinct ids
+		 * @throws NullPointerException
+		 *             when tokens is or contains null
+		 */
+		public int[] set(Collection<String> tokens) {
+			return distinct(bag(tokens));
+		}
+
+		@Override
+		public String toString() {
+			return "Lookup [" + dictionary + ", unknown=" + (offset
+					+ unknownSize()) + "]";
+		}
+	}
+
+	/**
+	 * Returns the id of a token. Assigns the next id when the token is not yet
+	 * known.
+	 * 
+	 * @param token
+	 *            the token to look up
+	 * @return the id of the token
+	 * @throws NullPointerException
+	 *             when the token is null
+	 */
+	public int id(String token) {
+		final Integer id = ids.get(checkNotNull(token));
+		if (id != null) {
+			return id;
+		}
+		return add(token);
+	}
+
+	private synchronized int add(String token) {
+		Integer id = ids.get(token);
+		if (id == null) {
+			id = ids.size();
+			ids.put(token, id);
+		}
+		return id;
+	}
+
+	/**
+	 * Returns the number of distinct tokens in the dictionary.
+	 * 
+	 * @return the number of distinct tokens
+	 */
+	public int size() {
+		return ids.size();
+	}
+
+	/**
+	 * Encodes tokens as a sorted array of ids. Tokens that occur more than
+	 * once have their id repeated. Suitable for list metrics.
+	 * 
+	 * @param tokens
+	 *            the tokens to encode
+	 * @return a sorted array of ids
+	 * @throws NullPointerException
+	 *             when tokens is or contains null
+	 */
+	public int[] bag(Collection<String> tokens) {
+		final int[] bag = new int[tokens.size()];
+		int i = 0;
+		for (String token : tokens) {
+			bag[i++] = id(token);
+		}
+		Arrays.sort(bag);
+		return bag;
+	}
+
+	/**
+	 * Encodes tokens as a sorted array of distinct ids. Suitable for set
+	 * metrics.
+	 * 
+	 * @param tokens
+	 *            the tokens to encode
+	 * @return a sorted array of distinct ids
+	 * @throws NullPointerException
+	 *             when tokens is or contains null
+	 */
+	public int[] set(Collection<String> tokens) {
+		return distinct(bag(tokens));
+	}
+
+	/**
+	 * Returns a new lookup that encodes tokens without adding them to this
+	 * dictionary.
+	 * 
+	 * @return a new lookup
+	 */
+	public Lookup lookup() {
+		return new Lookup(this, null);
+	}
+
+	private static int[] distinct(int[] bag) {
+		if (bag.length == 0) {
+			return bag;
+		}
+
+		int size = 1;
+		for (int i = 1; i < bag.length; i++) {
+			if (bag[i] != bag[size - 1]) {
+				bag[size++] = bag[i];
+			}
+		}
+		return size == bag.length ? bag : Arrays.copyOf(bag, size);
+	}
+
+	@Override
+	public String toString() {
+		return "TokenDictionary [size=" + size() + "]";
+	}
+
+}
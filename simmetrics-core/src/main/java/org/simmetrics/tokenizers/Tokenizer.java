@@ -23,6 +23,7 @@ package org.simmetrics.tokenizers;
 
 import java.util.List;
 import java.util.Set;
+
 /**
  * A tokenizer divides an input string into tokens. A tokenizer may not provide
  * {@code null} as a token.
@@ -39,15 +40,6 @@ public interface Tokenizer {
 	 */
 	public List<String> tokenizeToList(String input);
 
-//	/**
-//	 * Return tokenized version of a string as a multiset of tokens.
-//	 *
-//	 * @param input
-//	 *            input string to tokenize
-//	 * @return tokenized version of a string as a multiset
-//	 */
-//	public Multiset<String> tokenizeToMultiset(String input);
-	
 	/**
 	 * Return tokenized version of a string as a set of tokens.
 	 *
@@ -24,10 +24,8 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Predicates.and;
 import static com.google.common.collect.Lists.asList;
-import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Sets.newHashSet;
 import static java.util.Arrays.asList;
-import static java.util.Arrays.copyOfRange;
 import static java.util.Collections.emptyList;
 
 import java.util.ArrayList;
@@ -41,7 +39,10 @@ import com.google.common.base.Function;
 import com.google.common.base.Joiner;
 import com.google.common.base.Predicate;
 import com.google.common.collect.Collections2;
+import com.google.common.collect.HashMultiset;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Multiset;
+import com.google.common.collect.Multisets;
 import com.google.common.collect.Sets;
 
 /**
@@ -54,7 +55,7 @@ import com.google.common.collect.Sets;
  */
 public final class Tokenizers {
 
-	private static class FilteringTokenizer implements Tokenizer {
+	private static class FilteringTokenizer implements MultisetTokenizer {
 
 		private static final class TransformingFilteringTokenizer extends
 				FilteringTokenizer {
@@ -73,17 +74,10 @@ public final class Tokenizers {
 			}
 
 			@Override
-			Collection<String> tokenizeToFilteredList(String input) {
+			Collection<String> tokenizeToFilteredMultiset(String input) {
 				return Collections2.filter(
-						tokenizer.tokenizeToTransformedList(input), predicate);
-
+						tokenizer.tokenizeToTransformedMultiset(input), predicate);
 			}
-
-//			@Override
-//			Collection<String> tokenizeToFilteredMultiset(String input) {
-//				return Collections2.filter(
-//						tokenizer.tokenizeToTransformedMultiset(input), predicate);
-//			}
 			
 			@Override
 			Collection<String> tokenizeToFilteredSet(String input) {
@@ -93,15 +87,15 @@ public final class Tokenizers {
 			
 			@Override
 			public List<String> tokenizeToList(String input) {
-				return newArrayList(Collections2.filter(
-						tokenizer.tokenizeToTransformedList(input), predicate));
+				return filterToList(tokenizer.tokenizeToTransformedList(input),
+						predicate);
 			}
 
-//			@Override
-//			public Multiset<String> tokenizeToMultiset(String input) {
-//				return HashMultiset.create(Collections2.filter(
-//						tokenizer.tokenizeToTransformedMultiset(input), predicate));
-//			}
+			@Override
+			public Multiset<String> tokenizeToMultiset(String input) {
+				return HashMultiset.create(Collections2.filter(
+						tokenizer.tokenizeToTransformedMultiset(input), predicate));
+			}
 			
 			@Override
 			public Set<String> tokenizeToSet(String input) {
@@ -147,16 +141,10 @@ public final class Tokenizers {
 			return tokenizer;
 		}
 
-		Collection<String> tokenizeToFilteredList(String input) {
-			return Collections2.filter(tokenizer.tokenizeToList(input),
-					predicate);
-
+		Collection<String> tokenizeToFilteredMultiset(String input) {
+			return Collections2.filter(
+					Tokenizers.tokenizeToMultiset(tokenizer, input), predicate);
 		}
-
-//		Collection<String> tokenizeToFilteredMultiset(String input) {
-//			return Collections2.filter(tokenizer.tokenizeToMultiset(input),
-//					predicate);
-//		}
 		
 		Collection<String> tokenizeToFilteredSet(String input) {
 			return Sets.filter(tokenizer.tokenizeToSet(input),
@@ -165,15 +153,14 @@ public final class Tokenizers {
 		
 		@Override
 		public List<String> tokenizeToList(String input) {
-			return new ArrayList<>(Collections2.filter(
-					tokenizer.tokenizeToList(input), predicate));
+			return filterToList(tokenizer.tokenizeToList(input), predicate);
 		}
 
-//		@Override
-//		public Multiset<String> tokenizeToMultiset(String input) {
-//			return HashMultiset.create(Multisets.filter(
-//					tokenizer.tokenizeToMultiset(input), predicate));
-//		}
+		@Override
+		public Multiset<String> tokenizeToMultiset(String input) {
+			return HashMultiset.create(Multisets.filter(
+					Tokenizers.tokenizeToMultiset(tokenizer, input), predicate));
+		}
 		
 		@Override
 		public Set<String> tokenizeToSet(String input) {
@@ -191,7 +178,39 @@ public final class Tokenizers {
 
 	}
 
-	private static final class RecursiveTokenizer implements Tokenizer {
+	private static final class RecursiveTokenizer implements
+			MultisetTokenizer {
+
+		private static final class Collector implements TokenConsumer {
+
+			private final List<String> tokens;
+
+			Collector(List<String> tokens) {
+				this.tokens = tokens;
+			}
+
+			@Override
+			public void accept(String input, int start, int end) {
+				tokens.add(input.substring(start, end));
+			}
+		}
+
+		private static final class Stage implements TokenConsumer {
+
+			private final Tokenizer tokenizer;
+
+			private final TokenConsumer next;
+
+			Stage(Tokenizer tokenizer, TokenConsumer next) {
+				this.tokenizer = tokenizer;
+				this.next = next;
+			}
+
+			@Override
+			public void accept(String input, int start, int end) {
+				tokenize(tokenizer, input, start, end, next);
+			}
+		}
 
 		private final List<Tokenizer> tokenizers;
 
@@ -206,15 +225,40 @@ public final class Tokenizers {
 
 		@Override
 		public List<String> tokenizeToList(final String input) {
-			List<String> tokens = new ArrayList<>(input.length());
+
+			// Each token is passed down the chain as soon as it is found.
+			// Intermediate tokens are ranges of the input rather than lists
+			// of strings, only the tokens of the last tokenizer are copied.
+
+			final List<String> tokens = new ArrayList<>(input.length());
+
+			TokenConsumer consumer = new Collector(tokens);
+			for (int i = tokenizers.size() - 1; i >= 0; i--) {
+				consumer = new Stage(tokenizers.get(i), consumer);
+			}
+			consumer.accept(input, 0, input.length());
+
+			return tokens;
+		}
+
+		@Override
+		public Multiset<String> tokenizeToMultiset(String input) {
+
+			// tokenizeToList is not reused here on purpose. Each distinct
+			// token is tokenized once and its tokens are added as often as it
+			// occurs. Increases performance.
+
+			Multiset<String> tokens = HashMultiset.create(input.length());
 			tokens.add(input);
 
-			List<String> newTokens = new ArrayList<>(input.length());
+			Multiset<String> newTokens = HashMultiset.create(input.length());
 			for (Tokenizer t : tokenizers) {
-				for (String token : tokens) {
-					newTokens.addAll(t.tokenizeToList(token));
+				for (Multiset.Entry<String> entry : tokens.entrySet()) {
+					for (String token : t.tokenizeToList(entry.getElement())) {
+						newTokens.add(token, entry.getCount());
+					}
 				}
-				List<String> swap = tokens;
+				Multiset<String> swap = tokens;
 				tokens = newTokens;
 				newTokens = swap;
 				newTokens.clear();
@@ -222,30 +266,6 @@ public final class Tokenizers {
 
 			return tokens;
 		}
-
-//		@Override
-//		public Multiset<String> tokenizeToMultiset(String input) {
-//
-//			// tokenizeToList is not reused here on purpose. Removing duplicate
-//			// words early means these don't have to be tokenized multiple
-//			// times. Increases performance.
-//
-//			Multiset<String> tokens = HashMultiset.create(input.length());
-//			tokens.add(input);
-//
-//			Multiset<String> newTokens =  HashMultiset.create(input.length());
-//			for (Tokenizer t : tokenizers) {
-//				for (String token : tokens) {
-//					newTokens.addAll(t.tokenizeToList(token));
-//				}
-//				Multiset<String> swap = tokens;
-//				tokens = newTokens;
-//				newTokens = swap;
-//				newTokens.clear();
-//			}
-//
-//			return tokens;
-//		}
 		
 		@Override
 		public Set<String> tokenizeToSet(final String input) {
@@ -286,15 +306,31 @@ public final class Tokenizers {
 
 		private final Pattern pattern;
 
+		private final CharClassSplitter splitter;
+
 		public SplitTokenizer(Pattern pattern) {
 			this.pattern = pattern;
+			this.splitter = CharClassSplitter.compile(pattern);
 		}
 
 		@Override
 		public List<String> tokenizeToList(final String input) {
+			if (splitter != null) {
+				final String[] tokens = splitter.split(input);
+				if (tokens != null) {
+					return asList(tokens);
+				}
+			}
 			return asList(pattern.split(input, -1));
 		}
 
+		@Override
+		void tokenize(String input, int start, int end, TokenConsumer consumer) {
+			if (splitter == null || !splitter.split(input, start, end, consumer)) {
+				super.tokenize(input, start, end, consumer);
+			}
+		}
+
 		@Override
 		public String toString() {
 			return "SplitTokenizer [" + pattern + "]";
@@ -302,7 +338,8 @@ public final class Tokenizers {
 
 	}
 
-	private static class TransformingTokenizer implements Tokenizer {
+	private static class TransformingTokenizer implements
+			MultisetTokenizer {
 		private static final class FilteringTransformingTokenizer extends
 				TransformingTokenizer {
 
@@ -321,31 +358,38 @@ public final class Tokenizers {
 
 			@Override
 			public List<String> tokenizeToList(String input) {
-				return newArrayList(Collections2.transform(
-						tokenizer.tokenizeToFilteredList(input), function));
+				final Predicate<String> predicate = tokenizer.getPredicate();
+				final List<String> tokens = tokenizer.getTokenizer()
+						.tokenizeToList(input);
+				final List<String> transformed = new ArrayList<>(tokens.size());
+				for (String token : tokens) {
+					if (predicate.apply(token)) {
+						transformed.add(function.apply(token));
+					}
+				}
+				return transformed;
 			}
 
-//			@Override
-//			public Multiset<String> tokenizeToMultiset(String input) {
-//				return HashMultiset.create(Collections2.transform(
-//						tokenizer.tokenizeToFilteredMultiset(input), function));
-//			}
+			@Override
+			public Multiset<String> tokenizeToMultiset(String input) {
+				return HashMultiset.create(Collections2.transform(
+						tokenizer.tokenizeToFilteredMultiset(input), function));
+			}
 			@Override
 			public Set<String> tokenizeToSet(String input) {
 				return newHashSet(Collections2.transform(
 						tokenizer.tokenizeToFilteredSet(input), function));
 			}
 			@Override
-			Collection<String> tokenizeToTransformedList(String input) {
-				return Collections2.transform(
-						tokenizer.tokenizeToFilteredList(input), function);
+			List<String> tokenizeToTransformedList(String input) {
+				return tokenizeToList(input);
 			}
 
-//			@Override
-//			Collection<String> tokenizeToTransformedMultiset(String input) {
-//				return Collections2.transform(
-//						tokenizer.tokenizeToFilteredMultiset(input), function);
-//			}
+			@Override
+			Collection<String> tokenizeToTransformedMultiset(String input) {
+				return Collections2.transform(
+						tokenizer.tokenizeToFilteredMultiset(input), function);
+			}
 			
 			@Override
 			Collection<String> tokenizeToTransformedSet(String input) {
@@ -394,15 +438,14 @@ public final class Tokenizers {
 
 		@Override
 		public List<String> tokenizeToList(String input) {
-			return newArrayList(Collections2.transform(
-					tokenizer.tokenizeToList(input), function));
+			return transformToList(tokenizer.tokenizeToList(input), function);
 		}
 
-//		@Override
-//		public Multiset<String> tokenizeToMultiset(String input) {
-//			return HashMultiset.create(Collections2.transform(
-//					tokenizer.tokenizeToMultiset(input), function));
-//		}
+		@Override
+		public Multiset<String> tokenizeToMultiset(String input) {
+			return HashMultiset.create(Collections2.transform(
+					Tokenizers.tokenizeToMultiset(tokenizer, input), function));
+		}
 
 		@Override
 		public Set<String> tokenizeToSet(String input) {
@@ -410,15 +453,15 @@ public final class Tokenizers {
 					tokenizer.tokenizeToSet(input), function));
 		}
 		
-		Collection<String> tokenizeToTransformedList(String input) {
+		List<String> tokenizeToTransformedList(String input) {
 			return Lists.transform(tokenizer.tokenizeToList(input),
 					function);
 		}
 
-//		Collection<String> tokenizeToTransformedMultiset(String input) {
-//			return Collections2.transform(tokenizer.tokenizeToMultiset(input),
-//					function);
-//		}
+		Collection<String> tokenizeToTransformedMultiset(String input) {
+			return Collections2.transform(
+					Tokenizers.tokenizeToMultiset(tokenizer, input), function);
+		}
 		
 		Collection<String> tokenizeToTransformedSet(String input) {
 			return Collections2.transform(tokenizer.tokenizeToSet(input),
@@ -435,7 +478,8 @@ public final class Tokenizers {
 
 	private static final class Whitespace extends AbstractTokenizer {
 
-		private final Pattern pattern = Pattern.compile("\\s+");
+		private final CharClassSplitter splitter = CharClassSplitter
+				.compile(Pattern.compile("\\s+"));
 
 		Whitespace() {
 		}
@@ -446,14 +490,14 @@ public final class Tokenizers {
 				return emptyList();
 			}
 
-			String[] tokens = pattern.split(input);
-
-			// Remove leading empty token if any
-			if (tokens.length > 0 && tokens[0].isEmpty()) {
-				tokens = copyOfRange(tokens, 1, tokens.length);
-			}
+			// Whitespace never matches surrogates
+			return asList(splitter.splitNonEmpty(input));
+		}
 
-			return asList(tokens);
+		@Override
+		void tokenize(String input, int start, int end, TokenConsumer consumer) {
+			// Whitespace never matches surrogates
+			splitter.splitNonEmpty(input, start, end, consumer);
 		}
 
 		@Override
@@ -527,6 +571,41 @@ public final class Tokenizers {
 		return new FilteringTokenizer(tokenizer, predicate);
 	}
 
+	private static List<String> filterToList(List<String> tokens,
+			Predicate<String> predicate) {
+		// At most as many tokens as the input, so the list never grows
+		final List<String> filtered = new ArrayList<>(tokens.size());
+		for (String token : tokens) {
+			if (predicate.apply(token)) {
+				filtered.add(token);
+			}
+		}
+		return filtered;
+	}
+
+	private static void tokenize(Tokenizer tokenizer, String input, int start,
+			int end, TokenConsumer consumer) {
+		if (tokenizer instanceof AbstractTokenizer) {
+			((AbstractTokenizer) tokenizer).tokenize(input, start, end,
+					consumer);
+			return;
+		}
+
+		for (String token : tokenizer.tokenizeToList(input.substring(start,
+				end))) {
+			consumer.accept(token, 0, token.length());
+		}
+	}
+
+	private static List<String> transformToList(List<String> tokens,
+			Function<String, String> function) {
+		final List<String> transformed = new ArrayList<>(tokens.size());
+		for (String token : tokens) {
+			transformed.add(function.apply(token));
+		}
+		return transformed;
+	}
+
 	private static List<Tokenizer> flatten(List<Tokenizer> simplifiers) {
 		final List<Tokenizer> flattend = new ArrayList<>(simplifiers.size());
 
@@ -647,6 +726,26 @@ public final class Tokenizers {
 		return new QGramExtended(q, startPadding, endPadding);
 	}
 
+	/**
+	 * Tokenizes a string into a multiset of tokens. Uses
+	 * {@link MultisetTokenizer#tokenizeToMultiset(String)} when the tokenizer
+	 * implements it and counts the tokens of
+	 * {@link Tokenizer#tokenizeToList(String)} otherwise.
+	 * 
+	 * @param tokenizer
+	 *            the tokenizer to use
+	 * @param input
+	 *            input string to tokenize
+	 * @return tokenized version of a string as a multiset
+	 */
+	public static Multiset<String> tokenizeToMultiset(Tokenizer tokenizer,
+			String input) {
+		if (tokenizer instanceof MultisetTokenizer) {
+			return ((MultisetTokenizer) tokenizer).tokenizeToMultiset(input);
+		}
+		return HashMultiset.create(tokenizer.tokenizeToList(input));
+	}
+
 	/**
 	 * Constructs a new transforming tokenizer. After tokenization, all tokens
 	 * are transformed by the function.
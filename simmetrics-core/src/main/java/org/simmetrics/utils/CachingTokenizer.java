@@ -21,6 +21,7 @@
 
 package org.simmetrics.utils;
 
+import static com.google.common.collect.Multisets.unmodifiableMultiset;
 import static java.util.Collections.unmodifiableList;
 import static java.util.Collections.unmodifiableSet;
 
@@ -29,11 +30,14 @@ import java.util.Set;
 import java.util.concurrent.ExecutionException;
 
 import org.simmetrics.StringMetricBuilder;
+import org.simmetrics.tokenizers.MultisetTokenizer;
 import org.simmetrics.tokenizers.Tokenizer;
+import org.simmetrics.tokenizers.Tokenizers;
 
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.collect.Multiset;
 
 /**
  * Tokenizer that caches tokenized results. Can be used to improve performance
@@ -47,7 +51,8 @@ import com.google.common.cache.LoadingCache;
  * @see StringMetricBuilder
  */
 @Deprecated
-public class CachingTokenizer implements TokenizingTokenizer {
+public class CachingTokenizer implements TokenizingTokenizer,
+		MultisetTokenizer {
 
 	private Tokenizer tokenizer;
 
@@ -55,7 +60,7 @@ public class CachingTokenizer implements TokenizingTokenizer {
 
 	private final LoadingCache<String, Set<String>> setCache;
 
-//	private final LoadingCache<String, Multiset<String>> multisetCache;
+	private final LoadingCache<String, Multiset<String>> multisetCache;
 
 	/**
 	 * Creates a caching tokenizer with {@code initialCapacity} and
@@ -95,16 +100,17 @@ public class CachingTokenizer implements TokenizingTokenizer {
 
 				});
 		
-//		this.multisetCache = CacheBuilder.newBuilder()
-//				.initialCapacity(initialCapacity).maximumSize(maximumSize)
-//				.build(new CacheLoader<String, Multiset<String>>() {
-//
-//					@Override
-//					public Multiset<String> load(String key) throws Exception {
-//						return unmodifiableMultiset(getTokenizer().tokenizeToMultiset(key));
-//					}
-//
-//				});
+		this.multisetCache = CacheBuilder.newBuilder()
+				.initialCapacity(initialCapacity).maximumSize(maximumSize)
+				.build(new CacheLoader<String, Multiset<String>>() {
+
+					@Override
+					public Multiset<String> load(String key) throws Exception {
+						return unmodifiableMultiset(Tokenizers
+								.tokenizeToMultiset(getTokenizer(), key));
+					}
+
+				});
 	}
 
 	/**
@@ -159,14 +165,15 @@ public class CachingTokenizer implements TokenizingTokenizer {
 		}
 	}
 	
-//	@Override
-//	public Multiset<String> tokenizeToMultiset(String input) {
-//		try {
-//			return multisetCache.get(input);
-//		} catch (ExecutionException e) {
-//			throw new IllegalStateException(e);
-//		}
-//	}
+	@Override
+	public Multiset<String> tokenizeToMultiset(String input) {
+		try {
+			return multisetCache.get(input);
+		} catch (ExecutionException e) {
+			// Can't happen. Tokenizer may not throw checked exceptions
+			throw new IllegalStateException(e);
+		}
+	}
 
 	@Override
 	public String toString() {
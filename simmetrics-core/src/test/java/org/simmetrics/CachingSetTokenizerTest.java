@@ -43,6 +43,11 @@ public class CachingSetTokenizerTest extends TokenizerTest {
 		return false;
 	}
 
+	@Override
+	protected final boolean supportsTokenizeToMultiset() {
+		return false;
+	}
+
 	@Override
 	protected final Tokenizer getTokenizer() {
 		
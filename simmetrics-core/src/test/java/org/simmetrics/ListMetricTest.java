@@ -23,14 +23,18 @@ package org.simmetrics;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static java.util.Collections.unmodifiableList;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 import static org.simmetrics.tokenizers.Tokenizers.whitespace;
 
 import java.util.List;
 
 import org.junit.Test;
+import org.simmetrics.tokenizers.TokenDictionary;
 import org.simmetrics.tokenizers.Tokenizer;
 
+import com.google.common.collect.HashMultiset;
+
 @SuppressWarnings("javadoc")
 public abstract class ListMetricTest extends MetricTest<List<String>> {
 
@@ -130,6 +134,37 @@ public abstract class ListMetricTest extends MetricTest<List<String>> {
 		}
 	}
 
+	@Test
+	public final void tokenIds() {
+		if (!(metric instanceof TokenIdMetric)) {
+			return;
+		}
+		final TokenIdMetric idMetric = (TokenIdMetric) metric;
+		final TokenDictionary dictionary = new TokenDictionary();
+		for (T t : getListTests()) {
+			if (t.a.contains(null) || t.b.contains(null)) {
+				continue;
+			}
+			assertEquals(metric.compare(t.a, t.b),
+					idMetric.compare(dictionary.bag(t.a), dictionary.bag(t.b)),
+					0.0f);
+		}
+	}
+
+	@Test
+	public final void multisets() {
+		if (!(metric instanceof MultisetMetric)) {
+			return;
+		}
+		@SuppressWarnings("unchecked")
+		final MultisetMetric<String> multisetMetric =
+				(MultisetMetric<String>) metric;
+		for (T t : getListTests()) {
+			assertEquals(metric.compare(t.a, t.b), multisetMetric.compare(
+					HashMultiset.create(t.a), HashMultiset.create(t.b)), 0.0f);
+		}
+	}
+
 	protected boolean supportsNullValues() {
 		return true;
 	}
@@ -0,0 +1,67 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics;
+
+import java.util.Random;
+
+/**
+ * Generates random strings for tests that compare an optimized algorithm to a
+ * reference.
+ */
+@SuppressWarnings("javadoc")
+public final class RandomStrings {
+
+	public static final String LETTERS = "abcdefghijklmnopqrstuvwxyz";
+
+	private RandomStrings() {
+		// Utility class
+	}
+
+	/**
+	 * Returns a string of the first {@code size} letters of the alphabet.
+	 */
+	public static String letters(int size) {
+		return LETTERS.substring(0, size);
+	}
+
+	/**
+	 * Returns a string of {@code length} characters drawn from the alphabet.
+	 */
+	public static String randomString(Random random, String alphabet,
+			int length) {
+		final char[] chars = new char[length];
+		for (int i = 0; i < length; i++) {
+			chars[i] = alphabet.charAt(random.nextInt(alphabet.length()));
+		}
+		return new String(chars);
+	}
+
+	/**
+	 * Returns a string of {@code minLength} up to and including
+	 * {@code maxLength} characters drawn from the alphabet.
+	 */
+	public static String randomString(Random random, String alphabet,
+			int minLength, int maxLength) {
+		return randomString(random, alphabet,
+				minLength + random.nextInt(maxLength - minLength + 1));
+	}
+
+}
@@ -22,9 +22,12 @@ package org.simmetrics;
 
 import static java.util.Collections.emptySet;
 import static java.util.Collections.unmodifiableSet;
+import static org.junit.Assert.assertEquals;
 
 import java.util.Set;
 
+import org.junit.Test;
+import org.simmetrics.tokenizers.TokenDictionary;
 import org.simmetrics.tokenizers.Tokenizer;
 
 @SuppressWarnings("javadoc")
@@ -65,6 +68,20 @@ public abstract class SetMetricTest extends MetricTest<Set<String>> {
 		return transformed;
 	}
 
+	@Test
+	public final void tokenIds() {
+		if (!(metric instanceof TokenIdMetric)) {
+			return;
+		}
+		final TokenIdMetric idMetric = (TokenIdMetric) metric;
+		final TokenDictionary dictionary = new TokenDictionary();
+		for (MetricTest.T<Set<String>> t : getTests()) {
+			assertEquals(metric.compare(t.a, t.b),
+					idMetric.compare(dictionary.set(t.a), dictionary.set(t.b)),
+					0.0f);
+		}
+	}
+
 	@Override
 	protected Set<String> getEmpty() {
 		return emptySet();
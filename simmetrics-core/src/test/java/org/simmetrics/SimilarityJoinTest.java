@@ -0,0 +1,194 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.simmetrics.tokenizers.Tokenizers.qGram;
+import static org.simmetrics.tokenizers.Tokenizers.qGramWithPadding;
+import static org.simmetrics.tokenizers.Tokenizers.whitespace;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+import org.simmetrics.SimilarityJoin.Handler;
+import org.simmetrics.metrics.CosineSimilarity;
+import org.simmetrics.metrics.DiceSimilarity;
+import org.simmetrics.metrics.JaccardSimilarity;
+import org.simmetrics.metrics.OverlapCoefficient;
+import org.simmetrics.tokenizers.Tokenizer;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public final class SimilarityJoinTest {
+
+	private static final ForkJoinPool pool = new ForkJoinPool(4);
+
+	private static final float[] thresholds = { 0.1f, 0.3f, 0.5f, 0.6f,
+			0.75f, 0.9f, 1.0f };
+
+	private static final List<String> strings = randomStrings(400);
+
+	@AfterClass
+	public static void shutdown() {
+		pool.shutdown();
+	}
+
+	@Test
+	public void jaccardSimilarity() {
+		assertJoin(new JaccardSimilarity<String>());
+	}
+
+	@Test
+	public void diceSimilarity() {
+		assertJoin(new DiceSimilarity<String>());
+	}
+
+	@Test
+	public void cosineSimilarity() {
+		assertJoin(new CosineSimilarity<String>());
+	}
+
+	@Test
+	public void overlapCoefficient() {
+		assertJoin(new OverlapCoefficient<String>());
+	}
+
+	@Test
+	public void words() {
+		final List<String> words = asList("the quick brown fox",
+				"the quick red fox", "a lazy dog", "quick fox", "", "");
+		final Pairs pairs = new Pairs();
+		SimilarityJoin.selfJoin(new JaccardSimilarity<String>(),
+				whitespace(), words, 0.5f, pairs);
+
+		assertEquals(new TreeSet<>(asList("0 1 0.6", "0 3 0.5", "1 3 0.5",
+				"4 5 1.0")), pairs.pairs);
+	}
+
+	@Test
+	public void defaultPool() {
+		final Pairs expected = join(new JaccardSimilarity<String>(), qGram(2),
+				0.5f);
+		final Pairs actual = new Pairs();
+		SimilarityJoin.selfJoin(new JaccardSimilarity<String>(), qGram(2),
+				strings, 0.5f, actual);
+		assertEquals(expected.pairs, actual.pairs);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unsupportedMetric() {
+		SimilarityJoin.selfJoin(new SetMetric<String>() {
+			@Override
+			public float compare(Set<String> a, Set<String> b) {
+				return 0;
+			}
+		}, whitespace(), strings, 0.5f, new Pairs(), pool);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void zeroThreshold() {
+		SimilarityJoin.selfJoin(new JaccardSimilarity<String>(),
+				whitespace(), strings, 0.0f, new Pairs(), pool);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void nullString() {
+		SimilarityJoin.selfJoin(new JaccardSimilarity<String>(),
+				whitespace(), asList("a", null), 0.5f, new Pairs(), pool);
+	}
+
+	private static final class Pairs implements Handler {
+		final Set<String> pairs = new TreeSet<>();
+
+		Pairs() {
+		}
+
+		@Override
+		public synchronized void pair(int first, int second, float similarity) {
+			assertEquals(true, first < second);
+			assertEquals(true, pairs.add(first + " " + second + " "
+					+ similarity));
+		}
+	}
+
+	private static void assertJoin(SetMetric<String> metric) {
+		for (Tokenizer tokenizer : asList(whitespace(), qGram(2),
+				qGramWithPadding(3))) {
+			for (float threshold : thresholds) {
+				final Pairs expected = join(metric, tokenizer, threshold);
+				for (int partitionSize : new int[] { 1, 7, 1000 }) {
+					final Pairs actual = new Pairs();
+					SimilarityJoin.selfJoin(metric, tokenizer, strings,
+							threshold, actual, pool, partitionSize);
+					assertEquals(metric + " " + tokenizer + " " + threshold,
+							expected.pairs, actual.pairs);
+				}
+			}
+		}
+	}
+
+	private static Pairs join(SetMetric<String> metric, Tokenizer tokenizer,
+			float threshold) {
+		final List<Set<String>> sets = new ArrayList<>();
+		for (String string : strings) {
+			sets.add(tokenizer.tokenizeToSet(string));
+		}
+
+		final Pairs pairs = new Pairs();
+		for (int i = 0; i < sets.size(); i++) {
+			for (int j = i + 1; j < sets.size(); j++) {
+				final float similarity = metric.compare(sets.get(i),
+						sets.get(j));
+				if (similarity >= threshold) {
+					pairs.pair(i, j, similarity);
+				}
+			}
+		}
+		return pairs;
+	}
+
+	private static List<String> randomStrings(int n) {
+		final Random random = new Random(11);
+		final List<String> strings = new ArrayList<>(n);
+		for (int i = 0; i < n; i++) {
+			final int words = random.nextInt(6);
+			final StringBuilder builder = new StringBuilder();
+			for (int j = 0; j < words; j++) {
+				if (j > 0) {
+					builder.append(' ');
+				}
+				final int length = 1 + random.nextInt(4);
+				for (int k = 0; k < length; k++) {
+					builder.append((char) ('a' + random.nextInt(5)));
+				}
+			}
+			strings.add(builder.toString());
+		}
+		return Collections.unmodifiableList(strings);
+	}
+}
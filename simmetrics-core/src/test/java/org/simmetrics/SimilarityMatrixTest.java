@@ -0,0 +1,181 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.simmetrics.StringMetricBuilder.with;
+import static org.simmetrics.simplifiers.Simplifiers.toLowerCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+import org.simmetrics.metrics.Jaro;
+import org.simmetrics.metrics.Levenshtein;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public final class SimilarityMatrixTest {
+
+	private static final ForkJoinPool pool = new ForkJoinPool(4);
+
+	private static final List<String> strings = randomStrings(150);
+
+	@AfterClass
+	public static void shutdown() {
+		pool.shutdown();
+	}
+
+	@Test
+	public void levenshtein() {
+		assertMatrix(new Levenshtein(), 0.3f);
+	}
+
+	@Test
+	public void weightedLevenshtein() {
+		assertMatrix(new Levenshtein(0.5f, 1.0f), 0.3f);
+	}
+
+	@Test
+	public void jaroWithSimplifier() {
+		assertMatrix(StringMetrics.create(new Jaro(), toLowerCase()), 0.6f);
+	}
+
+	@Test
+	public void cosineSimilarity() {
+		assertMatrix(StringMetrics.cosineSimilarity(), 0.1f);
+	}
+
+	@Test
+	public void blockDistance() {
+		assertMatrix(StringMetrics.qGramsDistance(), 0.2f);
+	}
+
+	@Test
+	public void simonWhiteWithSimplifier() {
+		assertMatrix(StringMetrics.create(StringMetrics.simonWhite(),
+				toLowerCase()), 0.2f);
+	}
+
+	@Test
+	public void nonPreparable() {
+		final StringMetric jaro = new Jaro();
+		assertMatrix(new StringMetric() {
+			@Override
+			public float compare(String a, String b) {
+				return jaro.compare(a, b);
+			}
+		}, 0.5f);
+	}
+
+	@Test
+	public void builder() {
+		assertMatrix(with(new Jaro()).simplify(toLowerCase()).build(), 0.5f);
+	}
+
+	@Test
+	public void allEntries() {
+		final SimilarityMatrix matrix = SimilarityMatrix.compute(
+				new Levenshtein(), strings, 0.0f, pool);
+		assertEquals(strings.size() * (strings.size() - 1) / 2,
+				matrix.getEntryCount());
+	}
+
+	@Test
+	public void empty() {
+		final SimilarityMatrix matrix = SimilarityMatrix.compute(
+				new Levenshtein(), Collections.<String> emptyList(), 0.0f);
+		assertEquals(0, matrix.getDimension());
+		assertEquals(0, matrix.getEntryCount());
+	}
+
+	@Test
+	public void defaultPool() {
+		final SimilarityMatrix matrix = SimilarityMatrix.compute(
+				new Levenshtein(), Arrays.asList("a", "b", "ab"), 0.5f);
+		assertEquals(3, matrix.getDimension());
+		assertEquals(2, matrix.getEntryCount());
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void nullString() {
+		SimilarityMatrix.compute(new Levenshtein(), Arrays.asList("a", null),
+				0.0f, pool);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void entryOutOfBounds() {
+		SimilarityMatrix.compute(new Levenshtein(), Arrays.asList("a", "b"),
+				1.0f, pool).getRow(0);
+	}
+
+	private static void assertMatrix(StringMetric metric, float threshold) {
+		for (int tileSize : new int[] { 1, 7, 64, 1000 }) {
+			final SimilarityMatrix matrix = SimilarityMatrix.compute(metric,
+					strings, threshold, pool, tileSize);
+			assertEquals(strings.size(), matrix.getDimension());
+
+			final float[][] actual = new float[strings.size()][strings.size()];
+			for (float[] row : actual) {
+				Arrays.fill(row, Float.NaN);
+			}
+			for (int k = 0; k < matrix.getEntryCount(); k++) {
+				final int i = matrix.getRow(k);
+				final int j = matrix.getColumn(k);
+				assertTrue(i < j);
+				assertTrue(Float.isNaN(actual[i][j]));
+				actual[i][j] = matrix.getSimilarity(k);
+			}
+
+			for (int i = 0; i < strings.size(); i++) {
+				for (int j = i + 1; j < strings.size(); j++) {
+					final float expected = metric.compare(strings.get(i),
+							strings.get(j));
+					if (expected >= threshold) {
+						assertEquals(expected, actual[i][j], 0.0f);
+					} else {
+						assertTrue(Float.isNaN(actual[i][j]));
+					}
+				}
+			}
+		}
+	}
+
+	private static List<String> randomStrings(int count) {
+		final String[] words = { "Sam", "Chapman", "John", "Smith", "web",
+				"Database", "applications", "" };
+		final Random random = new Random(5);
+		final List<String> strings = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			final StringBuilder builder = new StringBuilder();
+			for (int w = random.nextInt(4); w >= 0; w--) {
+				builder.append(words[random.nextInt(words.length)]).append(' ');
+			}
+			strings.add(builder.toString().trim());
+		}
+		return strings;
+	}
+}
@@ -20,7 +20,12 @@
 
 package org.simmetrics;
 
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
 import static org.simmetrics.StringMetricBuilder.with;
+import static org.simmetrics.tokenizers.Tokenizers.qGram;
+import static org.simmetrics.tokenizers.Tokenizers.qGramWithPadding;
+import static org.simmetrics.tokenizers.Tokenizers.whitespace;
 
 import java.util.List;
 import java.util.Set;
@@ -32,7 +37,13 @@ import org.mockito.MockitoAnnotations;
 import org.simmetrics.ListMetric;
 import org.simmetrics.SetMetric;
 import org.simmetrics.StringMetric;
+import org.simmetrics.StringMetrics.PreparedStrings;
+import org.simmetrics.metrics.BlockDistance;
+import org.simmetrics.metrics.JaccardSimilarity;
+import org.simmetrics.metrics.SimonWhite;
 import org.simmetrics.simplifiers.Simplifier;
+import org.simmetrics.simplifiers.Simplifiers;
+import org.simmetrics.tokenizers.TokenDictionary;
 import org.simmetrics.tokenizers.Tokenizer;
 import org.simmetrics.utils.SimplifyingSimplifier;
 import org.simmetrics.utils.TokenizingTokenizer;
@@ -40,6 +51,8 @@ import org.simmetrics.utils.TokenizingTokenizer;
 import com.google.common.base.Function;
 import com.google.common.base.Predicate;
 import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Multiset;
 
 @SuppressWarnings({"javadoc","deprecation"})
 public class StringMetricBuilderTest {
@@ -426,4 +439,161 @@ public class StringMetricBuilderTest {
 				.build();
 	}
 	
+	@Test
+	public void testSetMetricInternTokens() {
+		StringMetric expected = with(new JaccardSimilarity<String>())
+				.simplify(Simplifiers.toLowerCase())
+				.tokenize(whitespace())
+				.build();
+		StringMetric interned = with(new JaccardSimilarity<String>())
+				.simplify(Simplifiers.toLowerCase())
+				.tokenize(whitespace())
+				.internTokens(new TokenDictionary())
+				.build();
+
+		assertSameResults(expected, interned);
+	}
+
+	@Test
+	public void testListMetricInternTokens() {
+		StringMetric expected = with(new BlockDistance<String>())
+				.tokenize(whitespace())
+				.tokenize(qGram(2))
+				.build();
+		StringMetric interned = with(new BlockDistance<String>())
+				.tokenize(whitespace())
+				.tokenize(qGram(2))
+				.internTokens(new TokenDictionary())
+				.build();
+
+		assertSameResults(expected, interned);
+	}
+
+	@Test
+	public void testInternTokensDoesNotGrowDictionary() {
+		final TokenDictionary dictionary = new TokenDictionary();
+		dictionary.bag(whitespace().tokenizeToList("a quick brown fox"));
+
+		StringMetric expected = with(new BlockDistance<String>())
+				.tokenize(whitespace())
+				.build();
+		StringMetric interned = with(new BlockDistance<String>())
+				.tokenize(whitespace())
+				.internTokens(dictionary)
+				.build();
+
+		assertSameResults(expected, interned);
+		assertEquals(4, dictionary.size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInternTokensRequiresTokenIdMetric() {
+		with(listMetric)
+				.tokenize(tokenizer)
+				.internTokens(new TokenDictionary());
+	}
+
+	@Test
+	public void testSetMetricPackTokens() {
+		StringMetric expected = with(new JaccardSimilarity<String>())
+				.simplify(Simplifiers.toLowerCase())
+				.tokenize(qGram(3))
+				.build();
+		StringMetric packed = with(new JaccardSimilarity<String>())
+				.simplify(Simplifiers.toLowerCase())
+				.tokenize(qGram(3))
+				.packTokens()
+				.build();
+
+		assertSameResults(expected, packed);
+	}
+
+	@Test
+	public void testListMetricPackTokens() {
+		StringMetric expected = with(new BlockDistance<String>())
+				.tokenize(qGramWithPadding(4))
+				.build();
+		StringMetric packed = with(new BlockDistance<String>())
+				.tokenize(qGramWithPadding(4))
+				.packTokens()
+				.build();
+
+		assertSameResults(expected, packed);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testPackTokensRequiresPackedTokenMetric() {
+		with(listMetric)
+				.tokenize(qGram(2))
+				.packTokens();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testPackTokensRequiresPackedTokenizer() {
+		with(new BlockDistance<String>())
+				.tokenize(whitespace())
+				.packTokens();
+	}
+
+	@Test
+	public void testListMetricCountTokens() {
+		StringMetric expected = with(new SimonWhite<String>())
+				.simplify(Simplifiers.toLowerCase())
+				.tokenize(whitespace())
+				.tokenize(qGram(2))
+				.build();
+		StringMetric counted = with(new SimonWhite<String>())
+				.simplify(Simplifiers.toLowerCase())
+				.tokenize(whitespace())
+				.tokenize(qGram(2))
+				.countTokens()
+				.build();
+
+		assertSameResults(expected, counted);
+	}
+
+	@Test
+	public void testListMetricCountTokensWithCache() {
+		Cache<String, Multiset<String>> cache = CacheBuilder.newBuilder()
+				.build();
+		StringMetric expected = with(new BlockDistance<String>())
+				.tokenize(qGram(2))
+				.build();
+		StringMetric counted = with(new BlockDistance<String>())
+				.tokenize(qGram(2))
+				.countTokens(cache)
+				.build();
+
+		assertSameResults(expected, counted);
+		assertEquals(8, cache.size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testCountTokensRequiresMultisetMetric() {
+		with(new JaccardSimilarity<String>())
+				.tokenize(whitespace())
+				.countTokens();
+	}
+
+	private static void assertSameResults(StringMetric expected,
+			StringMetric interned) {
+		final String[] strings = { "", "ab", "fox", "A quick brown fox",
+				"a quick brown dog", "the the the fox", "Fox quick",
+				"jumps over the lazy dog" };
+
+		final PreparedStrings prepared = StringMetrics.prepareAll(interned,
+				asList(strings));
+		for (int i = 0; i < strings.length; i++) {
+			final String a = strings[i];
+			final PreparedQuery query = StringMetrics.prepare(interned, a);
+			for (int j = 0; j < strings.length; j++) {
+				final String b = strings[j];
+				final float similarity = expected.compare(a, b);
+				assertEquals(similarity, interned.compare(a, b), 0.0f);
+				assertEquals(similarity, query.compare(b), 0.0f);
+				assertEquals(similarity, prepared.compare(i, j), 0.0f);
+			}
+		}
+	}
+
 }
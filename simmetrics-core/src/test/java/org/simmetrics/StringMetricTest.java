@@ -20,6 +20,15 @@
 
 package org.simmetrics;
 
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
 @SuppressWarnings("javadoc")
 public abstract class StringMetricTest extends MetricTest<String> {
 
@@ -58,4 +67,40 @@ public abstract class StringMetricTest extends MetricTest<String> {
 		return "";
 	}
 
+	@Test
+	public final void prepared() {
+		final StringMetric stringMetric = StringMetrics.create(metric);
+		final List<String> candidates = new ArrayList<>();
+		for (T t : getStringTests()) {
+			candidates.add(t.string2);
+		}
+
+		for (T t : getStringTests()) {
+			final PreparedQuery query = StringMetrics.prepare(stringMetric,
+					t.string1);
+			assertEquals(metric.compare(t.string1, t.string2),
+					query.compare(t.string2), 0.0f);
+			assertEquals(metric.compare(t.string1, t.string1),
+					query.compare(t.string1), 0.0f);
+			assertEquals(metric.compare(t.string1, ""), query.compare(""),
+					0.0f);
+			assertEquals(metric.compare("", t.string1),
+					StringMetrics.prepare(stringMetric, "").compare(t.string1),
+					0.0f);
+
+			final float[] expected = new float[candidates.size()];
+			for (int i = 0; i < expected.length; i++) {
+				expected[i] = metric.compare(t.string1, candidates.get(i));
+			}
+			assertArrayEquals(expected, query.compareAll(candidates), 0.0f);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public final void preparedResultsTooShort() {
+		final StringMetric stringMetric = StringMetrics.create(metric);
+		StringMetrics.prepare(stringMetric, "a").compareAll(asList("a", "b"),
+				new float[1]);
+	}
+
 }
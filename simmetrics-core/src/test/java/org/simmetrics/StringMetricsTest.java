@@ -39,6 +39,7 @@ import com.google.common.base.Predicate;
 import static org.simmetrics.StringMetricBuilder.with;
 import static org.simmetrics.StringMetrics.create;
 import static org.simmetrics.StringMetrics.createForListMetric;
+import static org.simmetrics.StringMetrics.createForMultisetMetric;
 import static org.simmetrics.StringMetrics.createForSetMetric;
 import static org.simmetrics.simplifiers.Simplifiers.replaceNonWord;
 import static org.simmetrics.simplifiers.Simplifiers.toLowerCase;
@@ -139,6 +140,64 @@ public class StringMetricsTest {
 
 		}
 
+		public static final class ForMultiset extends StringMetricTest {
+
+			@Override
+			protected Metric<String> getMetric() {
+				return create(
+						createForMultisetMetric(new BlockDistance<String>(),
+								whitespace()), toLowerCase());
+			}
+
+			@Override
+			protected T[] getStringTests() {
+				return new T[] {
+						new T(1.0000f, "Test String1", "test string1"),
+						new T(0.5000f, "Test String1", "test string2"),
+						new T(0.6666f, "Test", "test string2"),
+						new T(0.0000f, "", "test string2"),
+						new T(0.7500f, "AAA bbb ccc ddd", "aaa bbb ccc eee"),
+						new T(0.5000f, "AAA bbb", "aaa aaa"),
+						new T(0.6666f, "AAA", "aaa aaa"),
+						new T(0.7500f, "A b c d", "a b c e"),
+						new T(0.5000f, "A b c d", "a b e f"), };
+			}
+
+			@Override
+			protected boolean satisfiesCoincidence() {
+				return false;
+			}
+		}
+
+		public static final class ForMultisetWithSimplifier extends
+				StringMetricTest {
+
+			@Override
+			protected Metric<String> getMetric() {
+				return create(
+						createForMultisetMetric(new BlockDistance<String>(),
+								toLowerCase(), whitespace()), replaceNonWord());
+			}
+
+			@Override
+			protected T[] getStringTests() {
+				return new T[] {
+
+				new T(1.0000f, "test string1", "test string1"),
+						new T(0.5000f, "test string#", "test string2"),
+						new T(0.6666f, "test##", "test string2"),
+						new T(0.0000f, "", "test string2"),
+						new T(0.7500f, "AAA# bbb ccc DDDD", "aaa bbb ccc eee"),
+						new T(0.5000f, "aaa BBB#", "aaa aaa"),
+						new T(0.6666f, "aaa", "AAA# aaa"),
+						new T(0.7500f, "a B# c d", "a b c e"),
+						new T(0.5000f, "a B# c d", "a b e f"),
+
+				};
+			}
+
+		}
+
 		public static final class ForSet extends StringMetricTest {
 
 			@Override
@@ -459,6 +518,29 @@ public class StringMetricsTest {
 
 	}
 
+	public static final class CreateSimHash extends StringMetricTest {
+
+		@Override
+		protected Metric<String> getMetric() {
+			return StringMetrics.simHash();
+		}
+
+		@Override
+		protected T[] getStringTests() {
+			return new T[] { new T(0.7410f, "test string1", "test string2"),
+					new T(0.8032f, "test", "test string2"),
+					new T(0.0000f, "", "test string2"),
+					new T(0.8315f, "aaa bbb ccc ddd", "aaa bbb ccc eee"),
+					new T(0.8577f, "a b c d", "a b c e"), };
+		}
+
+		@Override
+		protected boolean satisfiesSubadditivity() {
+			return false;
+		}
+
+	}
+
 	public static final class CreateSimonWhite extends StringMetricTest {
 
 		@Override
@@ -630,6 +712,31 @@ public class StringMetricsTest {
 					StringMetrics.compare(metric, "Napoleon I",
 							Arrays.asList(names1)), DELTA);
 		}
+
+		@Test
+		public void prepare() {
+			assertArrayEquals(expected,
+					StringMetrics.prepare(metric, "Napoleon I").compareAll(
+							Arrays.asList(names1)), DELTA);
+		}
+
+		@Test
+		public void prepareNonPreparable() {
+			final StringMetric jaro = new StringMetric() {
+				@Override
+				public float compare(String a, String b) {
+					return new Jaro().compare(a, b);
+				}
+			};
+			final PreparedQuery query = StringMetrics.prepare(jaro, "Charles X");
+			assertEquals(jaro.compare("Charles X", "Louis XVIII"),
+					query.compare("Louis XVIII"), 0.0f);
+		}
+
+		@Test(expected = NullPointerException.class)
+		public void prepareNullQuery() {
+			StringMetrics.prepare(metric, null);
+		}
 	}
 
 	public static final class CreateStringMetrics {
@@ -0,0 +1,218 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.index;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Test;
+import org.simmetrics.BoundedStringDistance;
+import org.simmetrics.Distance;
+import org.simmetrics.metrics.DamerauLevenshtein;
+import org.simmetrics.metrics.HammingDistance;
+import org.simmetrics.metrics.Levenshtein;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public final class BKTreeIndexTest {
+
+	private static final class CountingDistance implements
+			BoundedStringDistance {
+		private final BoundedStringDistance distance = new Levenshtein();
+		int count;
+
+		CountingDistance() {
+		}
+
+		@Override
+		public float distance(String a, String b) {
+			count++;
+			return distance.distance(a, b);
+		}
+
+		@Override
+		public float distance(String a, String b, float maxDistance) {
+			count++;
+			return distance.distance(a, b, maxDistance);
+		}
+	}
+
+	private final Random random = new Random(13);
+
+	@Test
+	public void levenshteinSearch() {
+		final Distance<String> distance = new Levenshtein();
+		final List<String> strings = randomStrings(2000, 3, 8, 4);
+		final BKTreeIndex index = new BKTreeIndex(distance, strings);
+
+		for (String query : randomStrings(50, 3, 8, 4)) {
+			for (float maxDistance : new float[] { 0, 1, 2, 3.5f }) {
+				assertEquals(search(distance, strings, query, maxDistance),
+						index.search(query, maxDistance));
+			}
+		}
+	}
+
+	@Test
+	public void weightedLevenshteinSearch() {
+		final Distance<String> distance = new Levenshtein(1.0f, 1.5f);
+		final List<String> strings = randomStrings(1000, 3, 8, 4);
+		final BKTreeIndex index = new BKTreeIndex(distance, strings);
+
+		for (String query : randomStrings(50, 3, 8, 4)) {
+			assertEquals(search(distance, strings, query, 2.5f),
+					index.search(query, 2.5f));
+		}
+	}
+
+	@Test
+	public void hammingSearch() {
+		final Distance<String> distance = HammingDistance.forString();
+		final List<String> strings = randomStrings(1000, 6, 6, 3);
+		final BKTreeIndex index = new BKTreeIndex(distance, strings);
+
+		for (String query : randomStrings(50, 6, 6, 3)) {
+			assertEquals(search(distance, strings, query, 2),
+					index.search(query, 2));
+		}
+	}
+
+	@Test
+	public void damerauLevenshteinSearch() {
+		final BKTreeIndex index = new BKTreeIndex(new DamerauLevenshtein(),
+				asList("Healed", "Sealed", "Healthy", "Heard", "Herded",
+						"Help", "Sold"));
+
+		assertEquals(
+				asList(new Match("Healed", 0), new Match("Sealed", 1),
+						new Match("Heard", 2), new Match("Herded", 2)),
+				index.search("Healed", 2));
+		assertEquals(asList(new Match("Healed", 1)),
+				index.search("Haeled", 1));
+	}
+
+	@Test
+	public void nearest() {
+		final Distance<String> distance = new Levenshtein();
+		final List<String> strings = randomStrings(2000, 3, 8, 4);
+		final BKTreeIndex index = new BKTreeIndex(distance, strings);
+
+		for (String query : randomStrings(50, 3, 8, 4)) {
+			final List<Match> expected = search(distance, strings, query,
+					Float.POSITIVE_INFINITY);
+			final List<Match> actual = index.nearest(query, 5);
+			assertEquals(5, actual.size());
+			for (int i = 0; i < actual.size(); i++) {
+				assertEquals(expected.get(i).getDistance(), actual.get(i)
+						.getDistance(), 0.0f);
+			}
+		}
+	}
+
+	@Test
+	public void nearestMoreThanSize() {
+		final BKTreeIndex index = new BKTreeIndex(new Levenshtein(), asList(
+				"a", "ab", "abc"));
+		assertEquals(
+				asList(new Match("ab", 0), new Match("a", 1), new Match(
+						"abc", 1)), index.nearest("ab", 10));
+	}
+
+	@Test
+	public void duplicates() {
+		final BKTreeIndex index = new BKTreeIndex(new Levenshtein(), asList(
+				"a", "b", "a", "b"));
+		assertEquals(2, index.size());
+		assertEquals(asList(new Match("a", 0)), index.search("a", 0));
+	}
+
+	@Test
+	public void empty() {
+		final BKTreeIndex index = new BKTreeIndex(new Levenshtein(),
+				Collections.<String> emptyList());
+		assertEquals(0, index.size());
+		assertTrue(index.search("a", 10).isEmpty());
+		assertTrue(index.nearest("a", 10).isEmpty());
+	}
+
+	@Test
+	public void prunes() {
+		final CountingDistance distance = new CountingDistance();
+		final BKTreeIndex index = new BKTreeIndex(distance, randomStrings(
+				20000, 8, 10, 26));
+
+		distance.count = 0;
+		for (String query : randomStrings(100, 8, 10, 26)) {
+			index.search(query, 1);
+		}
+		assertTrue("evaluated " + distance.count,
+				distance.count < 100 * 20000 / 4);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeMaxDistance() {
+		new BKTreeIndex(new Levenshtein(), asList("a")).search("a", -1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void zeroNearest() {
+		new BKTreeIndex(new Levenshtein(), asList("a")).nearest("a", 0);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void nullString() {
+		new BKTreeIndex(new Levenshtein(), asList("a", null));
+	}
+
+	private static List<Match> search(Distance<String> distance,
+			List<String> strings, String query, float maxDistance) {
+		final List<Match> matches = new ArrayList<>();
+		for (String string : new TreeSet<>(strings)) {
+			final float d = distance.distance(query, string);
+			if (d <= maxDistance) {
+				matches.add(new Match(string, d));
+			}
+		}
+		Collections.sort(matches, Match.BY_DISTANCE);
+		return matches;
+	}
+
+	private List<String> randomStrings(int count, int minLength,
+			int maxLength, int alphabet) {
+		final List<String> strings = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			final int length = minLength
+					+ random.nextInt(maxLength - minLength + 1);
+			final StringBuilder builder = new StringBuilder(length);
+			for (int j = 0; j < length; j++) {
+				builder.append((char) ('a' + random.nextInt(alphabet)));
+			}
+			strings.add(builder.toString());
+		}
+		return strings;
+	}
+}
@@ -0,0 +1,128 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.index;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.nCopies;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.simmetrics.RandomStrings.LETTERS;
+import static org.simmetrics.RandomStrings.randomString;
+import static org.simmetrics.simplifiers.Simplifiers.toLowerCase;
+import static org.simmetrics.tokenizers.Tokenizers.qGram;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.simmetrics.metrics.MinHash;
+import org.simmetrics.tokenizers.Tokenizer;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public final class MinHashIndexTest {
+
+	private final Random random = new Random(3);
+
+	@Test
+	public void search() {
+		final Tokenizer tokenizer = qGram(3);
+		final MinHash<String> minHash = new MinHash<>(128);
+		final List<String> strings = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			final String string = randomString(random, LETTERS, 20);
+			strings.add(string);
+			strings.add(mutate(string));
+		}
+		final MinHashIndex index = new MinHashIndex(minHash, 32, tokenizer,
+				strings);
+
+		for (int i = 0; i < strings.size(); i += 2) {
+			final String query = strings.get(i);
+			final int[] signature = minHash.signature(tokenizer
+					.tokenizeToSet(query));
+			final List<SimilarityMatch> matches = index.search(query, 0.5f);
+
+			assertEquals(new SimilarityMatch(i, query, 1.0f), matches.get(0));
+			assertTrue(matches.contains(new SimilarityMatch(i + 1, strings
+					.get(i + 1), minHash.compare(signature, minHash
+					.signature(tokenizer.tokenizeToSet(strings.get(i + 1)))))));
+
+			for (SimilarityMatch match : matches) {
+				assertTrue(match.getSimilarity() >= 0.5f);
+			}
+		}
+	}
+
+	@Test
+	public void simplifier() {
+		final MinHashIndex index = new MinHashIndex(new MinHash<String>(64),
+				16, toLowerCase(), qGram(2), asList("HELLO WORLD", "goodbye"));
+		assertEquals(asList(new SimilarityMatch(0, "HELLO WORLD", 1.0f)),
+				index.search("hello world", 0.9f));
+	}
+
+	@Test
+	public void empty() {
+		final MinHashIndex index = new MinHashIndex(new MinHash<String>(64),
+				16, qGram(2), asList("", "ab"));
+		assertEquals(asList(new SimilarityMatch(0, "", 1.0f)),
+				index.search("", 0.5f));
+		assertTrue(new MinHashIndex(new MinHash<String>(64), 16, qGram(2),
+				Collections.<String> emptyList()).search("a", 0.0f).isEmpty());
+	}
+
+	@Test
+	public void bandsAndRows() {
+		final MinHashIndex index = new MinHashIndex(new MinHash<String>(128),
+				32, qGram(2), asList("a"));
+		assertEquals(32, index.getBands());
+		assertEquals(4, index.getRows());
+		assertEquals(0.0f, index.getProbability(0.0f), 0.0f);
+		assertEquals(1.0f, index.getProbability(1.0f), 0.0f);
+		// 1 - (1 - 0.5^4)^32
+		assertEquals(0.8732f, index.getProbability(0.5f), 0.0001f);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void bandsMustDivideHashes() {
+		new MinHashIndex(new MinHash<String>(128), 3, qGram(2), asList("a"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void signaturesMustFitAnArray() {
+		new MinHashIndex(new MinHash<String>(128), 4, qGram(2), nCopies(
+				1 << 24, "a"));
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void nullString() {
+		new MinHashIndex(new MinHash<String>(128), 4, qGram(2), asList("a",
+				null));
+	}
+
+	private String mutate(String string) {
+		final char[] chars = string.toCharArray();
+		chars[random.nextInt(chars.length)] = (char) ('a' + random.nextInt(26));
+		return new String(chars);
+	}
+}
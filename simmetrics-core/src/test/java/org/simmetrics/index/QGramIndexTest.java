@@ -0,0 +1,162 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.index;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.simmetrics.StringMetrics.createForListMetric;
+import static org.simmetrics.tokenizers.Tokenizers.qGram;
+import static org.simmetrics.tokenizers.Tokenizers.qGramWithFilter;
+import static org.simmetrics.tokenizers.Tokenizers.qGramWithPadding;
+import static org.simmetrics.tokenizers.Tokenizers.whitespace;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.simmetrics.StringMetric;
+import org.simmetrics.metrics.BlockDistance;
+import org.simmetrics.metrics.Levenshtein;
+import org.simmetrics.tokenizers.Tokenizer;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public final class QGramIndexTest {
+
+	private static final float[] thresholds = { 0.0f, 0.3f, 0.5f, 0.7f,
+			0.8f, 0.9f, 1.0f };
+
+	private final Random random = new Random(7);
+
+	@Test
+	public void blockDistanceSearch() {
+		final List<String> strings = randomStrings(1000, 0, 10, 4);
+		for (Tokenizer tokenizer : asList(qGram(2), qGram(3),
+				qGramWithFilter(2), qGramWithPadding(2), qGramWithPadding(3))) {
+			final StringMetric metric = createForListMetric(
+					new BlockDistance<String>(), tokenizer);
+			final QGramIndex index = QGramIndex.forBlockDistance(tokenizer,
+					strings);
+
+			for (String query : randomStrings(30, 0, 10, 4)) {
+				for (float threshold : thresholds) {
+					assertEquals(search(metric, strings, query, threshold),
+							index.search(query, threshold));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void levenshteinSearch() {
+		final StringMetric metric = new Levenshtein();
+		final List<String> strings = randomStrings(1000, 0, 10, 4);
+		for (Tokenizer tokenizer : asList(qGram(1), qGram(2), qGram(3),
+				qGramWithFilter(2), qGramWithPadding(2), qGramWithPadding(3))) {
+			final QGramIndex index = QGramIndex.forLevenshtein(tokenizer,
+					strings);
+
+			for (String query : randomStrings(30, 0, 10, 4)) {
+				for (float threshold : thresholds) {
+					assertEquals(search(metric, strings, query, threshold),
+							index.search(query, threshold));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void blockDistanceWords() {
+		final List<String> strings = asList("the quick brown fox",
+				"the quick red fox", "a lazy dog", "quick fox");
+		final QGramIndex index = QGramIndex.forBlockDistance(whitespace(),
+				strings);
+
+		final List<SimilarityMatch> matches = index.search("quick fox", 0.6f);
+		assertEquals(3, matches.size());
+		assertEquals(3, matches.get(0).getId());
+		assertEquals(0, matches.get(1).getId());
+		assertEquals(1, matches.get(2).getId());
+		assertEquals(2 * 2 / 6.0f, matches.get(1).getSimilarity(), 0.0001f);
+	}
+
+	@Test
+	public void duplicates() {
+		final QGramIndex index = QGramIndex.forLevenshtein(qGram(2),
+				asList("abc", "abd", "abc"));
+		assertEquals(3, index.size());
+		assertEquals(asList(new SimilarityMatch(0, "abc", 1.0f),
+				new SimilarityMatch(2, "abc", 1.0f)), index.search("abc", 0.9f));
+	}
+
+	@Test
+	public void empty() {
+		final QGramIndex index = QGramIndex.forLevenshtein(qGram(2),
+				Collections.<String> emptyList());
+		assertEquals(0, index.size());
+		assertTrue(index.search("a", 0.0f).isEmpty());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void levenshteinRequiresQGrams() {
+		QGramIndex.forLevenshtein(whitespace(), asList("a"));
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void nullString() {
+		QGramIndex.forBlockDistance(qGram(2), asList("a", null));
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void nullQuery() {
+		QGramIndex.forBlockDistance(qGram(2), asList("a")).search(null, 0.5f);
+	}
+
+	private static List<SimilarityMatch> search(StringMetric metric,
+			List<String> strings, String query, float threshold) {
+		final List<SimilarityMatch> matches = new ArrayList<>();
+		for (int i = 0; i < strings.size(); i++) {
+			final float similarity = metric.compare(query, strings.get(i));
+			if (similarity >= threshold) {
+				matches.add(new SimilarityMatch(i, strings.get(i), similarity));
+			}
+		}
+		Collections.sort(matches, SimilarityMatch.BY_SIMILARITY);
+		return matches;
+	}
+
+	private List<String> randomStrings(int n, int minLength, int maxLength,
+			int alphabet) {
+		final List<String> strings = new ArrayList<>(n);
+		for (int i = 0; i < n; i++) {
+			final int length = minLength
+					+ random.nextInt(maxLength - minLength + 1);
+			final StringBuilder builder = new StringBuilder(length);
+			for (int j = 0; j < length; j++) {
+				builder.append((char) ('a' + random.nextInt(alphabet)));
+			}
+			strings.add(builder.toString());
+		}
+		return strings;
+	}
+}
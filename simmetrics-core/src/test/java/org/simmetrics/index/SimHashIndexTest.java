@@ -0,0 +1,179 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.index;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.nCopies;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.simmetrics.RandomStrings.LETTERS;
+import static org.simmetrics.RandomStrings.randomString;
+import static org.simmetrics.simplifiers.Simplifiers.toLowerCase;
+import static org.simmetrics.tokenizers.Tokenizers.qGram;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.simmetrics.metrics.SimHash;
+import org.simmetrics.tokenizers.Tokenizer;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public final class SimHashIndexTest {
+
+	private final Random random = new Random(5);
+
+	@Test
+	public void search() {
+		search(new SimHash<String>(), new int[] { 0, 1, 3, 6, 12, 40, 63 });
+	}
+
+	@Test
+	public void search128() {
+		search(new SimHash<String>(128), new int[] { 0, 1, 3, 12, 40, 100, 127 });
+	}
+
+	private void search(SimHash<String> simHash, int[] maxDistances) {
+		final Tokenizer tokenizer = qGram(3);
+		final List<String> strings = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			final String string = randomString(random, LETTERS, 30);
+			strings.add(string);
+			strings.add(mutate(string));
+		}
+
+		final List<long[]> fingerprints = new ArrayList<>();
+		for (String string : strings) {
+			fingerprints.add(simHash.fingerprint(tokenizer
+					.tokenizeToSet(string)));
+		}
+
+		for (int maxDistance : maxDistances) {
+			final SimHashIndex index = new SimHashIndex(simHash, maxDistance,
+					tokenizer, strings);
+			final int step = 1 + maxDistance / 4;
+			for (int q = 0; q < 100; q++) {
+				final String query = strings.get(q);
+				for (int distance = 0; distance <= maxDistance; distance += step) {
+					assertEquals(search(simHash, strings, fingerprints,
+							fingerprints.get(q), distance), index.search(
+							query, distance));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void oneTablePerBlockForFewStrings() {
+		final SimHashIndex index = new SimHashIndex(new SimHash<String>(), 3,
+				qGram(2), nCopies(2000, "a"));
+		assertEquals(4, index.getBlocks());
+		assertEquals(4, index.getTables());
+	}
+
+	@Test
+	public void longerKeysForManyStrings() {
+		final SimHashIndex index = new SimHashIndex(new SimHash<String>(), 3,
+				qGram(2), nCopies(1 << 16, "a"));
+		assertEquals(5, index.getBlocks());
+		assertEquals(10, index.getTables());
+	}
+
+	@Test
+	public void blocksOfAtMost64Bits() {
+		final SimHashIndex index = new SimHashIndex(new SimHash<String>(128),
+				0, qGram(2), asList("a"));
+		assertEquals(2, index.getBlocks());
+		assertEquals(1, index.getTables());
+	}
+
+	@Test
+	public void limitsTables() {
+		final SimHashIndex index = new SimHashIndex(new SimHash<String>(), 20,
+				qGram(2), nCopies(1 << 16, "a"));
+		assertEquals(21, index.getBlocks());
+		assertTrue(index.getTables() <= SimHashIndex.MAX_TABLES);
+	}
+
+	@Test
+	public void singleTableWhenBlocksNeedTooManyTables() {
+		final SimHashIndex index = new SimHashIndex(new SimHash<String>(128),
+				100, qGram(2), asList("a", "b"));
+		assertEquals(1, index.getTables());
+		assertEquals(2, index.search("a", 100).size());
+	}
+
+	@Test
+	public void simplifier() {
+		final SimHashIndex index = new SimHashIndex(new SimHash<String>(), 3,
+				toLowerCase(), qGram(2), asList("HELLO WORLD", "goodbye"));
+		assertEquals(asList(new SimilarityMatch(0, "HELLO WORLD", 1.0f)),
+				index.search("hello world"));
+	}
+
+	@Test
+	public void empty() {
+		final SimHashIndex index = new SimHashIndex(new SimHash<String>(), 3,
+				qGram(2), Collections.<String> emptyList());
+		assertEquals(0, index.size());
+		assertTrue(index.search("a").isEmpty());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void distanceAboveMaxDistance() {
+		new SimHashIndex(new SimHash<String>(), 3, qGram(2), asList("a"))
+				.search("a", 4);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void maxDistanceBelowBits() {
+		new SimHashIndex(new SimHash<String>(128), 128, qGram(2), asList("a"));
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void nullString() {
+		new SimHashIndex(new SimHash<String>(), 3, qGram(2),
+				asList("a", null));
+	}
+
+	private static List<SimilarityMatch> search(SimHash<String> simHash,
+			List<String> strings, List<long[]> fingerprints,
+			long[] fingerprint, int distance) {
+		final List<SimilarityMatch> matches = new ArrayList<>();
+		for (int i = 0; i < strings.size(); i++) {
+			final int d = simHash.distance(fingerprint, fingerprints.get(i));
+			if (d <= distance) {
+				matches.add(new SimilarityMatch(i, strings.get(i), simHash
+						.similarity(d)));
+			}
+		}
+		Collections.sort(matches, SimilarityMatch.BY_SIMILARITY);
+		return matches;
+	}
+
+	private String mutate(String string) {
+		final char[] chars = string.toCharArray();
+		chars[random.nextInt(chars.length)] = (char) ('a' + random.nextInt(26));
+		return new String(chars);
+	}
+}
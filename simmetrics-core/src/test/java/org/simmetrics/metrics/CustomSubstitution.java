@@ -0,0 +1,52 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.metrics;
+
+import org.simmetrics.metrics.functions.Substitution;
+
+/**
+ * Hides the type of a substitution function to force the generic algorithm.
+ */
+@SuppressWarnings("javadoc")
+final class CustomSubstitution implements Substitution {
+
+	private final Substitution substitution;
+
+	CustomSubstitution(Substitution substitution) {
+		this.substitution = substitution;
+	}
+
+	@Override
+	public float compare(String a, int aIndex, String b, int bIndex) {
+		return substitution.compare(a, aIndex, b, bIndex);
+	}
+
+	@Override
+	public float max() {
+		return substitution.max();
+	}
+
+	@Override
+	public float min() {
+		return substitution.min();
+	}
+
+}
@@ -20,6 +20,14 @@
 
 package org.simmetrics.metrics;
 
+import static java.lang.Math.min;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.simmetrics.RandomStrings.letters;
+import static org.simmetrics.RandomStrings.randomString;
+
+import java.util.Random;
+
 import org.junit.Test;
 import org.junit.experimental.runners.Enclosed;
 import org.junit.runner.RunWith;
@@ -367,4 +375,123 @@ public final class DamerauLevenshteinTest {
 			}
 		}
 	}
+
+	public static final class Bounded {
+
+		private final Random random = new Random(11);
+
+		private final DamerauLevenshtein[] metrics = new DamerauLevenshtein[] { new DamerauLevenshtein(),
+				new DamerauLevenshtein(0.5f, 1.0f, 1.0f),
+				new DamerauLevenshtein(1.0f, 1.5f, 0.5f),
+				new DamerauLevenshtein(0.3f, 0.1f, 2.0f)  };
+
+		@Test(expected = IllegalArgumentException.class)
+		public void shouldThrowForNegativeMaxDistance() {
+			new DamerauLevenshtein().distance("a", "b", -1.0f);
+		}
+
+		@Test(expected = IllegalArgumentException.class)
+		public void shouldThrowForMinSimilarityAboveOne() {
+			new DamerauLevenshtein().compareAtLeast("a", "b", 1.1f);
+		}
+
+		@Test
+		public void shouldRejectOnLengthDifference() {
+			assertEquals(Float.POSITIVE_INFINITY,
+					new DamerauLevenshtein().distance("abc", "abcdefgh", 4.0f), 0.0f);
+		}
+
+		@Test
+		public void distance() {
+			for (DamerauLevenshtein metric : metrics) {
+				for (int i = 0; i < 500; i++) {
+					final String a = randomString(random, letters(3), 0, 99);
+					final String b = randomString(random, letters(3), 0, 99);
+					final float distance = metric.distance(a, b);
+					final float maxDistance = random.nextInt(40)
+							* random.nextFloat();
+					final float expected = distance <= maxDistance ? distance
+							: Float.POSITIVE_INFINITY;
+					assertEquals(metric + " " + a + " " + b, expected,
+							metric.distance(a, b, maxDistance), 0.0f);
+				}
+			}
+		}
+
+		@Test
+		public void compareAtLeast() {
+			for (DamerauLevenshtein metric : metrics) {
+				for (int i = 0; i < 500; i++) {
+					final String a = randomString(random, letters(3), 0, 39);
+					final String b = randomString(random, letters(3), 0, 39);
+					final float minSimilarity = random.nextFloat();
+					assertEquals(metric + " " + a + " " + b,
+							metric.compare(a, b) >= minSimilarity,
+							metric.compareAtLeast(a, b, minSimilarity));
+					assertTrue(metric.compareAtLeast(a, b,
+							metric.compare(a, b)));
+				}
+			}
+		}
+	}
+
+	public static final class IntegralCosts {
+
+		private final Random random = new Random(17);
+
+		private final float[][] costs = { { 1.0f, 1.0f, 1.0f },
+				{ 2.0f, 1.0f, 3.0f }, { 1.0f, 0.0f, 2.0f },
+				{ 1 << 20, 1 << 21, 1 << 19 } };
+
+		@Test
+		public void distance() {
+			for (float[] cost : costs) {
+				DamerauLevenshtein metric = new DamerauLevenshtein(cost[0],
+						cost[1], cost[2]);
+				for (int i = 0; i < 500; i++) {
+					final String a = randomString(random, letters(3), 0, 39);
+					final String b = randomString(random, letters(3), 0, 39);
+					final float expected = distance(a, b, cost[0], cost[1],
+							cost[2]);
+					assertEquals(metric + " " + a + " " + b, expected,
+							metric.distance(a, b), 0.0f);
+
+					final float maxDistance = random.nextInt(20) * cost[0];
+					assertEquals(metric + " " + a + " " + b,
+							expected <= maxDistance ? expected
+									: Float.POSITIVE_INFINITY,
+							metric.distance(a, b, maxDistance), 0.0f);
+				}
+			}
+		}
+
+		/*
+		 * Reference float implementation with the full matrix.
+		 */
+		private static float distance(String s, String t, float insertDelete,
+				float substitute, float transpose) {
+			float[][] d = new float[s.length() + 1][t.length() + 1];
+			for (int i = 0; i <= s.length(); i++) {
+				d[i][0] = i * insertDelete;
+			}
+			for (int j = 0; j <= t.length(); j++) {
+				d[0][j] = j * insertDelete;
+			}
+			for (int i = 1; i <= s.length(); i++) {
+				for (int j = 1; j <= t.length(); j++) {
+					float cost = s.charAt(i - 1) == t.charAt(j - 1) ? 0.0f
+							: substitute;
+					d[i][j] = min(d[i - 1][j] + insertDelete,
+							min(d[i][j - 1] + insertDelete,
+									d[i - 1][j - 1] + cost));
+					if (i > 1 && j > 1 && s.charAt(i - 2) == t.charAt(j - 1)
+							&& s.charAt(i - 1) == t.charAt(j - 2)) {
+						d[i][j] = min(d[i][j], d[i - 2][j - 2]
+								+ transpose);
+					}
+				}
+			}
+			return d[s.length()][t.length()];
+		}
+	}
 }
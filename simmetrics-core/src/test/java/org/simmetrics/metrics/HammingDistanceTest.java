@@ -21,12 +21,14 @@
 package org.simmetrics.metrics;
 
 import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
 
 import java.util.List;
 
 import org.junit.Test;
 import org.junit.experimental.runners.Enclosed;
 import org.junit.runner.RunWith;
+import org.simmetrics.BoundedStringDistance;
 import org.simmetrics.Distance;
 import org.simmetrics.ListDistanceTest;
 import org.simmetrics.StringDistanceTest;
@@ -87,4 +89,32 @@ public final class HammingDistanceTest {
 
 	}
 
+	public final static class BoundedDistanceString {
+
+		private final BoundedStringDistance metric = (BoundedStringDistance) HammingDistance
+				.forString();
+
+		@Test
+		public void withinBound() {
+			assertEquals(2.0f, metric.distance("abcd", "abxy", 2.0f), 0.0f);
+			assertEquals(0.0f, metric.distance("", "", 0.0f), 0.0f);
+		}
+
+		@Test
+		public void exceedsBound() {
+			assertEquals(Float.POSITIVE_INFINITY,
+					metric.distance("abcd", "abxy", 1.5f), 0.0f);
+		}
+
+		@Test(expected = IllegalArgumentException.class)
+		public void negativeBound() {
+			metric.distance("abcd", "abxy", -1.0f);
+		}
+
+		@Test(expected = IllegalArgumentException.class)
+		public void differentLength() {
+			metric.distance("abcd", "abc", 10.0f);
+		}
+	}
+
 }
@@ -0,0 +1,209 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.metrics;
+
+import static java.lang.Math.max;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.simmetrics.RandomStrings.letters;
+import static org.simmetrics.RandomStrings.randomString;
+import static org.simmetrics.metrics.Alignment.Operation.DELETE;
+import static org.simmetrics.metrics.Alignment.Operation.INSERT;
+import static org.simmetrics.metrics.Alignment.Operation.MATCH;
+import static org.simmetrics.metrics.Alignment.Operation.SUBSTITUTE;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.simmetrics.metrics.Alignment.Operation;
+import org.simmetrics.metrics.functions.MatchMismatch;
+import org.simmetrics.metrics.functions.Substitution;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public final class HirschbergTest {
+
+	private static final Substitution substitution = new MatchMismatch(1.0f,
+			-2.0f);
+
+	private final Random random = new Random(19);
+
+	@Test
+	public void global() {
+		final Alignment alignment = new NeedlemanWunch(-1.0f, substitution)
+				.align("GATTACA", "GCATGCU");
+
+		assertEquals(global("GATTACA", "GCATGCU", -1.0f), alignment.getScore(),
+				0.0f);
+		assertEquals(0, alignment.getStartA());
+		assertEquals(7, alignment.getEndA());
+		assertEquals(0, alignment.getStartB());
+		assertEquals(7, alignment.getEndB());
+		assertEquals("GATTACA", alignment.getAlignedA().replace("-", ""));
+		assertEquals("GCATGCU", alignment.getAlignedB().replace("-", ""));
+	}
+
+	@Test
+	public void globalEmpty() {
+		final NeedlemanWunch metric = new NeedlemanWunch(-1.0f, substitution);
+		assertEquals(asList(INSERT, INSERT), metric.align("", "ab")
+				.getOperations());
+		assertEquals(asList(DELETE), metric.align("a", "").getOperations());
+		assertEquals(0, metric.align("", "").getOperations().size());
+	}
+
+	@Test
+	public void globalMatchesReference() {
+		for (float gapValue : new float[] { -0.5f, -1.0f, -3.0f }) {
+			for (int k = 0; k < 300; k++) {
+				final String a = randomString(random, letters(4), 0, 14);
+				final String b = randomString(random, letters(4), 0, 14);
+				final Alignment alignment = Hirschberg.global(a, b,
+						substitution, gapValue);
+
+				assertEquals(a + " " + b, global(a, b, gapValue),
+						alignment.getScore(), 0.0001f);
+				assertConsistent(alignment, a, b, gapValue);
+			}
+		}
+	}
+
+	@Test
+	public void local() {
+		final Alignment alignment = new SmithWatermanGotoh(-0.5f,
+				substitution).align("xxxHealedyyy", "zzHealthyzz");
+
+		assertEquals(4.0f, alignment.getScore(), 0.0f);
+		assertEquals("Heal", alignment.getAlignedA());
+		assertEquals("Heal", alignment.getAlignedB());
+		assertEquals(3, alignment.getStartA());
+		assertEquals(7, alignment.getEndA());
+		assertEquals(2, alignment.getStartB());
+		assertEquals(6, alignment.getEndB());
+		assertEquals(asList(MATCH, MATCH, MATCH, MATCH),
+				alignment.getOperations());
+	}
+
+	@Test
+	public void localWithoutMatches() {
+		final Alignment alignment = new SmithWatermanGotoh().align("aaa",
+				"bbb");
+		assertEquals(0.0f, alignment.getScore(), 0.0f);
+		assertEquals("", alignment.getAlignedA());
+		assertEquals("", alignment.getAlignedB());
+	}
+
+	@Test
+	public void localMatchesReference() {
+		for (float gapValue : new float[] { -0.5f, -1.0f, -3.0f }) {
+			for (int k = 0; k < 300; k++) {
+				final String a = randomString(random, letters(4), 0, 14);
+				final String b = randomString(random, letters(4), 0, 14);
+				final Alignment alignment = Hirschberg.local(a, b,
+						substitution, gapValue);
+
+				assertEquals(a + " " + b, local(a, b, gapValue),
+						alignment.getScore(), 0.0001f);
+				assertConsistent(alignment, a, b, gapValue);
+			}
+		}
+	}
+
+	@Test
+	public void localMatchesSmithWatermanGotoh() {
+		final SmithWatermanGotoh metric = new SmithWatermanGotoh();
+		for (int k = 0; k < 300; k++) {
+			final String a = randomString(random, letters(4), 1, 15);
+			final String b = randomString(random, letters(4), 1, 15);
+			final float score = metric.align(a, b).getScore();
+			assertEquals(metric.compare(a, b),
+					score / java.lang.Math.min(a.length(), b.length()),
+					0.0001f);
+		}
+	}
+
+	@Test
+	public void substitute() {
+		final Alignment alignment = new NeedlemanWunch(-5.0f, substitution)
+				.align("abc", "abd");
+		assertEquals(asList(MATCH, MATCH, SUBSTITUTE),
+				alignment.getOperations());
+	}
+
+	private static void assertConsistent(Alignment alignment, String a,
+			String b, float gapValue) {
+		int i = alignment.getStartA();
+		int j = alignment.getStartB();
+		float score = 0;
+		for (Operation operation : alignment.getOperations()) {
+			switch (operation) {
+			case MATCH:
+				assertEquals(a.charAt(i), b.charAt(j));
+				score += substitution.compare(a, i++, b, j++);
+				break;
+			case SUBSTITUTE:
+				assertEquals(false, a.charAt(i) == b.charAt(j));
+				score += substitution.compare(a, i++, b, j++);
+				break;
+			case DELETE:
+				score += gapValue;
+				i++;
+				break;
+			case INSERT:
+				score += gapValue;
+				j++;
+				break;
+			}
+		}
+		assertEquals(alignment.getEndA(), i);
+		assertEquals(alignment.getEndB(), j);
+		assertEquals(score, alignment.getScore(), 0.0001f);
+	}
+
+	private static float global(String a, String b, float gapValue) {
+		final float[][] d = new float[a.length() + 1][b.length() + 1];
+		for (int i = 0; i <= a.length(); i++) {
+			for (int j = 0; j <= b.length(); j++) {
+				if (i == 0 || j == 0) {
+					d[i][j] = (i + j) * gapValue;
+				} else {
+					d[i][j] = max(d[i - 1][j - 1]
+							+ substitution.compare(a, i - 1, b, j - 1),
+							max(d[i - 1][j], d[i][j - 1]) + gapValue);
+				}
+			}
+		}
+		return d[a.length()][b.length()];
+	}
+
+	private static float local(String a, String b, float gapValue) {
+		final float[][] d = new float[a.length() + 1][b.length() + 1];
+		float best = 0;
+		for (int i = 1; i <= a.length(); i++) {
+			for (int j = 1; j <= b.length(); j++) {
+				d[i][j] = max(0, max(d[i - 1][j - 1]
+						+ substitution.compare(a, i - 1, b, j - 1),
+						max(d[i - 1][j], d[i][j - 1]) + gapValue));
+				best = max(best, d[i][j]);
+			}
+		}
+		return best;
+	}
+}
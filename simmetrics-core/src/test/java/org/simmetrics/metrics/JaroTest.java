@@ -20,10 +20,18 @@
 
 package org.simmetrics.metrics;
 
+import static org.junit.Assert.assertEquals;
+import static org.simmetrics.RandomStrings.letters;
+import static org.simmetrics.RandomStrings.randomString;
+
+import java.util.Random;
+
+import org.junit.Test;
 import org.junit.experimental.runners.Enclosed;
 import org.junit.runner.RunWith;
 import org.simmetrics.Metric;
 import org.simmetrics.StringMetric;
+import org.simmetrics.PreparedQuery;
 import org.simmetrics.StringMetricTest;
 import org.simmetrics.metrics.Jaro;
 
@@ -162,4 +170,39 @@ public final class JaroTest {
 							"How to Find a Scholarship Online"), };
 		}
 	}
+
+	public static final class BitParallel {
+
+		private final Jaro metric = new Jaro();
+
+		private final Random random = new Random(4321);
+
+		@Test
+		public void matchesUnmasked() {
+			for (int i = 0; i < 5000; i++) {
+				String a = randomString(random, letters(4), 1, 64);
+				String b = randomString(random, letters(4), 1, 64);
+				float expected = Jaro.compareUnmasked(a, b);
+
+				assertEquals(a + " " + b, expected, metric.compare(a, b),
+						0.0f);
+				assertEquals(a + " " + b, expected, metric.prepare(a)
+						.compare(b), 0.0f);
+			}
+		}
+
+		@Test
+		public void matchesUnmaskedAroundMaskLength() {
+			for (int i = 0; i < 2000; i++) {
+				String a = randomString(random, letters(4), 60, 69);
+				String b = randomString(random, letters(4), 60, 69);
+				float expected = Jaro.compareUnmasked(a, b);
+
+				assertEquals(a + " " + b, expected, metric.compare(a, b),
+						0.0f);
+				PreparedQuery query = metric.prepare(a);
+				assertEquals(a + " " + b, expected, query.compare(b), 0.0f);
+			}
+		}
+	}
 }
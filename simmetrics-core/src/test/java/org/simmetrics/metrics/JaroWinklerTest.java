@@ -20,6 +20,14 @@
 
 package org.simmetrics.metrics;
 
+import static com.google.common.base.Strings.commonPrefix;
+import static java.lang.Math.min;
+import static org.junit.Assert.assertEquals;
+import static org.simmetrics.RandomStrings.randomString;
+
+import java.util.Random;
+
+import org.junit.Test;
 import org.junit.experimental.runners.Enclosed;
 import org.junit.runner.RunWith;
 import org.simmetrics.Metric;
@@ -155,4 +163,32 @@ public final class JaroWinklerTest   {
 							"How to Find a Scholarship Online"), };
 		}
 	}
+
+	public static final class CommonPrefix {
+
+		private final Random random = new Random(1234);
+
+		@Test
+		public void matchesStringsCommonPrefix() {
+			final String alphabet = "ab\uD83D\uDE00";
+			for (int maxPrefixLength = 0; maxPrefixLength < 6; maxPrefixLength++) {
+				JaroWinkler metric = new JaroWinkler(0.0f, 0.1f,
+						maxPrefixLength);
+				Jaro jaro = new Jaro();
+				for (int i = 0; i < 2000; i++) {
+					String a = randomString(random, alphabet, 0, 7);
+					String b = randomString(random, alphabet, 0, 7);
+
+					float jaroScore = jaro.compare(a, b);
+					int prefixLength = min(commonPrefix(a, b).length(),
+							maxPrefixLength);
+					float expected = jaroScore
+							+ (prefixLength * 0.1f * (1.0f - jaroScore));
+
+					assertEquals(a + " " + b, expected, metric.compare(a, b),
+							0.0f);
+				}
+			}
+		}
+	}
 }
@@ -20,6 +20,15 @@
 
 package org.simmetrics.metrics;
 
+import static java.lang.Math.min;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.simmetrics.RandomStrings.letters;
+import static org.simmetrics.RandomStrings.randomString;
+
+import java.util.Random;
+
+import org.junit.Test;
 import org.junit.experimental.runners.Enclosed;
 import org.junit.runner.RunWith;
 import org.simmetrics.Metric;
@@ -280,4 +289,167 @@ public final class LevenshteinTest {
 			}
 		}
 	}
+
+	public static final class BitParallel {
+
+		private final Random random = new Random(7);
+
+		@Test
+		public void singleWord() {
+			assertDistances(1, 64, 4);
+			assertDistances(1, 64, 26);
+		}
+
+		@Test
+		public void multipleWords() {
+			assertDistances(65, 200, 4);
+			assertDistances(65, 200, 26);
+		}
+
+		@Test
+		public void wordBoundaries() {
+			for (int length : new int[] { 63, 64, 65, 127, 128, 129 }) {
+				assertDistances(length, length, 3);
+			}
+		}
+
+		@Test
+		public void unicode() {
+			final Levenshtein levenshtein = new Levenshtein();
+			final String a = "\u00e9l\u00e8ve \u4e2d\u6587 \ud83d\ude00";
+			final String b = "eleve \u4e2d\u6587\u5b57 \ud83d\ude01";
+			assertEquals(reference(a, b, 1.0f, 1.0f),
+					levenshtein.distance(a, b), 0.0f);
+		}
+
+		private void assertDistances(int minLength, int maxLength,
+				int alphabet) {
+			final Levenshtein levenshtein = new Levenshtein();
+			for (int i = 0; i < 200; i++) {
+				final String a = randomString(random, letters(alphabet),
+						minLength, maxLength);
+				final String b = randomString(random, letters(alphabet), 1,
+						maxLength + 16);
+				assertEquals(a + " " + b, reference(a, b, 1.0f, 1.0f),
+						levenshtein.distance(a, b), 0.0f);
+				assertEquals(b + " " + a, reference(a, b, 1.0f, 1.0f),
+						levenshtein.distance(b, a), 0.0f);
+			}
+		}
+	}
+
+	public static final class Bounded {
+
+		private final Random random = new Random(11);
+
+		private final Levenshtein[] metrics = new Levenshtein[] { new Levenshtein(),
+				new Levenshtein(0.5f, 1.0f), new Levenshtein(1.0f, 1.5f),
+				new Levenshtein(0.3f, 0.1f)  };
+
+		@Test(expected = IllegalArgumentException.class)
+		public void shouldThrowForNegativeMaxDistance() {
+			new Levenshtein().distance("a", "b", -1.0f);
+		}
+
+		@Test(expected = IllegalArgumentException.class)
+		public void shouldThrowForMinSimilarityAboveOne() {
+			new Levenshtein().compareAtLeast("a", "b", 1.1f);
+		}
+
+		@Test
+		public void shouldRejectOnLengthDifference() {
+			assertEquals(Float.POSITIVE_INFINITY,
+					new Levenshtein().distance("abc", "abcdefgh", 4.0f), 0.0f);
+		}
+
+		@Test
+		public void distance() {
+			for (Levenshtein metric : metrics) {
+				for (int i = 0; i < 500; i++) {
+					final String a = randomString(random, letters(3), 0, 99);
+					final String b = randomString(random, letters(3), 0, 99);
+					final float distance = metric.distance(a, b);
+					final float maxDistance = random.nextInt(40)
+							* random.nextFloat();
+					final float expected = distance <= maxDistance ? distance
+							: Float.POSITIVE_INFINITY;
+					assertEquals(metric + " " + a + " " + b, expected,
+							metric.distance(a, b, maxDistance), 0.0f);
+				}
+			}
+		}
+
+		@Test
+		public void compareAtLeast() {
+			for (Levenshtein metric : metrics) {
+				for (int i = 0; i < 500; i++) {
+					final String a = randomString(random, letters(3), 0, 39);
+					final String b = randomString(random, letters(3), 0, 39);
+					final float minSimilarity = random.nextFloat();
+					assertEquals(metric + " " + a + " " + b,
+							metric.compare(a, b) >= minSimilarity,
+							metric.compareAtLeast(a, b, minSimilarity));
+					assertTrue(metric.compareAtLeast(a, b,
+							metric.compare(a, b)));
+				}
+			}
+		}
+	}
+
+	public static final class IntegralCosts {
+
+		private final Random random = new Random(17);
+
+		private final float[][] costs = { { 1.0f, 2.0f }, { 2.0f, 1.0f },
+				{ 3.0f, 0.0f }, { 1 << 20, 1 << 21 } };
+
+		@Test
+		public void distance() {
+			for (float[] cost : costs) {
+				Levenshtein metric = new Levenshtein(cost[0], cost[1]);
+				for (int i = 0; i < 500; i++) {
+					final String a = randomString(random, letters(3), 0, 39);
+					final String b = randomString(random, letters(3), 0, 39);
+					final float expected = reference(a, b, cost[0], cost[1]);
+					assertEquals(metric + " " + a + " " + b, expected,
+							metric.distance(a, b), 0.0f);
+
+					final float maxDistance = random.nextInt(20) * cost[0];
+					assertEquals(metric + " " + a + " " + b,
+							expected <= maxDistance ? expected
+									: Float.POSITIVE_INFINITY,
+							metric.distance(a, b, maxDistance), 0.0f);
+				}
+			}
+		}
+	}
+
+	/*
+	 * Reference float implementation with the full matrix. Like
+	 * Levenshtein the distance to an empty string is the length of the
+	 * other string.
+	 */
+	private static float reference(String s, String t, float insertDelete,
+			float substitute) {
+		if (s.isEmpty() || t.isEmpty()) {
+			return s.length() + t.length();
+		}
+		float[][] d = new float[s.length() + 1][t.length() + 1];
+		for (int i = 0; i <= s.length(); i++) {
+			d[i][0] = i * insertDelete;
+		}
+		for (int j = 0; j <= t.length(); j++) {
+			d[0][j] = j * insertDelete;
+		}
+		for (int i = 1; i <= s.length(); i++) {
+			for (int j = 1; j <= t.length(); j++) {
+				float cost = s.charAt(i - 1) == t.charAt(j - 1) ? 0.0f
+						: substitute;
+				d[i][j] = min(d[i - 1][j] + insertDelete,
+						min(d[i][j - 1] + insertDelete,
+								d[i - 1][j - 1] + cost));
+			}
+		}
+		return d[s.length()][t.length()];
+	}
 }
@@ -0,0 +1,189 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.simmetrics.RandomStrings.letters;
+import static org.simmetrics.RandomStrings.randomString;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public final class MetricWorkspaceTest {
+
+	private final Random random = new Random(31);
+
+	@Test
+	public void reusesRows() {
+		MetricWorkspace workspace = new MetricWorkspace();
+		float[] floats = workspace.floats(0, 10);
+		int[] ints = workspace.ints(1, 10);
+		long[] longs = workspace.longs(0, 10);
+
+		assertTrue(floats.length >= 10);
+		assertSame(floats, workspace.floats(0, 5));
+		assertSame(ints, workspace.ints(1, 10));
+		assertSame(longs, workspace.longs(0, 1));
+		assertNotSame(floats, workspace.floats(1, 10));
+	}
+
+	@Test
+	public void growsRows() {
+		MetricWorkspace workspace = new MetricWorkspace();
+		float[] small = workspace.floats(0, 10);
+		float[] large = workspace.floats(0, 11);
+
+		assertNotSame(small, large);
+		assertTrue(large.length >= 20);
+		assertSame(large, workspace.floats(0, 11));
+	}
+
+	@Test
+	public void doesNotRetainLargeRows() {
+		MetricWorkspace workspace = new MetricWorkspace();
+		int length = MetricWorkspace.MAX_RETAINED_LENGTH + 1;
+		float[] small = workspace.floats(0, 10);
+		float[] large = workspace.floats(0, length);
+
+		assertEquals(length, large.length);
+		assertNotSame(large, workspace.floats(0, length));
+		assertSame(small, workspace.floats(0, 10));
+	}
+
+	@Test
+	public void clearsBooleans() {
+		MetricWorkspace workspace = new MetricWorkspace();
+		boolean[] booleans = workspace.booleans(10);
+		for (int i = 0; i < booleans.length; i++) {
+			booleans[i] = true;
+		}
+
+		booleans = workspace.booleans(10);
+		for (int i = 0; i < 10; i++) {
+			assertFalse(booleans[i]);
+		}
+	}
+
+	@Test
+	public void resetsMasks() {
+		MetricWorkspace workspace = new MetricWorkspace();
+		for (int i = 0; i < 200; i++) {
+			String pattern = randomString(random, letters(6), 1, 200);
+			PatternMasks expected = new PatternMasks(pattern);
+			PatternMasks masks = workspace.masks(pattern);
+
+			assertEquals(expected.length(), masks.length());
+			assertEquals(expected.words(), masks.words());
+			for (char c = 'a'; c <= 'f'; c++) {
+				for (int w = 0; w < masks.words(); w++) {
+					assertEquals(expected.get(c, w), masks.get(c, w));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void releasedWorkspaceIsReused() {
+		MetricWorkspace workspace = MetricWorkspace.acquire();
+		workspace.release();
+
+		// Other workspaces released by this thread may be found first
+		List<MetricWorkspace> acquired = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			acquired.add(MetricWorkspace.acquire());
+		}
+		assertTrue(acquired.contains(workspace));
+
+		for (MetricWorkspace w : acquired) {
+			w.release();
+		}
+	}
+
+	@Test
+	public void poolSize() {
+		assertEquals(4, MetricWorkspace.poolSize(1));
+		assertEquals(4, MetricWorkspace.poolSize(2));
+		assertEquals(8, MetricWorkspace.poolSize(3));
+		assertEquals(16, MetricWorkspace.poolSize(8));
+		assertEquals(1024, MetricWorkspace.poolSize(4096));
+	}
+
+	@Test
+	public void concurrentComparisons() throws Exception {
+		final Levenshtein levenshtein = new Levenshtein(1.0f, 2.0f);
+		final DamerauLevenshtein damerauLevenshtein = new DamerauLevenshtein();
+		final List<String> strings = new ArrayList<>();
+		for (int i = 0; i < 64; i++) {
+			strings.add(randomString(random, letters(6), 0, 99));
+		}
+
+		final float[] expected = new float[strings.size() * strings.size()];
+		for (int i = 0; i < strings.size(); i++) {
+			for (int j = 0; j < strings.size(); j++) {
+				expected[i * strings.size() + j] = levenshtein.distance(
+						strings.get(i), strings.get(j))
+						+ damerauLevenshtein.distance(strings.get(i),
+								strings.get(j));
+			}
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Boolean>> futures = new ArrayList<>();
+			for (int t = 0; t < 16; t++) {
+				futures.add(executor.submit(new Callable<Boolean>() {
+					@Override
+					public Boolean call() {
+						for (int i = 0; i < strings.size(); i++) {
+							for (int j = 0; j < strings.size(); j++) {
+								float actual = levenshtein.distance(
+										strings.get(i), strings.get(j))
+										+ damerauLevenshtein.distance(
+												strings.get(i), strings.get(j));
+								if (actual != expected[i * strings.size() + j]) {
+									return false;
+								}
+							}
+						}
+						return true;
+					}
+				}));
+			}
+			for (Future<Boolean> future : futures) {
+				assertTrue(future.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
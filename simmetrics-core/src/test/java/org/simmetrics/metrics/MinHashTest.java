@@ -0,0 +1,156 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.metrics;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.simmetrics.tokenizers.Tokenizers.qGram;
+import static org.simmetrics.tokenizers.Tokenizers.whitespace;
+
+import java.util.Collections;
+import java.util.Set;
+
+import org.junit.Test;
+import org.simmetrics.SetMetric;
+import org.simmetrics.SetMetricTest;
+import org.simmetrics.StringMetric;
+import org.simmetrics.StringMetricBuilder;
+import org.simmetrics.tokenizers.Tokenizer;
+
+@SuppressWarnings("javadoc")
+public final class MinHashTest extends SetMetricTest {
+
+	@Override
+	protected SetMetric<String> getMetric() {
+		return new MinHash<>(1024);
+	}
+
+	@Override
+	protected float getDelta() {
+		return 0.05f;
+	}
+
+	@Override
+	protected Tokenizer getTokenizer() {
+		return whitespace();
+	}
+
+	@Override
+	protected T[] getSetTests() {
+		return new T[] {
+				new T(0.3333f, "test string1", "test string2"),
+				new T(0.5000f, "test", "test string2"),
+				new T(0.0000f, "", "test string2"),
+				new T(0.6000f, "aaa bbb ccc ddd", "aaa bbb ccc eee"),
+				new T(0.6000f, "a b c d", "a b c e"),
+				new T(0.0000f, "Healed", "Sealed"),
+				new T(0.2000f, "Sam J Chapman", "Samuel John Chapman"),
+				new T(0.3333f, "Sam Chapman", "S Chapman"),
+				new T(0.2500f, "John Smith", "Samuel John Chapman"),
+				new T(0.0000f, "John Smith", "Sam Chapman"),
+				new T(0.4286f, "Web Database Applications",
+						"Web Database Applications with PHP & MySQL"),
+				new T(0.3750f, "Web Database Applications",
+						"Creating Database Web Applications with PHP and ASP"),
+				new T(0.1429f, "Web Database Applications",
+						"Web Application Development With PHP"),
+				new T(0.1250f, "Web Aplications",
+						"Web Database Applications with PHP & MySQL"),
+				new T(0.0000f, "Web Aplications",
+						"How to Find a Scholarship Online") };
+	}
+
+	@Test
+	public void errorBound() {
+		final MinHash<String> minHash = new MinHash<>(256);
+		final SetMetric<String> jaccard = new JaccardSimilarity<>();
+		final Tokenizer tokenizer = qGram(3);
+		final float error = minHash.getError(0.99f);
+
+		final String[] strings = { "Apple iPhone 6 16GB Space Grey",
+				"Apple iPhone 6 Plus 16GB Space Gray",
+				"Samsung Galaxy S6 32GB Black Sapphire",
+				"Samsung Galaxy S6 Edge 32GB Black",
+				"Apple iPhone 6s 64GB Space Grey Unlocked" };
+
+		for (String a : strings) {
+			for (String b : strings) {
+				final Set<String> sa = tokenizer.tokenizeToSet(a);
+				final Set<String> sb = tokenizer.tokenizeToSet(b);
+				assertEquals(jaccard.compare(sa, sb), minHash.compare(sa, sb),
+						error);
+			}
+		}
+	}
+
+	@Test
+	public void error() {
+		final MinHash<String> minHash = new MinHash<>(200);
+		// sqrt(ln(2 / 0.05) / 400)
+		assertEquals(0.0960f, minHash.getError(0.95f), 0.0001f);
+		assertTrue(minHash.getError(0.99f) > minHash.getError(0.95f));
+		assertTrue(new MinHash<String>(800).getError(0.95f) < minHash
+				.getError(0.95f));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void errorConfidenceOne() {
+		new MinHash<String>(128).getError(1.0f);
+	}
+
+	@Test
+	public void signature() {
+		final MinHash<String> minHash = new MinHash<>(64, 42);
+		final Set<String> set = whitespace().tokenizeToSet("a b c");
+
+		assertEquals(64, minHash.signature(set).length);
+		assertArrayEquals(minHash.signature(set),
+				new MinHash<String>(64, 42).signature(set));
+		assertEquals(1.0f, minHash.compare(minHash.signature(set),
+				minHash.signature(set)), 0.0f);
+
+		for (int h : minHash.signature(Collections.<String> emptySet())) {
+			assertEquals(Integer.MAX_VALUE, h);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void signatureLength() {
+		final MinHash<String> minHash = new MinHash<>(64);
+		minHash.compare(new int[64], new int[32]);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void zeroHashes() {
+		new MinHash<String>(0);
+	}
+
+	@Test
+	public void builder() {
+		final StringMetric metric = StringMetricBuilder
+				.with(new MinHash<String>(512)).tokenize(qGram(3)).build();
+
+		assertEquals(1.0f, metric.compare("Healed", "Healed"), 0.0f);
+		assertEquals(0.6f, metric.compare("Healed", "Sealed"), 0.1f);
+	}
+
+}
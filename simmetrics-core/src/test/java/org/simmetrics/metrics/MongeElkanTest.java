@@ -20,6 +20,14 @@
 
 package org.simmetrics.metrics;
 
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
 import org.simmetrics.ListMetric;
 import org.simmetrics.ListMetricTest;
 import org.simmetrics.StringMetric;
@@ -71,4 +79,66 @@ public final class MongeElkanTest extends ListMetricTest {
 		};
 	}
 
+	@Test
+	public void comparesDistinctPairsOnce() {
+		final int[] comparisons = new int[1];
+		MongeElkan mongeElkan = new MongeElkan(new StringMetric() {
+
+			@Override
+			public float compare(String a, String b) {
+				comparisons[0]++;
+				return a.equals(b) ? 1.0f : 0.0f;
+			}
+		});
+
+		// (a,a) is a perfect match for both a's, (a,c), (b,a) and (b,c) are
+		// not. Both directions share these four comparisons.
+		mongeElkan.compare(asList("a", "a", "b"), asList("a", "c", "c"));
+		assertEquals(4, comparisons[0]);
+
+		// (b,a) is not compared once b and a both have a perfect match
+		comparisons[0] = 0;
+		mongeElkan.compare(asList("a", "b"), asList("b", "a"));
+		assertEquals(3, comparisons[0]);
+	}
+
+	@Test
+	public void equalToComparingBothDirections() {
+		final StringMetric jaroWinkler = new JaroWinkler();
+		final MongeElkan mongeElkan = new MongeElkan(jaroWinkler);
+		final Random random = new Random(23);
+
+		for (int n = 0; n < 500; n++) {
+			List<String> a = randomTokens(random);
+			List<String> b = randomTokens(random);
+
+			float expected = (float) java.lang.Math.sqrt(similarity(
+					jaroWinkler, a, b) * similarity(jaroWinkler, b, a));
+			assertEquals(expected, mongeElkan.compare(a, b), 0.0f);
+		}
+	}
+
+	private static float similarity(StringMetric metric, List<String> a,
+			List<String> b) {
+		float sum = 0.0f;
+		for (String s : a) {
+			float max = 0.0f;
+			for (String q : b) {
+				max = java.lang.Math.max(max, metric.compare(s, q));
+			}
+			sum += max;
+		}
+		return sum / a.size();
+	}
+
+	private static List<String> randomTokens(Random random) {
+		final String[] words = { "acme", "acne", "corp", "corporation",
+				"inc", "international", "int", "holdings", "holding" };
+		List<String> tokens = new ArrayList<>();
+		for (int i = 1 + random.nextInt(6); i > 0; i--) {
+			tokens.add(words[random.nextInt(words.length)]);
+		}
+		return tokens;
+	}
+
 }
@@ -0,0 +1,92 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.simmetrics.metrics;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Multiset;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public final class MultisetCountsTest {
+
+	private final Random random = new Random(17);
+
+	@Test
+	public void empty() {
+		Multiset<String> empty = HashMultiset.create();
+
+		assertEquals(0, MultisetCounts.intersection(empty, empty));
+		assertEquals(0, MultisetCounts.sumOfSquares(empty, empty));
+	}
+
+	@Test
+	public void nullElements() {
+		Multiset<String> a = HashMultiset.create(asList("a", null, null));
+		Multiset<String> b = HashMultiset.create(asList(null, "b"));
+
+		assertEquals(1, MultisetCounts.intersection(a, b));
+		assertEquals(3, MultisetCounts.sumOfSquares(a, b));
+	}
+
+	@Test
+	public void doesNotModify() {
+		Multiset<String> a = HashMultiset.create(asList("a", "a", "b"));
+		Multiset<String> b = HashMultiset.create(asList("a", "c"));
+
+		MultisetCounts.intersection(a, b);
+		MultisetCounts.sumOfSquares(a, b);
+
+		assertEquals(HashMultiset.create(asList("a", "a", "b")), a);
+		assertEquals(HashMultiset.create(asList("a", "c")), b);
+	}
+
+	@Test
+	public void matchesTokenCounts() {
+		for (int n = 0; n < 200; n++) {
+			List<String> a = randomTokens();
+			List<String> b = randomTokens();
+			TokenCounts counts = new TokenCounts(a, b);
+			Multiset<String> multisetA = HashMultiset.create(a);
+			Multiset<String> multisetB = HashMultiset.create(b);
+
+			assertEquals((a.size() + b.size() - counts.sumOfAbsolutes()) / 2,
+					MultisetCounts.intersection(multisetA, multisetB));
+			assertEquals(counts.sumOfSquares(),
+					MultisetCounts.sumOfSquares(multisetA, multisetB));
+		}
+	}
+
+	private List<String> randomTokens() {
+		List<String> tokens = new ArrayList<>();
+		for (int i = random.nextInt(20); i > 0; i--) {
+			tokens.add(String.valueOf((char) ('a' + random.nextInt(8))));
+		}
+		return tokens;
+	}
+
+}
@@ -20,12 +20,20 @@
 
 package org.simmetrics.metrics;
 
+import static org.junit.Assert.assertEquals;
+import static org.simmetrics.RandomStrings.letters;
+import static org.simmetrics.RandomStrings.randomString;
+
+import java.util.Random;
+
+import org.junit.Test;
 import org.junit.experimental.runners.Enclosed;
 import org.junit.runner.RunWith;
 import org.simmetrics.StringMetric;
 import org.simmetrics.StringMetricTest;
 import org.simmetrics.metrics.NeedlemanWunch;
 import org.simmetrics.metrics.functions.MatchMismatch;
+import org.simmetrics.metrics.functions.Substitution;
 
 @SuppressWarnings("javadoc")
 @RunWith(Enclosed.class)
@@ -177,4 +185,33 @@ public final class NeedlemanWunchTest {
 					new T(0.7700f, "John Smith", "S Chapman"), };
 		}
 	}
+
+	public static final class IntegralCosts {
+
+		private final Random random = new Random(17);
+
+		private final float[][] values = { { -2.0f, 0.0f, -1.0f },
+				{ -1.0f, 1.0f, -2.0f }, { 0.0f, 3.0f, -3.0f },
+				{ -(1 << 20), 1 << 21, -(1 << 19) } };
+
+		@Test
+		public void matchesFloatAlgorithm() {
+			for (float[] value : values) {
+				Substitution substitution = new MatchMismatch(value[1],
+						value[2]);
+				NeedlemanWunch integral = new NeedlemanWunch(value[0],
+						substitution);
+				NeedlemanWunch generic = new NeedlemanWunch(value[0],
+						new CustomSubstitution(substitution));
+
+				for (int i = 0; i < 500; i++) {
+					final String a = randomString(random, letters(3), 0, 39);
+					final String b = randomString(random, letters(3), 0, 39);
+					assertEquals(integral + " " + a + " " + b,
+							generic.compare(a, b), integral.compare(a, b),
+							0.0f);
+				}
+			}
+		}
+	}
 }
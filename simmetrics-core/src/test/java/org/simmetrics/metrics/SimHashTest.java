@@ -0,0 +1,130 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.metrics;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.simmetrics.tokenizers.Tokenizers.qGram;
+import static org.simmetrics.tokenizers.Tokenizers.whitespace;
+
+import java.util.Collections;
+import java.util.Set;
+
+import org.junit.Test;
+import org.simmetrics.SetMetric;
+import org.simmetrics.SetMetricTest;
+import org.simmetrics.tokenizers.Tokenizer;
+
+@SuppressWarnings("javadoc")
+public final class SimHashTest extends SetMetricTest {
+
+	@Override
+	protected SetMetric<String> getMetric() {
+		return new SimHash<>(128);
+	}
+
+	@Override
+	protected Tokenizer getTokenizer() {
+		return whitespace();
+	}
+
+	@Override
+	protected boolean satisfiesSubadditivity() {
+		return false;
+	}
+
+	@Override
+	protected T[] getSetTests() {
+		return new T[] {
+				new T(0.7071f, "test string1", "test string2"),
+				new T(0.6895f, "test", "test string2"),
+				new T(0.0000f, "", "test string2"),
+				new T(0.8701f, "aaa bbb ccc ddd", "aaa bbb ccc eee"),
+				new T(0.8449f, "a b c d", "a b c e"),
+				new T(0.0491f, "Healed", "Sealed"),
+				new T(0.2430f, "Sam J Chapman", "Samuel John Chapman"),
+				new T(0.6344f, "Sam Chapman", "S Chapman"),
+				new T(0.5350f, "John Smith", "Samuel John Chapman"),
+				new T(0.2667f, "John Smith", "Sam Chapman"),
+				new T(0.7572f, "Web Database Applications",
+						"Web Database Applications with PHP & MySQL"),
+				new T(0.5758f, "Web Database Applications",
+						"Creating Database Web Applications with PHP and ASP"),
+				new T(0.2191f, "Web Aplications",
+						"Web Database Applications with PHP & MySQL") };
+	}
+
+	@Test
+	public void approximatesCosineSimilarity() {
+		final SimHash<String> simHash = new SimHash<>(128);
+		final SetMetric<String> cosine = new CosineSimilarity<>();
+		final Tokenizer tokenizer = qGram(2);
+
+		final String[] strings = {
+				"The quick brown fox jumps over the lazy dog",
+				"The quick brown fox jumped over the lazy dogs",
+				"A quick brown dog jumps over the lazy fox",
+				"Pack my box with five dozen liquor jugs" };
+
+		for (String a : strings) {
+			for (String b : strings) {
+				final Set<String> sa = tokenizer.tokenizeToSet(a);
+				final Set<String> sb = tokenizer.tokenizeToSet(b);
+				assertEquals(cosine.compare(sa, sb), simHash.compare(sa, sb),
+						0.2f);
+			}
+		}
+	}
+
+	@Test
+	public void fingerprint() {
+		final SimHash<String> simHash = new SimHash<>();
+		final Set<String> set = whitespace().tokenizeToSet("a b c");
+
+		assertEquals(64, simHash.getBits());
+		assertEquals(1, simHash.fingerprint(set).length);
+		assertEquals(2, new SimHash<String>(128).fingerprint(set).length);
+		assertArrayEquals(new long[1],
+				simHash.fingerprint(Collections.<String> emptySet()));
+		assertEquals(0, simHash.distance(simHash.fingerprint(set),
+				simHash.fingerprint(set)));
+	}
+
+	@Test
+	public void hammingDistanceToSimilarity() {
+		final SimHash<String> simHash = new SimHash<>(64);
+		assertEquals(1.0f, simHash.similarity(0), 0.0f);
+		assertEquals(0.7071f, simHash.similarity(16), 0.0001f);
+		assertEquals(0.0f, simHash.similarity(32), 0.0001f);
+		assertEquals(0.0f, simHash.similarity(64), 0.0f);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void fingerprintLength() {
+		new SimHash<String>(128).distance(new long[2], new long[1]);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unsupportedBits() {
+		new SimHash<String>(32);
+	}
+
+}
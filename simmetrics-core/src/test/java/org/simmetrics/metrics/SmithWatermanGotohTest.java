@@ -20,12 +20,24 @@
 
 package org.simmetrics.metrics;
 
+import static org.junit.Assert.assertEquals;
+import static org.simmetrics.RandomStrings.randomString;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.simmetrics.PreparedQuery;
 import org.simmetrics.StringMetric;
 import org.simmetrics.StringMetricTest;
 import org.simmetrics.metrics.SmithWatermanGotoh;
+import org.simmetrics.metrics.functions.MatchMismatch;
+import org.simmetrics.metrics.functions.Substitution;
 
 @SuppressWarnings("javadoc")
 public final class SmithWatermanGotohTest extends StringMetricTest {
+
+	// Includes characters outside ASCII
+	private static final String ALPHABET = "abc\u00e9\u4e2d";
 	
 	@Override
 	protected boolean satisfiesSubadditivity() {
@@ -103,4 +115,45 @@ public final class SmithWatermanGotohTest extends StringMetricTest {
 
 		};
 	}
+
+	@Test
+	public void matchMismatchMatchesGenericAlgorithm() {
+		final Random random = new Random(23);
+		final Substitution substitution = new MatchMismatch(1.0f, -2.0f);
+		final SmithWatermanGotoh fast = new SmithWatermanGotoh(-0.5f,
+				substitution);
+		final SmithWatermanGotoh generic = new SmithWatermanGotoh(-0.5f,
+				new CustomSubstitution(substitution));
+
+		for (int i = 0; i < 500; i++) {
+			final String a = randomString(random, ALPHABET, 1, 20);
+			final String b = randomString(random, ALPHABET, 1, 20);
+			final PreparedQuery prepared = fast.prepare(a);
+
+			assertEquals(generic.compare(a, b), fast.compare(a, b), 0.0f);
+			assertEquals(generic.compare(a, b), prepared.compare(b), 0.0f);
+			assertEquals(generic.compare(a, b), generic.prepare(a).compare(b),
+					0.0f);
+		}
+	}
+
+	@Test
+	public void preparedQueryWithoutProfile() {
+		final Random random = new Random(29);
+		final SmithWatermanGotoh metric = new SmithWatermanGotoh();
+
+		// 500 distinct characters in 1000 are too many to profile
+		final StringBuilder query = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			query.append((char) ('\u0100' + random.nextInt(500)));
+		}
+		final PreparedQuery prepared = metric.prepare(query.toString());
+
+		for (int i = 0; i < 20; i++) {
+			final String candidate = query.substring(random.nextInt(900))
+					+ randomString(random, ALPHABET, 0, 19);
+			assertEquals(metric.compare(query.toString(), candidate),
+					prepared.compare(candidate), 0.0f);
+		}
+	}
 }
@@ -20,9 +20,22 @@
 
 package org.simmetrics.metrics;
 
+import static org.junit.Assert.assertEquals;
+import static org.simmetrics.RandomStrings.letters;
+import static org.simmetrics.RandomStrings.randomString;
+
+import java.util.Random;
+
+import org.junit.Test;
 import org.simmetrics.StringMetric;
 import org.simmetrics.StringMetricTest;
 import org.simmetrics.metrics.SmithWaterman;
+import org.simmetrics.metrics.functions.AffineGap;
+import org.simmetrics.metrics.functions.ConstantGap;
+import org.simmetrics.metrics.functions.Gap;
+import org.simmetrics.metrics.functions.LinearGap;
+import org.simmetrics.metrics.functions.MatchMismatch;
+import org.simmetrics.metrics.functions.Substitution;
 
 
 @SuppressWarnings("javadoc")
@@ -108,4 +121,68 @@ public class SmithWatermanTest extends StringMetricTest {
 						"How to Find a Scholarship Online"), };
 	
 	}
+
+	/*
+	 * Hides the type of a gap function to force the generic algorithm.
+	 */
+	private static final class CustomGap implements Gap {
+		private final Gap gap;
+
+		CustomGap(Gap gap) {
+			this.gap = gap;
+		}
+
+		@Override
+		public float value(int fromIndex, int toIndex) {
+			return gap.value(fromIndex, toIndex);
+		}
+
+		@Override
+		public float max() {
+			return gap.max();
+		}
+
+		@Override
+		public float min() {
+			return gap.min();
+		}
+	}
+
+	@Test
+	public void gotohMatchesGenericAlgorithm() {
+		final Random random = new Random(17);
+		final Gap[] gaps = { new AffineGap(-5.0f, -1.0f),
+				new AffineGap(-2.0f, -0.5f), new LinearGap(-1.0f),
+				new LinearGap(-2.0f), new ConstantGap(-2.0f),
+				new ConstantGap(-0.5f) };
+		final Substitution[] substitutions = { new MatchMismatch(5.0f, -3.0f),
+				new MatchMismatch(1.0f, -2.0f) };
+
+		for (Gap gap : gaps) {
+			for (Substitution substitution : substitutions) {
+				final SmithWaterman gotoh = new SmithWaterman(gap,
+						substitution, Integer.MAX_VALUE);
+				final SmithWaterman generic = new SmithWaterman(new CustomGap(
+						gap), substitution, Integer.MAX_VALUE);
+
+				for (int i = 0; i < 200; i++) {
+					final String a = randomString(random, letters(3), 1, 20);
+					final String b = randomString(random, letters(3), 1, 20);
+					assertEquals(a + " " + b + " " + gap,
+							generic.compare(a, b), gotoh.compare(a, b), 0.0001f);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void smallWindowUsesGenericAlgorithm() {
+		final SmithWaterman windowed = new SmithWaterman(new AffineGap(-5.0f,
+				-1.0f), new MatchMismatch(5.0f, -3.0f), 2);
+		final SmithWaterman generic = new SmithWaterman(new CustomGap(
+				new AffineGap(-5.0f, -1.0f)), new MatchMismatch(5.0f, -3.0f), 2);
+
+		assertEquals(generic.compare("aaabbbccc", "aaacccbbb"),
+				windowed.compare("aaabbbccc", "aaacccbbb"), 0.0f);
+	}
 }
@@ -0,0 +1,111 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.simmetrics.metrics;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public final class SortedIdsTest {
+
+	private final Random random = new Random(11);
+
+	@Test
+	public void empty() {
+		assertEquals(0, SortedIds.intersection(new int[0], new int[0]));
+		assertEquals(0, SortedIds.sumOfSquares(new int[0], new int[0]));
+		assertEquals(0, SortedIds.intersection(new int[0], new int[] { 1 }));
+		assertEquals(1, SortedIds.sumOfSquares(new int[0], new int[] { 1 }));
+	}
+
+	@Test
+	public void bags() {
+		int[] a = { 0, 0, 1, 3, 3, 3 };
+		int[] b = { 0, 2, 3, 3 };
+
+		assertEquals(3, SortedIds.intersection(a, b));
+		assertEquals(1 + 1 + 1 + 1, SortedIds.sumOfSquares(a, b));
+	}
+
+	@Test
+	public void matchesCounts() {
+		for (int n = 0; n < 200; n++) {
+			int[] a = randomIds();
+			int[] b = randomIds();
+
+			int[] countsA = counts(a);
+			int[] countsB = counts(b);
+			int intersection = 0;
+			long sumOfSquares = 0;
+			for (int id = 0; id < countsA.length; id++) {
+				intersection += java.lang.Math.min(countsA[id], countsB[id]);
+				long difference = countsA[id] - countsB[id];
+				sumOfSquares += difference * difference;
+			}
+
+			assertEquals(intersection, SortedIds.intersection(a, b));
+			assertEquals(sumOfSquares, SortedIds.sumOfSquares(a, b));
+		}
+	}
+
+	private int[] randomIds() {
+		int[] ids = new int[random.nextInt(20)];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = random.nextInt(8);
+		}
+		Arrays.sort(ids);
+		return ids;
+	}
+
+	private static int[] counts(int[] ids) {
+		int[] counts = new int[8];
+		for (int id : ids) {
+			counts[id]++;
+		}
+		return counts;
+	}
+
+	@Test
+	public void packedTokens() {
+		for (int n = 0; n < 200; n++) {
+			int[] a = randomIds();
+			int[] b = randomIds();
+
+			assertEquals(SortedIds.intersection(a, b),
+					SortedIds.intersection(toPacked(a), toPacked(b)));
+			assertEquals(SortedIds.sumOfSquares(a, b),
+					SortedIds.sumOfSquares(toPacked(a), toPacked(b)));
+		}
+	}
+
+	private static long[] toPacked(int[] ids) {
+		long[] packed = new long[ids.length];
+		for (int i = 0; i < ids.length; i++) {
+			// Spread ids over the full range of longs, keeping their order
+			packed[i] = Long.MIN_VALUE + ((long) ids[i] << 60);
+		}
+		return packed;
+	}
+
+}
@@ -0,0 +1,89 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.metrics;
+
+import static java.lang.Math.abs;
+import static java.util.Arrays.asList;
+import static java.util.Collections.frequency;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public final class TokenCountsTest {
+
+	private final Random random = new Random(7);
+
+	@Test
+	public void empty() {
+		TokenCounts counts = new TokenCounts(new ArrayList<String>(),
+				new ArrayList<String>());
+
+		assertEquals(0, counts.sumOfAbsolutes());
+		assertEquals(0, counts.sumOfSquares());
+	}
+
+	@Test
+	public void nullTokens() {
+		TokenCounts counts = new TokenCounts(asList("a", null, null),
+				asList(null, "b"));
+
+		assertEquals(3, counts.sumOfAbsolutes());
+		assertEquals(3, counts.sumOfSquares());
+	}
+
+	@Test
+	public void matchesFrequency() {
+		for (int i = 0; i < 200; i++) {
+			List<Integer> a = randomList(random.nextInt(100));
+			List<Integer> b = randomList(random.nextInt(100));
+			TokenCounts counts = new TokenCounts(a, b);
+
+			Set<Integer> all = new HashSet<>(a);
+			all.addAll(b);
+			long absolutes = 0;
+			long squares = 0;
+			for (Integer token : all) {
+				int difference = frequency(a, token) - frequency(b, token);
+				absolutes += abs(difference);
+				squares += difference * difference;
+			}
+
+			assertEquals(absolutes, counts.sumOfAbsolutes());
+			assertEquals(squares, counts.sumOfSquares());
+		}
+	}
+
+	private List<Integer> randomList(int size) {
+		List<Integer> list = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			// Multiples of a large power of two collide in the table
+			list.add(random.nextInt(20) << 20);
+		}
+		return list;
+	}
+}
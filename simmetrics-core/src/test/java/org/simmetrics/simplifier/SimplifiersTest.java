@@ -20,14 +20,22 @@
 package org.simmetrics.simplifier;
 
 import static junit.framework.Assert.assertSame;
+import static org.junit.Assert.assertEquals;
+import static org.simmetrics.RandomStrings.randomString;
 import static org.simmetrics.simplifiers.Simplifiers.chain;
 import static org.simmetrics.simplifiers.Simplifiers.removeNonWord;
 import static org.simmetrics.simplifiers.Simplifiers.replaceNonWord;
 import static org.simmetrics.simplifiers.Simplifiers.toLowerCase;
 
+import java.text.Normalizer;
+import java.text.Normalizer.Form;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.regex.Pattern;
 
 import org.junit.Test;
 import org.junit.experimental.runners.Enclosed;
@@ -176,6 +184,214 @@ public final class SimplifiersTest {
 
 	}
 
+	public static final class WithFusedChain extends SimplifierTest {
+
+		@Override
+		protected Simplifier getSimplifier() {
+			return chain(Simplifiers.removeDiacritics(),
+					Simplifiers.toLowerCase(Locale.ENGLISH), removeNonWord());
+		}
+
+		@Override
+		protected T[] getTests() {
+			return new T[] {
+					new T("Chilpéric II son of Childeric II",
+							"chilpericiisonofchildericii"),
+					new T("^Straße 11^", "strae11"),
+					new T("İstanbul", "istanbul"), new T("", "") };
+		}
+
+	}
+
+	public static final class WithPartiallyFusedChain extends SimplifierTest {
+
+		@Override
+		protected Simplifier getSimplifier() {
+			return chain(Simplifiers.toUpperCase(Locale.ENGLISH),
+					replaceNonWord(), toSheep(),
+					Simplifiers.removeDiacritics(), replaceNonWord("-"));
+		}
+
+		@Override
+		protected T[] getTests() {
+			return new T[] { new T("a", "A-Sheep"),
+					new T("Chilpéric II", "CHILP-RIC-II-Sheep"),
+					new T("", "-Sheep") };
+		}
+
+	}
+
+	public static final class Fused {
+
+		private static List<List<Simplifier>> chains() {
+			return Arrays.asList(
+					chainOf(Simplifiers.removeDiacritics(),
+							Simplifiers.toLowerCase(Locale.ENGLISH),
+							replaceNonWord()),
+					chainOf(Simplifiers.toLowerCase(Locale.ROOT),
+							removeNonWord()),
+					chainOf(Simplifiers.toUpperCase(Locale.ENGLISH),
+							Simplifiers.removeDiacritics(),
+							Simplifiers.replaceAll("\\W+", " ")),
+					chainOf(Simplifiers.removeDiacritics(),
+							Simplifiers.toUpperCase(Locale.ROOT)),
+					chainOf(Simplifiers.toLowerCase(Locale.ROOT),
+							Simplifiers.toUpperCase(Locale.ROOT),
+							Simplifiers.toLowerCase(Locale.ROOT)),
+					chainOf(replaceNonWord("ß"),
+							Simplifiers.toUpperCase(Locale.ENGLISH)),
+					chainOf(replaceNonWord("Σ"),
+							Simplifiers.toLowerCase(Locale.ENGLISH)),
+					chainOf(Simplifiers.toLowerCase(new Locale("tr")),
+							Simplifiers.removeDiacritics()),
+					chainOf(Simplifiers.replaceAll("\\W", "[$0]"),
+							Simplifiers.toUpperCase(Locale.ROOT)));
+		}
+
+		private static List<Simplifier> chainOf(Simplifier... simplifiers) {
+			return Arrays.asList(simplifiers);
+		}
+
+		private static String simplifyEach(List<Simplifier> simplifiers,
+				String input) {
+			for (Simplifier s : simplifiers) {
+				input = s.simplify(input);
+			}
+			return input;
+		}
+
+		@Test
+		public void simplifiesEachCharacterAsEach() {
+			for (List<Simplifier> simplifiers : chains()) {
+				final Simplifier chain = chain(simplifiers);
+				for (char c = 0; c < Character.MAX_VALUE; c++) {
+					final String input = "A" + c + "\u0301b";
+					assertEquals(simplifiers.toString(),
+							simplifyEach(simplifiers, input),
+							chain.simplify(input));
+				}
+			}
+		}
+
+		@Test
+		public void simplifiesAsEach() {
+			final Random random = new Random(1);
+			for (List<Simplifier> simplifiers : chains()) {
+				final Simplifier chain = chain(simplifiers);
+				for (int i = 0; i < 2000; i++) {
+					final String input = randomString(random, CHARACTERS, 0, 11);
+					assertEquals(simplifiers.toString(),
+							simplifyEach(simplifiers, input),
+							chain.simplify(input));
+				}
+			}
+		}
+
+		@Test
+		public void simplifiesLongInput() {
+			final List<Simplifier> simplifiers = chains().get(0);
+			final String input = com.google.common.base.Strings.repeat(
+					"Chilpéric II son of Childeric II ", 100);
+			assertEquals(simplifyEach(simplifiers, input),
+					chain(simplifiers).simplify(input));
+		}
+
+		@Test
+		public void simplifiesShortInputAfterVeryLongInput() {
+			final List<Simplifier> simplifiers = chains().get(0);
+			final Simplifier chain = chain(simplifiers);
+			final String input = com.google.common.base.Strings.repeat(
+					"Chilpéric II son of Childeric II ", 200);
+			assertEquals(simplifyEach(simplifiers, input),
+					chain.simplify(input));
+			assertEquals(simplifyEach(simplifiers, "Chilpéric II"),
+					chain.simplify("Chilpéric II"));
+		}
+
+		@Test
+		public void toStringOfEach() {
+			final List<Simplifier> simplifiers = chains().get(0);
+			assertEquals(simplifiers.get(0) + " -> " + simplifiers.get(1)
+					+ " -> " + simplifiers.get(2), chain(simplifiers)
+					.toString());
+		}
+	}
+
+	public static final class Single {
+
+		private static String simplify(String name, String input) {
+			switch (name) {
+			case "removeDiacritics":
+				return Pattern
+						.compile(
+								"[\\p{InCombiningDiacriticalMarks}\\p{IsLm}\\p{IsSk}]+")
+						.matcher(Normalizer.normalize(input, Form.NFD))
+						.replaceAll("");
+			case "removeNonWord":
+				return input.replaceAll("\\W+", "");
+			case "replaceNonWord":
+				return input.replaceAll("\\W", " ");
+			default:
+				throw new IllegalArgumentException(name);
+			}
+		}
+
+		private static Simplifier create(String name) {
+			switch (name) {
+			case "removeDiacritics":
+				return Simplifiers.removeDiacritics();
+			case "removeNonWord":
+				return removeNonWord();
+			case "replaceNonWord":
+				return replaceNonWord();
+			default:
+				throw new IllegalArgumentException(name);
+			}
+		}
+
+		private static final String[] NAMES = { "removeDiacritics",
+				"removeNonWord", "replaceNonWord" };
+
+		@Test
+		public void simplifiesEachCharacterAsRegex() {
+			for (String name : NAMES) {
+				final Simplifier simplifier = create(name);
+				for (char c = 0; c < Character.MAX_VALUE; c++) {
+					final String input = "A" + c + "\u0301b";
+					assertEquals(name, simplify(name, input),
+							simplifier.simplify(input));
+				}
+			}
+		}
+
+		@Test
+		public void simplifiesAsRegex() {
+			final Random random = new Random(1);
+			for (String name : NAMES) {
+				final Simplifier simplifier = create(name);
+				for (int i = 0; i < 2000; i++) {
+					final String input = randomString(random, CHARACTERS, 0, 11);
+					assertEquals(name, simplify(name, input),
+							simplifier.simplify(input));
+				}
+			}
+		}
+
+		@Test
+		public void returnsUnchangedInput() {
+			final String input = "Chilperic II son of Childeric II";
+			assertSame(input, Simplifiers.removeDiacritics().simplify(input));
+			final String word = "ChilpericII";
+			assertSame(word, removeNonWord().simplify(word));
+		}
+	}
+
+	private static final String CHARACTERS = "aZ09_ ^`-$\\\t"
+			+ "éÉñßÿµ\u00C6\u0130\u0131\u0149\u01C4\u01F0\u0141"
+			+ "ΣσςΆΐ\u0345\u0300\u0301\u0327\u05B0\u0591"
+			+ "йЁ\u1E9E\uAC00\u4E2D\u9FFF\u3099\u304C\uFB00"
+			+ "\uD83D\uDE00\uD800";
+
 	static Simplifier reverseCapitalized() {
 		return new Simplifier() {
 
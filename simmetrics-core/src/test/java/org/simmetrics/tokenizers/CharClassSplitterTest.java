@@ -0,0 +1,176 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package org.simmetrics.tokenizers;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.simmetrics.RandomStrings.randomString;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public final class CharClassSplitterTest {
+
+	private static final String[] SUPPORTED = { ",", " ", "a", "\\s", "\\s+",
+			"\\S", "\\d+", "\\D", "\\w", "\\W+", "\\.", "\\|", "\\++",
+			"[,;]", "[,; ]+", "[^a-z]", "[^a-z]+", "[a-c\\d]", "[\\W\\d]+",
+			"[^\\s]", "[.+]", "[\\-x]" };
+
+	private static final String[] UNSUPPORTED = { "", "ab", ",*", "\\s*",
+			"\\s+?", "\\s++", "[a-z&&[^b]]", "\\p{Punct}", "\\t", "\\1",
+			"\\u00E9", "\u00E9", "[\u00E9]", "[a-]", "[-a]", "[]", "[^]",
+			"[z-a]", "[a", ".", "(,)", "a|b", "[\\s-a]" };
+
+	private static final String CHARACTERS = "aAzZ09_ ,;.+|-\t\n\u000B\r"
+			+ "\u0085\u00A0\u00E9\u2003\u4E2D\uD83D\uDE00\uD800";
+
+	@Test
+	public void supported() {
+		for (String regex : SUPPORTED) {
+			assertNotNull(regex, CharClassSplitter.compile(Pattern
+					.compile(regex)));
+		}
+	}
+
+	@Test
+	public void unsupported() {
+		for (String regex : UNSUPPORTED) {
+			Pattern pattern;
+			try {
+				pattern = Pattern.compile(regex);
+			} catch (RuntimeException e) {
+				continue;
+			}
+			assertNull(regex, CharClassSplitter.compile(pattern));
+		}
+		assertNull(CharClassSplitter.compile(Pattern.compile(",",
+				Pattern.CASE_INSENSITIVE)));
+	}
+
+	@Test
+	public void splitsAsPattern() {
+		final Random random = new Random(1);
+		for (String regex : SUPPORTED) {
+			final Pattern pattern = Pattern.compile(regex);
+			final CharClassSplitter splitter = CharClassSplitter
+					.compile(pattern);
+			for (int i = 0; i < 2000; i++) {
+				final String input = randomString(random, CHARACTERS, 0, 11);
+				final String[] tokens = splitter.split(input);
+				if (tokens != null) {
+					assertArrayEquals(regex + " " + input,
+							pattern.split(input, -1), tokens);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void splitsNonEmptyAsPattern() {
+		final Random random = new Random(1);
+		for (String regex : SUPPORTED) {
+			final Pattern pattern = Pattern.compile(regex);
+			final CharClassSplitter splitter = CharClassSplitter
+					.compile(pattern);
+			for (int i = 0; i < 2000; i++) {
+				final String input = randomString(random, CHARACTERS, 0, 11);
+				final String[] tokens = splitter.splitNonEmpty(input);
+				if (tokens != null) {
+					assertArrayEquals(regex + " " + input,
+							nonEmpty(pattern.split(input, -1)), tokens);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void splitsRangesAsStrings() {
+		final Random random = new Random(1);
+		for (String regex : SUPPORTED) {
+			final CharClassSplitter splitter = CharClassSplitter
+					.compile(Pattern.compile(regex));
+			for (int i = 0; i < 2000; i++) {
+				final String input = randomString(random, CHARACTERS, 0, 11);
+				final String prefix = randomString(random, CHARACTERS, 0, 11);
+				final String padded = prefix + input + randomString(random, CHARACTERS, 0, 11);
+				final int start = prefix.length();
+				final int end = start + input.length();
+
+				final List<String> tokens = new ArrayList<>();
+				final boolean split = splitter.split(padded, start, end,
+						collect(tokens));
+				assertRangeTokens(regex + " " + input, splitter.split(input),
+						split, tokens);
+
+				tokens.clear();
+				final boolean splitNonEmpty = splitter.splitNonEmpty(padded,
+						start, end, collect(tokens));
+				assertRangeTokens(regex + " " + input,
+						splitter.splitNonEmpty(input), splitNonEmpty, tokens);
+			}
+		}
+	}
+
+	@Test
+	public void surrogates() {
+		final String input = "a\uD83D\uDE00b";
+		assertNull(CharClassSplitter.compile(Pattern.compile("\\W")).split(
+				input));
+		assertArrayEquals(new String[] { input },
+				CharClassSplitter.compile(Pattern.compile(",")).split(input));
+	}
+
+	private static void assertRangeTokens(String message, String[] expected,
+			boolean split, List<String> tokens) {
+		assertEquals(message, expected != null, split);
+		if (expected != null) {
+			assertEquals(message, asList(expected), tokens);
+		} else {
+			assertTrue(message, tokens.isEmpty());
+		}
+	}
+
+	private static TokenConsumer collect(final List<String> tokens) {
+		return new TokenConsumer() {
+
+			@Override
+			public void accept(String input, int start, int end) {
+				tokens.add(input.substring(start, end));
+			}
+		};
+	}
+
+	private static String[] nonEmpty(String[] tokens) {
+		final List<String> nonEmpty = new ArrayList<>(asList(tokens));
+		nonEmpty.removeAll(asList(""));
+		return nonEmpty.toArray(new String[nonEmpty.size()]);
+	}
+
+}
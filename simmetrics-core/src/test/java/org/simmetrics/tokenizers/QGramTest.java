@@ -20,10 +20,19 @@
 
 package org.simmetrics.tokenizers;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.simmetrics.RandomStrings.randomString;
 import static org.simmetrics.tokenizers.Tokenizers.qGram;
 import static org.simmetrics.tokenizers.Tokenizers.qGramWithFilter;
 import static org.simmetrics.tokenizers.Tokenizers.qGramWithPadding;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Random;
+
+import org.junit.Test;
 import org.junit.experimental.runners.Enclosed;
 import org.junit.runner.RunWith;
 import org.simmetrics.tokenizers.Tokenizer;
@@ -204,4 +213,67 @@ public final class QGramTest {
 			};
 		}
 	}
+
+	public static final class Packed {
+
+		private static final String CHARS = "ab#\u0000\ud800\udc00\uffff";
+
+		private final Random random = new Random(13);
+
+		@Test
+		public void shouldPackAllQGrams() {
+			for (int q = 1; q <= 4; q++) {
+				for (int n = 0; n < 200; n++) {
+					String input = randomString(random, CHARS, 0, 11);
+					assertPacked(qGramWithFilter(q), input);
+					assertPacked(qGramWithPadding(q), input);
+					assertPacked(qGramWithPadding(q, "\uffff", "\u0000"),
+							input);
+					if (input.isEmpty() || input.length() >= q) {
+						assertPacked(qGram(q), input);
+					}
+				}
+			}
+		}
+
+		@Test
+		public void shouldNotPackShortInput() {
+			assertNull(((PackedTokenizer) qGram(3)).tokenizeToPackedBag("ab"));
+			assertNull(((PackedTokenizer) qGram(3)).tokenizeToPackedSet("ab"));
+		}
+
+		@Test
+		public void shouldNotPackLongQGrams() {
+			assertNull(((PackedTokenizer) qGram(5))
+					.tokenizeToPackedBag("abcdef"));
+			assertNull(((PackedTokenizer) qGramWithPadding(5))
+					.tokenizeToPackedSet("abcdef"));
+		}
+
+		private static void assertPacked(Tokenizer tokenizer, String input) {
+			PackedTokenizer packing = (PackedTokenizer) tokenizer;
+			long[] bag = packing.tokenizeToPackedBag(input);
+			long[] set = packing.tokenizeToPackedSet(input);
+			assertNotNull(bag);
+			assertNotNull(set);
+
+			assertArrayEquals(pack(tokenizer.tokenizeToList(input)), bag);
+			assertArrayEquals(pack(tokenizer.tokenizeToSet(input)), set);
+		}
+
+		private static long[] pack(Collection<String> tokens) {
+			long[] packed = new long[tokens.size()];
+			int i = 0;
+			for (String token : tokens) {
+				for (int j = 0; j < token.length(); j++) {
+					packed[i] = (packed[i] << Character.SIZE)
+							| token.charAt(j);
+				}
+				i++;
+			}
+			Arrays.sort(packed);
+			return packed;
+		}
+	}
+
 }
@@ -0,0 +1,171 @@
+/*
+ * #%L
+ * Simmetrics Core
+ * %%
+ * Copyright (C) 2014 - 2015 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.simmetrics.tokenizers;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+@SuppressWarnings({ "javadoc", "static-method" })
+public final class TokenDictionaryTest {
+
+	@Test
+	public void denseIds() {
+		TokenDictionary dictionary = new TokenDictionary();
+
+		assertEquals(0, dictionary.id("a"));
+		assertEquals(1, dictionary.id("b"));
+		assertEquals(0, dictionary.id("a"));
+		assertEquals(2, dictionary.id("c"));
+		assertEquals(3, dictionary.size());
+	}
+
+	@Test
+	public void bag() {
+		TokenDictionary dictionary = new TokenDictionary();
+		dictionary.id("c");
+		dictionary.id("b");
+
+		assertArrayEquals(new int[] { 0, 0, 1, 2 },
+				dictionary.bag(asList("b", "c", "a", "c")));
+		assertArrayEquals(new int[0],
+				dictionary.bag(Collections.<String> emptyList()));
+	}
+
+	@Test
+	public void set() {
+		TokenDictionary dictionary = new TokenDictionary();
+
+		assertArrayEquals(new int[] { 0, 1, 2 },
+				dictionary.set(asList("a", "b", "a", "c", "b")));
+		assertArrayEquals(new int[] { 2 }, dictionary.set(asList("c", "c")));
+		assertArrayEquals(new int[0],
+				dictionary.set(Collections.<String> emptyList()));
+	}
+
+	@Test
+	public void lookupDoesNotAddTokens() {
+		TokenDictionary dictionary = new TokenDictionary();
+		dictionary.id("a");
+		TokenDictionary.Lookup lookup = dictionary.lookup();
+
+		assertEquals(0, lookup.id("a"));
+		assertEquals(-1, lookup.id("b"));
+		assertEquals(-2, lookup.id("c"));
+		assertEquals(-1, lookup.id("b"));
+		assertEquals(1, dictionary.size());
+	}
+
+	@Test
+	public void lookupBagAndSet() {
+		TokenDictionary dictionary = new TokenDictionary();
+		dictionary.id("b");
+		TokenDictionary.Lookup lookup = dictionary.lookup();
+
+		assertArrayEquals(new int[] { -2, -1, -1, 0 },
+				lookup.bag(asList("c", "b", "c", "d")));
+		assertArrayEquals(new int[] { -2, -1, 0 },
+				lookup.set(asList("c", "b", "c", "d")));
+	}
+
+	@Test
+	public void extendedLookupSharesUnknownIds() {
+		TokenDictionary dictionary = new TokenDictionary();
+		TokenDictionary.Lookup query = dictionary.lookup();
+		query.id("a");
+		query.id("b");
+
+		TokenDictionary.Lookup first = query.extend();
+		assertEquals(-2, first.id("b"));
+		assertEquals(-3, first.id("c"));
+
+		TokenDictionary.Lookup second = query.extend();
+		assertEquals(-3, second.id("d"));
+		assertEquals(-1, second.id("a"));
+		assertEquals(0, dictionary.size());
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void nullToken() {
+		new TokenDictionary().id(null);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void nullTokenInBag() {
+		new TokenDictionary().bag(asList("a", null));
+	}
+
+	@Test
+	public void concurrentIds() throws Exception {
+		final TokenDictionary dictionary = new TokenDictionary();
+		final int tokens = 1000;
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<int[]>> futures = new ArrayList<>();
+			for (int t = 0; t < 4; t++) {
+				futures.add(executor.submit(new Callable<int[]>() {
+					@Override
+					public int[] call() {
+						int[] ids = new int[tokens];
+						for (int i = 0; i < tokens; i++) {
+							ids[i] = dictionary.id("token" + i);
+						}
+						return ids;
+					}
+				}));
+			}
+
+			int[] expected = futures.get(0).get();
+			for (Future<int[]> future : futures) {
+				assertArrayEquals(expected, future.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		assertEquals(tokens, dictionary.size());
+		boolean[] seen = new boolean[tokens];
+		for (int i = 0; i < tokens; i++) {
+			seen[dictionary.id("token" + i)] = true;
+		}
+		for (boolean s : seen) {
+			assertEquals(true, s);
+		}
+	}
+
+	@Test
+	public void implementsToString() {
+		TokenDictionary dictionary = new TokenDictionary();
+		dictionary.id("a");
+
+		assertEquals("TokenDictionary [size=1]", dictionary.toString());
+	}
+
+}
@@ -23,6 +23,7 @@ package org.simmetrics.tokenizers;
 import static java.util.Arrays.asList;
 import static org.junit.Assert.*;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
@@ -34,6 +35,9 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.simmetrics.tokenizers.Tokenizer;
 
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Multiset;
+
 @SuppressWarnings("javadoc")
 public abstract class TokenizerTest {
 
@@ -61,6 +65,10 @@ public abstract class TokenizerTest {
 			return new HashSet<>(tokensAsList());
 		}
 
+		public Multiset<String> tokensAsMultiset() {
+			return HashMultiset.create(tokensAsList());
+		}
+
 	}
 
 	private static void testTokens(String string, Collection<String> expected,
@@ -84,6 +92,10 @@ public abstract class TokenizerTest {
 		return true;
 	}
 
+	protected boolean supportsTokenizeToMultiset() {
+		return true;
+	}
+
 	protected abstract Tokenizer getTokenizer();
 
 	@Before
@@ -159,4 +171,59 @@ public abstract class TokenizerTest {
 		tokenizer.tokenizeToSet(null);
 	}
 
+	@Test
+	public final void shouldTokenizeToMultiset() {
+		if (!supportsTokenizeToMultiset()) {
+			thrown.expect(UnsupportedOperationException.class);
+		}
+
+		for (T t : tests) {
+			testTokens(t.string(), t.tokensAsMultiset(),
+					Tokenizers.tokenizeToMultiset(tokenizer, t.string()));
+		}
+	}
+
+	@Test
+	public final void tokenizeToMultisetShouldThrowNullPointerException() {
+		if (supportsTokenizeToMultiset()) {
+			thrown.expect(NullPointerException.class);
+		} else {
+			thrown.expect(UnsupportedOperationException.class);
+		}
+		Tokenizers.tokenizeToMultiset(tokenizer, null);
+	}
+
+	@Test
+	public final void shouldTokenizeToPackedTokens() {
+		if (!(tokenizer instanceof PackedTokenizer)) {
+			return;
+		}
+		final PackedTokenizer packing = (PackedTokenizer) tokenizer;
+
+		for (T t : tests) {
+			long[] bag = packing.tokenizeToPackedBag(t.string());
+			long[] set = packing.tokenizeToPackedSet(t.string());
+			if (bag == null) {
+				assertNull(set);
+				continue;
+			}
+
+			assertArrayEquals(pack(t.tokensAsList()), bag);
+			assertArrayEquals(pack(t.tokensAsSet()), set);
+		}
+	}
+
+	private static long[] pack(Collection<String> tokens) {
+		long[] packed = new long[tokens.size()];
+		int i = 0;
+		for (String token : tokens) {
+			for (int j = 0; j < token.length(); j++) {
+				packed[i] = (packed[i] << Character.SIZE) | token.charAt(j);
+			}
+			i++;
+		}
+		Arrays.sort(packed);
+		return packed;
+	}
+
 }
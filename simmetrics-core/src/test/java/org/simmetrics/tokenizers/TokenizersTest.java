@@ -33,6 +33,8 @@ import static org.simmetrics.tokenizers.Tokenizers.whitespace;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 
 import org.junit.Test;
 import org.junit.experimental.runners.Enclosed;
@@ -65,6 +67,23 @@ public final class TokenizersTest {
 
 	}
 
+	public static final class FilteringListOnlyTokenizerTest extends
+			TokenizerTest {
+
+		@Override
+		protected T[] getTests() {
+			return new T[] {
+					new T("the mouse and cat or dog", "mouse", "cat", "dog"),
+					new T("", "") };
+		}
+
+		@Override
+		protected Tokenizer getTokenizer() {
+			return Tokenizers.filter(listOnly(pattern("\\s+")), theAndOr());
+		}
+
+	}
+
 	public static final class FilteringTokenizerTest extends TokenizerTest {
 
 		@Override
@@ -197,6 +216,23 @@ public final class TokenizersTest {
 			}
 		}
 
+		public static final class WithFilterAndTransform extends
+				TokenizerTest {
+
+			@Override
+			protected T[] getTests() {
+				return new T[] {
+						new T("the mouse and cat or dog", "MOU", "OUS", "USE",
+								"CAT", "DOG"), new T("") };
+			}
+
+			@Override
+			protected Tokenizer getTokenizer() {
+				return chain(whitespace(), filter(qGram(3), theAndOr()),
+						transform(whitespace(), toUpperCase()));
+			}
+		}
+
 		public static final class WithIllegalArguments {
 
 			@Test(expected = IllegalArgumentException.class)
@@ -407,6 +443,30 @@ public final class TokenizersTest {
 		};
 	}
 
+	/*
+	 * A tokenizer that does not implement MultisetTokenizer, as written
+	 * against the Tokenizer interface before it was introduced.
+	 */
+	static Tokenizer listOnly(final Tokenizer tokenizer) {
+		return new Tokenizer() {
+
+			@Override
+			public List<String> tokenizeToList(String input) {
+				return tokenizer.tokenizeToList(input);
+			}
+
+			@Override
+			public Set<String> tokenizeToSet(String input) {
+				return tokenizer.tokenizeToSet(input);
+			}
+
+			@Override
+			public String toString() {
+				return "listOnly(" + tokenizer + ")";
+			}
+		};
+	}
+
 	static Predicate<String> theAndOr() {
 		return not(in(asList("the", "and", "or")));
 	}
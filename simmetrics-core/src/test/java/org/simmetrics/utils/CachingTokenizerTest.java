@@ -21,10 +21,13 @@
 package org.simmetrics.utils;
 
 import org.junit.Test;
+import org.simmetrics.tokenizers.MultisetTokenizer;
 import org.simmetrics.tokenizers.Tokenizer;
+import org.simmetrics.tokenizers.Tokenizers;
 import org.simmetrics.tokenizers.TokenizerTest;
 import org.simmetrics.utils.CachingTokenizer;
 
+import static com.google.common.collect.HashMultiset.create;
 import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Sets.newHashSet;
 import static org.mockito.Mockito.*;
@@ -32,12 +35,12 @@ import static org.mockito.Mockito.*;
 @SuppressWarnings({ "javadoc", "deprecation" })
 public class CachingTokenizerTest extends TokenizerTest {
 
-	private Tokenizer innerTokenizer;
+	private MultisetTokenizer innerTokenizer;
 
 	@Override
 	protected final Tokenizer getTokenizer() {
 		
-		innerTokenizer = mock(Tokenizer.class);
+		innerTokenizer = mock(MultisetTokenizer.class);
 		
 		when(innerTokenizer.tokenizeToList("ABC")).thenReturn(newArrayList("ABC"));
 		when(innerTokenizer.tokenizeToList("CCC")).thenReturn(newArrayList("CCC"));
@@ -49,6 +52,11 @@ public class CachingTokenizerTest extends TokenizerTest {
 		when(innerTokenizer.tokenizeToSet("EEE")).thenReturn(newHashSet("EEE"));
 		when(innerTokenizer.tokenizeToSet("")).thenReturn(newHashSet(""));
 
+		when(innerTokenizer.tokenizeToMultiset("ABC")).thenReturn(create(newArrayList("ABC")));
+		when(innerTokenizer.tokenizeToMultiset("CCC")).thenReturn(create(newArrayList("CCC")));
+		when(innerTokenizer.tokenizeToMultiset("EEE")).thenReturn(create(newArrayList("EEE")));
+		when(innerTokenizer.tokenizeToMultiset("")).thenReturn(create(newArrayList("")));
+
 		
 		return new CachingTokenizer(2,2,innerTokenizer);
 	}
@@ -84,5 +92,15 @@ public class CachingTokenizerTest extends TokenizerTest {
 		 verify(innerTokenizer, times(1)).tokenizeToSet("ABC");
 		 verify(innerTokenizer, times(2)).tokenizeToSet("CCC");
 	}
-	
+
+	@Test
+	public final void tokenizeToMultisetShouldUseCache() {
+		for (T t : tests) {
+			Tokenizers.tokenizeToMultiset(tokenizer, t.string());
+		}
+
+		 verify(innerTokenizer, times(1)).tokenizeToMultiset("ABC");
+		 verify(innerTokenizer, times(2)).tokenizeToMultiset("CCC");
+	}
+
 }